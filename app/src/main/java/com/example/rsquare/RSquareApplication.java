@@ -5,6 +5,17 @@ import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.os.Build;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ProcessLifecycleOwner;
+
+import com.example.rsquare.data.local.AppDatabase;
+import com.example.rsquare.data.remote.NetworkModule;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.repository.MarketDataRepository;
+import com.example.rsquare.domain.TriggerEngine;
+
 /**
  * Application 클래스
  * 앱 전역 설정 및 초기화
@@ -20,8 +31,32 @@ public class RSquareApplication extends Application {
     public void onCreate() {
         super.onCreate();
         
+        // HTTP 디스크 캐시 위치 (네트워크 클라이언트 생성 전에)
+        NetworkModule.init(this);
+        
         // 알림 채널 생성
         createNotificationChannels();
+        
+        // 심볼 레지스트리 복원 후 하루 지났으면 거래소 정보로 갱신
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            SymbolRegistry.getInstance().load(getFilesDir());
+            new MarketDataRepository().refreshSymbolRegistry();
+        });
+        
+        // 실시간 TP / SL / 청산 감시는 앱이 포그라운드일 때만
+        // (WorkManager가 워커 실행만을 위해 프로세스를 깨운 경우에는 WebSocket을 열지 않음)
+        TriggerEngine triggerEngine = TriggerEngine.getInstance(this);
+        ProcessLifecycleOwner.get().getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStart(@NonNull LifecycleOwner owner) {
+                triggerEngine.start();
+            }
+            
+            @Override
+            public void onStop(@NonNull LifecycleOwner owner) {
+                triggerEngine.stop();
+            }
+        });
     }
     
     private void createNotificationChannels() {
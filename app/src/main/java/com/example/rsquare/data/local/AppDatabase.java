@@ -9,15 +9,19 @@ import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 
 import com.example.rsquare.data.local.dao.BadgeDao;
+import com.example.rsquare.data.local.dao.CandleDao;
 import com.example.rsquare.data.local.dao.ChallengeDao;
 import com.example.rsquare.data.local.dao.JournalDao;
+import com.example.rsquare.data.local.dao.LastPriceDao;
 import com.example.rsquare.data.local.dao.PositionDao;
 import com.example.rsquare.data.local.dao.TradeHistoryDao;
 import com.example.rsquare.data.local.dao.UserDao;
 import com.example.rsquare.data.local.dao.UserSettingsDao;
 import com.example.rsquare.data.local.entity.Badge;
+import com.example.rsquare.data.local.entity.Candle;
 import com.example.rsquare.data.local.entity.Challenge;
 import com.example.rsquare.data.local.entity.Journal;
+import com.example.rsquare.data.local.entity.LastPrice;
 import com.example.rsquare.data.local.entity.Position;
 import com.example.rsquare.data.local.entity.TradeHistory;
 import com.example.rsquare.data.local.entity.User;
@@ -40,9 +44,11 @@ import java.util.concurrent.Executors;
         Journal.class,
         Challenge.class,
         Badge.class,
-        UserSettings.class
+        UserSettings.class,
+        Candle.class,
+        LastPrice.class
     },
-    version = 6,
+    version = 8,
     exportSchema = true
 )
 @TypeConverters(DateConverter.class)
@@ -56,6 +62,8 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract ChallengeDao challengeDao();
     public abstract BadgeDao badgeDao();
     public abstract UserSettingsDao userSettingsDao();
+    public abstract CandleDao candleDao();
+    public abstract LastPriceDao lastPriceDao();
     
     // 싱글톤 인스턴스
     private static volatile AppDatabase INSTANCE;
@@ -221,6 +229,35 @@ public abstract class AppDatabase extends RoomDatabase {
                                 // Position 테이블에 logoUrl 컬럼 추가
                                 database.execSQL("ALTER TABLE positions ADD COLUMN logoUrl TEXT");
                             }
+                        },
+                        // Migration 6 -> 7: 캔들 저장소 추가
+                        new androidx.room.migration.Migration(6, 7) {
+                            @Override
+                            public void migrate(@NonNull androidx.sqlite.db.SupportSQLiteDatabase database) {
+                                database.execSQL("CREATE TABLE IF NOT EXISTS candles (" +
+                                    "symbol TEXT NOT NULL, " +
+                                    "interval TEXT NOT NULL, " +
+                                    "openTime INTEGER NOT NULL, " +
+                                    "closeTime INTEGER NOT NULL, " +
+                                    "open REAL NOT NULL, " +
+                                    "high REAL NOT NULL, " +
+                                    "low REAL NOT NULL, " +
+                                    "close REAL NOT NULL, " +
+                                    "volume REAL NOT NULL, " +
+                                    "closed INTEGER NOT NULL, " +
+                                    "PRIMARY KEY(symbol, interval, openTime))");
+                            }
+                        },
+                        // Migration 7 -> 8: 마지막 현재가 저장소 추가
+                        new androidx.room.migration.Migration(7, 8) {
+                            @Override
+                            public void migrate(@NonNull androidx.sqlite.db.SupportSQLiteDatabase database) {
+                                database.execSQL("CREATE TABLE IF NOT EXISTS last_prices (" +
+                                    "symbol TEXT NOT NULL, " +
+                                    "price REAL NOT NULL, " +
+                                    "updatedAt INTEGER NOT NULL, " +
+                                    "PRIMARY KEY(symbol))");
+                            }
                         }
                     )
                     .addCallback(new RoomDatabase.Callback() {
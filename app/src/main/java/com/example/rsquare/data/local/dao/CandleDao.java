@@ -0,0 +1,46 @@
+package com.example.rsquare.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.rsquare.data.local.entity.Candle;
+
+import java.util.List;
+
+/**
+ * Candle DAO
+ */
+@Dao
+public interface CandleDao {
+    
+    /**
+     * 캔들 저장 (같은 시작 시각이면 덮어쓰기)
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<Candle> candles);
+    
+    /**
+     * 구간 조회 (시작 시각 오름차순)
+     */
+    @Query("SELECT * FROM candles WHERE symbol = :symbol AND interval = :interval " +
+           "AND openTime >= :startTime AND openTime <= :endTime ORDER BY openTime ASC")
+    List<Candle> getRange(String symbol, String interval, long startTime, long endTime);
+    
+    /**
+     * 마감된 캔들의 시작 시각만 조회 (빠진 구간 계산용)
+     */
+    @Query("SELECT openTime FROM candles WHERE symbol = :symbol AND interval = :interval " +
+           "AND openTime >= :startTime AND openTime <= :endTime AND closed = 1 ORDER BY openTime ASC")
+    List<Long> getClosedOpenTimes(String symbol, String interval, long startTime, long endTime);
+    
+    /**
+     * 오래된 캔들 정리
+     */
+    @Query("DELETE FROM candles WHERE symbol = :symbol AND interval = :interval AND openTime < :before")
+    int deleteBefore(String symbol, String interval, long before);
+    
+    @Query("DELETE FROM candles")
+    void deleteAll();
+}
@@ -0,0 +1,32 @@
+package com.example.rsquare.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.rsquare.data.local.entity.LastPrice;
+
+import java.util.List;
+
+/**
+ * LastPrice DAO
+ */
+@Dao
+public interface LastPriceDao {
+    
+    /**
+     * 현재가 저장 (같은 심볼이면 덮어쓰기)
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<LastPrice> prices);
+    
+    /**
+     * 심볼 목록 조회 (저장된 것만)
+     */
+    @Query("SELECT * FROM last_prices WHERE symbol IN (:symbols)")
+    List<LastPrice> getBySymbols(List<String> symbols);
+    
+    @Query("DELETE FROM last_prices")
+    void deleteAll();
+}
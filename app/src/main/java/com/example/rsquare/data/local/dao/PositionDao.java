@@ -1,5 +1,7 @@
 package com.example.rsquare.data.local.dao;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Insert;
@@ -8,6 +10,7 @@ import androidx.room.Update;
 
 import com.example.rsquare.data.local.entity.Position;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -22,6 +25,22 @@ public interface PositionDao {
     @Update
     void update(Position position);
     
+    /**
+     * 종료 표시 (아직 열린 포지션만, 여러 경로가 같은 포지션을 두 번 닫지 않도록)
+     * @return 바뀐 행 수 (0이면 이미 종료됨)
+     */
+    @Query("UPDATE positions SET isClosed = 1, closeTime = :closeTime, pnl = :pnl, " +
+           "closedPrice = :closedPrice, exitReason = :exitReason WHERE id = :positionId AND isClosed = 0")
+    int markClosed(long positionId, Date closeTime, double pnl, double closedPrice, String exitReason);
+    
+    /**
+     * 대기 주문 체결 표시 (아직 대기 중인 열린 포지션만, 취소 / 수정된 주문을 낡은 행으로 덮어쓰지 않도록)
+     * @return 바뀐 행 수 (0이면 이미 체결 / 종료됨)
+     */
+    @Query("UPDATE positions SET status = 'ACTIVE', openTime = :openTime " +
+           "WHERE id = :positionId AND status = 'PENDING' AND isClosed = 0")
+    int markActivated(long positionId, Date openTime);
+    
     @Query("SELECT * FROM positions WHERE id = :positionId")
     LiveData<Position> getPositionById(long positionId);
     
@@ -66,5 +85,12 @@ public interface PositionDao {
     
     @Query("SELECT * FROM positions WHERE userId = :userId AND isClosed = 1 AND openTime >= :startTime ORDER BY closeTime DESC")
     List<Position> getPositionsSince(long userId, long startTime);
+    
+    /**
+     * 종료된 포지션의 R 배수 (pnl / riskAmount), 종료 시각 오름차순
+     * 엔티티를 만들지 않도록 단일 컬럼 Cursor로 반환한다 (호출자가 close)
+     */
+    @Query("SELECT pnl / riskAmount FROM positions WHERE userId = :userId AND isClosed = 1 AND riskAmount > 0 ORDER BY closeTime ASC")
+    Cursor getRMultiplesCursor(long userId);
 }
 
@@ -45,6 +45,14 @@ public interface TradeHistoryDao {
            "AND timestamp >= :startDate AND timestamp <= :endDate " +
            "ORDER BY timestamp DESC")
     List<TradeHistory> getTradesByDateRangeSync(long userId, Date startDate, Date endDate);
+    
+    /**
+     * 날짜 범위의 실현 손실 합계 (손실 거래의 |pnl| 합, 동기)
+     */
+    @Query("SELECT COALESCE(SUM(-pnl), 0) FROM trade_history WHERE positionId IN " +
+           "(SELECT id FROM positions WHERE userId = :userId) " +
+           "AND pnl < 0 AND timestamp >= :startDate AND timestamp <= :endDate")
+    double getRealizedLossSync(long userId, Date startDate, Date endDate);
 
     @Query("SELECT * FROM trade_history WHERE timestamp >= :startTime ORDER BY timestamp DESC")
     List<TradeHistory> getTradesSinceSync(long startTime);
@@ -0,0 +1,122 @@
+package com.example.rsquare.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * 캔들(kline) 엔티티
+ * (심볼, 간격, 시작 시각)마다 한 행, 차트를 다시 열 때 빠진 구간만 받아오기 위한 로컬 저장소
+ */
+@Entity(
+    tableName = "candles",
+    primaryKeys = {"symbol", "interval", "openTime"}
+)
+public class Candle {
+    
+    @NonNull
+    private String symbol; // Binance 심볼 (BTCUSDT)
+    
+    @NonNull
+    private String interval; // 1m, 5m, 1h, 4h, 1d ...
+    
+    private long openTime;
+    private long closeTime;
+    
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    
+    // 저장 시점에 이미 마감된 캔들인지 (진행 중인 캔들은 다음 조회 때 다시 받음)
+    private boolean closed;
+    
+    public Candle() {
+        this.symbol = "";
+        this.interval = "";
+    }
+    
+    // Getters and Setters
+    
+    @NonNull
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public void setSymbol(@NonNull String symbol) {
+        this.symbol = symbol;
+    }
+    
+    @NonNull
+    public String getInterval() {
+        return interval;
+    }
+    
+    public void setInterval(@NonNull String interval) {
+        this.interval = interval;
+    }
+    
+    public long getOpenTime() {
+        return openTime;
+    }
+    
+    public void setOpenTime(long openTime) {
+        this.openTime = openTime;
+    }
+    
+    public long getCloseTime() {
+        return closeTime;
+    }
+    
+    public void setCloseTime(long closeTime) {
+        this.closeTime = closeTime;
+    }
+    
+    public double getOpen() {
+        return open;
+    }
+    
+    public void setOpen(double open) {
+        this.open = open;
+    }
+    
+    public double getHigh() {
+        return high;
+    }
+    
+    public void setHigh(double high) {
+        this.high = high;
+    }
+    
+    public double getLow() {
+        return low;
+    }
+    
+    public void setLow(double low) {
+        this.low = low;
+    }
+    
+    public double getClose() {
+        return close;
+    }
+    
+    public void setClose(double close) {
+        this.close = close;
+    }
+    
+    public double getVolume() {
+        return volume;
+    }
+    
+    public void setVolume(double volume) {
+        this.volume = volume;
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.rsquare.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 마지막으로 받은 현재가 엔티티
+ * 심볼마다 한 행, 백그라운드 모니터가 네트워크 실패 시 대신 쓰는 값
+ */
+@Entity(tableName = "last_prices")
+public class LastPrice {
+    
+    @PrimaryKey
+    @NonNull
+    private String symbol; // Binance 심볼 (BTCUSDT)
+    
+    private double price;
+    
+    private long updatedAt; // 가격을 받은 시각 (밀리초)
+    
+    public LastPrice() {
+        this.symbol = "";
+    }
+    
+    public LastPrice(@NonNull String symbol, double price, long updatedAt) {
+        this.symbol = symbol;
+        this.price = price;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    
+    @NonNull
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public void setSymbol(@NonNull String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public double getPrice() {
+        return price;
+    }
+    
+    public void setPrice(double price) {
+        this.price = price;
+    }
+    
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
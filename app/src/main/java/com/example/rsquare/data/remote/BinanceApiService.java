@@ -1,5 +1,8 @@
 package com.example.rsquare.data.remote;
 
+import com.example.rsquare.data.remote.model.KlineBatch;
+import com.example.rsquare.data.remote.model.TickerPrice;
+
 import java.util.List;
 
 import retrofit2.Call;
@@ -21,15 +24,28 @@ public interface BinanceApiService {
      * @param endTime 종료 시간 (밀리초, 선택사항)
      * 
      * 응답 형식: [[openTime, open, high, low, close, volume, closeTime, quoteVolume, trades, takerBuyBaseVolume, takerBuyQuoteVolume, ignore], ...]
+     * KlineBatchAdapter가 시작/종료 시각과 OHLCV만 읽어 KlineBatch로 디코딩한다.
      */
     @GET("api/v3/klines")
-    Call<List<List<Object>>> getKlines(
+    Call<KlineBatch> getKlines(
         @Query("symbol") String symbol,
         @Query("interval") String interval,
         @Query("limit") Integer limit,
         @Query("startTime") Long startTime,
         @Query("endTime") Long endTime
     );
+    
+    /**
+     * 여러 심볼 현재가 일괄 조회
+     * 
+     * @param symbols 심볼 JSON 배열 (예: ["BTCUSDT","ETHUSDT"])
+     * 
+     * 응답 형식: [{"symbol":"BTCUSDT","price":"64000.00000000"}, ...]
+     * 알 수 없는 심볼이 하나라도 있으면 400으로 전체가 실패한다.
+     */
+    @GET("api/v3/ticker/price")
+    Call<List<TickerPrice>> getTickerPrices(@Query("symbols") String symbols);
+    
     /**
      * 거래소 정보 조회 (유효한 심볼 목록 확인용)
      */
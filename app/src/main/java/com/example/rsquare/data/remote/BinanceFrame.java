@@ -0,0 +1,115 @@
+package com.example.rsquare.data.remote;
+
+/**
+ * Binance WebSocket 프레임 파싱 결과 (재사용 홀더)
+ * 
+ * BinanceFrameParser가 매 프레임마다 같은 인스턴스에 값을 덮어쓴다.
+ * 심볼 문자열은 파서의 심볼 테이블에서 재사용되므로 틱마다 새로 만들어지지 않는다.
+ * 한 스레드(WebSocket 수신 스레드)에서만 사용한다.
+ */
+public final class BinanceFrame {
+    
+    public static final int TYPE_UNKNOWN = 0;
+    public static final int TYPE_TICKER = 1;
+    public static final int TYPE_KLINE = 2;
+    
+    int type;
+    String symbol;
+    
+    // ticker
+    double price;
+    double changePercent;
+    
+    // kline
+    String interval;
+    long openTime;
+    double open;
+    double high;
+    double low;
+    double close;
+    double volume;
+    boolean klineClosed;
+    
+    void reset() {
+        type = TYPE_UNKNOWN;
+        symbol = null;
+        price = 0.0;
+        changePercent = 0.0;
+        interval = null;
+        openTime = 0L;
+        open = 0.0;
+        high = 0.0;
+        low = 0.0;
+        close = 0.0;
+        volume = 0.0;
+        klineClosed = false;
+    }
+    
+    public int getType() {
+        return type;
+    }
+    
+    public boolean isTicker() {
+        return type == TYPE_TICKER;
+    }
+    
+    public boolean isKline() {
+        return type == TYPE_KLINE;
+    }
+    
+    /**
+     * 대문자 Binance 심볼 (예: BTCUSDT)
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public double getPrice() {
+        return price;
+    }
+    
+    /**
+     * 24시간 변동률 (%)
+     */
+    public double getChangePercent() {
+        return changePercent;
+    }
+    
+    /**
+     * kline 간격 (k.i, 예: 1m, 1h)
+     */
+    public String getInterval() {
+        return interval;
+    }
+    
+    public long getOpenTime() {
+        return openTime;
+    }
+    
+    public double getOpen() {
+        return open;
+    }
+    
+    public double getHigh() {
+        return high;
+    }
+    
+    public double getLow() {
+        return low;
+    }
+    
+    public double getClose() {
+        return close;
+    }
+    
+    public double getVolume() {
+        return volume;
+    }
+    
+    /**
+     * 봉 마감 여부 (k.x)
+     */
+    public boolean isKlineClosed() {
+        return klineClosed;
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.rsquare.data.remote;
+
+/**
+ * Binance WebSocket 프레임 단일 패스 파서
+ * 
+ * JSONObject 트리를 만들지 않고 문자열을 한 번 훑으며 사용하는 필드만 읽는다.
+ *   - combined stream: {"stream":"btcusdt@ticker","data":{...}}
+ *   - 24hrTicker: s, c(현재가), P(24시간 변동률)
+ *   - kline: s, k.i / k.t / k.o / k.h / k.l / k.c / k.v / k.x
+ * 그 밖의 필드는 값을 해석하지 않고 건너뛴다.
+ * 
+ * 숫자는 유효 자릿수가 2^53 이하이면 정수 가수 / 10^n으로 직접 계산하고
+ * (Double.parseDouble과 같은 값), 그보다 길거나 지수 표기면 parseDouble로 처리한다.
+ * 심볼과 kline 간격 문자열은 내부 테이블에 한 번만 만들어 재사용한다.
+ * 상태를 가지므로 한 스레드에서만 사용한다.
+ */
+public final class BinanceFrameParser {
+    
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    
+    private static final String EVENT_TICKER = "24hrTicker";
+    private static final String EVENT_KLINE = "kline";
+    private static final String STREAM_TICKER = "@ticker";
+    private static final String STREAM_KLINE = "@kline";
+    
+    // 잘못된 프레임 (스택 추적 없이 재사용)
+    private static final MalformedFrameException MALFORMED = new MalformedFrameException();
+    
+    private String text;
+    private int pos;
+    private int length;
+    
+    // 마지막으로 읽은 키 위치
+    private int keyStart;
+    private int keyLength;
+    
+    // "e" 필드로 정한 이벤트 종류 (-1: 없음), stream 이름으로 추정한 종류
+    private int eventType;
+    private int streamType;
+    
+    // 심볼 문자열 테이블 (open addressing)
+    private String[] symbols = new String[64];
+    private int symbolCount;
+    
+    /**
+     * 프레임 파싱
+     * 
+     * @param message WebSocket 텍스트 프레임
+     * @param frame 결과를 덮어쓸 홀더
+     * @return ticker 또는 kline 프레임이면 true
+     */
+    public boolean parse(String message, BinanceFrame frame) {
+        frame.reset();
+        text = message;
+        pos = 0;
+        length = message.length();
+        eventType = -1;
+        streamType = BinanceFrame.TYPE_UNKNOWN;
+        
+        try {
+            skipWhitespace();
+            expect('{');
+            parseEventObject(frame);
+        } catch (MalformedFrameException | NumberFormatException | IndexOutOfBoundsException e) {
+            frame.reset();
+            return false;
+        } finally {
+            text = null;
+        }
+        
+        frame.type = eventType >= 0 ? eventType : streamType;
+        return frame.type != BinanceFrame.TYPE_UNKNOWN && frame.symbol != null;
+    }
+    
+    /**
+     * 이벤트 객체 (또는 combined stream 래퍼) 본문 파싱 ('{' 다음부터)
+     */
+    private void parseEventObject(BinanceFrame frame) {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        
+        while (true) {
+            readKey();
+            skipWhitespace();
+            
+            if (keyLength == 1) {
+                switch (text.charAt(keyStart)) {
+                    case 'e':
+                        eventType = readEventType();
+                        break;
+                    case 's':
+                        frame.symbol = readSymbol();
+                        break;
+                    case 'c':
+                        frame.price = readNumber();
+                        break;
+                    case 'P':
+                        frame.changePercent = readNumber();
+                        break;
+                    case 'k':
+                        expect('{');
+                        parseKlineObject(frame);
+                        break;
+                    default:
+                        skipValue();
+                        break;
+                }
+            } else if (keyEquals("data") && peek() == '{') {
+                pos++;
+                parseEventObject(frame);
+            } else if (keyEquals("stream")) {
+                streamType = readStreamType();
+            } else {
+                skipValue();
+            }
+            
+            if (endOfObject()) return;
+        }
+    }
+    
+    /**
+     * kline 객체 본문 파싱 ('{' 다음부터)
+     */
+    private void parseKlineObject(BinanceFrame frame) {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        
+        while (true) {
+            readKey();
+            skipWhitespace();
+            
+            if (keyLength == 1) {
+                switch (text.charAt(keyStart)) {
+                    case 't':
+                        frame.openTime = readLong();
+                        break;
+                    case 'o':
+                        frame.open = readNumber();
+                        break;
+                    case 'h':
+                        frame.high = readNumber();
+                        break;
+                    case 'l':
+                        frame.low = readNumber();
+                        break;
+                    case 'c':
+                        frame.close = readNumber();
+                        break;
+                    case 'v':
+                        frame.volume = readNumber();
+                        break;
+                    case 'x':
+                        frame.klineClosed = readBoolean();
+                        break;
+                    case 's':
+                        frame.symbol = readSymbol();
+                        break;
+                    case 'i':
+                        frame.interval = readSymbol();
+                        break;
+                    default:
+                        skipValue();
+                        break;
+                }
+            } else {
+                skipValue();
+            }
+            
+            if (endOfObject()) return;
+        }
+    }
+    
+    /**
+     * 값 뒤의 ',' 또는 '}' 처리
+     * 
+     * @return 객체가 끝났으면 true
+     */
+    private boolean endOfObject() {
+        skipWhitespace();
+        char c = next();
+        if (c == ',') {
+            skipWhitespace();
+            return false;
+        }
+        if (c == '}') return true;
+        throw MALFORMED;
+    }
+    
+    /**
+     * "key": 까지 읽고 키 위치를 기록
+     */
+    private void readKey() {
+        expect('"');
+        keyStart = pos;
+        while (text.charAt(pos) != '"') {
+            if (text.charAt(pos) == '\\') pos++;
+            pos++;
+        }
+        keyLength = pos - keyStart;
+        pos++;
+        skipWhitespace();
+        expect(':');
+    }
+    
+    private boolean keyEquals(String key) {
+        return keyLength == key.length() && text.regionMatches(keyStart, key, 0, keyLength);
+    }
+    
+    private int readEventType() {
+        if (peek() != '"') {
+            skipValue();
+            return BinanceFrame.TYPE_UNKNOWN;
+        }
+        int start = pos + 1;
+        skipString();
+        int valueLength = pos - 1 - start;
+        if (regionEquals(start, valueLength, EVENT_TICKER)) return BinanceFrame.TYPE_TICKER;
+        if (regionEquals(start, valueLength, EVENT_KLINE)) return BinanceFrame.TYPE_KLINE;
+        return BinanceFrame.TYPE_UNKNOWN;
+    }
+    
+    /**
+     * stream 이름의 '@' 뒤 접미사로 종류 추정 (예: btcusdt@kline_1m)
+     */
+    private int readStreamType() {
+        if (peek() != '"') {
+            skipValue();
+            return BinanceFrame.TYPE_UNKNOWN;
+        }
+        int start = pos + 1;
+        skipString();
+        int end = pos - 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != '@') continue;
+            if (text.regionMatches(i, STREAM_KLINE, 0, STREAM_KLINE.length())) {
+                return BinanceFrame.TYPE_KLINE;
+            }
+            if (text.regionMatches(i, STREAM_TICKER, 0, STREAM_TICKER.length())) {
+                return BinanceFrame.TYPE_TICKER;
+            }
+        }
+        return BinanceFrame.TYPE_UNKNOWN;
+    }
+    
+    private boolean regionEquals(int start, int regionLength, String value) {
+        return regionLength == value.length() && text.regionMatches(start, value, 0, regionLength);
+    }
+    
+    /**
+     * 심볼 / 간격 문자열 (테이블에 있으면 기존 인스턴스 반환)
+     */
+    private String readSymbol() {
+        if (peek() != '"') {
+            skipValue();
+            return null;
+        }
+        int start = pos + 1;
+        skipString();
+        return intern(start, pos - 1 - start);
+    }
+    
+    private String intern(int start, int symbolLength) {
+        int hash = 0;
+        for (int i = start; i < start + symbolLength; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        
+        int mask = symbols.length - 1;
+        int index = hash & mask;
+        while (true) {
+            String candidate = symbols[index];
+            if (candidate == null) break;
+            if (candidate.length() == symbolLength
+                    && text.regionMatches(start, candidate, 0, symbolLength)) {
+                return candidate;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        String symbol = text.substring(start, start + symbolLength);
+        symbols[index] = symbol;
+        if (++symbolCount * 2 > symbols.length) {
+            growSymbols();
+        }
+        return symbol;
+    }
+    
+    private void growSymbols() {
+        String[] old = symbols;
+        symbols = new String[old.length * 2];
+        int mask = symbols.length - 1;
+        for (String symbol : old) {
+            if (symbol == null) continue;
+            int index = symbol.hashCode() & mask;
+            while (symbols[index] != null) {
+                index = (index + 1) & mask;
+            }
+            symbols[index] = symbol;
+        }
+    }
+    
+    /**
+     * 숫자 (따옴표로 감싼 문자열 숫자 포함)
+     */
+    private double readNumber() {
+        boolean quoted = peek() == '"';
+        if (quoted) pos++;
+        
+        int start = pos;
+        boolean negative = false;
+        char c = text.charAt(pos);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+        }
+        
+        long mantissa = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean slow = false;
+        int digits = 0;
+        
+        while (pos < length) {
+            c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                if (mantissa <= (MAX_EXACT_MANTISSA - 9) / 10) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (fraction) scale++;
+                } else {
+                    slow = true;
+                }
+                digits++;
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E' || c == '-' || c == '+' || c == '.') {
+                slow = true;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        int end = pos;
+        if (quoted) expect('"');
+        
+        if (digits == 0) throw MALFORMED;
+        if (slow || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text.substring(start, end));
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+    
+    private long readLong() {
+        boolean quoted = peek() == '"';
+        if (quoted) pos++;
+        
+        boolean negative = false;
+        if (text.charAt(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c < '0' || c > '9') break;
+            value = value * 10 + (c - '0');
+            digits++;
+            pos++;
+        }
+        if (quoted) expect('"');
+        if (digits == 0) throw MALFORMED;
+        return negative ? -value : value;
+    }
+    
+    private boolean readBoolean() {
+        if (text.startsWith("true", pos)) {
+            pos += 4;
+            return true;
+        }
+        if (text.startsWith("false", pos)) {
+            pos += 5;
+            return false;
+        }
+        throw MALFORMED;
+    }
+    
+    /**
+     * 현재 값을 해석하지 않고 건너뛰기
+     */
+    private void skipValue() {
+        char c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            skipContainer();
+        } else {
+            // 숫자, true, false, null
+            while (pos < length) {
+                c = text.charAt(pos);
+                if (c == ',' || c == '}' || c == ']' || c <= ' ') break;
+                pos++;
+            }
+        }
+    }
+    
+    private void skipString() {
+        expect('"');
+        while (true) {
+            char c = text.charAt(pos++);
+            if (c == '"') return;
+            if (c == '\\') pos++;
+        }
+    }
+    
+    private void skipContainer() {
+        int depth = 0;
+        while (true) {
+            char c = text.charAt(pos);
+            if (c == '"') {
+                skipString();
+                continue;
+            }
+            pos++;
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) return;
+            }
+        }
+    }
+    
+    private void skipWhitespace() {
+        while (pos < length && text.charAt(pos) <= ' ') {
+            pos++;
+        }
+    }
+    
+    private char peek() {
+        return text.charAt(pos);
+    }
+    
+    private char next() {
+        return text.charAt(pos++);
+    }
+    
+    private void expect(char expected) {
+        if (text.charAt(pos) != expected) throw MALFORMED;
+        pos++;
+    }
+    
+    private static final class MalformedFrameException extends RuntimeException {
+        MalformedFrameException() {
+            super("Malformed frame", null, false, false);
+        }
+    }
+}
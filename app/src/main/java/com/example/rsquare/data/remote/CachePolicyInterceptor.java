@@ -0,0 +1,47 @@
+package com.example.rsquare.data.remote;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 캐시 정책 인터셉터 (네트워크 인터셉터로 등록)
+ * 
+ * 자주 바뀌지 않는 메타데이터 응답(코인 목록, 거래소 정보)은 서버 헤더와 관계없이
+ * 긴 max-age를 붙여 디스크 캐시에 남긴다. 콜드 스타트 때 수 MB를 다시 받지 않는다.
+ * 그 밖의 응답(시세, klines)은 서버가 준 헤더를 그대로 따른다.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+    
+    private static final long HOUR_SECONDS = 60 * 60;
+    
+    static final long COIN_LIST_TTL_SECONDS = 24 * HOUR_SECONDS; // CoinGecko coins/list
+    static final long EXCHANGE_INFO_TTL_SECONDS = 6 * HOUR_SECONDS; // Binance api/v3/exchangeInfo
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        
+        long ttl = ttlSeconds(request);
+        if (ttl <= 0 || !response.isSuccessful() || !"GET".equals(request.method())) {
+            return response;
+        }
+        return response.newBuilder()
+            .removeHeader("Pragma")
+            .header("Cache-Control", "public, max-age=" + ttl)
+            .build();
+    }
+    
+    /**
+     * 엔드포인트별 캐시 유지 시간 (초, 0이면 서버 헤더 사용)
+     */
+    static long ttlSeconds(Request request) {
+        String path = request.url().encodedPath();
+        if (path.endsWith("/coins/list")) return COIN_LIST_TTL_SECONDS;
+        if (path.endsWith("/api/v3/exchangeInfo")) return EXCHANGE_INFO_TTL_SECONDS;
+        return 0;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.rsquare.data.remote;
+
+import com.example.rsquare.data.remote.model.KlineBatch;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Binance klines 스트리밍 디코더
+ * 
+ * [[openTime, "open", "high", "low", "close", "volume", closeTime, ...], ...] 응답을
+ * JsonReader로 한 번 훑으면서 KlineBatch의 기본형 배열에 바로 채운다.
+ * List<List<Object>> 경로와 달리 행마다 ArrayList와 필드별 Double 객체를 만들지 않고,
+ * 8번째 이후 필드(quoteVolume, trades, taker 거래량 등)는 skipValue()로 건너뛴다.
+ */
+public class KlineBatchAdapter extends TypeAdapter<KlineBatch> {
+    
+    @Override
+    public KlineBatch read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        
+        // 대부분의 증분 조회는 몇 개뿐이므로 기본 용량에서 시작해 add()가 늘리게 한다
+        KlineBatch batch = new KlineBatch();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            // Binance는 가격 / 거래량을 문자열로 보내며, nextDouble()은 문자열 숫자도 읽는다
+            long openTime = in.nextLong();
+            double open = in.nextDouble();
+            double high = in.nextDouble();
+            double low = in.nextDouble();
+            double close = in.nextDouble();
+            double volume = in.nextDouble();
+            long closeTime = in.nextLong();
+            while (in.hasNext()) {
+                in.skipValue();
+            }
+            in.endArray();
+            batch.add(openTime, open, high, low, close, volume, closeTime);
+        }
+        in.endArray();
+        return batch;
+    }
+    
+    @Override
+    public void write(JsonWriter out, KlineBatch batch) throws IOException {
+        if (batch == null) {
+            out.nullValue();
+            return;
+        }
+        
+        out.beginArray();
+        for (int i = 0; i < batch.size(); i++) {
+            out.beginArray();
+            out.value(batch.getOpenTime(i));
+            out.value(batch.getOpen(i));
+            out.value(batch.getHigh(i));
+            out.value(batch.getLow(i));
+            out.value(batch.getClose(i));
+            out.value(batch.getVolume(i));
+            out.value(batch.getCloseTime(i));
+            out.endArray();
+        }
+        out.endArray();
+    }
+}
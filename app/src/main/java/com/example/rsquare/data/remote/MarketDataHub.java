@@ -0,0 +1,128 @@
+package com.example.rsquare.data.remote;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프로세스 전역 시장 데이터 허브
+ * 
+ * WebSocket 연결 하나를 모든 화면이 공유한다. 스트림(심볼@ticker, 심볼@kline_간격)마다
+ * 참조 수를 세어 0 -> 1이 될 때 SUBSCRIBE, 1 -> 0이 될 때 UNSUBSCRIBE만 보낸다.
+ * 모든 참조가 사라져도 화면 전환 동안은 연결을 유지하고, 유휴 시간이 지나면 닫는다.
+ */
+public class MarketDataHub {
+    
+    private static final String TAG = "MarketDataHub";
+    private static final long IDLE_DISCONNECT_MS = 30 * 1000; // 30초
+    
+    private static volatile MarketDataHub INSTANCE;
+    
+    private final WebSocketClient webSocketClient;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<String, Integer> refCounts = new HashMap<>();
+    private final Runnable idleDisconnect = this::disconnectIfIdle;
+    
+    private MarketDataHub() {
+        webSocketClient = new WebSocketClient();
+    }
+    
+    public static MarketDataHub getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MarketDataHub.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MarketDataHub();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    /**
+     * 스트림 참조 추가 (처음 참조되는 스트림만 SUBSCRIBE)
+     */
+    public synchronized void acquire(Collection<String> streams) {
+        List<String> added = new ArrayList<>();
+        for (String stream : streams) {
+            Integer count = refCounts.get(stream);
+            if (count == null) {
+                refCounts.put(stream, 1);
+                added.add(stream);
+            } else {
+                refCounts.put(stream, count + 1);
+            }
+        }
+        
+        handler.removeCallbacks(idleDisconnect);
+        if (!added.isEmpty()) {
+            webSocketClient.subscribe(added);
+        }
+    }
+    
+    /**
+     * 스트림 참조 해제 (마지막 참조가 사라진 스트림만 UNSUBSCRIBE)
+     */
+    public synchronized void release(Collection<String> streams) {
+        List<String> removed = new ArrayList<>();
+        for (String stream : streams) {
+            Integer count = refCounts.get(stream);
+            if (count == null) {
+                Log.w(TAG, "Release without acquire: " + stream);
+            } else if (count <= 1) {
+                refCounts.remove(stream);
+                removed.add(stream);
+            } else {
+                refCounts.put(stream, count - 1);
+            }
+        }
+        
+        if (!removed.isEmpty()) {
+            webSocketClient.unsubscribe(removed);
+        }
+        if (refCounts.isEmpty()) {
+            handler.removeCallbacks(idleDisconnect);
+            handler.postDelayed(idleDisconnect, IDLE_DISCONNECT_MS);
+        }
+    }
+    
+    private synchronized void disconnectIfIdle() {
+        if (refCounts.isEmpty()) {
+            Log.d(TAG, "No subscribers, closing WebSocket");
+            webSocketClient.disconnect();
+        }
+    }
+    
+    /**
+     * 스트림 참조 수 (디버그용)
+     */
+    public synchronized int getRefCount(String stream) {
+        Integer count = refCounts.get(stream);
+        return count != null ? count : 0;
+    }
+    
+    public boolean isConnected() {
+        return webSocketClient.isConnected();
+    }
+    
+    public void addPriceUpdateListener(WebSocketClient.PriceUpdateListener listener) {
+        webSocketClient.addPriceUpdateListener(listener);
+    }
+    
+    public void removePriceUpdateListener(WebSocketClient.PriceUpdateListener listener) {
+        webSocketClient.removePriceUpdateListener(listener);
+    }
+    
+    public void addKlineUpdateListener(WebSocketClient.KlineUpdateListener listener) {
+        webSocketClient.addKlineUpdateListener(listener);
+    }
+    
+    public void removeKlineUpdateListener(WebSocketClient.KlineUpdateListener listener) {
+        webSocketClient.removeKlineUpdateListener(listener);
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.rsquare.data.remote;
 
+import android.content.Context;
+
+import com.example.rsquare.BuildConfig;
+import com.example.rsquare.data.remote.model.KlineBatch;
 import com.example.rsquare.util.Constants;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -13,31 +19,64 @@ import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * 네트워크 모듈 - Retrofit 인스턴스 생성 및 관리
+ * 
+ * CoinGecko / Binance REST와 WebSocket이 OkHttpClient 하나(연결 풀, 디스패처, 디스크 캐시)를 공유한다.
  */
 public class NetworkModule {
     
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE = 20L * 1024 * 1024; // 20MB
+    
+    private static File cacheDir = null;
+    private static OkHttpClient httpClient = null;
     private static Retrofit retrofit = null;
     private static Retrofit binanceRetrofit = null;
     private static CoinGeckoApiService apiService = null;
     private static BinanceApiService binanceApiService = null;
     
     /**
-     * Retrofit 인스턴스 생성 (CoinGecko)
+     * 디스크 캐시 위치 설정 (Application.onCreate에서 클라이언트 생성 전에 호출)
      */
-    public static Retrofit getRetrofitInstance() {
-        if (retrofit == null) {
-            // HTTP 로깅 인터셉터
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-            
-            // OkHttp 클라이언트 설정
-            OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
+    public static synchronized void init(Context context) {
+        if (httpClient == null) {
+            cacheDir = new File(context.getCacheDir(), HTTP_CACHE_DIR);
+        }
+    }
+    
+    /**
+     * 공유 OkHttpClient
+     * 용도별 설정이 필요하면 newBuilder()로 파생해서 쓴다 (연결 풀 / 디스패처 / 캐시는 그대로 공유됨).
+     */
+    public static synchronized OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+                // 코인 목록 / 거래소 정보는 긴 TTL로 캐시
+                .addNetworkInterceptor(new CachePolicyInterceptor());
             
+            if (cacheDir != null) {
+                builder.cache(new Cache(cacheDir, HTTP_CACHE_SIZE));
+            }
+            
+            // HTTP 로깅 (디버그 빌드만, 릴리스에서는 본문을 버퍼링하지 않도록 추가하지 않음)
+            if (BuildConfig.DEBUG) {
+                HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+                loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+                builder.addInterceptor(loggingInterceptor);
+            }
+            
+            httpClient = builder.build();
+        }
+        return httpClient;
+    }
+    
+    /**
+     * Retrofit 인스턴스 생성 (CoinGecko)
+     */
+    public static synchronized Retrofit getRetrofitInstance() {
+        if (retrofit == null) {
             // Gson 설정
             Gson gson = new GsonBuilder()
                 .setLenient()
@@ -46,7 +85,7 @@ public class NetworkModule {
             // Retrofit 빌드
             retrofit = new Retrofit.Builder()
                 .baseUrl(Constants.COINGECKO_BASE_URL)
-                .client(client)
+                .client(getHttpClient())
                 .addConverterFactory(GsonConverterFactory.create(gson))
                 .build();
         }
@@ -56,29 +95,18 @@ public class NetworkModule {
     /**
      * Binance Retrofit 인스턴스 생성
      */
-    public static Retrofit getBinanceRetrofitInstance() {
+    public static synchronized Retrofit getBinanceRetrofitInstance() {
         if (binanceRetrofit == null) {
-            // HTTP 로깅 인터셉터
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-            
-            // OkHttp 클라이언트 설정
-            OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
-            
-            // Gson 설정
+            // Gson 설정 (klines는 스트리밍 디코더로 기본형 배열에 바로 읽음)
             Gson gson = new GsonBuilder()
                 .setLenient()
+                .registerTypeAdapter(KlineBatch.class, new KlineBatchAdapter())
                 .create();
             
             // Retrofit 빌드
             binanceRetrofit = new Retrofit.Builder()
                 .baseUrl("https://api.binance.com/")
-                .client(client)
+                .client(getHttpClient())
                 .addConverterFactory(GsonConverterFactory.create(gson))
                 .build();
         }
@@ -88,7 +116,7 @@ public class NetworkModule {
     /**
      * CoinGecko API 서비스 인스턴스
      */
-    public static CoinGeckoApiService getApiService() {
+    public static synchronized CoinGeckoApiService getApiService() {
         if (apiService == null) {
             apiService = getRetrofitInstance().create(CoinGeckoApiService.class);
         }
@@ -98,11 +126,10 @@ public class NetworkModule {
     /**
      * Binance API 서비스 인스턴스
      */
-    public static BinanceApiService getBinanceApiService() {
+    public static synchronized BinanceApiService getBinanceApiService() {
         if (binanceApiService == null) {
             binanceApiService = getBinanceRetrofitInstance().create(BinanceApiService.class);
         }
         return binanceApiService;
     }
 }
-
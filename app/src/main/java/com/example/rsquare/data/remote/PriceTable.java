@@ -0,0 +1,343 @@
+package com.example.rsquare.data.remote;
+
+import com.example.rsquare.data.remote.model.CoinPrice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 프로세스 전역 최신 가격 테이블
+ * 
+ * 심볼 슬롯(SymbolRegistry ID)마다 [버전, 가격, 변동률, 갱신 시각]을 기록한다.
+ * 쓰기는 버전을 홀수로 올린 뒤 값을 쓰고 다시 짝수로 올리며 (seqlock),
+ * 읽기는 앞뒤 버전이 같은 짝수일 때만 값을 받아들이고 아니면 다시 읽는다.
+ * 읽기는 락을 잡지 않으므로 쓰기를 막지 않고, 쓰기는 슬롯 묶음이 만들어진 뒤에는 할당하지 않는다.
+ * 
+ * 이름, 시가총액 등 REST로만 오는 정보는 틱마다 바뀌지 않으므로 CoinPrice 그대로 따로 보관한다.
+ */
+public final class PriceTable {
+    
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int MAX_CHUNKS = 64;
+    public static final int MAX_SYMBOLS = CHUNK_SIZE * MAX_CHUNKS;
+    
+    // 슬롯당 필드 (AtomicLongArray 안의 오프셋)
+    private static final int FIELD_SEQ = 0;
+    private static final int FIELD_PRICE = 1;
+    private static final int FIELD_CHANGE = 2;
+    private static final int FIELD_TIME = 3;
+    private static final int STRIDE = 4;
+    
+    // 여러 심볼 스냅샷이 쓰기와 겹쳤을 때 다시 읽는 최대 횟수
+    private static final int SNAPSHOT_RETRIES = 3;
+    
+    private static volatile PriceTable INSTANCE;
+    
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.getInstance();
+    private final Chunk[] chunks = new Chunk[MAX_CHUNKS];
+    // 모든 쓰기마다 증가 (스냅샷 일관성 확인용)
+    private final AtomicLong writeCount = new AtomicLong();
+    
+    private PriceTable() {
+    }
+    
+    public static PriceTable getInstance() {
+        if (INSTANCE == null) {
+            synchronized (PriceTable.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new PriceTable();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    // ===== 쓰기 =====
+    
+    /**
+     * 가격 기록 (WebSocket 수신 스레드, 할당 없음)
+     * @param symbolId SymbolRegistry ID
+     * @return 기록 여부 (ID 범위를 벗어나면 false)
+     */
+    public boolean put(int symbolId, double price, double changePercent, long timestamp) {
+        if (symbolId < 0 || symbolId >= MAX_SYMBOLS) return false;
+        
+        Chunk chunk = chunks[symbolId >>> CHUNK_SHIFT];
+        if (chunk == null) chunk = createChunk(symbolId >>> CHUNK_SHIFT);
+        AtomicLongArray slots = chunk.slots;
+        int base = (symbolId & (CHUNK_SIZE - 1)) * STRIDE;
+        
+        // 쓰기끼리는 버전을 홀수로 만드는 CAS로 순서를 정한다 (WebSocket / REST 콜백)
+        long seq;
+        do {
+            seq = slots.get(base + FIELD_SEQ);
+        } while ((seq & 1) != 0 || !slots.compareAndSet(base + FIELD_SEQ, seq, seq + 1));
+        
+        slots.set(base + FIELD_PRICE, Double.doubleToRawLongBits(price));
+        slots.set(base + FIELD_CHANGE, Double.doubleToRawLongBits(changePercent));
+        slots.set(base + FIELD_TIME, timestamp);
+        slots.set(base + FIELD_SEQ, seq + 2);
+        
+        writeCount.incrementAndGet();
+        return true;
+    }
+    
+    /**
+     * REST 응답 기록 (가격과 함께 이름 / 시가총액 등 부가 정보 보관)
+     */
+    public void putMarket(CoinPrice coinPrice, long timestamp) {
+        if (coinPrice == null || coinPrice.getId() == null) return;
+        int symbolId = symbolRegistry.ensureId(coinPrice.getId());
+        if (put(symbolId, coinPrice.getCurrentPrice(), coinPrice.getPriceChangePercentage24h(), timestamp)) {
+            chunks[symbolId >>> CHUNK_SHIFT].markets.set(symbolId & (CHUNK_SIZE - 1), coinPrice);
+        }
+    }
+    
+    private synchronized Chunk createChunk(int chunkIndex) {
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new Chunk();
+        }
+        return chunks[chunkIndex];
+    }
+    
+    /**
+     * 모든 가격 무효화 (갱신 시각을 0으로)
+     */
+    public void clear() {
+        for (int c = 0; c < MAX_CHUNKS; c++) {
+            Chunk chunk = chunks[c];
+            if (chunk == null) continue;
+            for (int offset = 0; offset < CHUNK_SIZE; offset++) {
+                if (chunk.slots.get(offset * STRIDE + FIELD_TIME) != 0) {
+                    put((c << CHUNK_SHIFT) | offset, 0, 0, 0);
+                }
+                chunk.markets.set(offset, null);
+            }
+        }
+    }
+    
+    // ===== 읽기 (락 없음) =====
+    
+    /**
+     * 한 심볼의 일관된 값 읽기 (할당 없음)
+     * @param out 결과를 채울 객체 (재사용 가능)
+     * @return 값이 있으면 true
+     */
+    public boolean read(int symbolId, Entry out) {
+        if (symbolId < 0 || symbolId >= MAX_SYMBOLS) return false;
+        Chunk chunk = chunks[symbolId >>> CHUNK_SHIFT];
+        if (chunk == null) return false;
+        AtomicLongArray slots = chunk.slots;
+        int base = (symbolId & (CHUNK_SIZE - 1)) * STRIDE;
+        
+        long price;
+        long change;
+        long time;
+        while (true) {
+            long before = slots.get(base + FIELD_SEQ);
+            if ((before & 1) != 0) continue; // 쓰는 중
+            price = slots.get(base + FIELD_PRICE);
+            change = slots.get(base + FIELD_CHANGE);
+            time = slots.get(base + FIELD_TIME);
+            if (slots.get(base + FIELD_SEQ) == before) break;
+        }
+        if (time == 0) return false;
+        
+        out.symbolId = symbolId;
+        out.price = Double.longBitsToDouble(price);
+        out.changePercent = Double.longBitsToDouble(change);
+        out.timestamp = time;
+        return true;
+    }
+    
+    /**
+     * 최신 가격 (없으면 0)
+     */
+    public double getPrice(int symbolId) {
+        Entry entry = new Entry();
+        return read(symbolId, entry) ? entry.price : 0;
+    }
+    
+    /**
+     * 코인 ID로 조회 (REST 부가 정보에 최신 가격을 덮은 사본)
+     */
+    public CoinPrice get(String coinId) {
+        int symbolId = symbolRegistry.resolve(coinId);
+        Entry entry = new Entry();
+        if (!read(symbolId, entry)) return null;
+        return toCoinPrice(entry);
+    }
+    
+    /**
+     * 여러 심볼을 한 시점 기준으로 읽기
+     * 읽는 동안 쓰기가 끼어들면 다시 읽고, 틱이 계속 들어와 SNAPSHOT_RETRIES 안에
+     * 끝나지 않으면 심볼별로만 일관된 마지막 결과를 돌려준다 (isConsistent()로 확인).
+     * @param symbolIds 읽을 SymbolRegistry ID (값이 없는 심볼은 결과에서 빠짐)
+     */
+    public Snapshot snapshot(int[] symbolIds) {
+        Snapshot snapshot = new Snapshot(symbolIds.length);
+        Entry entry = new Entry();
+        for (int attempt = 0; attempt < SNAPSHOT_RETRIES; attempt++) {
+            long before = writeCount.get();
+            snapshot.size = 0;
+            for (int symbolId : symbolIds) {
+                if (read(symbolId, entry)) snapshot.add(entry);
+            }
+            snapshot.consistent = writeCount.get() == before;
+            if (snapshot.consistent) break;
+        }
+        return snapshot;
+    }
+    
+    /**
+     * 코인 ID 목록의 시장 정보 (하나라도 없거나 maxAgeMs보다 오래됐으면 null)
+     */
+    public List<CoinPrice> getMarkets(List<String> coinIds, long maxAgeMs) {
+        int[] symbolIds = new int[coinIds.size()];
+        for (int i = 0; i < symbolIds.length; i++) {
+            symbolIds[i] = symbolRegistry.resolve(coinIds.get(i));
+            if (symbolIds[i] == SymbolRegistry.NO_ID) return null;
+        }
+        
+        Snapshot snapshot = snapshot(symbolIds);
+        if (snapshot.size() != symbolIds.length) return null;
+        
+        long now = System.currentTimeMillis();
+        List<CoinPrice> prices = new ArrayList<>(snapshot.size());
+        Entry entry = new Entry();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (now - snapshot.getTimestamp(i) >= maxAgeMs) return null;
+            entry.symbolId = snapshot.getSymbolId(i);
+            entry.price = snapshot.getPrice(i);
+            entry.changePercent = snapshot.getChangePercent(i);
+            entry.timestamp = snapshot.getTimestamp(i);
+            CoinPrice coinPrice = toCoinPrice(entry);
+            if (coinPrice.getName() == null) return null; // 틱만 있고 REST 정보가 없음
+            prices.add(coinPrice);
+        }
+        return prices;
+    }
+    
+    private CoinPrice toCoinPrice(Entry entry) {
+        CoinPrice market = chunks[entry.symbolId >>> CHUNK_SHIFT].markets.get(entry.symbolId & (CHUNK_SIZE - 1));
+        CoinPrice coinPrice = new CoinPrice();
+        if (market != null) {
+            coinPrice.setId(market.getId());
+            coinPrice.setSymbol(market.getSymbol());
+            coinPrice.setName(market.getName());
+            coinPrice.setImage(market.getImage());
+            coinPrice.setPriceChange24h(market.getPriceChange24h());
+            coinPrice.setMarketCap(market.getMarketCap());
+            coinPrice.setTotalVolume(market.getTotalVolume());
+            coinPrice.setHigh24h(market.getHigh24h());
+            coinPrice.setLow24h(market.getLow24h());
+        } else {
+            coinPrice.setId(symbolRegistry.coinIdOf(entry.symbolId));
+        }
+        coinPrice.setCurrentPrice(entry.price);
+        coinPrice.setPriceChangePercentage24h(entry.changePercent);
+        return coinPrice;
+    }
+    
+    /**
+     * 심볼 64개 단위 슬롯 묶음
+     */
+    private static final class Chunk {
+        final AtomicLongArray slots = new AtomicLongArray(CHUNK_SIZE * STRIDE);
+        final AtomicReferenceArray<CoinPrice> markets = new AtomicReferenceArray<>(CHUNK_SIZE);
+    }
+    
+    /**
+     * 한 심볼의 값 (read()에 재사용)
+     */
+    public static final class Entry {
+        private int symbolId;
+        private double price;
+        private double changePercent;
+        private long timestamp;
+        
+        public int getSymbolId() {
+            return symbolId;
+        }
+        
+        public double getPrice() {
+            return price;
+        }
+        
+        public double getChangePercent() {
+            return changePercent;
+        }
+        
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+    
+    /**
+     * 여러 심볼 스냅샷
+     */
+    public static final class Snapshot {
+        private final int[] symbolIds;
+        private final double[] prices;
+        private final double[] changePercents;
+        private final long[] timestamps;
+        private int size;
+        private boolean consistent;
+        
+        private Snapshot(int capacity) {
+            symbolIds = new int[capacity];
+            prices = new double[capacity];
+            changePercents = new double[capacity];
+            timestamps = new long[capacity];
+        }
+        
+        private void add(Entry entry) {
+            symbolIds[size] = entry.symbolId;
+            prices[size] = entry.price;
+            changePercents[size] = entry.changePercent;
+            timestamps[size] = entry.timestamp;
+            size++;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        /**
+         * 모든 값이 같은 시점에 읽혔는지 (false면 심볼별로만 일관됨)
+         */
+        public boolean isConsistent() {
+            return consistent;
+        }
+        
+        public int getSymbolId(int index) {
+            return symbolIds[index];
+        }
+        
+        public double getPrice(int index) {
+            return prices[index];
+        }
+        
+        public double getChangePercent(int index) {
+            return changePercents[index];
+        }
+        
+        public long getTimestamp(int index) {
+            return timestamps[index];
+        }
+        
+        /**
+         * SymbolRegistry ID로 가격 찾기 (없으면 0)
+         */
+        public double getPriceOf(int symbolId) {
+            for (int i = 0; i < size; i++) {
+                if (symbolIds[i] == symbolId) return prices[i];
+            }
+            return 0;
+        }
+    }
+}
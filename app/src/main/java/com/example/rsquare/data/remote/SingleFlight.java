@@ -0,0 +1,194 @@
+package com.example.rsquare.data.remote;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 요청 단일화 (single-flight)
+ * 
+ * 같은 키(엔드포인트 + 인자)의 요청이 진행 중이면 새 호출을 보내지 않고 그 요청에 붙인다.
+ * 응답은 한 번만 처리되고, 기다리던 리스너 모두에게 같은 결과가 전달된다.
+ * memoizeMs > 0이면 성공한 결과를 그 시간 동안 보관해 바로 돌려준다 (실패는 보관하지 않음).
+ * 
+ * 결과 객체는 리스너끼리 공유되므로 받는 쪽에서 변경하지 않는다.
+ */
+public final class SingleFlight {
+    
+    private static volatile SingleFlight INSTANCE;
+    
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    // 진행 중인 요청 / 보관 중인 결과 (this로 동기화)
+    private final Map<String, Flight<?>> inFlight = new HashMap<>();
+    private final Map<String, Memo> memos = new HashMap<>();
+    
+    private SingleFlight() {
+    }
+    
+    public static SingleFlight getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SingleFlight.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SingleFlight();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    /**
+     * 요청 실행 (같은 키가 진행 중이면 합류)
+     * 
+     * @param key 엔드포인트 + 인자 (예: "klines:BTCUSDT:1h:168")
+     * @param memoizeMs 성공 결과 보관 시간 (0이면 보관 안 함)
+     * @param request 실제 호출 (키마다 동시에 하나만 실행됨)
+     * @param listener 결과 리스너 (null 가능, 응답 콜백 스레드에서 호출)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void execute(String key, long memoizeMs, Request<T> request, Listener<T> listener) {
+        Flight<T> flight;
+        synchronized (this) {
+            Memo memo = memos.get(key);
+            if (memo != null) {
+                if (SystemClock.elapsedRealtime() < memo.expiresAt) {
+                    if (listener != null) {
+                        T result = (T) memo.result;
+                        mainHandler.post(() -> listener.onResult(result));
+                    }
+                    return;
+                }
+                memos.remove(key);
+            }
+            
+            Flight<T> running = (Flight<T>) inFlight.get(key);
+            if (running != null) {
+                if (listener != null) {
+                    running.listeners.add(listener);
+                }
+                return;
+            }
+            
+            flight = new Flight<>(key, memoizeMs);
+            if (listener != null) {
+                flight.listeners.add(listener);
+            }
+            inFlight.put(key, flight);
+        }
+        
+        try {
+            request.start(flight);
+        } catch (RuntimeException e) {
+            flight.fail("요청 오류: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 보관 중인 결과 삭제 (진행 중인 요청은 그대로)
+     */
+    public synchronized void invalidate(String key) {
+        memos.remove(key);
+    }
+    
+    public synchronized void clear() {
+        memos.clear();
+    }
+    
+    /**
+     * 진행 중인 요청 수 (디버그용)
+     */
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+    
+    private List<Listener<?>> finish(Flight<?> flight, Object result, boolean success) {
+        synchronized (this) {
+            if (inFlight.get(flight.key) != flight) {
+                // 이미 완료됨 (콜백 중복 호출)
+                return null;
+            }
+            inFlight.remove(flight.key);
+            if (success && flight.memoizeMs > 0) {
+                pruneExpired();
+                memos.put(flight.key, new Memo(result, SystemClock.elapsedRealtime() + flight.memoizeMs));
+            }
+            return new ArrayList<>(flight.listeners);
+        }
+    }
+    
+    private void pruneExpired() {
+        long now = SystemClock.elapsedRealtime();
+        Iterator<Memo> iterator = memos.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * 진행 중인 요청 하나 (요청 쪽에서 complete / fail 중 하나를 한 번 호출)
+     */
+    private final class Flight<T> implements Completion<T> {
+        final String key;
+        final long memoizeMs;
+        final List<Listener<T>> listeners = new ArrayList<>(2);
+        
+        Flight(String key, long memoizeMs) {
+            this.key = key;
+            this.memoizeMs = memoizeMs;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public void complete(T result) {
+            List<Listener<?>> waiting = finish(this, result, true);
+            if (waiting == null) return;
+            for (Listener<?> listener : waiting) {
+                ((Listener<T>) listener).onResult(result);
+            }
+        }
+        
+        @Override
+        public void fail(String error) {
+            List<Listener<?>> waiting = finish(this, null, false);
+            if (waiting == null) return;
+            for (Listener<?> listener : waiting) {
+                listener.onError(error);
+            }
+        }
+    }
+    
+    private static final class Memo {
+        final Object result;
+        final long expiresAt;
+        
+        Memo(Object result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    /**
+     * 실제 호출 (완료되면 completion에 결과 또는 오류를 한 번 알림)
+     */
+    public interface Request<T> {
+        void start(Completion<T> completion);
+    }
+    
+    public interface Completion<T> {
+        void complete(T result);
+        void fail(String error);
+    }
+    
+    public interface Listener<T> {
+        void onResult(T result);
+        void onError(String error);
+    }
+}
@@ -0,0 +1,439 @@
+package com.example.rsquare.data.remote;
+
+import android.util.Log;
+
+import com.example.rsquare.data.remote.model.SymbolInfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 심볼 레지스트리
+ * 
+ * Binance USDT 페어마다 고정된 정수 ID(0부터 연속)를 배정하고
+ * Binance 심볼(BTCUSDT) / 스트림 심볼(btcusdt) / CoinGecko ID(bitcoin) / 기준 자산(BTC)을
+ * 양방향으로 O(1) 조회한다. 조회는 대소문자를 구분하지 않으며 객체를 만들지 않으므로
+ * 틱 처리 같은 경로에서는 문자열 대신 ID로 배열을 인덱싱하면 된다.
+ * 
+ * 테이블은 getExchangeInfo() 결과로 채워지고 파일에 저장되어 다음 실행에도 쓰인다.
+ * ID는 추가만 되고 바뀌거나 재사용되지 않는다 (저장된 순서 = ID 순서).
+ */
+public final class SymbolRegistry {
+    
+    private static final String TAG = "SymbolRegistry";
+    
+    public static final int NO_ID = -1;
+    
+    private static final String QUOTE_ASSET = "USDT";
+    private static final String FILE_NAME = "symbol_registry.bin";
+    private static final int MAGIC = 0x5253594d; // "RSYM"
+    private static final int VERSION = 1;
+    private static final long REFRESH_INTERVAL = 24L * 60 * 60 * 1000; // 하루
+    
+    // 기준 자산 -> CoinGecko ID (나머지는 기준 자산 소문자를 ID로 사용)
+    private static final Map<String, String> COINGECKO_IDS = new HashMap<String, String>() {{
+        put("BTC", "bitcoin");
+        put("ETH", "ethereum");
+        put("BNB", "binancecoin");
+        put("SOL", "solana");
+        put("XRP", "ripple");
+        put("ADA", "cardano");
+        put("DOGE", "dogecoin");
+        put("MATIC", "matic-network");
+        put("DOT", "polkadot");
+        put("AVAX", "avalanche-2");
+        put("LTC", "litecoin");
+        put("LINK", "chainlink");
+        put("UNI", "uniswap");
+        put("ATOM", "cosmos");
+        put("ETC", "ethereum-classic");
+    }};
+    private static final Map<String, String> BASE_BY_COINGECKO_ID = new HashMap<>();
+    static {
+        for (Map.Entry<String, String> entry : COINGECKO_IDS.entrySet()) {
+            BASE_BY_COINGECKO_ID.put(entry.getValue(), entry.getKey());
+        }
+    }
+    
+    // 거래소 정보를 받기 전에도 쓸 수 있는 기본 심볼 (ID 0부터)
+    private static final String[] SEED_BASE_ASSETS = {
+        "BTC", "ETH", "ADA", "SOL", "XRP", "DOT", "DOGE", "AVAX"
+    };
+    
+    private static volatile SymbolRegistry INSTANCE;
+    
+    private volatile Table table;
+    private volatile long lastRefreshTime = 0;
+    private File storeFile;
+    
+    private SymbolRegistry() {
+        String[] bases = SEED_BASE_ASSETS;
+        String[] symbols = new String[bases.length];
+        for (int i = 0; i < bases.length; i++) {
+            symbols[i] = bases[i] + QUOTE_ASSET;
+        }
+        table = Table.EMPTY.with(symbols, bases, symbols.length);
+    }
+    
+    public static SymbolRegistry getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SymbolRegistry.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SymbolRegistry();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    // ===== 조회 (할당 없음) =====
+    
+    /**
+     * Binance 심볼로 ID 조회 (BTCUSDT, btcusdt 모두 가능)
+     */
+    public int idOfSymbol(String symbol) {
+        if (symbol == null) return NO_ID;
+        Table t = table;
+        return find(t.symbolIndex, t.symbols, symbol);
+    }
+    
+    /**
+     * CoinGecko ID로 ID 조회
+     */
+    public int idOfCoinId(String coinId) {
+        if (coinId == null) return NO_ID;
+        Table t = table;
+        return find(t.coinIdIndex, t.coinIds, coinId);
+    }
+    
+    /**
+     * 심볼, CoinGecko ID, 기준 자산(BTC) 순으로 찾기
+     */
+    public int resolve(String symbolOrCoinId) {
+        if (symbolOrCoinId == null) return NO_ID;
+        Table t = table;
+        int id = find(t.symbolIndex, t.symbols, symbolOrCoinId);
+        if (id == NO_ID) id = find(t.coinIdIndex, t.coinIds, symbolOrCoinId);
+        if (id == NO_ID) id = find(t.baseIndex, t.baseAssets, symbolOrCoinId);
+        return id;
+    }
+    
+    public String symbolOf(int id) {
+        Table t = table;
+        return id >= 0 && id < t.size ? t.symbols[id] : null;
+    }
+    
+    /**
+     * 스트림 이름용 소문자 심볼 (btcusdt)
+     */
+    public String streamSymbolOf(int id) {
+        Table t = table;
+        return id >= 0 && id < t.size ? t.streamSymbols[id] : null;
+    }
+    
+    public String coinIdOf(int id) {
+        Table t = table;
+        return id >= 0 && id < t.size ? t.coinIds[id] : null;
+    }
+    
+    public String baseAssetOf(int id) {
+        Table t = table;
+        return id >= 0 && id < t.size ? t.baseAssets[id] : null;
+    }
+    
+    /**
+     * 배정된 ID 수 (ID 범위는 0 ~ size()-1)
+     */
+    public int size() {
+        return table.size;
+    }
+    
+    // ===== 변환 =====
+    
+    /**
+     * ID 조회, 없으면 USDT 페어로 간주해 새 ID 배정
+     * 
+     * @param symbolOrCoinId Binance 심볼, CoinGecko ID 또는 기준 자산
+     */
+    public int ensureId(String symbolOrCoinId) {
+        if (symbolOrCoinId == null || symbolOrCoinId.isEmpty()) return NO_ID;
+        int id = resolve(symbolOrCoinId);
+        if (id != NO_ID) return id;
+        
+        String base = BASE_BY_COINGECKO_ID.get(symbolOrCoinId.toLowerCase());
+        if (base != null) return register(base + QUOTE_ASSET, base);
+        
+        base = symbolOrCoinId.toUpperCase();
+        if (base.endsWith(QUOTE_ASSET) && base.length() > QUOTE_ASSET.length()) {
+            base = base.substring(0, base.length() - QUOTE_ASSET.length());
+        }
+        return register(base + QUOTE_ASSET, base);
+    }
+    
+    /**
+     * Binance 심볼 -> CoinGecko ID
+     */
+    public String toCoinId(String symbol) {
+        return coinIdOf(ensureId(symbol));
+    }
+    
+    /**
+     * CoinGecko ID (또는 심볼) -> Binance 심볼 (BTCUSDT)
+     */
+    public String toSymbol(String coinId) {
+        return symbolOf(ensureId(coinId));
+    }
+    
+    /**
+     * CoinGecko ID (또는 심볼) -> 스트림 심볼 (btcusdt)
+     */
+    public String toStreamSymbol(String coinId) {
+        return streamSymbolOf(ensureId(coinId));
+    }
+    
+    private synchronized int register(String symbol, String baseAsset) {
+        Table t = table;
+        int existing = find(t.symbolIndex, t.symbols, symbol);
+        if (existing != NO_ID) return existing;
+        
+        table = t.with(new String[] {symbol}, new String[] {baseAsset}, 1);
+        return t.size;
+    }
+    
+    // ===== 거래소 정보 / 저장 =====
+    
+    /**
+     * getExchangeInfo() 결과 반영 (거래 중인 USDT 페어만, 새 심볼은 뒤에 추가)
+     */
+    public void update(List<SymbolInfo> symbolInfos) {
+        if (symbolInfos == null) return;
+        
+        int added;
+        synchronized (this) {
+            Table t = table;
+            String[] symbols = new String[symbolInfos.size()];
+            String[] bases = new String[symbolInfos.size()];
+            int count = 0;
+            for (SymbolInfo info : symbolInfos) {
+                String symbol = info.getSymbol();
+                if (symbol == null || !"TRADING".equals(info.getStatus())) continue;
+                if (!QUOTE_ASSET.equals(info.getQuoteAsset()) && !symbol.endsWith(QUOTE_ASSET)) continue;
+                if (find(t.symbolIndex, t.symbols, symbol) != NO_ID) continue;
+                
+                String base = info.getBaseAsset();
+                if (base == null || base.isEmpty()) {
+                    base = symbol.substring(0, symbol.length() - QUOTE_ASSET.length());
+                }
+                symbols[count] = symbol.toUpperCase();
+                bases[count] = base.toUpperCase();
+                count++;
+            }
+            added = count;
+            if (count > 0) {
+                table = t.with(symbols, bases, count);
+            }
+            lastRefreshTime = System.currentTimeMillis();
+        }
+        
+        Log.d(TAG, "Exchange info applied: " + added + " new symbols, " + size() + " total");
+        save();
+    }
+    
+    /**
+     * 거래소 정보를 다시 받아야 하는지 (하루 경과)
+     */
+    public boolean isStale() {
+        return System.currentTimeMillis() - lastRefreshTime > REFRESH_INTERVAL;
+    }
+    
+    /**
+     * 저장된 테이블 불러오기 (앱 시작 시 백그라운드에서 한 번)
+     * 이미 배정된 ID는 유지하고, 저장된 심볼 중 없는 것만 뒤에 추가한다.
+     */
+    public void load(File filesDir) {
+        File file = new File(filesDir, FILE_NAME);
+        synchronized (this) {
+            storeFile = file;
+        }
+        if (!file.exists()) return;
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a symbol registry");
+            int version = in.readByte();
+            if (version != VERSION) throw new IOException("Unsupported version: " + version);
+            
+            long savedRefreshTime = in.readLong();
+            int count = in.readInt();
+            String[] symbols = new String[count];
+            String[] bases = new String[count];
+            for (int i = 0; i < count; i++) {
+                symbols[i] = in.readUTF();
+                bases[i] = in.readUTF();
+            }
+            
+            synchronized (this) {
+                Table t = table;
+                int added = 0;
+                for (int i = 0; i < count; i++) {
+                    if (find(t.symbolIndex, t.symbols, symbols[i]) != NO_ID) continue;
+                    symbols[added] = symbols[i];
+                    bases[added] = bases[i];
+                    added++;
+                }
+                if (added > 0) {
+                    table = t.with(symbols, bases, added);
+                }
+                lastRefreshTime = Math.max(lastRefreshTime, savedRefreshTime);
+            }
+            Log.d(TAG, "Loaded " + count + " symbols");
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to load symbol registry: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 현재 테이블을 ID 순서대로 저장 (임시 파일 + rename)
+     */
+    private void save() {
+        File file;
+        Table t;
+        long refreshTime;
+        synchronized (this) {
+            file = storeFile;
+            t = table;
+            refreshTime = lastRefreshTime;
+        }
+        if (file == null) return;
+        
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(refreshTime);
+            out.writeInt(t.size);
+            for (int i = 0; i < t.size; i++) {
+                out.writeUTF(t.symbols[i]);
+                out.writeUTF(t.baseAssets[i]);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save symbol registry: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+    
+    static String coinIdForBaseAsset(String baseAsset) {
+        String coinId = COINGECKO_IDS.get(baseAsset);
+        return coinId != null ? coinId : baseAsset.toLowerCase();
+    }
+    
+    // ===== 해시 테이블 =====
+    
+    /**
+     * ASCII 대소문자를 무시하는 해시 (문자열을 새로 만들지 않음)
+     */
+    private static int foldedHash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c >= 'a' && c <= 'z') c -= 'a' - 'A';
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * open addressing 조회 (index 값은 ID + 1, 0은 빈 칸)
+     */
+    private static int find(int[] index, String[] keys, String key) {
+        int mask = index.length - 1;
+        int slot = foldedHash(key) & mask;
+        while (true) {
+            int entry = index[slot];
+            if (entry == 0) return NO_ID;
+            String candidate = keys[entry - 1];
+            if (candidate.length() == key.length()
+                    && candidate.regionMatches(true, 0, key, 0, key.length())) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    private static void insert(int[] index, String key, int id) {
+        int mask = index.length - 1;
+        int slot = foldedHash(key) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = id + 1;
+    }
+    
+    /**
+     * 불변 테이블 (변경 시 복사본을 만들어 교체)
+     */
+    private static final class Table {
+        
+        static final Table EMPTY = new Table(new String[0], new String[0]);
+        
+        final int size;
+        final String[] symbols;
+        final String[] streamSymbols;
+        final String[] coinIds;
+        final String[] baseAssets;
+        final int[] symbolIndex;
+        final int[] coinIdIndex;
+        final int[] baseIndex;
+        
+        private Table(String[] symbols, String[] baseAssets) {
+            size = symbols.length;
+            this.symbols = symbols;
+            this.baseAssets = baseAssets;
+            streamSymbols = new String[size];
+            coinIds = new String[size];
+            
+            // 적재율 50% 이하
+            int capacity = Integer.highestOneBit(Math.max(16, size * 2 - 1)) << 1;
+            symbolIndex = new int[capacity];
+            coinIdIndex = new int[capacity];
+            baseIndex = new int[capacity];
+            
+            for (int id = 0; id < size; id++) {
+                streamSymbols[id] = symbols[id].toLowerCase();
+                coinIds[id] = coinIdForBaseAsset(baseAssets[id]);
+                insert(symbolIndex, symbols[id], id);
+                // 같은 CoinGecko ID / 기준 자산이 겹치면 먼저 배정된 ID가 우선
+                if (find(coinIdIndex, coinIds, coinIds[id]) == NO_ID) {
+                    insert(coinIdIndex, coinIds[id], id);
+                }
+                if (find(baseIndex, baseAssets, baseAssets[id]) == NO_ID) {
+                    insert(baseIndex, baseAssets[id], id);
+                }
+            }
+        }
+        
+        /**
+         * 심볼을 뒤에 추가한 새 테이블
+         */
+        Table with(String[] newSymbols, String[] newBaseAssets, int count) {
+            String[] mergedSymbols = Arrays.copyOf(symbols, size + count);
+            String[] mergedBases = Arrays.copyOf(baseAssets, size + count);
+            System.arraycopy(newSymbols, 0, mergedSymbols, size, count);
+            System.arraycopy(newBaseAssets, 0, mergedBases, size, count);
+            return new Table(mergedSymbols, mergedBases);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.rsquare.data.remote;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 심볼별 최신 틱 병합 버스 (conflation)
+ * 
+ * WebSocket 수신 스레드는 심볼 슬롯(SymbolRegistry ID)에 최신 가격을 덮어쓰고
+ * 구독자별 더티 비트만 세운다.
+ * 구독자는 지정한 주기(디스플레이 프레임 / 250ms / 1초)마다 메인 스레드에서
+ * 더티 심볼만 한 번씩 꺼내 가므로, 메시지 수와 무관하게 주기당 작업량이 고정된다.
+ * 
+ * 가격과 변동률은 각각 원자적으로 기록된다. 드레인 중 덮어쓰기가 겹쳐 두 값의 시점이
+ * 어긋나더라도 더티 비트가 다시 세워지므로 다음 주기에 최신 값으로 맞춰진다.
+ */
+public class TickBus {
+    
+    private static final String TAG = "TickBus";
+    
+    /** 디스플레이 프레임마다 (Choreographer) */
+    public static final long CADENCE_FRAME = 0;
+    public static final long CADENCE_250_MS = 250;
+    public static final long CADENCE_1_S = 1000;
+    
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 더티 비트맵 한 워드(long)와 같은 크기
+    private static final int MAX_CHUNKS = 64;
+    public static final int MAX_SYMBOLS = CHUNK_SIZE * MAX_CHUNKS;
+    
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.getInstance();
+    
+    // 슬롯 번호 = SymbolRegistry ID, 64개 단위로 필요할 때 생성
+    private final Chunk[] chunks = new Chunk[MAX_CHUNKS];
+    
+    private volatile Subscription[] subscriptions = new Subscription[0];
+    
+    /**
+     * 최신 틱 기록 (WebSocket 수신 스레드)
+     * 슬롯 묶음이 만들어진 뒤에는 할당 없이 덮어쓰기와 비트 설정만 한다.
+     * @param symbolId SymbolRegistry ID
+     */
+    public void publish(int symbolId, double price, double changePercent) {
+        if (symbolId < 0 || symbolId >= MAX_SYMBOLS) {
+            Log.w(TAG, "Symbol id out of range: " + symbolId);
+            return;
+        }
+        int slot = symbolId;
+        
+        Chunk chunk = chunks[slot >>> CHUNK_SHIFT];
+        if (chunk == null) chunk = createChunk(slot >>> CHUNK_SHIFT);
+        int offset = slot & (CHUNK_SIZE - 1);
+        chunk.prices.set(offset, Double.doubleToRawLongBits(price));
+        chunk.changes.set(offset, Double.doubleToRawLongBits(changePercent));
+        
+        for (Subscription subscription : subscriptions) {
+            subscription.markDirty(slot);
+        }
+    }
+    
+    private synchronized Chunk createChunk(int chunkIndex) {
+        if (chunks[chunkIndex] == null) {
+            // 구독자는 더티 비트(CAS)를 본 뒤에만 묶음을 읽으므로 그 전에 채워두면 된다
+            chunks[chunkIndex] = new Chunk();
+        }
+        return chunks[chunkIndex];
+    }
+    
+    /**
+     * 구독 등록
+     * @param cadenceMs 드레인 주기 (CADENCE_FRAME, CADENCE_250_MS, CADENCE_1_S 또는 임의의 ms)
+     * @param listener 메인 스레드에서 더티 심볼마다 한 번씩 호출됨
+     */
+    public Subscription subscribe(long cadenceMs, OnTickListener listener) {
+        Subscription subscription = new Subscription(cadenceMs, listener);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscription;
+            subscriptions = next;
+        }
+        return subscription;
+    }
+    
+    private synchronized void remove(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] next = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                subscriptions = next;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 심볼 64개 단위 슬롯 묶음
+     */
+    private static final class Chunk {
+        final AtomicLongArray prices = new AtomicLongArray(CHUNK_SIZE);
+        final AtomicLongArray changes = new AtomicLongArray(CHUNK_SIZE);
+    }
+    
+    /**
+     * 구독 (주기별 드레인 상태)
+     */
+    public final class Subscription {
+        
+        private final long cadenceMs;
+        private final OnTickListener listener;
+        private final AtomicLongArray dirty = new AtomicLongArray(MAX_CHUNKS);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile boolean cancelled = false;
+        private volatile long lastDrainTime = 0;
+        
+        private final Runnable drainRunnable = this::drain;
+        private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> drain();
+        private final Runnable frameRequest = () -> {
+            if (!cancelled) {
+                Choreographer.getInstance().postFrameCallback(frameCallback);
+            }
+        };
+        
+        private Subscription(long cadenceMs, OnTickListener listener) {
+            this.cadenceMs = cadenceMs;
+            this.listener = listener;
+        }
+        
+        private void markDirty(int slot) {
+            int word = slot >>> CHUNK_SHIFT;
+            long bit = 1L << slot;
+            long current;
+            do {
+                current = dirty.get(word);
+                if ((current & bit) != 0) break;
+            } while (!dirty.compareAndSet(word, current, current | bit));
+            
+            // 주기당 한 번만 예약
+            if (scheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+        
+        private void schedule() {
+            if (cancelled) return;
+            if (cadenceMs <= CADENCE_FRAME) {
+                mainHandler.post(frameRequest);
+            } else {
+                long delay = lastDrainTime + cadenceMs - SystemClock.uptimeMillis();
+                mainHandler.postDelayed(drainRunnable, Math.max(0, delay));
+            }
+        }
+        
+        private void drain() {
+            if (cancelled) return;
+            lastDrainTime = SystemClock.uptimeMillis();
+            // 비트를 읽기 전에 해제해야 드레인 중 들어온 틱이 다음 주기로 예약된다
+            scheduled.set(false);
+            
+            for (int word = 0; word < MAX_CHUNKS; word++) {
+                if (dirty.get(word) == 0) continue;
+                long bits = dirty.getAndSet(word, 0);
+                Chunk chunk = chunks[word];
+                while (bits != 0) {
+                    int offset = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    listener.onTick(symbolRegistry.coinIdOf((word << CHUNK_SHIFT) | offset),
+                        Double.longBitsToDouble(chunk.prices.get(offset)),
+                        Double.longBitsToDouble(chunk.changes.get(offset)));
+                }
+            }
+        }
+        
+        /**
+         * 구독 해제 (메인 스레드)
+         */
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+            mainHandler.removeCallbacks(drainRunnable);
+            mainHandler.removeCallbacks(frameRequest);
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+        
+        public long getCadenceMs() {
+            return cadenceMs;
+        }
+    }
+    
+    /**
+     * 병합된 틱 리스너 (메인 스레드에서 호출)
+     */
+    public interface OnTickListener {
+        void onTick(String coinId, double price, double changePercent);
+    }
+}
@@ -1,13 +1,13 @@
 package com.example.rsquare.data.remote;
 
+import android.os.SystemClock;
 import android.util.Log;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.net.URI;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
@@ -20,135 +20,136 @@ import okio.ByteString;
 /**
  * WebSocket Client for Real-time Price Updates
  * Binance WebSocket을 사용하여 실시간 가격 업데이트
+ * 
+ * combined stream 엔드포인트에 연결 하나를 유지하고, 스트림은 재연결 없이
+ * SUBSCRIBE / UNSUBSCRIBE 제어 메시지로 추가·제거한다.
+ * 직접 쓰지 말고 MarketDataHub를 통해 공유한다.
  */
 public class WebSocketClient {
     
     private static final String TAG = "WebSocketClient";
-    private static final String BINANCE_WS_URL = "wss://stream.binance.com:9443/ws/";
+    private static final String BINANCE_WS_URL = "wss://stream.binance.com:9443/stream";
+    
+    // Binance 제한: 연결당 초당 제어 메시지 5개
+    private static final long CONTROL_INTERVAL_MS = 250;
+    // 메시지당 스트림 수 (연결당 최대 1024개)
+    private static final int MAX_PARAMS_PER_MESSAGE = 200;
     
     private OkHttpClient client;
     private WebSocket webSocket;
     private List<PriceUpdateListener> listeners = new java.util.concurrent.CopyOnWriteArrayList<>();
     private List<KlineUpdateListener> klineListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
-    private boolean isConnected = false;
+    private volatile boolean isConnected = false;
     
-    // Binance 심볼 매핑 (CoinGecko ID -> Binance Symbol)
-    private static final java.util.Map<String, String> SYMBOL_MAP = new java.util.HashMap<String, String>() {{
-        put("bitcoin", "btcusdt");
-        put("ethereum", "ethusdt");
-        put("cardano", "adausdt");
-        put("solana", "solusdt");
-        put("ripple", "xrpusdt");
-        put("polkadot", "dotusdt");
-        put("dogecoin", "dogeusdt");
-        put("avalanche-2", "avaxusdt");
-    }};
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.getInstance();
     
     private android.os.Handler reconnectHandler = new android.os.Handler(android.os.Looper.getMainLooper());
     private long reconnectDelay = 1000; // Initial delay 1 second
     private static final long MAX_RECONNECT_DELAY = 30000; // Max delay 30 seconds
-    private List<String> lastCoinIds;
-    private String lastKlineInterval;
-    private boolean isConnecting = false;
+    private volatile boolean isConnecting = false;
+    
+    // 구독 상태 (this로 보호)
+    private final Set<String> streams = new LinkedHashSet<>();
+    private final Set<String> pendingSubscribe = new LinkedHashSet<>();
+    private final Set<String> pendingUnsubscribe = new LinkedHashSet<>();
+    private int nextRequestId = 1;
+    private boolean flushScheduled = false;
+    private long lastControlTime = 0;
+    private final Runnable flushRunnable = this::flushControlMessages;
 
     public WebSocketClient() {
-        client = new OkHttpClient.Builder()
+        // REST와 연결 풀 / 디스패처를 공유
+        client = NetworkModule.getHttpClient().newBuilder()
             .pingInterval(30, TimeUnit.SECONDS)
             .retryOnConnectionFailure(true)
             .build();
     }
     
     /**
-     * WebSocket 연결 시작 (ticker만)
-     * @param coinIds CoinGecko 코인 ID 목록 또는 Binance 심볼 목록
+     * ticker 스트림 이름 (예: btcusdt@ticker)
+     * @param coinId CoinGecko 코인 ID 또는 Binance 심볼
      */
-    public void connect(List<String> coinIds) {
-        connect(coinIds, null);
+    public static String tickerStream(String coinId) {
+        return SymbolRegistry.getInstance().toStreamSymbol(coinId) + "@ticker";
     }
     
     /**
-     * WebSocket 연결 시작 (ticker + kline)
-     * @param coinIds CoinGecko 코인 ID 목록 또는 Binance 심볼 목록
-     * @param klineInterval kline 간격 (예: "1m", "5m", "1h") - null이면 ticker만 구독
+     * kline 스트림 이름 (예: btcusdt@kline_1m)
      */
-    public void connect(List<String> coinIds, String klineInterval) {
-        if (isConnected || isConnecting) {
-            Log.w(TAG, "WebSocket already connected or connecting");
-            return;
-        }
-        
-        this.lastCoinIds = coinIds;
-        this.lastKlineInterval = klineInterval;
-        this.isConnecting = true;
-        
-        // Binance 심볼로 변환
-        List<String> binanceSymbols = new ArrayList<>();
-        for (String coinId : coinIds) {
-            String symbol = SYMBOL_MAP.get(coinId.toLowerCase());
-            if (symbol == null) {
-                // 매핑에 없으면 입력값을 그대로 사용하되, USDT가 없으면 추가
-                symbol = coinId.toLowerCase();
-                if (!symbol.endsWith("usdt")) {
-                    symbol += "usdt";
-                }
-            }
-            
-            if (symbol != null && !symbol.isEmpty()) {
-                binanceSymbols.add(symbol + "@ticker");
-                // kline 스트림도 추가
-                if (klineInterval != null && !klineInterval.isEmpty()) {
-                    binanceSymbols.add(symbol + "@kline_" + klineInterval);
+    public static String klineStream(String coinId, String interval) {
+        return SymbolRegistry.getInstance().toStreamSymbol(coinId) + "@kline_" + interval;
+    }
+    
+    /**
+     * 스트림 구독 추가 (연결이 없으면 연결을 연다)
+     * @param streamNames 스트림 이름 목록 (예: btcusdt@ticker, btcusdt@kline_1m)
+     */
+    public synchronized void subscribe(Collection<String> streamNames) {
+        boolean changed = false;
+        for (String stream : streamNames) {
+            if (streams.add(stream)) {
+                // 아직 보내지 않은 UNSUBSCRIBE가 있으면 상쇄
+                if (!pendingUnsubscribe.remove(stream)) {
+                    pendingSubscribe.add(stream);
                 }
+                changed = true;
             }
         }
+        if (!changed) return;
         
-        if (binanceSymbols.isEmpty()) {
-            Log.w(TAG, "No valid symbols to subscribe");
-            isConnecting = false;
-            return;
+        if (!isConnected && !isConnecting) {
+            connect();
+        } else {
+            scheduleFlush();
         }
-        
-        Log.d(TAG, "Subscribing to streams: " + binanceSymbols);
-        
-        try {
-            // Binance WebSocket: 여러 스트림을 하나의 연결로 구독
-            if (binanceSymbols.size() == 1) {
-                connectToStream(binanceSymbols.get(0));
-            } else {
-                String streams = String.join("/", binanceSymbols);
-                String wsUrl = "wss://stream.binance.com:9443/stream?streams=" + streams;
-                Log.d(TAG, "Connecting to: " + wsUrl);
-                connectToCombinedStream(wsUrl);
+    }
+    
+    /**
+     * 스트림 구독 제거 (연결은 유지)
+     */
+    public synchronized void unsubscribe(Collection<String> streamNames) {
+        boolean changed = false;
+        for (String stream : streamNames) {
+            if (streams.remove(stream)) {
+                if (!pendingSubscribe.remove(stream)) {
+                    pendingUnsubscribe.add(stream);
+                }
+                changed = true;
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error initiating connection", e);
-            isConnecting = false;
-            scheduleReconnect();
+        }
+        if (changed) {
+            scheduleFlush();
         }
     }
     
     /**
-     * 여러 스트림을 하나의 연결로 구독
+     * 현재 구독 중인 스트림 수
      */
-    private void connectToCombinedStream(String wsUrl) {
-        Request request = new Request.Builder()
-            .url(wsUrl)
-            .build();
-        
-        webSocket = client.newWebSocket(request, createWebSocketListener());
+    public synchronized int getStreamCount() {
+        return streams.size();
     }
     
     /**
-     * 단일 스트림에 연결
+     * WebSocket 연결 시작 (구독은 연결 후 SUBSCRIBE로 전송)
      */
-    private void connectToStream(String stream) {
-        String wsUrl = BINANCE_WS_URL + stream;
-        
-        Request request = new Request.Builder()
-            .url(wsUrl)
-            .build();
+    private synchronized void connect() {
+        if (isConnected || isConnecting) {
+            Log.w(TAG, "WebSocket already connected or connecting");
+            return;
+        }
+        isConnecting = true;
         
-        webSocket = client.newWebSocket(request, createWebSocketListener());
+        try {
+            Log.d(TAG, "Connecting to: " + BINANCE_WS_URL);
+            Request request = new Request.Builder()
+                .url(BINANCE_WS_URL)
+                .build();
+            webSocket = client.newWebSocket(request, createWebSocketListener());
+        } catch (Exception e) {
+            Log.e(TAG, "Error initiating connection", e);
+            isConnecting = false;
+            scheduleReconnect();
+        }
     }
     
     /**
@@ -156,28 +157,41 @@ public class WebSocketClient {
      */
     private WebSocketListener createWebSocketListener() {
         return new WebSocketListener() {
+            // 연결마다 수신 스레드가 하나이므로 파서와 프레임 홀더를 연결 단위로 재사용
+            private final BinanceFrameParser frameParser = new BinanceFrameParser();
+            private final BinanceFrame frame = new BinanceFrame();
+            
             @Override
             public void onOpen(WebSocket webSocket, Response response) {
                 Log.d(TAG, "WebSocket connected");
-                isConnected = true;
-                isConnecting = false;
-                reconnectDelay = 1000; // Reset delay on successful connection
+                synchronized (WebSocketClient.this) {
+                    if (!isCurrent(webSocket)) return;
+                    isConnected = true;
+                    isConnecting = false;
+                    reconnectDelay = 1000; // Reset delay on successful connection
+                    // 새 연결에는 현재 스트림 전체를 다시 구독
+                    pendingUnsubscribe.clear();
+                    pendingSubscribe.clear();
+                    pendingSubscribe.addAll(streams);
+                    scheduleFlush();
+                }
                 notifyConnectionStatus(true);
             }
             
             @Override
             public void onMessage(WebSocket webSocket, String text) {
-                handleMessage(text);
+                handleMessage(text, frameParser, frame);
             }
             
             @Override
             public void onMessage(WebSocket webSocket, ByteString bytes) {
-                handleMessage(bytes.utf8());
+                handleMessage(bytes.utf8(), frameParser, frame);
             }
             
             @Override
             public void onClosing(WebSocket webSocket, int code, String reason) {
                 Log.d(TAG, "WebSocket closing: " + reason);
+                if (!isCurrent(webSocket)) return;
                 isConnected = false;
                 notifyConnectionStatus(false);
             }
@@ -185,6 +199,7 @@ public class WebSocketClient {
             @Override
             public void onClosed(WebSocket webSocket, int code, String reason) {
                 Log.d(TAG, "WebSocket closed: " + reason);
+                if (!isCurrent(webSocket)) return;
                 isConnected = false;
                 isConnecting = false;
                 notifyConnectionStatus(false);
@@ -194,6 +209,7 @@ public class WebSocketClient {
             @Override
             public void onFailure(WebSocket webSocket, Throwable t, Response response) {
                 Log.e(TAG, "WebSocket failure", t);
+                if (!isCurrent(webSocket)) return;
                 isConnected = false;
                 isConnecting = false;
                 notifyConnectionStatus(false);
@@ -202,14 +218,75 @@ public class WebSocketClient {
         };
     }
     
+    /**
+     * 닫았거나 교체된 이전 소켓의 콜백은 무시
+     */
+    private synchronized boolean isCurrent(WebSocket socket) {
+        return socket == webSocket;
+    }
+    
+    /**
+     * 제어 메시지 전송 예약 (초당 메시지 제한을 넘지 않도록 간격 유지)
+     */
+    private synchronized void scheduleFlush() {
+        if (flushScheduled || !isConnected) return;
+        if (pendingSubscribe.isEmpty() && pendingUnsubscribe.isEmpty()) return;
+        
+        flushScheduled = true;
+        long delay = lastControlTime + CONTROL_INTERVAL_MS - SystemClock.uptimeMillis();
+        reconnectHandler.postDelayed(flushRunnable, Math.max(0, delay));
+    }
+    
+    /**
+     * 대기 중인 SUBSCRIBE / UNSUBSCRIBE를 메시지 하나로 전송 (남으면 다음 간격에 이어서)
+     */
+    private synchronized void flushControlMessages() {
+        flushScheduled = false;
+        if (!isConnected || webSocket == null) return;
+        
+        String method;
+        Set<String> pending;
+        if (!pendingUnsubscribe.isEmpty()) {
+            method = "UNSUBSCRIBE";
+            pending = pendingUnsubscribe;
+        } else if (!pendingSubscribe.isEmpty()) {
+            method = "SUBSCRIBE";
+            pending = pendingSubscribe;
+        } else {
+            return;
+        }
+        
+        StringBuilder message = new StringBuilder(64 + pending.size() * 24);
+        message.append("{\"method\":\"").append(method).append("\",\"params\":[");
+        int count = 0;
+        Iterator<String> iterator = pending.iterator();
+        while (iterator.hasNext() && count < MAX_PARAMS_PER_MESSAGE) {
+            if (count > 0) message.append(',');
+            message.append('"').append(iterator.next()).append('"');
+            iterator.remove();
+            count++;
+        }
+        message.append("],\"id\":").append(nextRequestId++).append('}');
+        
+        Log.d(TAG, method + " " + count + " streams");
+        webSocket.send(message.toString());
+        lastControlTime = SystemClock.uptimeMillis();
+        
+        scheduleFlush();
+    }
+    
     private void scheduleReconnect() {
-        if (lastCoinIds == null || isConnected || isConnecting) return;
+        synchronized (this) {
+            if (streams.isEmpty() || isConnected || isConnecting) return;
+        }
         
         Log.d(TAG, "Scheduling reconnect in " + reconnectDelay + "ms");
         reconnectHandler.postDelayed(() -> {
-            if (!isConnected && !isConnecting) {
-                Log.d(TAG, "Attempting reconnect...");
-                connect(lastCoinIds, lastKlineInterval);
+            synchronized (WebSocketClient.this) {
+                if (!isConnected && !isConnecting && !streams.isEmpty()) {
+                    Log.d(TAG, "Attempting reconnect...");
+                    connect();
+                }
             }
         }, reconnectDelay);
         
@@ -219,128 +296,52 @@ public class WebSocketClient {
     
     /**
      * 메시지 처리
+     * 파서와 프레임 홀더는 연결별 수신 스레드 전용이다.
+     * SUBSCRIBE 응답({"result":null,"id":n})은 파서가 무시한다.
      */
-    private void handleMessage(String message) {
-        try {
-            // ... (existing message handling logic) ...
-            // To save tokens, I'm not repeating the entire handleMessage body here unless necessary.
-            // But since I'm replacing the whole block, I MUST include it.
-            
-            // 디버깅: kline 메시지인 경우 로그 출력
-            if (message.contains("kline") || message.contains("@kline")) {
-                // Log.d(TAG, "Received kline message: " + message.substring(0, Math.min(200, message.length())));
-            }
-            
-            JSONObject json = new JSONObject(message);
-            
-            // Binance combined stream 형식: {"stream":"btcusdt@ticker","data":{...}}
-            if (json.has("stream") && json.has("data")) {
-                JSONObject data = json.getJSONObject("data");
-                String stream = json.getString("stream");
-                
-                // ticker 스트림인지 확인
-                if (stream.contains("@ticker")) {
-                    String symbol = data.getString("s");
-                    double price = data.getDouble("c");
-                    double changePercent = data.optDouble("P", 0.0); // 24시간 변동률
-                    
-                    String coinId = getCoinIdFromSymbol(symbol);
-                    if (coinId == null) coinId = symbol;
-                    
-                    notifyPriceUpdate(coinId, price, changePercent);
-                }
-                // kline 스트림인지 확인
-                else if (stream.contains("@kline")) {
-                    if (data.has("k")) {
-                        JSONObject kline = data.getJSONObject("k");
-                        boolean isClosed = kline.getBoolean("x");
-                        
-                        if (isClosed) {
-                            String symbol = kline.getString("s");
-                            long openTime = kline.getLong("t");
-                            double open = kline.getDouble("o");
-                            double high = kline.getDouble("h");
-                            double low = kline.getDouble("l");
-                            double close = kline.getDouble("c");
-                            double volume = kline.getDouble("v");
-                            
-                            String coinId = getCoinIdFromSymbol(symbol);
-                            if (coinId == null) coinId = symbol;
-                            
-                            notifyKlineUpdate(coinId, openTime, open, high, low, close, volume);
-                        }
-                    }
-                }
-            } 
-            // 단일 스트림 형식
-            else if (json.has("e") && "24hrTicker".equals(json.getString("e"))) {
-                String symbol = json.getString("s");
-                double price = json.getDouble("c");
-                double changePercent = json.optDouble("P", 0.0);
-                
-                String coinId = getCoinIdFromSymbol(symbol);
-                if (coinId == null) coinId = symbol;
-                
-                notifyPriceUpdate(coinId, price, changePercent);
-            }
-            else if (json.has("e") && "kline".equals(json.getString("e"))) {
-                if (json.has("k")) {
-                    JSONObject kline = json.getJSONObject("k");
-                    boolean isClosed = kline.getBoolean("x");
-                    
-                    if (isClosed) {
-                        String symbol = kline.getString("s");
-                        long openTime = kline.getLong("t");
-                        double open = kline.getDouble("o");
-                        double high = kline.getDouble("h");
-                        double low = kline.getDouble("l");
-                        double close = kline.getDouble("c");
-                        double volume = kline.getDouble("v");
-                        
-                        String coinId = getCoinIdFromSymbol(symbol);
-                        if (coinId == null) coinId = symbol;
-                        
-                        notifyKlineUpdate(coinId, openTime, open, high, low, close, volume);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing WebSocket message: " + message, e);
+    private void handleMessage(String message, BinanceFrameParser frameParser, BinanceFrame frame) {
+        if (!frameParser.parse(message, frame)) {
+            return;
         }
-    }
-    
-    /**
-     * Binance 심볼을 CoinGecko ID로 변환
-     */
-    private String getCoinIdFromSymbol(String binanceSymbol) {
-        String symbol = binanceSymbol.toLowerCase().replace("usdt", "");
-        for (java.util.Map.Entry<String, String> entry : SYMBOL_MAP.entrySet()) {
-            if (entry.getValue().replace("usdt", "").equals(symbol)) {
-                return entry.getKey();
-            }
+        
+        // 구독한 심볼은 이미 등록되어 있으므로 보통 조회만 한다
+        int symbolId = symbolRegistry.idOfSymbol(frame.getSymbol());
+        if (symbolId == SymbolRegistry.NO_ID) {
+            symbolId = symbolRegistry.ensureId(frame.getSymbol());
+        }
+        
+        if (frame.isTicker()) {
+            notifyPriceUpdate(symbolId, frame.getPrice(), frame.getChangePercent());
+        } else if (frame.isKline() && frame.isKlineClosed()) {
+            notifyKlineUpdate(symbolId, frame.getInterval(), frame.getOpenTime(), frame.getOpen(),
+                frame.getHigh(), frame.getLow(), frame.getClose(), frame.getVolume());
         }
-        // 매핑에 없으면 심볼 그대로 반환 (예: "leo")
-        return symbol;
     }
     
     /**
-     * 연결 해제
+     * 연결 해제 (모든 구독 제거)
      */
     public void disconnect() {
-        // 재연결 예약 취소
+        // 재연결 / 제어 메시지 예약 취소
         reconnectHandler.removeCallbacksAndMessages(null);
-        lastCoinIds = null; // 재연결 방지
         
-        if (webSocket != null) {
-            try {
-                webSocket.close(1000, "Normal closure");
-            } catch (Exception e) {
-                Log.e(TAG, "Error closing WebSocket", e);
+        synchronized (this) {
+            streams.clear(); // 재연결 방지
+            pendingSubscribe.clear();
+            pendingUnsubscribe.clear();
+            flushScheduled = false;
+            
+            if (webSocket != null) {
+                try {
+                    webSocket.close(1000, "Normal closure");
+                } catch (Exception e) {
+                    Log.e(TAG, "Error closing WebSocket", e);
+                }
+                webSocket = null;
             }
-            webSocket = null;
+            isConnected = false;
+            isConnecting = false;
         }
-        isConnected = false;
-        isConnecting = false;
         notifyConnectionStatus(false);
     }
     
@@ -379,18 +380,18 @@ public class WebSocketClient {
     /**
      * 가격 업데이트 알림
      */
-    private void notifyPriceUpdate(String coinId, double price, double changePercent) {
+    private void notifyPriceUpdate(int symbolId, double price, double changePercent) {
         for (PriceUpdateListener listener : listeners) {
-            listener.onPriceUpdate(coinId, price, changePercent);
+            listener.onPriceUpdate(symbolId, price, changePercent);
         }
     }
     
     /**
      * Kline 업데이트 알림
      */
-    private void notifyKlineUpdate(String coinId, long openTime, double open, double high, double low, double close, double volume) {
+    private void notifyKlineUpdate(int symbolId, String interval, long openTime, double open, double high, double low, double close, double volume) {
         for (KlineUpdateListener listener : klineListeners) {
-            listener.onKlineUpdate(coinId, openTime, open, high, low, close, volume);
+            listener.onKlineUpdate(symbolId, interval, openTime, open, high, low, close, volume);
         }
     }
     
@@ -412,9 +413,10 @@ public class WebSocketClient {
     
     /**
      * 가격 업데이트 리스너 인터페이스
+     * symbolId는 SymbolRegistry ID (coinId는 SymbolRegistry.coinIdOf로 조회)
      */
     public interface PriceUpdateListener {
-        void onPriceUpdate(String coinId, double price, double changePercent);
+        void onPriceUpdate(int symbolId, double price, double changePercent);
         void onConnectionStatusChanged(boolean connected);
     }
     
@@ -422,7 +424,6 @@ public class WebSocketClient {
      * Kline 업데이트 리스너 인터페이스
      */
     public interface KlineUpdateListener {
-        void onKlineUpdate(String coinId, long openTime, double open, double high, double low, double close, double volume);
+        void onKlineUpdate(int symbolId, String interval, long openTime, double open, double high, double low, double close, double volume);
     }
 }
-
@@ -0,0 +1,124 @@
+package com.example.rsquare.data.remote.model;
+
+import com.example.rsquare.domain.CandleSeries;
+
+import java.util.Arrays;
+
+/**
+ * Binance klines 응답 모델 (컬럼형)
+ * 
+ * 캔들마다 쓰는 필드(시작/종료 시각, OHLCV)만 기본형 배열로 보관한다.
+ * 거래 횟수, 테이커 거래량 같은 나머지 필드는 KlineBatchAdapter가 읽지 않고 건너뛴다.
+ */
+public class KlineBatch {
+    
+    private static final int MIN_CAPACITY = 16;
+    
+    private long[] openTimes;
+    private long[] closeTimes;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] volumes;
+    private int size;
+    
+    public KlineBatch() {
+        this(MIN_CAPACITY);
+    }
+    
+    public KlineBatch(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, MIN_CAPACITY);
+        openTimes = new long[capacity];
+        closeTimes = new long[capacity];
+        opens = new double[capacity];
+        highs = new double[capacity];
+        lows = new double[capacity];
+        closes = new double[capacity];
+        volumes = new double[capacity];
+    }
+    
+    /**
+     * 캔들 추가 (시작 시각 오름차순으로 호출)
+     */
+    public void add(long openTime, double open, double high, double low, double close,
+                    double volume, long closeTime) {
+        if (size == openTimes.length) {
+            grow(size * 2);
+        }
+        openTimes[size] = openTime;
+        opens[size] = open;
+        highs[size] = high;
+        lows[size] = low;
+        closes[size] = close;
+        volumes[size] = volume;
+        closeTimes[size] = closeTime;
+        size++;
+    }
+    
+    private void grow(int capacity) {
+        openTimes = Arrays.copyOf(openTimes, capacity);
+        closeTimes = Arrays.copyOf(closeTimes, capacity);
+        opens = Arrays.copyOf(opens, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        closes = Arrays.copyOf(closes, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+    }
+    
+    private int checked(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return index;
+    }
+    
+    /**
+     * 컬럼형 시계열로 변환
+     */
+    public CandleSeries toSeries(String symbol, String interval) {
+        CandleSeries series = new CandleSeries(symbol, interval, size);
+        for (int i = 0; i < size; i++) {
+            series.append(openTimes[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+        }
+        return series;
+    }
+    
+    // Getters (index 0 = 가장 오래된 캔들)
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public long getOpenTime(int index) {
+        return openTimes[checked(index)];
+    }
+    
+    public long getCloseTime(int index) {
+        return closeTimes[checked(index)];
+    }
+    
+    public double getOpen(int index) {
+        return opens[checked(index)];
+    }
+    
+    public double getHigh(int index) {
+        return highs[checked(index)];
+    }
+    
+    public double getLow(int index) {
+        return lows[checked(index)];
+    }
+    
+    public double getClose(int index) {
+        return closes[checked(index)];
+    }
+    
+    public double getVolume(int index) {
+        return volumes[checked(index)];
+    }
+}
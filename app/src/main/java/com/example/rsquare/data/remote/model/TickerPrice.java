@@ -0,0 +1,26 @@
+package com.example.rsquare.data.remote.model;
+
+/**
+ * Binance 현재가 (api/v3/ticker/price)
+ * 가격은 문자열로 오지만 Gson이 double로 읽는다.
+ */
+public class TickerPrice {
+    private String symbol;
+    private double price;
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
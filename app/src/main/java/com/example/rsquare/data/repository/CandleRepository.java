@@ -0,0 +1,361 @@
+package com.example.rsquare.data.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.rsquare.data.local.AppDatabase;
+import com.example.rsquare.data.local.dao.CandleDao;
+import com.example.rsquare.data.local.entity.Candle;
+import com.example.rsquare.data.remote.BinanceApiService;
+import com.example.rsquare.data.remote.NetworkModule;
+import com.example.rsquare.data.remote.model.KlineBatch;
+import com.example.rsquare.domain.CandleSeries;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import retrofit2.Response;
+
+/**
+ * 캔들 Repository
+ * 
+ * (심볼, 간격)별 캔들을 Room에 보관하고, 요청 구간 중 로컬에 없는 부분만 Binance에서 받는다.
+ * 차트를 다시 열면 진행 중인 마지막 캔들 몇 개만 받아오고 나머지는 로컬에서 읽는다.
+ * 
+ * 비동기 조회는 Room 작업만 AppDatabase.databaseWriteExecutor에서 하고, 네트워크 요청은 전용 스레드에서
+ * 처리한다 (느린 차트 조회가 거래 쓰기를 막지 않도록).
+ */
+public class CandleRepository {
+    
+    private static final String TAG = "CandleRepository";
+    
+    private static final int MAX_LIMIT = 1000; // Binance klines 최대 개수
+    private static final int MAX_GAP_REQUESTS = 3; // 빠진 구간이 더 많으면 한 번에 받기
+    private static final int MAX_STORED_CANDLES = 3000; // 시리즈당 보관 개수
+    
+    // 구간 조회 간격 후보 (요청 한 번에 담기는 가장 작은 간격을 고름)
+    private static final String[] RANGE_INTERVALS = {"1m", "5m", "15m", "1h", "4h"};
+    
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long WEEK = 7 * DAY;
+    private static final long WEEK_OFFSET = 4 * DAY; // 1970-01-01은 목요일, Binance 주봉은 월요일 시작
+    
+    // 상장 전처럼 거래소에 데이터가 없는 앞부분 (시리즈별 첫 캔들 시각, 프로세스 동안만 유지)
+    private static final Map<String, Long> firstAvailableTimes = new ConcurrentHashMap<>();
+    
+    // klines 요청 전용 스레드 (DB 쓰기 스레드와 분리)
+    private static final ExecutorService fetchExecutor = Executors.newFixedThreadPool(2,
+        runnable -> new Thread(runnable, "candle-fetch"));
+    
+    private final CandleDao candleDao;
+    private final BinanceApiService binanceApiService;
+    
+    public CandleRepository(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.candleDao = database.candleDao();
+        this.binanceApiService = NetworkModule.getBinanceApiService();
+    }
+    
+    /**
+     * 최근 캔들 조회 (백그라운드에서 빠진 구간만 받은 뒤 로컬에서 읽음)
+     * 
+     * @param symbol Binance 심볼 (예: BTCUSDT)
+     * @param interval 간격 (isSupported()가 true인 값)
+     * @param limit 최근 캔들 개수 (최대 1000)
+     */
+    public void getRecentCandles(String symbol, String interval, int limit, OnCandlesLoadedListener listener) {
+        // 로컬 조회 -> 빠진 구간 받기 -> 저장 / 읽기 순으로 스레드를 옮겨 가며 처리
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            FetchPlan plan = plan(symbol, interval, limit);
+            if (plan.gaps.isEmpty()) {
+                deliver(plan, () -> store(plan, Collections.emptyList()), listener);
+                return;
+            }
+            fetchExecutor.execute(() -> {
+                List<List<Candle>> downloaded;
+                try {
+                    downloaded = download(plan);
+                } catch (IOException e) {
+                    AppDatabase.databaseWriteExecutor.execute(() -> deliver(plan, () -> fallback(plan, e), listener));
+                    return;
+                }
+                AppDatabase.databaseWriteExecutor.execute(() -> deliver(plan, () -> store(plan, downloaded), listener));
+            });
+        });
+    }
+    
+    private interface CandleLoader {
+        List<Candle> load() throws IOException;
+    }
+    
+    private static void deliver(FetchPlan plan, CandleLoader loader, OnCandlesLoadedListener listener) {
+        try {
+            List<Candle> candles = loader.load();
+            if (listener != null) {
+                listener.onCandlesLoaded(candles);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Candle fetch failed: " + plan.symbol + " " + plan.interval, e);
+            if (listener != null) {
+                listener.onError("네트워크 오류: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 최근 캔들 조회 (동기, 백그라운드 스레드에서 호출)
+     * 네트워크가 실패해도 로컬에 캔들이 있으면 그것을 반환한다.
+     */
+    public List<Candle> getRecentCandlesSync(String symbol, String interval, int limit) throws IOException {
+        FetchPlan plan = plan(symbol, interval, limit);
+        List<List<Candle>> downloaded;
+        try {
+            downloaded = download(plan);
+        } catch (IOException e) {
+            return fallback(plan, e);
+        }
+        return store(plan, downloaded);
+    }
+    
+    /**
+     * 요청 구간과 로컬에 빠진 구간 계산 (Room 읽기)
+     */
+    private FetchPlan plan(String symbol, String interval, int limit) {
+        long intervalMs = intervalMillis(interval);
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("Unsupported interval: " + interval);
+        }
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        
+        FetchPlan plan = new FetchPlan(symbol, interval, intervalMs);
+        plan.endTime = alignOpenTime(System.currentTimeMillis(), intervalMs);
+        plan.startTime = plan.endTime - (limit - 1) * intervalMs;
+        
+        Long firstAvailable = firstAvailableTimes.get(plan.seriesKey);
+        plan.expectedStart = firstAvailable != null ? Math.max(plan.startTime, firstAvailable) : plan.startTime;
+        
+        plan.gaps = findGaps(
+            candleDao.getClosedOpenTimes(symbol, interval, plan.expectedStart, plan.endTime),
+            plan.expectedStart, plan.endTime, intervalMs);
+        if (plan.gaps.size() > MAX_GAP_REQUESTS) {
+            // 잘게 흩어진 구간은 하나로 합쳐 한 번에 받기 (전체가 1000개 이내)
+            long[] merged = {plan.gaps.get(0)[0], plan.gaps.get(plan.gaps.size() - 1)[1]};
+            plan.gaps.clear();
+            plan.gaps.add(merged);
+        }
+        return plan;
+    }
+    
+    /**
+     * 빠진 구간 받기 (네트워크만, Room 접근 없음)
+     * 
+     * @return 구간별 캔들 (plan.gaps 순서)
+     */
+    private List<List<Candle>> download(FetchPlan plan) throws IOException {
+        List<List<Candle>> downloaded = new ArrayList<>(plan.gaps.size());
+        for (long[] gap : plan.gaps) {
+            List<Candle> candles = fetch(plan.symbol, plan.interval, gap[0], gap[1]);
+            if (gap[0] == plan.expectedStart) {
+                // 구간 앞쪽이 비어 있으면 그 전에는 데이터가 없는 것
+                long first = candles.isEmpty() ? gap[1] + plan.intervalMs : candles.get(0).getOpenTime();
+                if (first > gap[0]) {
+                    firstAvailableTimes.put(plan.seriesKey, first);
+                }
+            }
+            downloaded.add(candles);
+        }
+        return downloaded;
+    }
+    
+    /**
+     * 받은 캔들 저장 후 요청 구간 읽기 (Room 쓰기)
+     */
+    private List<Candle> store(FetchPlan plan, List<List<Candle>> downloaded) {
+        int fetched = 0;
+        for (List<Candle> candles : downloaded) {
+            if (!candles.isEmpty()) {
+                candleDao.insertAll(candles);
+                fetched += candles.size();
+            }
+        }
+        
+        if (fetched > 0) {
+            candleDao.deleteBefore(plan.symbol, plan.interval, plan.endTime - MAX_STORED_CANDLES * plan.intervalMs);
+        }
+        Log.d(TAG, plan.symbol + " " + plan.interval + ": " + plan.gaps.size() + " gap requests, " + fetched + " candles fetched");
+        
+        return candleDao.getRange(plan.symbol, plan.interval, plan.startTime, plan.endTime);
+    }
+    
+    /**
+     * 네트워크 실패 시 로컬 캔들 (없으면 원래 오류)
+     */
+    private List<Candle> fallback(FetchPlan plan, IOException error) throws IOException {
+        List<Candle> local = candleDao.getRange(plan.symbol, plan.interval, plan.startTime, plan.endTime);
+        if (local.isEmpty()) throw error;
+        Log.w(TAG, "Using " + local.size() + " local candles, fetch failed: " + error.getMessage());
+        return local;
+    }
+    
+    /**
+     * 구간 캔들 조회 (동기, 로컬에 저장하지 않음)
+     * [startTime, endTime]이 요청 한 번(최대 1000개)에 들어가는 가장 작은 간격으로 받는다.
+     * 4시간봉으로도 넘치면 앞에서부터 1000개까지만.
+     * 
+     * @return startTime이 속한 캔들부터 시작 시각 오름차순
+     */
+    public CandleSeries getRangeSync(String symbol, long startTime, long endTime) throws IOException {
+        String interval = RANGE_INTERVALS[RANGE_INTERVALS.length - 1];
+        for (String candidate : RANGE_INTERVALS) {
+            // 정렬로 앞에 한 개가 더 붙을 수 있음
+            if ((endTime - startTime) / intervalMillis(candidate) < MAX_LIMIT - 1) {
+                interval = candidate;
+                break;
+            }
+        }
+        
+        long alignedStart = alignOpenTime(startTime, intervalMillis(interval));
+        Response<KlineBatch> response = binanceApiService
+            .getKlines(symbol, interval, MAX_LIMIT, alignedStart, endTime)
+            .execute();
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new IOException("API 응답 오류: " + response.code());
+        }
+        return response.body().toSeries(symbol, interval);
+    }
+    
+    /**
+     * 구간 받기 (openTime 기준 [startTime, endTime])
+     */
+    private List<Candle> fetch(String symbol, String interval, long startTime, long endTime) throws IOException {
+        Response<KlineBatch> response = binanceApiService
+            .getKlines(symbol, interval, MAX_LIMIT, startTime, endTime)
+            .execute();
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new IOException("API 응답 오류: " + response.code());
+        }
+        
+        long now = System.currentTimeMillis();
+        KlineBatch batch = response.body();
+        List<Candle> candles = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Candle candle = new Candle();
+            candle.setSymbol(symbol);
+            candle.setInterval(interval);
+            candle.setOpenTime(batch.getOpenTime(i));
+            candle.setOpen(batch.getOpen(i));
+            candle.setHigh(batch.getHigh(i));
+            candle.setLow(batch.getLow(i));
+            candle.setClose(batch.getClose(i));
+            candle.setVolume(batch.getVolume(i));
+            candle.setCloseTime(batch.getCloseTime(i));
+            candle.setClosed(candle.getCloseTime() < now);
+            candles.add(candle);
+        }
+        return candles;
+    }
+    
+    /**
+     * 빠진 구간 계산
+     * 
+     * @param present 로컬에 있는 (마감된) 캔들 시작 시각, 오름차순
+     * @return [시작, 끝] 시작 시각 구간 목록 (양 끝 포함)
+     */
+    public static List<long[]> findGaps(List<Long> present, long startTime, long endTime, long intervalMs) {
+        List<long[]> gaps = new ArrayList<>();
+        long expected = startTime;
+        for (Long openTime : present) {
+            if (openTime < expected) continue;
+            if (openTime > endTime) break;
+            if (openTime > expected) {
+                gaps.add(new long[] {expected, openTime - intervalMs});
+            }
+            expected = openTime + intervalMs;
+        }
+        if (expected <= endTime) {
+            gaps.add(new long[] {expected, endTime});
+        }
+        return gaps;
+    }
+    
+    /**
+     * 로컬 저장소를 쓸 수 있는 간격인지 (월봉처럼 길이가 일정하지 않은 간격 제외)
+     */
+    public static boolean isSupported(String interval) {
+        return intervalMillis(interval) > 0;
+    }
+    
+    /**
+     * 간격 길이 (ms, 지원하지 않으면 -1)
+     */
+    public static long intervalMillis(String interval) {
+        if (interval == null || interval.length() < 2) return -1;
+        long count;
+        try {
+            count = Long.parseLong(interval.substring(0, interval.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        switch (interval.charAt(interval.length() - 1)) {
+            case 'm': return count * MINUTE;
+            case 'h': return count * HOUR;
+            case 'd': return count * DAY;
+            case 'w': return count * WEEK;
+            default: return -1; // 1M (월)
+        }
+    }
+    
+    /**
+     * time이 속한 캔들의 시작 시각 (UTC 기준)
+     */
+    public static long alignOpenTime(long time, long intervalMs) {
+        long offset = intervalMs % WEEK == 0 ? WEEK_OFFSET : 0;
+        return Math.floorDiv(time - offset, intervalMs) * intervalMs + offset;
+    }
+    
+    /**
+     * 컬럼형 시계열로 변환 (시작 시각 오름차순 목록)
+     */
+    public static CandleSeries toSeries(String symbol, String interval, List<Candle> candles) {
+        CandleSeries series = new CandleSeries(symbol, interval, candles.size());
+        for (Candle candle : candles) {
+            series.append(candle.getOpenTime(), candle.getOpen(), candle.getHigh(),
+                candle.getLow(), candle.getClose(), candle.getVolume());
+        }
+        return series;
+    }
+    
+    /**
+     * 최근 캔들 조회 계획 (스레드 사이에 넘기는 값)
+     */
+    private static final class FetchPlan {
+        final String symbol;
+        final String interval;
+        final long intervalMs;
+        final String seriesKey;
+        long startTime;
+        long endTime;
+        long expectedStart;
+        List<long[]> gaps;
+        
+        FetchPlan(String symbol, String interval, long intervalMs) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.intervalMs = intervalMs;
+            this.seriesKey = symbol + "@" + interval;
+        }
+    }
+    
+    public interface OnCandlesLoadedListener {
+        void onCandlesLoaded(List<Candle> candles);
+        void onError(String error);
+    }
+}
@@ -1,20 +1,29 @@
 package com.example.rsquare.data.repository;
 
+import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import com.example.rsquare.data.local.entity.Candle;
 import com.example.rsquare.data.remote.BinanceApiService;
 import com.example.rsquare.data.remote.CoinGeckoApiService;
+import com.example.rsquare.data.remote.MarketDataHub;
 import com.example.rsquare.data.remote.NetworkModule;
+import com.example.rsquare.data.remote.PriceTable;
+import com.example.rsquare.data.remote.SingleFlight;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.remote.TickBus;
 import com.example.rsquare.data.remote.WebSocketClient;
 import com.example.rsquare.data.remote.model.CoinListItem;
-import com.example.rsquare.data.remote.model.CoinMarketChart;
 import com.example.rsquare.data.remote.model.CoinPrice;
+import com.example.rsquare.data.remote.model.KlineBatch;
+import com.example.rsquare.domain.CandleSeries;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -31,51 +40,60 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
     private static final String TAG = "MarketDataRepository";
     private final CoinGeckoApiService apiService;
     private final BinanceApiService binanceApiService;
-    private WebSocketClient webSocketClient;
+    
+    // 프로세스 전역 WebSocket 허브 (연결 하나를 모든 Repository가 공유)
+    private final MarketDataHub marketDataHub;
+    private Set<String> heldStreams = Collections.emptySet();
+    private boolean hubListenersRegistered = false;
+    // 공유 연결에서 이 Repository가 구독한 것만 받기 위한 필터 (SymbolRegistry ID로 인덱싱)
+    private volatile boolean[] subscribedSymbolIds = new boolean[0];
+    private volatile String subscribedKlineInterval;
     
     // 유효한 Binance 심볼 캐시
     private static Set<String> validBinanceSymbols = null;
     
-    // Binance 심볼 매핑 (CoinGecko ID -> Binance Symbol)
-    private static final java.util.Map<String, String> SYMBOL_MAP = new java.util.HashMap<String, String>() {{
-        put("bitcoin", "BTCUSDT");
-        put("ethereum", "ETHUSDT");
-        put("cardano", "ADAUSDT");
-        put("solana", "SOLUSDT");
-        put("ripple", "XRPUSDT");
-        put("polkadot", "DOTUSDT");
-        put("dogecoin", "DOGEUSDT");
-        put("avalanche-2", "AVAXUSDT");
-    }};
+    // 심볼 매핑 (CoinGecko ID <-> Binance Symbol)
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.getInstance();
     
     /**
      * Binance 심볼을 CoinGecko ID로 변환
      */
     public String getCoinIdFromSymbol(String binanceSymbol) {
-        String symbol = binanceSymbol.toLowerCase().replace("usdt", "");
-        for (java.util.Map.Entry<String, String> entry : SYMBOL_MAP.entrySet()) {
-            if (entry.getValue().replace("usdt", "").equals(symbol)) {
-                return entry.getKey();
-            }
-        }
-        return null;
+        if (binanceSymbol == null) return null;
+        return symbolRegistry.toCoinId(binanceSymbol);
     }
     
-    // 간단한 메모리 캐시
-    private final Map<String, CoinPrice> priceCache = new HashMap<>();
-    private long lastPriceUpdate = 0;
+    // 최신 가격 테이블 (프로세스 전역, 심볼별 갱신 시각 포함)
+    private final PriceTable priceTable = PriceTable.getInstance();
     private static final long CACHE_DURATION = 30 * 1000; // 30초
     
+    // 같은 요청이 동시에 여러 번 나가지 않도록 진행 중인 호출에 합류 (프로세스 전역)
+    private final SingleFlight singleFlight = SingleFlight.getInstance();
+    
     // 실시간 가격 업데이트 리스너
     private OnPriceUpdateListener priceUpdateListener;
-    private OnRealtimeUpdateListener realtimeUpdateListener;
-    private OnKlineUpdateListener klineUpdateListener;
+    private volatile OnKlineUpdateListener klineUpdateListener;
+    
+    // 틱 병합 버스: 리스너는 메시지마다가 아니라 구독 주기마다 메인 스레드에서 호출된다
+    private final TickBus tickBus = new TickBus();
+    private TickBus.Subscription priceSubscription;
+    private TickBus.Subscription realtimeSubscription;
+    
+    // 로컬 캔들 저장소 (Context 없이 생성하면 사용 안 함)
+    private CandleRepository candleRepository;
     
     public MarketDataRepository() {
         this.apiService = NetworkModule.getApiService();
         this.binanceApiService = NetworkModule.getBinanceApiService();
-        this.webSocketClient = new WebSocketClient();
-        this.webSocketClient.addPriceUpdateListener(this);
+        this.marketDataHub = MarketDataHub.getInstance();
+    }
+    
+    /**
+     * 로컬 캔들 저장소를 사용하는 생성자 (차트처럼 klines를 반복 조회하는 화면용)
+     */
+    public MarketDataRepository(Context context) {
+        this();
+        this.candleRepository = new CandleRepository(context);
     }
     
     /**
@@ -86,23 +104,52 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
     }
     
     /**
-     * 웹소켓 연결 시작 (실시간 가격 + 캔들스틱 업데이트)
+     * 웹소켓 구독 시작 (실시간 가격 + 캔들스틱 업데이트)
+     * 이 Repository의 이전 구독을 새 목록으로 교체한다. 연결은 허브가 공유하며
+     * 바뀐 스트림만 SUBSCRIBE / UNSUBSCRIBE 된다.
      * @param coinIds 코인 ID 목록
      * @param klineInterval kline 간격 (예: "1m", "5m", "1h") - null이면 ticker만
      */
-    public void startWebSocket(List<String> coinIds, String klineInterval) {
-        if (webSocketClient == null) {
-            Log.e(TAG, "WebSocketClient is null");
+    public synchronized void startWebSocket(List<String> coinIds, String klineInterval) {
+        boolean withKline = klineInterval != null && !klineInterval.isEmpty();
+        Set<String> streams = new LinkedHashSet<>();
+        int[] symbolIds = new int[coinIds.size()];
+        int symbolCount = 0;
+        int maxSymbolId = -1;
+        for (String coinId : coinIds) {
+            if (coinId == null || coinId.isEmpty()) continue;
+            int symbolId = symbolRegistry.ensureId(coinId);
+            streams.add(WebSocketClient.tickerStream(coinId));
+            if (withKline) {
+                streams.add(WebSocketClient.klineStream(coinId, klineInterval));
+            }
+            symbolIds[symbolCount++] = symbolId;
+            maxSymbolId = Math.max(maxSymbolId, symbolId);
+        }
+        
+        if (streams.isEmpty()) {
+            Log.w(TAG, "No valid symbols to subscribe");
+            stopWebSocket();
             return;
         }
         
-        if (webSocketClient.isConnected()) {
-            Log.d(TAG, "WebSocket already connected, reconnecting...");
-            webSocketClient.disconnect();
+        Log.d(TAG, "Subscribing streams: " + streams);
+        boolean[] symbolFilter = new boolean[maxSymbolId + 1];
+        for (int i = 0; i < symbolCount; i++) {
+            symbolFilter[symbolIds[i]] = true;
+        }
+        subscribedSymbolIds = symbolFilter;
+        subscribedKlineInterval = withKline ? klineInterval : null;
+        if (!hubListenersRegistered) {
+            marketDataHub.addPriceUpdateListener(this);
+            marketDataHub.addKlineUpdateListener(hubKlineListener);
+            hubListenersRegistered = true;
         }
         
-        Log.d(TAG, "Starting WebSocket connection for coins: " + coinIds + ", interval: " + klineInterval);
-        webSocketClient.connect(coinIds, klineInterval);
+        // 새 스트림을 먼저 잡고 이전 스트림을 놓아야 겹치는 스트림이 UNSUBSCRIBE 되지 않는다
+        marketDataHub.acquire(streams);
+        marketDataHub.release(heldStreams);
+        heldStreams = streams;
     }
     
     /**
@@ -111,35 +158,80 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      * @param listener 리스너
      */
     public void subscribeToRealtimeUpdates(List<String> symbols, OnRealtimeUpdateListener listener) {
-        this.realtimeUpdateListener = listener;
-        if (webSocketClient != null) {
-            // 기존 연결이 있으면 끊고 다시 연결 (새로운 심볼 추가를 위해)
-            // 실제로는 구독 추가 기능이 있으면 좋겠지만, 현재는 재연결로 처리
-            startWebSocket(symbols);
-        }
+        subscribeToRealtimeUpdates(symbols, TickBus.CADENCE_FRAME, listener);
     }
     
     /**
-     * 웹소켓 연결 해제
+     * 실시간 업데이트 구독 (자산 목록용, 전달 주기 지정)
+     * @param symbols 심볼 목록 (예: "BTCUSDT", "ETHUSDT")
+     * @param cadenceMs 전달 주기 (TickBus.CADENCE_*)
+     * @param listener 리스너 (메인 스레드에서 호출)
      */
-    public void stopWebSocket() {
-        if (webSocketClient != null) {
-            webSocketClient.disconnect();
+    public void subscribeToRealtimeUpdates(List<String> symbols, long cadenceMs, OnRealtimeUpdateListener listener) {
+        setRealtimeUpdateListener(listener, cadenceMs);
+        // 공유 연결에 바뀐 심볼만 추가 / 제거 (재연결 없음)
+        startWebSocket(symbols);
+    }
+    
+    /**
+     * 웹소켓 구독 해제 (공유 연결은 다른 구독자가 없을 때 허브가 닫는다)
+     */
+    public synchronized void stopWebSocket() {
+        if (hubListenersRegistered) {
+            marketDataHub.removePriceUpdateListener(this);
+            marketDataHub.removeKlineUpdateListener(hubKlineListener);
+            hubListenersRegistered = false;
+        }
+        if (!heldStreams.isEmpty()) {
+            marketDataHub.release(heldStreams);
+            heldStreams = Collections.emptySet();
         }
+        subscribedSymbolIds = new boolean[0];
+        subscribedKlineInterval = null;
     }
     
     /**
-     * 실시간 가격 업데이트 리스너 설정 (기존)
+     * 실시간 가격 업데이트 리스너 설정 (기존, 디스플레이 프레임마다 전달)
      */
     public void setPriceUpdateListener(OnPriceUpdateListener listener) {
+        setPriceUpdateListener(listener, TickBus.CADENCE_FRAME);
+    }
+    
+    /**
+     * 실시간 가격 업데이트 리스너 설정
+     * @param cadenceMs 전달 주기 (TickBus.CADENCE_*) - 주기 안의 틱은 심볼별 최신 값 하나로 병합됨
+     */
+    public void setPriceUpdateListener(OnPriceUpdateListener listener, long cadenceMs) {
         this.priceUpdateListener = listener;
+        if (priceSubscription != null) {
+            priceSubscription.cancel();
+            priceSubscription = null;
+        }
+        if (listener != null) {
+            priceSubscription = tickBus.subscribe(cadenceMs,
+                (coinId, price, changePercent) -> listener.onPriceUpdate(coinId, price));
+        }
     }
 
     /**
-     * 실시간 업데이트 리스너 설정 (가격 + 변동률)
+     * 실시간 업데이트 리스너 설정 (가격 + 변동률, 디스플레이 프레임마다 전달)
      */
     public void setRealtimeUpdateListener(OnRealtimeUpdateListener listener) {
-        this.realtimeUpdateListener = listener;
+        setRealtimeUpdateListener(listener, TickBus.CADENCE_FRAME);
+    }
+    
+    /**
+     * 실시간 업데이트 리스너 설정 (가격 + 변동률)
+     * @param cadenceMs 전달 주기 (TickBus.CADENCE_*) - 주기 안의 틱은 심볼별 최신 값 하나로 병합됨
+     */
+    public void setRealtimeUpdateListener(OnRealtimeUpdateListener listener, long cadenceMs) {
+        if (realtimeSubscription != null) {
+            realtimeSubscription.cancel();
+            realtimeSubscription = null;
+        }
+        if (listener != null) {
+            realtimeSubscription = tickBus.subscribe(cadenceMs, listener::onRealtimeUpdate);
+        }
     }
     
     /**
@@ -147,47 +239,36 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      */
     public void setKlineUpdateListener(OnKlineUpdateListener listener) {
         this.klineUpdateListener = listener;
-        if (listener != null && webSocketClient != null) {
-            webSocketClient.addKlineUpdateListener(new WebSocketClient.KlineUpdateListener() {
-                @Override
-                public void onKlineUpdate(String coinId, long openTime, double open, double high, double low, double close, double volume) {
-                    if (klineUpdateListener != null) {
-                        klineUpdateListener.onKlineUpdate(coinId, openTime, open, high, low, close, volume);
-                    }
-                }
-            });
+    }
+    
+    // 허브의 kline 중 이 Repository가 구독한 코인 / 간격만 전달
+    private final WebSocketClient.KlineUpdateListener hubKlineListener = new WebSocketClient.KlineUpdateListener() {
+        @Override
+        public void onKlineUpdate(int symbolId, String interval, long openTime, double open, double high, double low, double close, double volume) {
+            OnKlineUpdateListener listener = klineUpdateListener;
+            String klineInterval = subscribedKlineInterval;
+            if (listener != null && klineInterval != null && klineInterval.equals(interval)
+                    && isSubscribed(symbolId)) {
+                listener.onKlineUpdate(symbolRegistry.coinIdOf(symbolId), openTime, open, high, low, close, volume);
+            }
         }
+    };
+    
+    private boolean isSubscribed(int symbolId) {
+        boolean[] symbolIds = subscribedSymbolIds;
+        return symbolId >= 0 && symbolId < symbolIds.length && symbolIds[symbolId];
     }
     
     @Override
-    public void onPriceUpdate(String coinId, double price, double changePercent) {
-        // 캐시 업데이트
-        CoinPrice cachedPrice = priceCache.get(coinId);
-        if (cachedPrice != null) {
-            // 가격만 업데이트
-            cachedPrice.setCurrentPrice(price);
-            cachedPrice.setPriceChangePercentage24h(changePercent); // CoinPrice에 필드가 있다고 가정하거나, 없으면 무시
-            priceCache.put(coinId, cachedPrice);
-        } else {
-            // 새로 생성
-            CoinPrice newPrice = new CoinPrice();
-            newPrice.setId(coinId);
-            newPrice.setCurrentPrice(price);
-            newPrice.setPriceChangePercentage24h(changePercent);
-            priceCache.put(coinId, newPrice);
-        }
+    public void onPriceUpdate(int symbolId, double price, double changePercent) {
+        // 공유 연결이므로 다른 화면이 구독한 심볼은 무시
+        if (!isSubscribed(symbolId)) return;
         
-        lastPriceUpdate = System.currentTimeMillis();
+        // 가격 테이블 업데이트 (할당 없음)
+        priceTable.put(symbolId, price, changePercent, System.currentTimeMillis());
         
-        // 기존 리스너에 알림 (가격만)
-        if (priceUpdateListener != null) {
-            priceUpdateListener.onPriceUpdate(coinId, price);
-        }
-        
-        // 새 리스너에 알림 (가격 + 변동률)
-        if (realtimeUpdateListener != null) {
-            realtimeUpdateListener.onRealtimeUpdate(coinId, price, changePercent);
-        }
+        // 리스너 알림은 틱 버스가 구독 주기마다 병합해서 전달
+        tickBus.publish(symbolId, price, changePercent);
     }
     
     @Override
@@ -205,56 +286,23 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      * @param listener 콜백
      */
     public void getCoinsMarket(String coinIds, OnMarketDataLoadedListener listener) {
-        // 캐시 확인
-        if (isCacheValid() && !priceCache.isEmpty()) {
+        // 캐시 확인 (요청한 코인이 모두 CACHE_DURATION 안에 갱신된 경우)
+        List<CoinPrice> cached = coinIds != null
+            ? priceTable.getMarkets(Arrays.asList(coinIds.split(",")), CACHE_DURATION)
+            : null;
+        if (cached != null && !cached.isEmpty()) {
             if (listener != null) {
                 new Handler(Looper.getMainLooper()).post(() -> {
-                    listener.onMarketDataLoaded(new java.util.ArrayList<>(priceCache.values()));
+                    listener.onMarketDataLoaded(cached);
                 });
             }
             return;
         }
         
-        Call<List<CoinPrice>> call = apiService.getCoinsMarket(
-            "usd",
-            coinIds,
-            "market_cap_desc",
-            50,
-            1,
-            false
-        );
-        
-        call.enqueue(new Callback<List<CoinPrice>>() {
-            @Override
-            public void onResponse(Call<List<CoinPrice>> call, Response<List<CoinPrice>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<CoinPrice> prices = response.body();
-                    
-                    // 캐시 업데이트
-                    priceCache.clear();
-                    for (CoinPrice price : prices) {
-                        priceCache.put(price.getId(), price);
-                    }
-                    lastPriceUpdate = System.currentTimeMillis();
-                    
-                    if (listener != null) {
-                        listener.onMarketDataLoaded(prices);
-                    }
-                } else {
-                    if (listener != null) {
-                        listener.onError("API 응답 오류: " + response.code());
-                    }
-                }
-            }
-            
-            @Override
-            public void onFailure(Call<List<CoinPrice>> call, Throwable t) {
-                Log.e(TAG, "Market data fetch failed", t);
-                if (listener != null) {
-                    listener.onError("네트워크 오류: " + t.getMessage());
-                }
-            }
-        });
+        // 같은 코인 목록 요청이 진행 중이면 합류
+        singleFlight.execute("markets:" + coinIds, 0,
+            completion -> fetchCoinsMarket(coinIds, 50, completion),
+            marketListener(listener));
     }
     
     /**
@@ -264,11 +312,23 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      * @param listener 콜백
      */
     public void getTopCoins(int limit, OnMarketDataLoadedListener listener) {
+        // 화면 전환마다 다시 부르므로 결과를 CACHE_DURATION 동안 보관
+        singleFlight.execute("top:" + limit, CACHE_DURATION,
+            completion -> fetchCoinsMarket(null, limit, completion),
+            marketListener(listener));
+    }
+    
+    /**
+     * CoinGecko 시장 데이터 호출 (가격 테이블 갱신 후 결과 전달)
+     * 
+     * @param coinIds 코인 ID 목록 (null이면 시가총액 순 전체)
+     */
+    private void fetchCoinsMarket(String coinIds, int perPage, SingleFlight.Completion<List<CoinPrice>> completion) {
         Call<List<CoinPrice>> call = apiService.getCoinsMarket(
             "usd",
-            null, // ids = null이면 전체 조회
+            coinIds, // ids = null이면 전체 조회
             "market_cap_desc",
-            limit,
+            perPage,
             1,
             false
         );
@@ -280,176 +340,38 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
                     List<CoinPrice> prices = response.body();
                     
                     // 캐시 업데이트
+                    long now = System.currentTimeMillis();
                     for (CoinPrice price : prices) {
-                        priceCache.put(price.getId(), price);
+                        priceTable.putMarket(price, now);
                     }
-                    lastPriceUpdate = System.currentTimeMillis();
                     
-                    if (listener != null) {
-                        listener.onMarketDataLoaded(prices);
-                    }
+                    completion.complete(prices);
                 } else {
-                    if (listener != null) {
-                        listener.onError("API 응답 오류: " + response.code());
-                    }
+                    completion.fail("API 응답 오류: " + response.code());
                 }
             }
             
             @Override
             public void onFailure(Call<List<CoinPrice>> call, Throwable t) {
-                Log.e(TAG, "Top coins fetch failed", t);
-                if (listener != null) {
-                    listener.onError("네트워크 오류: " + t.getMessage());
-                }
+                Log.e(TAG, "Market data fetch failed", t);
+                completion.fail("네트워크 오류: " + t.getMessage());
             }
         });
     }
     
-    /**
-     * 차트 데이터 조회 (Binance API 사용)
-     * 
-     * @param coinId 코인 ID (예: "bitcoin")
-     * @param days 조회 기간 (일)
-     * @param listener 콜백
-     */
-    public void getMarketChart(String coinId, int days, OnChartDataLoadedListener listener) {
-        // Binance 심볼로 변환 시도
-        String binanceSymbol = SYMBOL_MAP.get(coinId.toLowerCase());
-        
-        // 매핑에 없으면 입력값을 그대로 심볼로 사용 (예: "BTCUSDT")
-        if (binanceSymbol == null) {
-            binanceSymbol = coinId.toUpperCase();
-            if (binanceSymbol.isEmpty()) {
-                if (listener != null) {
-                    listener.onError("유효하지 않은 코인 심볼: " + coinId);
-                }
-                return;
-            }
-        }
-        
-        // 간격 결정 (days에 따라)
-        String interval = "1h"; // 기본값
-        int limit = 500; // 기본값
-        
-        if (days <= 1) {
-            interval = "5m";
-            limit = 288; // 24시간 / 5분 = 288개
-        } else if (days <= 7) {
-            interval = "1h";
-            limit = days * 24; // 시간당 1개
-        } else if (days <= 30) {
-            interval = "4h";
-            limit = days * 6; // 4시간당 1개
-        } else {
-            interval = "1d";
-            limit = days;
-        }
-        
-        // 시작 시간 계산 (현재 시간 - days일)
-        long endTime = System.currentTimeMillis();
-        long startTime = endTime - (days * 24L * 60 * 60 * 1000);
-        
-        Log.d(TAG, "Fetching Binance klines: " + binanceSymbol + " interval=" + interval + " limit=" + limit);
-        
-        Call<List<List<Object>>> call = binanceApiService.getKlines(
-            binanceSymbol,
-            interval,
-            limit,
-            startTime,
-            null // endTime은 null로 (limit만 사용)
-        );
-        
-        call.enqueue(new Callback<List<List<Object>>>() {
+    private static SingleFlight.Listener<List<CoinPrice>> marketListener(OnMarketDataLoadedListener listener) {
+        if (listener == null) return null;
+        return new SingleFlight.Listener<List<CoinPrice>>() {
             @Override
-            public void onResponse(Call<List<List<Object>>> call, Response<List<List<Object>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    try {
-                        // Binance klines 데이터를 CoinMarketChart 형식으로 변환
-                        CoinMarketChart chartData = convertBinanceKlinesToChartData(response.body());
-                        if (listener != null) {
-                            listener.onChartDataLoaded(chartData);
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error converting Binance klines", e);
-                        if (listener != null) {
-                            listener.onError("데이터 변환 오류: " + e.getMessage());
-                        }
-                    }
-                } else {
-                    if (listener != null) {
-                        listener.onError("API 응답 오류: " + response.code());
-                    }
-                }
+            public void onResult(List<CoinPrice> prices) {
+                listener.onMarketDataLoaded(prices);
             }
             
             @Override
-            public void onFailure(Call<List<List<Object>>> call, Throwable t) {
-                Log.e(TAG, "Binance klines fetch failed", t);
-                if (listener != null) {
-                    listener.onError("네트워크 오류: " + t.getMessage());
-                }
+            public void onError(String error) {
+                listener.onError(error);
             }
-        });
-    }
-    
-    /**
-     * Binance klines 데이터를 CoinMarketChart 형식으로 변환
-     * Binance 형식: [[openTime, open, high, low, close, volume, ...], ...]
-     * CoinMarketChart 형식: {prices: [[timestamp, price], ...]}
-     * 
-     * 실제 OHLC 데이터를 활용하기 위해 각 캔들의 open, high, low, close를 모두 포함한 데이터 포인트 생성
-     * chart.html의 convertToOHLC 함수가 이를 처리할 수 있도록 여러 가격 포인트를 생성
-     * 각 캔들마다 open, high, low, close를 시간 순서대로 배치하여 실제 변동을 반영
-     */
-    private CoinMarketChart convertBinanceKlinesToChartData(List<List<Object>> klines) {
-        CoinMarketChart chartData = new CoinMarketChart();
-        java.util.List<java.util.List<Double>> prices = new java.util.ArrayList<>();
-        
-        for (List<Object> kline : klines) {
-            if (kline.size() >= 6) {
-                // Binance kline 형식: [openTime, open, high, low, close, volume, ...]
-                // Binance API는 숫자를 문자열로 반환할 수 있으므로 안전하게 변환
-                long openTime = parseLong(kline.get(0));
-                double open = parseDouble(kline.get(1));
-                double high = parseDouble(kline.get(2));
-                double low = parseDouble(kline.get(3));
-                double close = parseDouble(kline.get(4));
-                
-                // 실제 OHLC 데이터를 활용하기 위해 각 가격을 포함한 데이터 포인트 생성
-                // 각 캔들의 시간 범위 내에 open, high, low, close를 배치
-                // 캔들 간격에 따라 시간 분배 (예: 1시간 캔들이면 15분씩)
-                long candleDuration = 60 * 60 * 1000; // 기본 1시간
-                long quarterDuration = candleDuration / 4;
-                
-                // Open (시작 시간)
-                java.util.List<Double> openPoint = new java.util.ArrayList<>();
-                openPoint.add((double) openTime);
-                openPoint.add(open);
-                prices.add(openPoint);
-                
-                // High (1/4 지점)
-                java.util.List<Double> highPoint = new java.util.ArrayList<>();
-                highPoint.add((double) (openTime + quarterDuration));
-                highPoint.add(high);
-                prices.add(highPoint);
-                
-                // Low (2/4 지점)
-                java.util.List<Double> lowPoint = new java.util.ArrayList<>();
-                lowPoint.add((double) (openTime + quarterDuration * 2));
-                lowPoint.add(low);
-                prices.add(lowPoint);
-                
-                // Close (끝 시간)
-                java.util.List<Double> closePoint = new java.util.ArrayList<>();
-                closePoint.add((double) (openTime + candleDuration - 1000)); // 캔들 종료 직전
-                closePoint.add(close);
-                prices.add(closePoint);
-            }
-        }
-        
-        Log.d(TAG, "Converted " + klines.size() + " klines to " + prices.size() + " price points");
-        chartData.setPrices(prices);
-        return chartData;
+        };
     }
     
     /**
@@ -472,26 +394,13 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      * @param listener 콜백
      */
     public void getBinanceKlines(String coinId, String interval, int days, OnBinanceKlinesLoadedListener listener) {
-        // Binance 심볼로 변환 시도
-        String binanceSymbol = SYMBOL_MAP.get(coinId.toLowerCase());
-        
-        // 매핑에 없으면 입력값을 그대로 심볼로 사용 (예: "BTCUSDT")
+        // Binance 심볼로 변환 (매핑에 없으면 USDT 페어로 간주, 예: "leo" -> "LEOUSDT")
+        String binanceSymbol = symbolRegistry.toSymbol(coinId);
         if (binanceSymbol == null) {
-            // 대문자로 변환하여 사용
-            binanceSymbol = coinId.toUpperCase();
-            
-            // USDT가 없으면 추가 (대부분의 경우 USDT 페어이므로)
-            if (!binanceSymbol.endsWith("USDT")) {
-                binanceSymbol += "USDT";
-            }
-            
-            // 기본적인 유효성 검사
-            if (binanceSymbol.isEmpty()) {
-                if (listener != null) {
-                    listener.onError("유효하지 않은 코인 심볼: " + coinId);
-                }
-                return;
+            if (listener != null) {
+                listener.onError("유효하지 않은 코인 심볼: " + coinId);
             }
+            return;
         }
         
         // 간격 결정 (interval이 지정되지 않으면 days에 따라 자동 결정)
@@ -510,9 +419,51 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
         // limit 계산 (interval에 따라)
         int limit = calculateLimit(interval, days);
         
+        String klineInterval = interval;
+        
+        // 같은 심볼 / 간격 / 개수 요청이 진행 중이면 합류 (실시간 캔들이 바뀌므로 결과는 보관 안 함)
+        // 합류한 화면들은 같은 시계열을 받으며, 실시간 kline은 같은 값으로 반영되므로 공유해도 된다
+        singleFlight.execute("klines:" + binanceSymbol + ":" + interval + ":" + limit, 0,
+            completion -> fetchKlines(binanceSymbol, klineInterval, limit, completion),
+            new SingleFlight.Listener<CandleSeries>() {
+                @Override
+                public void onResult(CandleSeries series) {
+                    if (listener != null) {
+                        listener.onBinanceKlinesLoaded(series);
+                    }
+                }
+                
+                @Override
+                public void onError(String error) {
+                    if (listener != null) {
+                        listener.onError(error);
+                    }
+                }
+            });
+    }
+    
+    private void fetchKlines(String binanceSymbol, String interval, int limit,
+                             SingleFlight.Completion<CandleSeries> completion) {
+        // 로컬 저장소가 있으면 빠진 구간만 받기
+        if (candleRepository != null && CandleRepository.isSupported(interval)) {
+            candleRepository.getRecentCandles(binanceSymbol, interval, limit,
+                new CandleRepository.OnCandlesLoadedListener() {
+                    @Override
+                    public void onCandlesLoaded(List<Candle> candles) {
+                        completion.complete(CandleRepository.toSeries(binanceSymbol, interval, candles));
+                    }
+                    
+                    @Override
+                    public void onError(String error) {
+                        completion.fail(error);
+                    }
+                });
+            return;
+        }
+        
         Log.d(TAG, "Fetching Binance klines directly: " + binanceSymbol + " interval=" + interval + " limit=" + limit);
         
-        Call<List<List<Object>>> call = binanceApiService.getKlines(
+        Call<KlineBatch> call = binanceApiService.getKlines(
             binanceSymbol,
             interval,
             limit,
@@ -520,30 +471,32 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
             null
         );
         
-        call.enqueue(new Callback<List<List<Object>>>() {
+        call.enqueue(new Callback<KlineBatch>() {
             @Override
-            public void onResponse(Call<List<List<Object>>> call, Response<List<List<Object>>> response) {
+            public void onResponse(Call<KlineBatch> call, Response<KlineBatch> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    if (listener != null) {
-                        listener.onBinanceKlinesLoaded(response.body());
-                    }
+                    completion.complete(response.body().toSeries(binanceSymbol, interval));
                 } else {
-                    if (listener != null) {
-                        listener.onError("API 응답 오류: " + response.code());
-                    }
+                    completion.fail("API 응답 오류: " + response.code());
                 }
             }
             
             @Override
-            public void onFailure(Call<List<List<Object>>> call, Throwable t) {
+            public void onFailure(Call<KlineBatch> call, Throwable t) {
                 Log.e(TAG, "Binance klines fetch failed", t);
-                if (listener != null) {
-                    listener.onError("네트워크 오류: " + t.getMessage());
-                }
+                completion.fail("네트워크 오류: " + t.getMessage());
             }
         });
     }
     
+    /**
+     * 심볼 레지스트리 갱신 (저장된 거래소 정보가 하루 이상 지난 경우에만)
+     */
+    public void refreshSymbolRegistry() {
+        if (!symbolRegistry.isStale()) return;
+        getValidBinanceSymbols(null);
+    }
+    
     /**
      * 코인 목록 조회
      * 
@@ -561,6 +514,26 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
             return;
         }
         
+        // 시작 시 레지스트리 갱신과 자산 선택 화면이 겹쳐도 exchangeInfo는 한 번만 받기
+        singleFlight.execute("exchangeInfo", 0, this::fetchValidBinanceSymbols,
+            new SingleFlight.Listener<Set<String>>() {
+                @Override
+                public void onResult(Set<String> symbols) {
+                    if (listener != null) {
+                        listener.onValidSymbolsLoaded(symbols);
+                    }
+                }
+                
+                @Override
+                public void onError(String error) {
+                    if (listener != null) {
+                        listener.onError(error);
+                    }
+                }
+            });
+    }
+    
+    private void fetchValidBinanceSymbols(SingleFlight.Completion<Set<String>> completion) {
         Call<com.example.rsquare.data.remote.model.ExchangeInfoResponse> call = binanceApiService.getExchangeInfo();
         call.enqueue(new Callback<com.example.rsquare.data.remote.model.ExchangeInfoResponse>() {
             @Override
@@ -579,24 +552,19 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
                     }
                     
                     validBinanceSymbols = symbols;
+                    symbolRegistry.update(symbolInfos);
                     Log.d(TAG, "Loaded " + symbols.size() + " valid Binance symbols");
                     
-                    if (listener != null) {
-                        listener.onValidSymbolsLoaded(symbols);
-                    }
+                    completion.complete(symbols);
                 } else {
-                    if (listener != null) {
-                        listener.onError("API 응답 오류: " + response.code());
-                    }
+                    completion.fail("API 응답 오류: " + response.code());
                 }
             }
             
             @Override
             public void onFailure(Call<com.example.rsquare.data.remote.model.ExchangeInfoResponse> call, Throwable t) {
                 Log.e(TAG, "Exchange info fetch failed", t);
-                if (listener != null) {
-                    listener.onError("네트워크 오류: " + t.getMessage());
-                }
+                completion.fail("네트워크 오류: " + t.getMessage());
             }
         });
     }
@@ -632,22 +600,16 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      * 캐시에서 가격 조회
      */
     public CoinPrice getCachedPrice(String coinId) {
-        return priceCache.get(coinId);
-    }
-    
-    /**
-     * 캐시 유효성 확인
-     */
-    private boolean isCacheValid() {
-        return (System.currentTimeMillis() - lastPriceUpdate) < CACHE_DURATION;
+        if (coinId == null) return null;
+        return priceTable.get(coinId);
     }
     
     /**
      * 캐시 초기화
      */
     public void clearCache() {
-        priceCache.clear();
-        lastPriceUpdate = 0;
+        priceTable.clear();
+        singleFlight.clear();
     }
     
     public interface OnMarketDataLoadedListener {
@@ -655,11 +617,6 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
         void onError(String error);
     }
     
-    public interface OnChartDataLoadedListener {
-        void onChartDataLoaded(CoinMarketChart chartData);
-        void onError(String error);
-    }
-    
     public interface OnValidSymbolsLoadedListener {
         void onValidSymbolsLoaded(Set<String> symbols);
         void onError(String error);
@@ -672,6 +629,7 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
     
     /**
      * 실시간 가격 업데이트 리스너
+     * onPriceUpdate는 메인 스레드에서 구독 주기마다 호출된다.
      */
     public interface OnPriceUpdateListener {
         void onPriceUpdate(String coinId, double price);
@@ -686,7 +644,7 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
     }
     
     /**
-     * 실시간 업데이트 리스너 (가격 + 변동률)
+     * 실시간 업데이트 리스너 (가격 + 변동률, 메인 스레드에서 구독 주기마다 호출)
      */
     public interface OnRealtimeUpdateListener {
         void onRealtimeUpdate(String coinId, double price, double changePercent);
@@ -696,26 +654,10 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
      * Binance Klines 데이터 로드 리스너
      */
     public interface OnBinanceKlinesLoadedListener {
-        void onBinanceKlinesLoaded(List<List<Object>> klines);
+        void onBinanceKlinesLoaded(CandleSeries series);
         void onError(String error);
     }
     
-    /**
-     * 안전한 숫자 파싱 헬퍼 메서드
-     */
-    private double parseDouble(Object value) {
-        if (value instanceof Number) {
-            return ((Number) value).doubleValue();
-        } else if (value instanceof String) {
-            try {
-                return Double.parseDouble((String) value);
-            } catch (NumberFormatException e) {
-                return 0.0;
-            }
-        }
-        return 0.0;
-    }
-    
     /**
      * 시간 프레임과 일수에 따라 limit 계산
      */
@@ -763,21 +705,5 @@ public class MarketDataRepository implements WebSocketClient.PriceUpdateListener
         
         return limit;
     }
-    
-    /**
-     * 안전한 long 파싱 헬퍼 메서드
-     */
-    private long parseLong(Object value) {
-        if (value instanceof Number) {
-            return ((Number) value).longValue();
-        } else if (value instanceof String) {
-            try {
-                return Long.parseLong((String) value);
-            } catch (NumberFormatException e) {
-                return 0L;
-            }
-        }
-        return 0L;
-    }
 }
 
@@ -0,0 +1,163 @@
+package com.example.rsquare.data.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.rsquare.data.local.AppDatabase;
+import com.example.rsquare.data.local.dao.LastPriceDao;
+import com.example.rsquare.data.local.entity.LastPrice;
+import com.example.rsquare.data.remote.BinanceApiService;
+import com.example.rsquare.data.remote.NetworkModule;
+import com.example.rsquare.data.remote.PriceTable;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.remote.model.TickerPrice;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Response;
+
+/**
+ * 현재가 스냅샷 Repository (백그라운드 모니터용)
+ * 
+ * 여러 심볼의 현재가를 Binance ticker/price 한 번으로 받는다 (심볼 수와 관계없이 왕복 1회).
+ * 알 수 없는 심볼 때문에 요청 전체가 400으로 거부되면 심볼별로 다시 요청해 유효한 심볼만 받는다.
+ * 받은 가격은 Room에 남겨 두고, 요청이 실패하거나 빠진 심볼은
+ * 메모리 가격표(WebSocket)와 저장된 마지막 가격 중 최신 값으로 채운다.
+ */
+public class PriceSnapshotRepository {
+    
+    private static final String TAG = "PriceSnapshotRepository";
+    
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    
+    // 대체 가격으로 쓸 수 있는 최대 경과 시간 (더 오래되면 가격 없음으로 처리)
+    private static final long MAX_FALLBACK_AGE = 30 * 60 * 1000L; // 30분
+    
+    private final LastPriceDao lastPriceDao;
+    private final BinanceApiService binanceApiService;
+    private final PriceTable priceTable = PriceTable.getInstance();
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.getInstance();
+    
+    public PriceSnapshotRepository(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.lastPriceDao = database.lastPriceDao();
+        this.binanceApiService = NetworkModule.getBinanceApiService();
+    }
+    
+    /**
+     * 심볼별 현재가 (동기, 백그라운드 스레드에서 호출)
+     * 
+     * @param symbols Binance 심볼 (중복 가능)
+     * @return 심볼 -> 가격 (가격을 구하지 못한 심볼은 빠짐)
+     */
+    public Map<String, Double> getLatestPricesSync(Collection<String> symbols) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(symbols));
+        Map<String, Double> prices = new HashMap<>();
+        if (distinct.isEmpty()) return prices;
+        
+        long now = System.currentTimeMillis();
+        try {
+            int code = fetch(distinct, prices, now);
+            if (code == HTTP_BAD_REQUEST && distinct.size() > 1) {
+                // 알 수 없는 심볼이 하나라도 있으면 요청 전체가 400이므로 심볼별로 다시 요청
+                Log.w(TAG, "Ticker price request rejected, retrying per symbol");
+                for (String symbol : distinct) {
+                    fetch(Collections.singletonList(symbol), prices, now);
+                }
+            } else if (code != HTTP_OK) {
+                Log.w(TAG, "Ticker price request failed: " + code);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Ticker price request failed", e);
+        }
+        
+        if (prices.size() < distinct.size()) {
+            fillFromFallback(distinct, prices, now);
+        }
+        return prices;
+    }
+    
+    /**
+     * ticker/price 요청 후 받은 가격을 prices와 Room에 기록
+     * 
+     * @return HTTP 응답 코드
+     */
+    private int fetch(List<String> symbols, Map<String, Double> prices, long now) throws IOException {
+        Response<List<TickerPrice>> response =
+            binanceApiService.getTickerPrices(toJsonArray(symbols)).execute();
+        if (!response.isSuccessful() || response.body() == null) {
+            if (symbols.size() == 1 && response.code() == HTTP_BAD_REQUEST) {
+                Log.w(TAG, "Unknown ticker symbol: " + symbols.get(0));
+            }
+            return response.code();
+        }
+        
+        List<LastPrice> rows = new ArrayList<>();
+        for (TickerPrice ticker : response.body()) {
+            if (ticker.getSymbol() == null || !(ticker.getPrice() > 0)) continue;
+            prices.put(ticker.getSymbol(), ticker.getPrice());
+            rows.add(new LastPrice(ticker.getSymbol(), ticker.getPrice(), now));
+        }
+        if (!rows.isEmpty()) {
+            lastPriceDao.insertAll(rows);
+        }
+        return HTTP_OK;
+    }
+    
+    /**
+     * 빠진 심볼을 메모리 가격표 / 저장된 마지막 가격 중 최신 값으로 채움
+     */
+    private void fillFromFallback(List<String> symbols, Map<String, Double> prices, long now) {
+        List<String> missing = new ArrayList<>();
+        for (String symbol : symbols) {
+            if (!prices.containsKey(symbol)) missing.add(symbol);
+        }
+        
+        Map<String, LastPrice> stored = new HashMap<>();
+        for (LastPrice row : lastPriceDao.getBySymbols(missing)) {
+            stored.put(row.getSymbol(), row);
+        }
+        
+        PriceTable.Entry entry = new PriceTable.Entry();
+        for (String symbol : missing) {
+            double price = 0;
+            long updatedAt = 0;
+            
+            if (priceTable.read(symbolRegistry.idOfSymbol(symbol), entry)) {
+                price = entry.getPrice();
+                updatedAt = entry.getTimestamp();
+            }
+            LastPrice row = stored.get(symbol);
+            if (row != null && row.getUpdatedAt() > updatedAt) {
+                price = row.getPrice();
+                updatedAt = row.getUpdatedAt();
+            }
+            
+            if (price > 0 && now - updatedAt <= MAX_FALLBACK_AGE) {
+                prices.put(symbol, price);
+            } else {
+                Log.w(TAG, "No recent price for " + symbol);
+            }
+        }
+    }
+    
+    /**
+     * symbols 파라미터 형식 (예: ["BTCUSDT","ETHUSDT"])
+     */
+    static String toJsonArray(List<String> symbols) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < symbols.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(symbols.get(i)).append('"');
+        }
+        return sb.append(']').toString();
+    }
+}
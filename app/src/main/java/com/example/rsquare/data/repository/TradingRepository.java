@@ -1,6 +1,7 @@
 package com.example.rsquare.data.repository;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.lifecycle.LiveData;
 
@@ -12,6 +13,7 @@ import com.example.rsquare.data.local.entity.Position;
 import com.example.rsquare.data.local.entity.TradeHistory;
 import com.example.rsquare.domain.MarginCalculator;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -21,12 +23,13 @@ import java.util.List;
  */
 public class TradingRepository {
     
+    private final AppDatabase database;
     private final PositionDao positionDao;
     private final TradeHistoryDao tradeHistoryDao;
     private final UserDao userDao;
     
     public TradingRepository(Context context) {
-        AppDatabase database = AppDatabase.getInstance(context);
+        this.database = AppDatabase.getInstance(context);
         this.positionDao = database.positionDao();
         this.tradeHistoryDao = database.tradeHistoryDao();
         this.userDao = database.userDao();
@@ -117,42 +120,10 @@ public class TradingRepository {
     public void closePosition(long positionId, double closedPrice, TradeHistory.TradeType closeType, 
                               OnPositionClosedListener listener) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
-            Position position = positionDao.getPositionByIdSync(positionId);
+            Double pnl = closeAtomically(positionId, closedPrice, closeType, null, new Date());
             
-            if (position != null && !position.isClosed()) {
-                // PnL 계산
-                double pnl = position.calculateUnrealizedPnL(closedPrice);
-                
-                // Position 업데이트
-                position.setClosed(true);
-                position.setCloseTime(new Date());
-                position.setPnl(pnl);
-                position.setClosedPrice(closedPrice);
-                positionDao.update(position);
-                
-                // TradeHistory 기록
-                TradeHistory tradeHistory = new TradeHistory();
-                tradeHistory.setPositionId(positionId);
-                tradeHistory.setSymbol(position.getSymbol());
-                tradeHistory.setType(closeType);
-                tradeHistory.setPrice(closedPrice);
-                tradeHistory.setQuantity(position.getQuantity());
-                tradeHistory.setPnl(pnl);
-                tradeHistoryDao.insert(tradeHistory);
-                
-                // 잔고 업데이트 (마진 반환 + PnL - 종료 수수료)
-                double positionSize = position.getEntryPrice() * position.getQuantity();
-                double requiredMargin = MarginCalculator.calculateRequiredMargin(positionSize, position.getLeverage());
-                
-                // 종료 수수료 (종료 시점의 가치 기준)
-                double closingValue = closedPrice * position.getQuantity();
-                double closingFee = closingValue * 0.0004; // 0.04% fee
-                
-                userDao.addToBalance(position.getUserId(), requiredMargin + pnl - closingFee);
-                
-                if (listener != null) {
-                    listener.onPositionClosed(pnl);
-                }
+            if (pnl != null && listener != null) {
+                listener.onPositionClosed(pnl);
             }
         });
     }
@@ -169,36 +140,12 @@ public class TradingRepository {
                 Double currentPrice = currentPrices.get(position.getSymbol());
                 if (currentPrice == null) continue; // 가격 정보 없으면 스킵
                 
-                // PnL 계산
-                double pnl = position.calculateUnrealizedPnL(currentPrice);
-                totalPnl += pnl;
-                
-                // Position 업데이트
-                position.setClosed(true);
-                position.setCloseTime(new Date());
-                position.setPnl(pnl);
-                position.setClosedPrice(currentPrice);
-                position.setExitReason("Close All");
-                positionDao.update(position);
-                
-                // TradeHistory 기록
-                TradeHistory tradeHistory = new TradeHistory();
-                tradeHistory.setPositionId(position.getId());
-                tradeHistory.setSymbol(position.getSymbol());
-                tradeHistory.setType(TradeHistory.TradeType.CLOSE_MARKET); // 일괄 종료는 시장가 종료로 처리
-                tradeHistory.setPrice(currentPrice);
-                tradeHistory.setQuantity(position.getQuantity());
-                tradeHistory.setPnl(pnl);
-                tradeHistoryDao.insert(tradeHistory);
-                
-                // 잔고 업데이트
-                double positionSize = position.getEntryPrice() * position.getQuantity();
-                double requiredMargin = MarginCalculator.calculateRequiredMargin(positionSize, position.getLeverage());
-                
-                double closingValue = currentPrice * position.getQuantity();
-                double closingFee = closingValue * 0.0004;
-                
-                userDao.addToBalance(position.getUserId(), requiredMargin + pnl - closingFee);
+                // 일괄 종료는 시장가 종료로 처리
+                Double pnl = closeAtomically(position.getId(), currentPrice,
+                    TradeHistory.TradeType.CLOSE_MARKET, "Close All", new Date());
+                if (pnl != null) {
+                    totalPnl += pnl;
+                }
             }
             
             if (listener != null) {
@@ -209,21 +156,43 @@ public class TradingRepository {
     
     /**
      * 포지션 닫기 (동기)
+     * @return 이 호출이 닫았는지 (이미 종료됐으면 false)
      */
-    public void closePositionSync(long positionId, double closedPrice, TradeHistory.TradeType closeType, String exitReason) {
-        Position position = positionDao.getPositionByIdSync(positionId);
-        
-        if (position != null && !position.isClosed()) {
+    public boolean closePositionSync(long positionId, double closedPrice, TradeHistory.TradeType closeType, String exitReason) {
+        return closePositionSync(positionId, closedPrice, closeType, exitReason, new Date());
+    }
+    
+    /**
+     * 포지션 닫기 (동기, 체결 시각 지정 - 지난 구간을 재생해 찾은 체결)
+     * @return 이 호출이 닫았는지 (이미 종료됐으면 false)
+     */
+    public boolean closePositionSync(long positionId, double closedPrice, TradeHistory.TradeType closeType,
+                                     String exitReason, Date closeTime) {
+        return closeAtomically(positionId, closedPrice, closeType, exitReason, closeTime) != null;
+    }
+    
+    /**
+     * 포지션 종료 (트랜잭션)
+     * 워커 / TriggerEngine / 화면이 같은 포지션을 동시에 닫을 수 있으므로
+     * 아직 열린 경우에만 종료 표시하고, 실제로 바꾼 호출만 거래 내역과 잔고를 기록한다.
+     * 
+     * @param exitReason 종료 사유 (null이면 기존 값 유지)
+     * @return 실현 손익 (이미 종료됐거나 없으면 null)
+     */
+    private Double closeAtomically(long positionId, double closedPrice, TradeHistory.TradeType closeType,
+                                   String exitReason, Date closeTime) {
+        return database.runInTransaction(() -> {
+            Position position = positionDao.getPositionByIdSync(positionId);
+            if (position == null || position.isClosed()) return null;
+            
             // PnL 계산
             double pnl = position.calculateUnrealizedPnL(closedPrice);
             
-            // Position 업데이트
-            position.setClosed(true);
-            position.setCloseTime(new Date());
-            position.setPnl(pnl);
-            position.setClosedPrice(closedPrice);
-            position.setExitReason(exitReason);
-            positionDao.update(position);
+            // Position 업데이트 (다른 경로가 먼저 닫았으면 0행)
+            String reason = exitReason != null ? exitReason : position.getExitReason();
+            if (positionDao.markClosed(positionId, closeTime, pnl, closedPrice, reason) != 1) {
+                return null;
+            }
             
             // TradeHistory 기록
             TradeHistory tradeHistory = new TradeHistory();
@@ -233,6 +202,7 @@ public class TradingRepository {
             tradeHistory.setPrice(closedPrice);
             tradeHistory.setQuantity(position.getQuantity());
             tradeHistory.setPnl(pnl);
+            tradeHistory.setTimestamp(closeTime);
             tradeHistoryDao.insert(tradeHistory);
             
             // 잔고 업데이트 (마진 반환 + PnL - 종료 수수료)
@@ -244,7 +214,17 @@ public class TradingRepository {
             double closingFee = closingValue * 0.0004; // 0.04% fee
             
             userDao.addToBalance(position.getUserId(), requiredMargin + pnl - closingFee);
-        }
+            return pnl;
+        });
+    }
+    
+    /**
+     * 대기 주문 체결 (동기)
+     * 읽어 둔 Position을 통째로 다시 쓰지 않고 상태와 체결 시각만 조건부로 바꾼다.
+     * @return 이 호출이 체결했는지 (그사이 취소 / 체결됐으면 false)
+     */
+    public boolean activatePositionSync(long positionId, Date openTime) {
+        return positionDao.markActivated(positionId, openTime) == 1;
     }
     
     /**
@@ -305,6 +285,34 @@ public class TradingRepository {
         });
     }
     
+    /**
+     * 종료된 포지션의 R 배수 조회 (동기, 종료 시각 순)
+     * Bootstrap 시뮬레이션 표본용으로 박싱 없이 double[]에 바로 채운다.
+     */
+    public double[] getRMultiplesSync(long userId) {
+        try (Cursor cursor = positionDao.getRMultiplesCursor(userId)) {
+            double[] values = new double[cursor.getCount()];
+            int count = 0;
+            while (cursor.moveToNext()) {
+                if (cursor.isNull(0)) continue;
+                values[count++] = cursor.getDouble(0);
+            }
+            return count == values.length ? values : Arrays.copyOf(values, count);
+        }
+    }
+    
+    /**
+     * 종료된 포지션의 R 배수 조회
+     */
+    public void getRMultiples(long userId, OnRMultiplesLoadedListener listener) {
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            double[] rMultiples = getRMultiplesSync(userId);
+            if (listener != null) {
+                listener.onRMultiplesLoaded(rMultiples);
+            }
+        });
+    }
+    
     /**
      * 최근 거래 기록 조회
      */
@@ -345,6 +353,10 @@ public class TradingRepository {
         void onPositionsLoaded(List<Position> positions);
     }
     
+    public interface OnRMultiplesLoadedListener {
+        void onRMultiplesLoaded(double[] rMultiples);
+    }
+    
     /**
      * 현재 잔고 조회 (동기)
      */
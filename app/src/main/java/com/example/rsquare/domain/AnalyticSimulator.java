@@ -0,0 +1,244 @@
+package com.example.rsquare.domain;
+
+import com.example.rsquare.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 고정 금액 승/패 모델의 해석적(정확) 계산기
+ * 
+ * 거래 금액, R:R, 승률이 고정이면 j번째 거래 후 잔고는 승리 횟수 k만으로 정해진다.
+ *   잔고(j, k) = 초기 잔고 + k * 금액 * R:R - (j - k) * 금액
+ * 따라서 (거래 회차, 승리 횟수) 격자 위의 동적 계획법으로 파산(잔고 <= 0) 흡수를 포함한
+ * 정확한 분포를 O(거래 횟수²)에 계산한다. 샘플링 잡음이 없고 반복 횟수와 무관하게 즉시 끝난다.
+ */
+public class AnalyticSimulator {
+    
+    // 격자 계산량 상한 (이보다 거래 횟수가 많으면 샘플링 사용)
+    public static final int MAX_TRADES = 5000;
+    
+    private static final double[] BAND_QUANTILES = {0.05, 0.25, 0.50, 0.75, 0.95};
+    
+    // 분포 양 끝에서 잘라내는 누적 확률 (도달 불가능에 가까운 극단값이 히스토그램 범위를 넓히지 않도록)
+    private static final double TAIL_EPSILON = 1e-9;
+    
+    private AnalyticSimulator() {
+    }
+    
+    /**
+     * 해석적 계산 가능 여부
+     * 승리가 잔고를 줄이지 않아야(R:R >= 0) 잔고가 승리 횟수에 대해 단조 증가하고
+     * 파산이 패배에서만 발생한다.
+     */
+    public static boolean supports(double riskRewardRatio, double winRate,
+                                   double tradeAmount, int numberOfTrades) {
+        return !Double.isNaN(riskRewardRatio) && !Double.isInfinite(riskRewardRatio)
+            && riskRewardRatio >= 0
+            && winRate >= 0 && winRate <= 1
+            && tradeAmount > 0 && !Double.isInfinite(tradeAmount)
+            && numberOfTrades >= 0 && numberOfTrades <= MAX_TRADES;
+    }
+    
+    /**
+     * 정확한 결과 계산
+     * 
+     * maxProfit / maxLoss는 같은 반복 횟수로 샘플링했을 때의 기대 극값에 맞춰
+     * 1/(iterations+1), iterations/(iterations+1) 분위수를 사용한다.
+     * 
+     * @param iterations 명목 반복 횟수 (결과 표시 및 히스토그램 환산용)
+     */
+    public static SimulationResult compute(double riskRewardRatio, double winRate,
+                                           double tradeAmount, int numberOfTrades,
+                                           int iterations) {
+        double initial = Constants.INITIAL_BALANCE;
+        double winAmount = tradeAmount * riskRewardRatio;
+        double lossRate = 1 - winRate;
+        
+        int steps = numberOfTrades + 1;
+        double[] stepMeans = new double[steps];
+        double[] stepStdDevs = new double[steps];
+        double[][] bands = new double[BAND_QUANTILES.length][steps];
+        
+        // probabilities[k]: 파산하지 않고 k번 승리한 확률
+        double[] probabilities = new double[steps];
+        double[] next = new double[steps];
+        probabilities[0] = 1.0;
+        double ruined = 0.0;
+        
+        // step 0: 시작점 (수익률 0)
+        for (double[] band : bands) {
+            band[0] = 0.0;
+        }
+        
+        double[] values = new double[steps + 1];
+        double[] weights = new double[steps + 1];
+        
+        for (int j = 1; j <= numberOfTrades; j++) {
+            next[0] = probabilities[0] * lossRate;
+            for (int k = 1; k <= j; k++) {
+                next[k] = probabilities[k] * lossRate + probabilities[k - 1] * winRate;
+            }
+            
+            // 파산 흡수 (잔고가 k에 대해 증가하므로 앞쪽 k만 확인하면 된다)
+            for (int k = 0; k <= j; k++) {
+                double balance = initial + k * winAmount - (j - k) * tradeAmount;
+                if (balance > 0) break;
+                ruined += next[k];
+                next[k] = 0.0;
+            }
+            
+            double[] swap = probabilities;
+            probabilities = next;
+            next = swap;
+            
+            // step j 분포: 파산 원자(-100%) + 생존 k별 수익률 (오름차순)
+            int atoms = fillStepAtoms(probabilities, j, ruined, initial, winAmount, tradeAmount,
+                values, weights);
+            summarize(values, weights, atoms, j, stepMeans, stepStdDevs, bands);
+        }
+        
+        // 최종 손익 분포
+        double[] finalValues = new double[steps + 1];
+        double[] finalWeights = new double[steps + 1];
+        int finalAtoms = 0;
+        if (ruined > 0) {
+            finalValues[finalAtoms] = -initial;
+            finalWeights[finalAtoms++] = ruined;
+        }
+        for (int k = 0; k <= numberOfTrades; k++) {
+            if (probabilities[k] <= 0) continue;
+            finalValues[finalAtoms] = k * winAmount - (numberOfTrades - k) * tradeAmount;
+            finalWeights[finalAtoms++] = probabilities[k];
+        }
+        
+        // 무시할 만한 양 끝 꼬리 제거
+        int first = 0;
+        double tailMass = finalWeights[0];
+        while (first < finalAtoms - 1 && tailMass < TAIL_EPSILON) {
+            tailMass += finalWeights[++first];
+        }
+        int last = finalAtoms - 1;
+        tailMass = finalWeights[last];
+        while (last > first && tailMass < TAIL_EPSILON) {
+            tailMass += finalWeights[--last];
+        }
+        DiscreteDistribution distribution = new DiscreteDistribution(
+            Arrays.copyOfRange(finalValues, first, last + 1),
+            Arrays.copyOfRange(finalWeights, first, last + 1),
+            iterations);
+        
+        SimulationResult result = buildResult(distribution, finalValues, finalWeights, finalAtoms,
+            stepMeans, stepStdDevs, bands, iterations);
+        result.setRuinRate(ruined * 100);
+        return result;
+    }
+    
+    /**
+     * step j의 원자(값, 확률)를 오름차순으로 채운다
+     * 
+     * @return 원자 개수
+     */
+    private static int fillStepAtoms(double[] probabilities, int j, double ruined, double initial,
+                                     double winAmount, double tradeAmount,
+                                     double[] values, double[] weights) {
+        int atoms = 0;
+        if (ruined > 0) {
+            values[atoms] = -100.0;
+            weights[atoms++] = ruined;
+        }
+        for (int k = 0; k <= j; k++) {
+            if (probabilities[k] <= 0) continue;
+            double balance = initial + k * winAmount - (j - k) * tradeAmount;
+            values[atoms] = ((balance - initial) / initial) * 100;
+            weights[atoms++] = probabilities[k];
+        }
+        return atoms;
+    }
+    
+    /**
+     * step j의 평균, 표준편차, 분위 밴드 계산
+     */
+    private static void summarize(double[] values, double[] weights, int atoms, int step,
+                                  double[] stepMeans, double[] stepStdDevs, double[][] bands) {
+        double mean = 0;
+        for (int i = 0; i < atoms; i++) {
+            mean += values[i] * weights[i];
+        }
+        double variance = 0;
+        for (int i = 0; i < atoms; i++) {
+            double diff = values[i] - mean;
+            variance += diff * diff * weights[i];
+        }
+        stepMeans[step] = mean;
+        stepStdDevs[step] = Math.sqrt(variance);
+        
+        // 누적 확률을 한 번 훑으며 모든 분위수를 채운다
+        double cumulative = 0;
+        int b = 0;
+        for (int i = 0; i < atoms && b < BAND_QUANTILES.length; i++) {
+            cumulative += weights[i];
+            while (b < BAND_QUANTILES.length && cumulative >= BAND_QUANTILES[b] - 1e-12) {
+                bands[b++][step] = values[i];
+            }
+        }
+        for (; b < BAND_QUANTILES.length; b++) {
+            bands[b][step] = atoms > 0 ? values[atoms - 1] : 0.0;
+        }
+    }
+    
+    private static SimulationResult buildResult(DiscreteDistribution distribution,
+                                                double[] finalValues, double[] finalWeights,
+                                                int finalAtoms, double[] stepMeans,
+                                                double[] stepStdDevs, double[][] bands,
+                                                int iterations) {
+        SimulationResult result = new SimulationResult();
+        result.setIterations(iterations);
+        result.setTargetIterations(iterations);
+        result.setExact(true);
+        
+        // 기대 수익 / 표준편차 / 승률
+        double mean = 0;
+        double winProbability = 0;
+        for (int i = 0; i < finalAtoms; i++) {
+            mean += finalValues[i] * finalWeights[i];
+            if (finalValues[i] > 0) winProbability += finalWeights[i];
+        }
+        double variance = 0;
+        for (int i = 0; i < finalAtoms; i++) {
+            double diff = finalValues[i] - mean;
+            variance += diff * diff * finalWeights[i];
+        }
+        double stdDev = Math.sqrt(variance);
+        
+        result.setExpectedReturn(mean);
+        result.setWinRate(winProbability * 100);
+        result.setSharpeRatio(stdDev > 0 ? mean / stdDev : 0.0);
+        result.setStandardError(0.0);
+        
+        // 샘플링 시 기대 극값에 해당하는 분위수
+        double tail = 1.0 / (Math.max(iterations, 1) + 1.0);
+        result.setMaxProfit(distribution.quantile(1 - tail));
+        result.setMaxLoss(distribution.quantile(tail));
+        
+        result.setDistribution(distribution);
+        result.setPercentile25(distribution.quantile(0.25));
+        result.setPercentile50(distribution.quantile(0.50));
+        result.setPercentile75(distribution.quantile(0.75));
+        
+        List<Double> meanCurve = new ArrayList<>(stepMeans.length);
+        for (double value : stepMeans) {
+            meanCurve.add(value);
+        }
+        result.setCumulativeReturns(meanCurve);
+        result.setCumulativeStdDev(stepStdDevs);
+        result.setCumulativeP5(bands[0]);
+        result.setCumulativeP25(bands[1]);
+        result.setCumulativeP50(bands[2]);
+        result.setCumulativeP75(bands[3]);
+        result.setCumulativeP95(bands[4]);
+        
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.rsquare.domain;
+
+/**
+ * 캔들(OHLCV) 시계열 - 컬럼형 링 버퍼
+ * 
+ * 시각 / 시가 / 고가 / 저가 / 종가 / 거래량을 각각 기본형 배열로 보관한다.
+ * 용량이 maxSize에 닿을 때까지는 두 배씩 늘리고, 그 뒤에는 가장 오래된 캔들을 덮어쓴다.
+ * 인덱스 0이 가장 오래된 캔들이며, 실시간 캔들 반영(updateLive)은 O(1)이다.
+ * 
+ * 스레드 안전하지 않다. 다 채운 뒤 넘겨주고, 이후 변경은 한 스레드(메인)에서만 한다.
+ */
+public final class CandleSeries {
+    
+    public static final int DEFAULT_MAX_SIZE = 2000;
+    private static final int MIN_CAPACITY = 16;
+    
+    private final String symbol;
+    private final String interval;
+    private final int maxSize;
+    
+    private long[] openTimes;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] volumes;
+    
+    private int head; // 가장 오래된 캔들의 물리 위치
+    private int size;
+    
+    public CandleSeries(String symbol, String interval, int initialCapacity) {
+        this(symbol, interval, initialCapacity, DEFAULT_MAX_SIZE);
+    }
+    
+    public CandleSeries(String symbol, String interval, int initialCapacity, int maxSize) {
+        this.symbol = symbol;
+        this.interval = interval;
+        this.maxSize = Math.max(1, maxSize);
+        allocate(Math.min(Math.max(initialCapacity, MIN_CAPACITY), this.maxSize));
+    }
+    
+    private void allocate(int capacity) {
+        openTimes = new long[capacity];
+        opens = new double[capacity];
+        highs = new double[capacity];
+        lows = new double[capacity];
+        closes = new double[capacity];
+        volumes = new double[capacity];
+    }
+    
+    /**
+     * 맨 뒤에 캔들 추가 (가득 차면 가장 오래된 캔들을 덮어씀)
+     */
+    public void append(long openTime, double open, double high, double low, double close, double volume) {
+        int capacity = openTimes.length;
+        int slot;
+        if (size < capacity) {
+            slot = physical(size);
+            size++;
+        } else if (capacity < maxSize) {
+            grow(Math.min(capacity * 2, maxSize));
+            slot = size;
+            size++;
+        } else {
+            slot = head;
+            head = head + 1 == capacity ? 0 : head + 1;
+        }
+        write(slot, openTime, open, high, low, close, volume);
+    }
+    
+    /**
+     * 실시간 캔들 반영
+     * 마지막 캔들과 시작 시각이 같으면 덮어쓰고, 더 늦으면 새 캔들로 추가한다.
+     * 
+     * @return 반영 여부 (마지막 캔들보다 이전 캔들이면 false)
+     */
+    public boolean updateLive(long openTime, double open, double high, double low, double close, double volume) {
+        if (size > 0) {
+            int last = physical(size - 1);
+            long lastOpenTime = openTimes[last];
+            if (openTime == lastOpenTime) {
+                write(last, openTime, open, high, low, close, volume);
+                return true;
+            }
+            if (openTime < lastOpenTime) {
+                return false;
+            }
+        }
+        append(openTime, open, high, low, close, volume);
+        return true;
+    }
+    
+    private void write(int slot, long openTime, double open, double high, double low, double close, double volume) {
+        openTimes[slot] = openTime;
+        opens[slot] = open;
+        highs[slot] = high;
+        lows[slot] = low;
+        closes[slot] = close;
+        volumes[slot] = volume;
+    }
+    
+    private void grow(int capacity) {
+        // 논리 순서대로 펴서 옮기므로 head는 0이 된다
+        openTimes = unwrap(openTimes, capacity);
+        opens = unwrap(opens, capacity);
+        highs = unwrap(highs, capacity);
+        lows = unwrap(lows, capacity);
+        closes = unwrap(closes, capacity);
+        volumes = unwrap(volumes, capacity);
+        head = 0;
+    }
+    
+    private long[] unwrap(long[] source, int capacity) {
+        long[] target = new long[capacity];
+        int firstPart = Math.min(size, source.length - head);
+        System.arraycopy(source, head, target, 0, firstPart);
+        System.arraycopy(source, 0, target, firstPart, size - firstPart);
+        return target;
+    }
+    
+    private double[] unwrap(double[] source, int capacity) {
+        double[] target = new double[capacity];
+        int firstPart = Math.min(size, source.length - head);
+        System.arraycopy(source, head, target, 0, firstPart);
+        System.arraycopy(source, 0, target, firstPart, size - firstPart);
+        return target;
+    }
+    
+    private int physical(int index) {
+        int slot = head + index;
+        return slot >= openTimes.length ? slot - openTimes.length : slot;
+    }
+    
+    private int checked(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return physical(index);
+    }
+    
+    /**
+     * 모든 캔들 제거 (배열은 재사용)
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    // ===== 조회 (index 0 = 가장 오래된 캔들) =====
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public long getOpenTime(int index) {
+        return openTimes[checked(index)];
+    }
+    
+    public double getOpen(int index) {
+        return opens[checked(index)];
+    }
+    
+    public double getHigh(int index) {
+        return highs[checked(index)];
+    }
+    
+    public double getLow(int index) {
+        return lows[checked(index)];
+    }
+    
+    public double getClose(int index) {
+        return closes[checked(index)];
+    }
+    
+    public double getVolume(int index) {
+        return volumes[checked(index)];
+    }
+    
+    /**
+     * 마지막 캔들 시작 시각 (비어 있으면 Long.MIN_VALUE)
+     */
+    public long getLastOpenTime() {
+        return size > 0 ? openTimes[physical(size - 1)] : Long.MIN_VALUE;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public String getInterval() {
+        return interval;
+    }
+    
+    /**
+     * 차트(WebView)용 JSON 배열 [[openTime, open, high, low, close, volume], ...]
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(size * 64 + 2);
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            int slot = physical(i);
+            if (i > 0) sb.append(',');
+            sb.append('[').append(openTimes[slot])
+                .append(',').append(opens[slot])
+                .append(',').append(highs[slot])
+                .append(',').append(lows[slot])
+                .append(',').append(closes[slot])
+                .append(',').append(volumes[slot])
+                .append(']');
+        }
+        return sb.append(']').toString();
+    }
+    
+    @Override
+    public String toString() {
+        return "CandleSeries{" + symbol + " " + interval + ", size=" + size
+            + ", capacity=" + openTimes.length + ", last=" + getLastOpenTime() + "}";
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.rsquare.domain;
+
+import com.example.rsquare.data.local.entity.Position;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 교차(Cross) 마진 계좌
+ * 
+ * 심볼 / 방향별로 수량 합, 수량 * 진입가 합, 사용 마진 합을 누적해 두고,
+ * 미실현 손익 합계를 심볼별 마크 가격으로 증분 갱신한다.
+ * 미실현 손익은 가격에 선형이므로 한 심볼의 가격이 p -> p'로 바뀌면
+ * 계좌 손익은 (p' - p) * (롱 수량 합 - 숏 수량 합)만큼만 바뀐다 (O(1)).
+ * 
+ * 포지션 i의 마진 비율과 청산가도 계좌 합계에서 자기 몫만 빼서 구하므로 O(1)이다.
+ * - 가용 마진(i) = 잔고 + 다른 포지션 손익 - 다른 포지션 마진 = 여유 자산 + 마진(i) - 손익(i)
+ * - 마진 비율(i) = (가용 마진(i) + 손익(i)) / 마진(i) = (여유 자산 + 마진(i)) / 마진(i)
+ * 따라서 여유 자산(자산 - 사용 마진)이 -마진(i) 이하가 되면 포지션 i가 청산된다.
+ * 
+ * 선물 포지션만 포함한다 (마진 모드와 관계없이, MarginCalculator의 교차 계산과 동일).
+ * 스레드 안전하지 않다 (호출 쪽에서 동기화).
+ */
+public final class CrossMarginAccount {
+    
+    private static final long[] EMPTY = new long[0];
+    
+    private double balance;
+    private double usedMargin;
+    private double unrealizedPnL;
+    
+    private final Map<String, Book> books = new HashMap<>();
+    private final Map<Long, Leg> legs = new HashMap<>();
+    
+    // 사용 마진 오름차순 (청산은 마진이 작은 포지션부터)
+    private Leg[] byMargin = new Leg[8];
+    private int legCount;
+    // byMargin 앞쪽에서 이미 확인한 개수 (이 앞은 모두 청산 대상으로 넘긴 포지션)
+    private int liquidatedCount;
+    
+    public CrossMarginAccount(double balance) {
+        this.balance = balance;
+    }
+    
+    // ===== 포지션 =====
+    
+    /**
+     * 포지션 추가 (선물이 아니거나 종료된 포지션은 무시)
+     * @return 추가 여부
+     */
+    public boolean add(Position position) {
+        if (position.isClosed() || !"FUTURES".equals(position.getTradeType())) return false;
+        return add(position.getId(), position.getSymbol(), position.isLong(),
+            position.getQuantity(), position.getEntryPrice(), position.getLeverage());
+    }
+    
+    public boolean add(long positionId, String symbol, boolean isLong,
+                       double quantity, double entryPrice, int leverage) {
+        if (symbol == null || legs.containsKey(positionId)) return false;
+        
+        Book book = books.get(symbol);
+        if (book == null) {
+            // 마크 가격이 오기 전까지는 진입가로 평가 (손익 0)
+            book = new Book(entryPrice);
+            books.put(symbol, book);
+        }
+        
+        Leg leg = new Leg(positionId, book, isLong, quantity, entryPrice,
+            MarginCalculator.calculateUsedMargin(entryPrice, quantity, leverage));
+        legs.put(positionId, leg);
+        book.apply(leg, 1);
+        insertByMargin(leg);
+        resync();
+        return true;
+    }
+    
+    /**
+     * 포지션 제거 (종료 / 청산 후)
+     * @return 제거 여부
+     */
+    public boolean remove(long positionId) {
+        Leg leg = legs.remove(positionId);
+        if (leg == null) return false;
+        
+        leg.book.apply(leg, -1);
+        if (leg.book.legCount == 0) {
+            books.values().remove(leg.book);
+        }
+        removeByMargin(leg);
+        resync();
+        return true;
+    }
+    
+    /**
+     * 누적값에서 계좌 합계를 다시 계산 (심볼 수만큼, 틱 증분 갱신의 반올림 오차도 여기서 정리됨)
+     */
+    private void resync() {
+        double margin = 0.0;
+        double pnl = 0.0;
+        for (Book book : books.values()) {
+            margin += book.longMargin + book.shortMargin;
+            pnl += book.pnl();
+        }
+        usedMargin = margin;
+        unrealizedPnL = pnl;
+    }
+    
+    public boolean contains(long positionId) {
+        return legs.containsKey(positionId);
+    }
+    
+    public int size() {
+        return legCount;
+    }
+    
+    // ===== 가격 / 잔고 =====
+    
+    /**
+     * 심볼 마크 가격 갱신 (O(1), 보유하지 않은 심볼이면 무시)
+     * @return 보유 심볼 여부
+     */
+    public boolean updatePrice(String symbol, double price) {
+        if (!(price > 0)) return false;
+        Book book = books.get(symbol);
+        if (book == null) return false;
+        
+        unrealizedPnL += (price - book.mark) * book.netQuantity;
+        book.mark = price;
+        return true;
+    }
+    
+    /**
+     * 심볼 마크 가격 (보유하지 않으면 0)
+     */
+    public double getMarkPrice(String symbol) {
+        Book book = books.get(symbol);
+        return book != null ? book.mark : 0.0;
+    }
+    
+    public void setBalance(double balance) {
+        this.balance = balance;
+    }
+    
+    public double getBalance() {
+        return balance;
+    }
+    
+    // ===== 계좌 =====
+    
+    /**
+     * 자산 = 잔고 + 미실현 손익
+     */
+    public double getEquity() {
+        return balance + unrealizedPnL;
+    }
+    
+    public double getUsedMargin() {
+        return usedMargin;
+    }
+    
+    public double getUnrealizedPnL() {
+        return unrealizedPnL;
+    }
+    
+    /**
+     * 여유 자산 = 자산 - 사용 마진
+     */
+    public double getFreeMargin() {
+        return getEquity() - usedMargin;
+    }
+    
+    /**
+     * 계좌 마진 비율 (%) = 자산 / 사용 마진
+     */
+    public double getMarginRatio() {
+        return MarginCalculator.calculateMarginRatio(getEquity(), usedMargin);
+    }
+    
+    // ===== 포지션별 (O(1)) =====
+    
+    /**
+     * 포지션 미실현 손익 (현재 마크 가격 기준)
+     */
+    public double getUnrealizedPnL(long positionId) {
+        Leg leg = requireLeg(positionId);
+        return leg.pnl(leg.book.mark);
+    }
+    
+    /**
+     * 포지션 가용 마진 = 잔고 + 다른 포지션 손익 - 다른 포지션 마진
+     */
+    public double getAvailableMargin(long positionId) {
+        Leg leg = requireLeg(positionId);
+        return getFreeMargin() + leg.margin - leg.pnl(leg.book.mark);
+    }
+    
+    /**
+     * 포지션 마진 비율 (%) (TradingMonitorWorker의 교차 계산과 같은 정의)
+     */
+    public double getMarginRatio(long positionId) {
+        Leg leg = requireLeg(positionId);
+        return MarginCalculator.calculateMarginRatio(getFreeMargin() + leg.margin, leg.margin);
+    }
+    
+    /**
+     * 포지션 교차 청산가 (다른 포지션은 각자 심볼의 현재 마크 가격으로 고정)
+     */
+    public double getLiquidationPrice(long positionId) {
+        Leg leg = requireLeg(positionId);
+        double pnlPerUnit = getAvailableMargin(positionId) / leg.quantity;
+        return leg.isLong ? leg.entryPrice - pnlPerUnit : leg.entryPrice + pnlPerUnit;
+    }
+    
+    /**
+     * 새로 청산 조건(마진 비율 0% 이하)에 들어간 포지션
+     * 마진이 작은 포지션부터 조건을 만족하므로 정렬 배열 앞에서부터 확인한다 (O(1 + k)).
+     * 한 번 넘긴 포지션은 다시 넘기지 않는다 (remove 후 add하면 다시 대상이 됨).
+     * 이미 넘긴 구간 안에 새 포지션이 들어오면 그 자리부터 다시 확인하되, 넘긴 포지션은 건너뛴다.
+     * 
+     * @return 포지션 ID (없으면 빈 배열)
+     */
+    public long[] takeLiquidations() {
+        double threshold = -getFreeMargin();
+        int end = liquidatedCount;
+        while (end < legCount && byMargin[end].margin <= threshold) {
+            end++;
+        }
+        if (end == liquidatedCount) return EMPTY;
+        
+        int count = 0;
+        for (int i = liquidatedCount; i < end; i++) {
+            if (!byMargin[i].taken) count++;
+        }
+        long[] ids = count > 0 ? new long[count] : EMPTY;
+        int w = 0;
+        for (int i = liquidatedCount; i < end; i++) {
+            Leg leg = byMargin[i];
+            if (leg.taken) continue;
+            leg.taken = true;
+            ids[w++] = leg.positionId;
+        }
+        liquidatedCount = end;
+        return ids;
+    }
+    
+    private Leg requireLeg(long positionId) {
+        Leg leg = legs.get(positionId);
+        if (leg == null) {
+            throw new IllegalArgumentException("Unknown position: " + positionId);
+        }
+        return leg;
+    }
+    
+    private void insertByMargin(Leg leg) {
+        if (legCount == byMargin.length) {
+            byMargin = Arrays.copyOf(byMargin, legCount * 2);
+        }
+        int lo = 0;
+        int hi = legCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (byMargin[mid].margin <= leg.margin) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        // 이미 넘긴 구간 안에 들어가면 새 포지션도 다음 확인 대상이 되도록 커서를 앞으로
+        if (lo < liquidatedCount) {
+            liquidatedCount = lo;
+        }
+        System.arraycopy(byMargin, lo, byMargin, lo + 1, legCount - lo);
+        byMargin[lo] = leg;
+        legCount++;
+    }
+    
+    private void removeByMargin(Leg leg) {
+        for (int i = 0; i < legCount; i++) {
+            if (byMargin[i] == leg) {
+                System.arraycopy(byMargin, i + 1, byMargin, i, legCount - i - 1);
+                byMargin[--legCount] = null;
+                if (i < liquidatedCount) {
+                    liquidatedCount--;
+                }
+                return;
+            }
+        }
+    }
+    
+    /**
+     * 심볼 하나의 누적값 (롱 / 숏)
+     */
+    private static final class Book {
+        double mark;
+        double longQuantity;
+        double longNotional; // 수량 * 진입가 합
+        double longMargin;
+        double shortQuantity;
+        double shortNotional;
+        double shortMargin;
+        // 롱 수량 - 숏 수량 (가격 변화에 대한 손익 기울기)
+        double netQuantity;
+        int legCount;
+        
+        Book(double mark) {
+            this.mark = mark;
+        }
+        
+        void apply(Leg leg, int sign) {
+            if (leg.isLong) {
+                longQuantity += sign * leg.quantity;
+                longNotional += sign * leg.quantity * leg.entryPrice;
+                longMargin += sign * leg.margin;
+            } else {
+                shortQuantity += sign * leg.quantity;
+                shortNotional += sign * leg.quantity * leg.entryPrice;
+                shortMargin += sign * leg.margin;
+            }
+            netQuantity = longQuantity - shortQuantity;
+            legCount += sign;
+        }
+        
+        /**
+         * 심볼 미실현 손익 = 마크 * (롱 수량 - 숏 수량) - (롱 수량*진입가 - 숏 수량*진입가)
+         */
+        double pnl() {
+            return mark * netQuantity - (longNotional - shortNotional);
+        }
+    }
+    
+    private static final class Leg {
+        final long positionId;
+        final Book book;
+        final boolean isLong;
+        final double quantity;
+        final double entryPrice;
+        final double margin;
+        // takeLiquidations()로 이미 넘겼는지
+        boolean taken;
+        
+        Leg(long positionId, Book book, boolean isLong, double quantity, double entryPrice, double margin) {
+            this.positionId = positionId;
+            this.book = book;
+            this.isLong = isLong;
+            this.quantity = quantity;
+            this.entryPrice = entryPrice;
+            this.margin = margin;
+        }
+        
+        double pnl(double price) {
+            return isLong ? (price - entryPrice) * quantity : (entryPrice - price) * quantity;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.rsquare.domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 이산 확률 분포 (값 오름차순 + 각 값의 확률)
+ * 
+ * 해석적 계산으로 얻은 정확한 분포를 표현한다.
+ * 분위수는 누적 확률이 q 이상이 되는 가장 작은 값 (nearest-rank)이다.
+ */
+public class DiscreteDistribution implements ReturnDistribution {
+    
+    private final double[] values;
+    private final double[] cumulative;
+    private final long count;
+    
+    /**
+     * @param values 오름차순 값
+     * @param probabilities 각 값의 확률 (합 1)
+     * @param count 히스토그램 환산에 쓰는 명목 반복 횟수
+     */
+    public DiscreteDistribution(double[] values, double[] probabilities, long count) {
+        this.values = values;
+        this.cumulative = new double[probabilities.length];
+        this.count = count;
+        
+        double sum = 0;
+        for (int i = 0; i < probabilities.length; i++) {
+            sum += probabilities[i];
+            cumulative[i] = sum;
+        }
+    }
+    
+    private DiscreteDistribution(long count, double[] values, double[] cumulative) {
+        this.values = values;
+        this.cumulative = cumulative;
+        this.count = count;
+    }
+    
+    @Override
+    public double quantile(double q) {
+        if (values.length == 0) return 0.0;
+        
+        // 반올림 오차로 마지막 누적 확률이 1보다 약간 작을 수 있어 전체 합 기준으로 비교
+        double target = q * cumulative[cumulative.length - 1];
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] >= target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return values[low];
+    }
+    
+    @Override
+    public double cdf(double value) {
+        if (values.length == 0 || value < values[0]) return 0.0;
+        
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (values[mid] <= value) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return cumulative[low] / cumulative[cumulative.length - 1];
+    }
+    
+    @Override
+    public double[] histogram(int bucketCount) {
+        double[] buckets = new double[Math.max(1, bucketCount)];
+        if (values.length == 0) return buckets;
+        
+        double total = cumulative[cumulative.length - 1];
+        double min = getMin();
+        double width = (getMax() - min) / buckets.length;
+        
+        double previous = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            double probability = (cumulative[i] - previous) / total;
+            previous = cumulative[i];
+            
+            int bucket = width <= 0 ? 0 : (int) ((values[i] - min) / width);
+            bucket = Math.min(bucket, buckets.length - 1);
+            buckets[bucket] += probability * count;
+        }
+        return buckets;
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    @Override
+    public double getMin() {
+        return values.length == 0 ? 0.0 : values[0];
+    }
+    
+    @Override
+    public double getMax() {
+        return values.length == 0 ? 0.0 : values[values.length - 1];
+    }
+    
+    /**
+     * 이진 직렬화 (누적 확률을 그대로 저장하므로 복원 결과가 동일하다)
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeInt(values.length);
+        for (int i = 0; i < values.length; i++) {
+            out.writeDouble(values[i]);
+            out.writeDouble(cumulative[i]);
+        }
+    }
+    
+    static DiscreteDistribution readFrom(DataInput in) throws IOException {
+        long count = in.readLong();
+        int length = in.readInt();
+        if (count < 0 || length < 0 || length > SimulationResultCodec.MAX_LENGTH) {
+            throw new IOException("Invalid distribution length: " + length);
+        }
+        double[] values = new double[length];
+        double[] cumulative = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+            cumulative[i] = in.readDouble();
+        }
+        return new DiscreteDistribution(count, values, cumulative);
+    }
+}
@@ -197,6 +197,8 @@ public class MarginCalculator {
     /**
      * Cross 모드 청산 가격 계산
      * 모든 포지션의 미실현 손익을 고려
+     * 다른 포지션도 모두 currentPrice로 평가하므로 심볼이 같을 때만 정확하다 (주문 전 예상용).
+     * 보유 포지션 감시는 심볼별 가격을 쓰는 CrossMarginAccount를 사용한다.
      * 
      * @param position 현재 포지션
      * @param allPositions 모든 활성 포지션 리스트
@@ -2,27 +2,152 @@ package com.example.rsquare.domain;
 
 import com.example.rsquare.util.Constants;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleSupplier;
 
 /**
  * Monte Carlo 시뮬레이션 엔진
  * 
  * R:R 비율과 승률을 기반으로 반복 거래를 시뮬레이션하여
  * 예상 결과 분포를 계산
+ * 
+ * 병렬 모드에서는 반복을 고정 크기 블록으로 나누고 블록마다
+ * SplittableRandom 스트림을 할당하므로, 스레드 수와 무관하게
+ * 같은 시드는 항상 같은 결과를 만든다.
+ * 점진 실행(simulateProgressive)도 같은 블록 구조를 사용하므로
+ * 최종 결과는 같은 시드의 병렬 모드 결과와 동일하다.
+ * 
+ * 고정 금액 승/패 모델은 AnalyticSimulator로 정확한 분포를 바로 계산한다
+ * (setAnalyticFastPath(false)로 끄면 항상 샘플링).
+ * 
+ * simulateBootstrap은 가정된 R:R / 승률 대신 실제 종료 거래의 R 배수를
+ * 원형 블록 bootstrap으로 재표집한다 (연승/연패 구간 유지).
+ * 
+ * 거래당 위험 금액은 SizingPolicy로 정한다 (고정 금액, 잔고 비율, 분할 Kelly,
+ * 최대 낙폭 서킷 브레이커). 정책은 실행 전에 기본형 값으로 풀리므로
+ * 경로 루프는 객체를 만들지 않는다.
  */
 public class MonteCarloSimulator {
     
+    // 블록당 반복 횟수 (스레드 수가 아니라 이 값이 난수 스트림 분할을 결정)
+    private static final int BLOCK_SIZE = 1024;
+    
     private final Random random;
+    private final long seed;
+    private final boolean parallel;
+    private boolean analyticFastPath = true;
     
     public MonteCarloSimulator() {
         this.random = new Random();
+        this.seed = random.nextLong();
+        this.parallel = false;
     }
     
     public MonteCarloSimulator(long seed) {
+        this(seed, false);
+    }
+    
+    /**
+     * @param seed 난수 시드
+     * @param parallel true면 ForkJoin 공용 풀에서 블록 단위 병렬 실행
+     */
+    public MonteCarloSimulator(long seed, boolean parallel) {
         this.random = new Random(seed);
+        this.seed = seed;
+        this.parallel = parallel;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public boolean isParallel() {
+        return parallel;
+    }
+    
+    /**
+     * 해석적 계산 사용 여부 (기본 true)
+     */
+    public void setAnalyticFastPath(boolean analyticFastPath) {
+        this.analyticFastPath = analyticFastPath;
+    }
+    
+    public boolean isAnalyticFastPath() {
+        return analyticFastPath;
+    }
+    
+    /**
+     * 입력이 해석적 계산 대상인지 여부
+     */
+    private boolean useAnalytic(Params params) {
+        return analyticFastPath && params.samples == null && !params.compounding
+            && params.maxDrawdown <= 0 && AnalyticSimulator.supports(params.riskRewardRatio,
+            params.winRate, params.tradeAmount, params.numberOfTrades);
+    }
+    
+    /**
+     * 시뮬레이션 입력값
+     */
+    private static final class Params {
+        final double riskRewardRatio;
+        final double winRate;
+        final int numberOfTrades;
+        final int iterations;
+        
+        // 거래당 위험 금액: compounding이면 잔고 * equityFraction, 아니면 tradeAmount
+        final double tradeAmount;
+        final boolean compounding;
+        final double equityFraction;
+        // 서킷 브레이커 낙폭 한도 (0-1, 0이면 사용 안 함)
+        final double maxDrawdown;
+        
+        // bootstrap 표본 (null이면 승/패 모델)
+        final double[] samples;
+        final int blockLength;
+        
+        Params(double riskRewardRatio, double winRate, SizingPolicy policy,
+               int numberOfTrades, int iterations) {
+            this(riskRewardRatio, winRate, policy,
+                policy.isFixedAmount() ? 0.0 : policy.equityFraction(riskRewardRatio, winRate),
+                numberOfTrades, iterations, null, 0);
+        }
+        
+        private Params(double riskRewardRatio, double winRate, SizingPolicy policy,
+                       double equityFraction, int numberOfTrades, int iterations,
+                       double[] samples, int blockLength) {
+            this.riskRewardRatio = riskRewardRatio;
+            this.winRate = winRate;
+            this.numberOfTrades = numberOfTrades;
+            this.iterations = iterations;
+            this.tradeAmount = policy.isFixedAmount() ? policy.getValue() : 0.0;
+            this.compounding = !policy.isFixedAmount();
+            this.equityFraction = equityFraction;
+            this.maxDrawdown = policy.getMaxDrawdown() / 100.0;
+            this.samples = samples;
+            this.blockLength = blockLength;
+        }
+        
+        /**
+         * R 배수 표본으로 bootstrap 입력 생성 (R:R / 승률은 사용하지 않음)
+         */
+        static Params bootstrap(double[] rMultiples, SizingPolicy policy, int numberOfTrades,
+                                int iterations, int blockLength) {
+            if (rMultiples == null || rMultiples.length == 0) {
+                // 표본이 없으면 실행할 경로도 없다
+                return new Params(0, 0, policy, 0.0, numberOfTrades, 0, new double[] {0.0}, 1);
+            }
+            double fraction = policy.isFixedAmount() ? 0.0 : policy.equityFraction(rMultiples);
+            int length = Math.max(1, Math.min(blockLength, rMultiples.length));
+            return new Params(0, 0, policy, fraction, numberOfTrades, iterations, rMultiples, length);
+        }
+        
+        int blockCount() {
+            return (iterations + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        }
     }
     
     /**
@@ -35,44 +160,365 @@ public class MonteCarloSimulator {
      * @param iterations 시뮬레이션 반복 횟수
      * @return SimulationResult
      */
-    public SimulationResult simulate(double riskRewardRatio, double winRate, 
-                                      double tradeAmount, int numberOfTrades, 
+    public SimulationResult simulate(double riskRewardRatio, double winRate,
+                                      double tradeAmount, int numberOfTrades,
+                                      int iterations) {
+        return simulate(riskRewardRatio, winRate, SizingPolicy.fixedAmount(tradeAmount),
+            numberOfTrades, iterations);
+    }
+    
+    /**
+     * 포지션 사이징 정책을 적용한 Monte Carlo 시뮬레이션
+     * 고정 금액 정책(서킷 브레이커 없음)만 해석적 계산 대상이다.
+     * 
+     * @param riskRewardRatio R:R 비율
+     * @param winRate 승률 (0-1)
+     * @param policy 거래당 위험 금액 정책
+     * @param numberOfTrades 거래 횟수
+     * @param iterations 시뮬레이션 반복 횟수
+     * @return SimulationResult
+     */
+    public SimulationResult simulate(double riskRewardRatio, double winRate,
+                                      SizingPolicy policy, int numberOfTrades,
                                       int iterations) {
         
-        List<Double> finalReturns = new ArrayList<>();
-        List<List<Double>> allCumulativeReturns = new ArrayList<>();
+        Params params = new Params(riskRewardRatio, winRate, policy, numberOfTrades, iterations);
+        if (useAnalytic(params)) {
+            return AnalyticSimulator.compute(riskRewardRatio, winRate, params.tradeAmount,
+                numberOfTrades, iterations);
+        }
+        return run(params);
+    }
+    
+    /**
+     * 실제 거래 이력 기반 Bootstrap 시뮬레이션
+     * 
+     * 각 경로는 rMultiples에서 임의 시작점을 골라 blockLength개씩 연속으로(끝에서는 처음으로 감아)
+     * 가져오며, 거래 손익은 R 배수 * riskAmount이다.
+     * 표본 배열은 복사하지 않고 읽기만 하므로 호출자가 실행 중에 수정하면 안 된다.
+     * 
+     * @param rMultiples 종료 거래의 R 배수 (pnl / riskAmount, 시간 순)
+     * @param riskAmount 거래당 위험 금액 (1R)
+     * @param numberOfTrades 거래 횟수
+     * @param iterations 시뮬레이션 반복 횟수
+     * @param blockLength 블록 길이 (1이면 독립 재표집)
+     * @return SimulationResult (표본이 없으면 빈 결과)
+     */
+    public SimulationResult simulateBootstrap(double[] rMultiples, double riskAmount,
+                                              int numberOfTrades, int iterations,
+                                              int blockLength) {
+        return simulateBootstrap(rMultiples, SizingPolicy.fixedAmount(riskAmount),
+            numberOfTrades, iterations, blockLength);
+    }
+    
+    /**
+     * 포지션 사이징 정책을 적용한 Bootstrap 시뮬레이션 (거래 손익 = R 배수 * 위험 금액)
+     */
+    public SimulationResult simulateBootstrap(double[] rMultiples, SizingPolicy policy,
+                                              int numberOfTrades, int iterations,
+                                              int blockLength) {
+        return run(Params.bootstrap(rMultiples, policy, numberOfTrades, iterations,
+            blockLength));
+    }
+    
+    /**
+     * 점진적 Bootstrap 시뮬레이션 (simulateProgressive와 같은 방식으로 스냅샷 전달)
+     */
+    public SimulationRun simulateBootstrapProgressive(double[] rMultiples, SizingPolicy policy,
+                                                      int numberOfTrades, int iterations,
+                                                      int blockLength, Executor executor,
+                                                      OnProgressListener listener) {
+        return runProgressive(Params.bootstrap(rMultiples, policy, numberOfTrades,
+            iterations, blockLength), executor, listener);
+    }
+    
+    /**
+     * 표본 개수에 맞는 기본 블록 길이 (n^(1/3))
+     */
+    public static int defaultBlockLength(int sampleCount) {
+        return Math.max(1, (int) Math.round(Math.cbrt(sampleCount)));
+    }
+    
+    /**
+     * 샘플링 실행 (직렬 / 병렬)
+     */
+    private SimulationResult run(Params params) {
+        SimulationAccumulator accumulator = new SimulationAccumulator(params.numberOfTrades);
+        
+        if (parallel) {
+            BlockRunner runner = new BlockRunner(params, seed, waveSize(params), null);
+            runner.runBlocks(0, params.blockCount(), accumulator);
+        } else {
+            DoubleSupplier source = random::nextDouble;
+            for (int i = 0; i < params.iterations; i++) {
+                simulatePath(params, source, accumulator);
+            }
+        }
         
-        // 각 시뮬레이션 실행
-        for (int i = 0; i < iterations; i++) {
-            double currentBalance = Constants.INITIAL_BALANCE;
-            List<Double> cumulativeReturns = new ArrayList<>();
-            cumulativeReturns.add(0.0); // 시작점
+        // 결과 분석
+        return analyzeResults(accumulator, params.iterations, params.iterations);
+    }
+    
+    /**
+     * 점진적 Monte Carlo 시뮬레이션
+     * 
+     * executor에서 블록 묶음(chunk) 단위로 실행하며, 각 chunk가 끝날 때마다
+     * 지금까지의 반복으로 만든 SimulationResult 스냅샷을 listener에 전달한다.
+     * 마지막 스냅샷은 isComplete()가 true이다.
+     * 반환된 SimulationRun.cancel()을 호출하면 진행 중인 경로가 끝나는 즉시 중단되고
+     * 이후 스냅샷은 전달되지 않는다.
+     * 해석적 계산 대상이면 완료된 정확한 결과 하나만 전달한다.
+     * 
+     * @param executor 백그라운드 실행기
+     * @param listener 스냅샷 수신 (executor 스레드에서 호출)
+     * @return 취소 핸들
+     */
+    public SimulationRun simulateProgressive(double riskRewardRatio, double winRate,
+                                             double tradeAmount, int numberOfTrades,
+                                             int iterations, Executor executor,
+                                             OnProgressListener listener) {
+        return simulateProgressive(riskRewardRatio, winRate, SizingPolicy.fixedAmount(tradeAmount),
+            numberOfTrades, iterations, executor, listener);
+    }
+    
+    /**
+     * 포지션 사이징 정책을 적용한 점진적 Monte Carlo 시뮬레이션
+     */
+    public SimulationRun simulateProgressive(double riskRewardRatio, double winRate,
+                                             SizingPolicy policy, int numberOfTrades,
+                                             int iterations, Executor executor,
+                                             OnProgressListener listener) {
+        Params params = new Params(riskRewardRatio, winRate, policy, numberOfTrades, iterations);
+        return runProgressive(params, executor, listener);
+    }
+    
+    private SimulationRun runProgressive(Params params, Executor executor,
+                                         OnProgressListener listener) {
+        SimulationRun run = new SimulationRun();
+        int iterations = params.iterations;
+        
+        executor.execute(() -> {
+            if (run.isCancelled()) return;
+            
+            if (useAnalytic(params)) {
+                listener.onProgress(AnalyticSimulator.compute(params.riskRewardRatio,
+                    params.winRate, params.tradeAmount, params.numberOfTrades, iterations));
+                return;
+            }
+            
+            int chunkBlocks = waveSize(params);
+            BlockRunner runner = new BlockRunner(params, seed, chunkBlocks, run);
+            SimulationAccumulator accumulator = new SimulationAccumulator(params.numberOfTrades);
+            int blockCount = params.blockCount();
             
-            // 거래 시뮬레이션
-            for (int trade = 0; trade < numberOfTrades; trade++) {
-                double outcome = simulateTrade(riskRewardRatio, winRate, tradeAmount);
-                currentBalance += outcome;
+            if (blockCount == 0) {
+                listener.onProgress(analyzeResults(accumulator, 0, 0));
+                return;
+            }
+            
+            for (int firstBlock = 0; firstBlock < blockCount; firstBlock += chunkBlocks) {
+                int lastBlock = Math.min(blockCount, firstBlock + chunkBlocks);
+                runner.runBlocks(firstBlock, lastBlock, accumulator);
+                if (run.isCancelled()) return;
                 
-                // 누적 수익률 계산
-                double returnRate = ((currentBalance - Constants.INITIAL_BALANCE) 
-                                    / Constants.INITIAL_BALANCE) * 100;
-                cumulativeReturns.add(returnRate);
+                int done = Math.min(iterations, lastBlock * BLOCK_SIZE);
+                listener.onProgress(analyzeResults(accumulator, done, iterations));
+            }
+        });
+        
+        return run;
+    }
+    
+    /**
+     * 점진 실행 스냅샷 리스너
+     */
+    public interface OnProgressListener {
+        void onProgress(SimulationResult snapshot);
+    }
+    
+    /**
+     * 한 번에 실행할 블록 수 (직렬 모드는 1, 병렬 모드는 풀 병렬도)
+     */
+    private int waveSize(Params params) {
+        if (!parallel) return 1;
+        int parallelism = Math.max(1, ForkJoinPool.commonPool().getParallelism());
+        return Math.max(1, Math.min(params.blockCount(), parallelism));
+    }
+    
+    /**
+     * 블록 단위 실행기
+     * 블록별 난수 스트림은 생성 시 호출 스레드에서 순서대로 split하여 미리 만든다.
+     * 블록은 waveSize개씩 묶어 실행하고, 블록 누적기는 항상 블록 순서대로
+     * 병합하므로 결과가 스레드 수와 무관하다. 동시에 살아 있는 누적기도 waveSize + 1개로 제한된다.
+     */
+    private static final class BlockRunner {
+        private final Params params;
+        private final SplittableRandom[] streams;
+        private final SimulationAccumulator[] workers;
+        private final SimulationRun run;
+        
+        BlockRunner(Params params, long seed, int waveSize, SimulationRun run) {
+            this.params = params;
+            this.run = run;
+            
+            int blockCount = params.blockCount();
+            SplittableRandom root = new SplittableRandom(seed);
+            streams = new SplittableRandom[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                streams[b] = root.split();
+            }
+            
+            workers = new SimulationAccumulator[waveSize];
+            for (int w = 0; w < waveSize; w++) {
+                workers[w] = new SimulationAccumulator(params.numberOfTrades);
+            }
+        }
+        
+        /**
+         * [fromBlock, toBlock) 블록을 실행하여 total에 순서대로 병합
+         */
+        void runBlocks(int fromBlock, int toBlock, SimulationAccumulator total) {
+            for (int firstBlock = fromBlock; firstBlock < toBlock; firstBlock += workers.length) {
+                int blocksInWave = Math.min(workers.length, toBlock - firstBlock);
                 
-                // 파산 방지
-                if (currentBalance <= 0) {
-                    currentBalance = 0;
-                    break;
+                if (blocksInWave == 1) {
+                    new BlockTask(firstBlock, streams[firstBlock], params, workers[0], run).compute();
+                } else {
+                    BlockTask[] tasks = new BlockTask[blocksInWave];
+                    for (int w = 0; w < blocksInWave; w++) {
+                        tasks[w] = new BlockTask(firstBlock + w, streams[firstBlock + w],
+                            params, workers[w], run);
+                    }
+                    ForkJoinPool.commonPool().invoke(new WaveTask(tasks));
+                }
+                
+                if (run != null && run.isCancelled()) return;
+                
+                for (int w = 0; w < blocksInWave; w++) {
+                    total.merge(workers[w]);
+                    workers[w].reset();
+                }
+            }
+        }
+    }
+    
+    /**
+     * 한 wave의 블록들을 동시에 실행
+     */
+    private static final class WaveTask extends RecursiveAction {
+        private final BlockTask[] tasks;
+        
+        WaveTask(BlockTask[] tasks) {
+            this.tasks = tasks;
+        }
+        
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+    
+    /**
+     * 단일 블록 (BLOCK_SIZE회 반복) 실행
+     */
+    private static final class BlockTask extends RecursiveAction {
+        private final int block;
+        private final SplittableRandom stream;
+        private final Params params;
+        private final SimulationAccumulator accumulator;
+        private final SimulationRun run;
+        
+        BlockTask(int block, SplittableRandom stream, Params params,
+                  SimulationAccumulator accumulator, SimulationRun run) {
+            this.block = block;
+            this.stream = stream;
+            this.params = params;
+            this.accumulator = accumulator;
+            this.run = run;
+        }
+        
+        @Override
+        protected void compute() {
+            DoubleSupplier source = stream::nextDouble;
+            int start = block * BLOCK_SIZE;
+            int end = Math.min(start + BLOCK_SIZE, params.iterations);
+            for (int i = start; i < end; i++) {
+                if (run != null && run.isCancelled()) return;
+                simulatePath(params, source, accumulator);
+            }
+        }
+    }
+    
+    /**
+     * 단일 경로 시뮬레이션
+     * 경로를 저장하지 않고 step별 누적 수익률과 최종 손익을 즉시 누적기에 기록한다.
+     * 파산한 경로는 이후 step에서도 -100%로 유지된다.
+     * 서킷 브레이커로 멈춘 경로는 이후 step에서 멈춘 시점의 수익률을 유지한다.
+     * bootstrap 모드는 블록이 끝날 때만 난수를 뽑아 새 시작점을 정한다.
+     */
+    private static void simulatePath(Params params, DoubleSupplier source,
+                                     SimulationAccumulator accumulator) {
+        int numberOfTrades = params.numberOfTrades;
+        double currentBalance = Constants.INITIAL_BALANCE;
+        accumulator.addStep(0, 0.0); // 시작점
+        
+        double peakBalance = currentBalance;
+        double haltBalance = peakBalance * (1 - params.maxDrawdown);
+        
+        double[] samples = params.samples;
+        int cursor = 0;
+        int remainingInBlock = 0;
+        
+        // 거래 시뮬레이션
+        for (int trade = 0; trade < numberOfTrades; trade++) {
+            double stake = params.compounding
+                ? currentBalance * params.equityFraction : params.tradeAmount;
+            double outcome;
+            if (samples == null) {
+                outcome = simulateTrade(params.riskRewardRatio, params.winRate,
+                    stake, source.getAsDouble());
+            } else {
+                if (remainingInBlock == 0) {
+                    cursor = (int) (source.getAsDouble() * samples.length);
+                    remainingInBlock = params.blockLength;
                 }
+                outcome = samples[cursor] * stake;
+                if (++cursor == samples.length) cursor = 0;
+                remainingInBlock--;
             }
+            currentBalance += outcome;
             
-            // 최종 수익 저장
-            double finalReturn = currentBalance - Constants.INITIAL_BALANCE;
-            finalReturns.add(finalReturn);
-            allCumulativeReturns.add(cumulativeReturns);
+            // 파산 방지
+            if (currentBalance <= 0) {
+                for (int step = trade + 1; step <= numberOfTrades; step++) {
+                    accumulator.addStep(step, -100.0);
+                }
+                accumulator.addFinal(-Constants.INITIAL_BALANCE);
+                accumulator.addRuin();
+                return;
+            }
+            
+            // 누적 수익률 계산
+            double returnRate = ((currentBalance - Constants.INITIAL_BALANCE)
+                                / Constants.INITIAL_BALANCE) * 100;
+            accumulator.addStep(trade + 1, returnRate);
+            
+            // 최대 낙폭 서킷 브레이커
+            if (currentBalance > peakBalance) {
+                peakBalance = currentBalance;
+                haltBalance = peakBalance * (1 - params.maxDrawdown);
+            } else if (params.maxDrawdown > 0 && currentBalance <= haltBalance) {
+                for (int step = trade + 2; step <= numberOfTrades; step++) {
+                    accumulator.addStep(step, returnRate);
+                }
+                accumulator.addFinal(currentBalance - Constants.INITIAL_BALANCE);
+                accumulator.addHalt();
+                return;
+            }
         }
         
-        // 결과 분석
-        return analyzeResults(finalReturns, allCumulativeReturns, iterations);
+        // 최종 수익 저장
+        accumulator.addFinal(currentBalance - Constants.INITIAL_BALANCE);
     }
     
     /**
@@ -80,12 +526,12 @@ public class MonteCarloSimulator {
      * 
      * @param riskRewardRatio R:R 비율
      * @param winRate 승률
-     * @param tradeAmount 거래 금액
+     * @param tradeAmount 거래 금액 (위험 금액)
+     * @param randomValue [0, 1) 균등 난수
      * @return 거래 결과 (손익)
      */
-    private double simulateTrade(double riskRewardRatio, double winRate, double tradeAmount) {
-        double randomValue = random.nextDouble();
-        
+    private static double simulateTrade(double riskRewardRatio, double winRate, double tradeAmount,
+                                        double randomValue) {
         if (randomValue < winRate) {
             // 승리: 투자 금액 * R:R 비율
             return tradeAmount * riskRewardRatio;
@@ -97,122 +543,65 @@ public class MonteCarloSimulator {
     
     /**
      * 시뮬레이션 결과 분석
+     * 결과는 누적기와 상태를 공유하지 않으므로 누적기를 계속 사용해도 안전하다.
      * 
-     * @param finalReturns 최종 수익 목록
-     * @param allCumulativeReturns 모든 누적 수익률
-     * @param iterations 반복 횟수
+     * @param accumulator 결과 누적기
+     * @param iterations 지금까지 완료된 반복 횟수
+     * @param targetIterations 요청된 전체 반복 횟수
      * @return SimulationResult
      */
-    private SimulationResult analyzeResults(List<Double> finalReturns, 
-                                            List<List<Double>> allCumulativeReturns,
-                                            int iterations) {
+    static SimulationResult analyzeResults(SimulationAccumulator accumulator, int iterations,
+                                           int targetIterations) {
         
         SimulationResult result = new SimulationResult();
         result.setIterations(iterations);
+        result.setTargetIterations(targetIterations);
         
         // 기대 수익 (평균)
-        double sum = 0;
-        for (Double ret : finalReturns) {
-            sum += ret;
-        }
-        double expectedReturn = sum / iterations;
+        double expectedReturn = accumulator.finalStats.getMean();
         result.setExpectedReturn(expectedReturn);
         
         // 최대/최소
-        double maxProfit = Collections.max(finalReturns);
-        double maxLoss = Collections.min(finalReturns);
-        result.setMaxProfit(maxProfit);
-        result.setMaxLoss(maxLoss);
+        QuantileSketch distribution = accumulator.finalSketch.copy();
+        result.setMaxProfit(distribution.getMax());
+        result.setMaxLoss(distribution.getMin());
         
         // 승률 계산 (양수 수익 비율)
-        int winCount = 0;
-        for (Double ret : finalReturns) {
-            if (ret > 0) winCount++;
-        }
-        double overallWinRate = ((double) winCount / iterations) * 100;
+        double overallWinRate = iterations > 0
+            ? ((double) accumulator.winCount / iterations) * 100 : 0.0;
         result.setWinRate(overallWinRate);
         
-        // Sharpe Ratio 계산
-        double sharpeRatio = calculateSharpeRatio(finalReturns, expectedReturn);
-        result.setSharpeRatio(sharpeRatio);
-        
-        // 분포 저장 (정렬)
-        List<Double> sortedReturns = new ArrayList<>(finalReturns);
-        Collections.sort(sortedReturns);
-        result.setDistribution(sortedReturns);
+        // 파산 확률
+        result.setRuinRate(iterations > 0
+            ? ((double) accumulator.ruinCount / iterations) * 100 : 0.0);
+        result.setHaltRate(iterations > 0
+            ? ((double) accumulator.haltCount / iterations) * 100 : 0.0);
         
-        // 백분위수 계산
-        result.setPercentile25(getPercentile(sortedReturns, 0.25));
-        result.setPercentile50(getPercentile(sortedReturns, 0.50));
-        result.setPercentile75(getPercentile(sortedReturns, 0.75));
+        // Sharpe Ratio 계산 (무위험 이자율 0 가정)
+        double stdDev = accumulator.finalStats.getStdDev();
+        result.setSharpeRatio(iterations >= 2 && stdDev > 0 ? expectedReturn / stdDev : 0.0);
         
-        // 평균 누적 수익률 계산 (Probability Cone 용)
-        List<Double> avgCumulativeReturns = calculateAverageCumulative(allCumulativeReturns);
-        result.setCumulativeReturns(avgCumulativeReturns);
+        // 수렴도: 기대 수익의 표준오차
+        result.setStandardError(iterations >= 2 ? stdDev / Math.sqrt(iterations) : 0.0);
         
-        return result;
-    }
-    
-    /**
-     * Sharpe Ratio 계산
-     */
-    private double calculateSharpeRatio(List<Double> returns, double meanReturn) {
-        if (returns.size() < 2) return 0.0;
+        // 분포 저장 (스케치)
+        result.setDistribution(distribution);
         
-        // 표준편차 계산
-        double variance = 0;
-        for (Double ret : returns) {
-            variance += Math.pow(ret - meanReturn, 2);
-        }
-        variance /= returns.size();
-        double stdDev = Math.sqrt(variance);
-        
-        if (stdDev == 0) return 0.0;
-        
-        // Sharpe Ratio (무위험 이자율 0 가정)
-        return meanReturn / stdDev;
-    }
-    
-    /**
-     * 백분위수 계산
-     */
-    private double getPercentile(List<Double> sortedValues, double percentile) {
-        if (sortedValues.isEmpty()) return 0.0;
-        
-        int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
-        index = Math.max(0, Math.min(index, sortedValues.size() - 1));
-        
-        return sortedValues.get(index);
-    }
-    
-    /**
-     * 평균 누적 수익률 계산
-     */
-    private List<Double> calculateAverageCumulative(List<List<Double>> allCumulativeReturns) {
-        if (allCumulativeReturns.isEmpty()) return new ArrayList<>();
-        
-        int maxLength = 0;
-        for (List<Double> returns : allCumulativeReturns) {
-            maxLength = Math.max(maxLength, returns.size());
-        }
+        // 백분위수 계산
+        result.setPercentile25(distribution.quantile(0.25));
+        result.setPercentile50(distribution.quantile(0.50));
+        result.setPercentile75(distribution.quantile(0.75));
         
-        List<Double> avgReturns = new ArrayList<>();
+        // step별 평균 / 분위 밴드 (Probability Cone 용)
+        result.setCumulativeReturns(accumulator.stepMeans());
+        result.setCumulativeStdDev(accumulator.stepStdDevs());
+        result.setCumulativeP5(accumulator.stepQuantiles(0.05));
+        result.setCumulativeP25(accumulator.stepQuantiles(0.25));
+        result.setCumulativeP50(accumulator.stepQuantiles(0.50));
+        result.setCumulativeP75(accumulator.stepQuantiles(0.75));
+        result.setCumulativeP95(accumulator.stepQuantiles(0.95));
         
-        for (int i = 0; i < maxLength; i++) {
-            double sum = 0;
-            int count = 0;
-            
-            for (List<Double> returns : allCumulativeReturns) {
-                if (i < returns.size()) {
-                    sum += returns.get(i);
-                    count++;
-                }
-            }
-            
-            avgReturns.add(count > 0 ? sum / count : 0);
-        }
-        
-        return avgReturns;
+        return result;
     }
     
     /**
@@ -224,12 +613,11 @@ public class MonteCarloSimulator {
      */
     public SimulationResult simulate(double riskRewardRatio, double winRate) {
         return simulate(
-            riskRewardRatio, 
-            winRate, 
+            riskRewardRatio,
+            winRate,
             1000.0,  // 거래당 1000 투자
             100,     // 100회 거래
             Constants.DEFAULT_SIMULATION_ITERATIONS
         );
     }
 }
-
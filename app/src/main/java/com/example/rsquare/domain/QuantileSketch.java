@@ -0,0 +1,390 @@
+package com.example.rsquare.domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 스트리밍 분위수 스케치 (merging t-digest)
+ * 
+ * 값을 하나씩 받아 고정 크기 centroid 배열로 압축한다.
+ * 저장 공간은 입력 개수와 무관하게 compression에 비례하며,
+ * 꼬리 구간(P5, P95 등)일수록 정밀도가 높다.
+ * 같은 순서로 add/merge 하면 항상 같은 결과를 만든다.
+ */
+public class QuantileSketch implements ReturnDistribution {
+    
+    public static final double DEFAULT_COMPRESSION = 100.0;
+    
+    // 디스크에서 읽을 때 허용하는 최대 compression
+    static final double MAX_COMPRESSION = 10_000.0;
+    
+    private final double compression;
+    
+    // 압축된 centroid (mean 오름차순)
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+    
+    // 아직 압축되지 않은 입력 값
+    private final double[] buffer;
+    private int bufferCount;
+    
+    // flush/merge 병합용 작업 배열 (압축 후 means/weights와 교체)
+    private double[] scratchMeans;
+    private double[] scratchWeights;
+    
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+    
+    public QuantileSketch(double compression) {
+        this.compression = compression;
+        this.buffer = new double[(int) Math.ceil(compression) * 5];
+        // 압축된 centroid + 버퍼 전체가 한 번에 병합되어도 재할당하지 않는 크기
+        int capacity = (int) Math.ceil(compression) * 2 + 10 + buffer.length;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.scratchMeans = new double[capacity];
+        this.scratchWeights = new double[capacity];
+    }
+    
+    /**
+     * 값 추가
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        
+        buffer[bufferCount++] = value;
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        
+        if (bufferCount == buffer.length) {
+            flush();
+        }
+    }
+    
+    /**
+     * 다른 스케치를 이 스케치에 병합 (other는 압축만 되고 내용은 유지)
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null || other.count == 0) return;
+        
+        flush();
+        other.flush();
+        
+        ensureScratch(centroidCount + other.centroidCount);
+        double[] mergedMeans = scratchMeans;
+        double[] mergedWeights = scratchWeights;
+        
+        // 두 정렬된 centroid 목록을 병합
+        int i = 0, j = 0, k = 0;
+        while (i < centroidCount || j < other.centroidCount) {
+            if (j >= other.centroidCount
+                    || (i < centroidCount && means[i] <= other.means[j])) {
+                mergedMeans[k] = means[i];
+                mergedWeights[k++] = weights[i++];
+            } else {
+                mergedMeans[k] = other.means[j];
+                mergedWeights[k++] = other.weights[j++];
+            }
+        }
+        
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress(k);
+    }
+    
+    /**
+     * 독립된 복사본 생성
+     */
+    public QuantileSketch copy() {
+        flush();
+        QuantileSketch copy = new QuantileSketch(compression);
+        copy.means = Arrays.copyOf(means, Math.max(centroidCount, 1));
+        copy.weights = Arrays.copyOf(weights, Math.max(centroidCount, 1));
+        copy.centroidCount = centroidCount;
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+    
+    /**
+     * 모든 데이터 제거 (배열은 재사용)
+     */
+    public void reset() {
+        centroidCount = 0;
+        bufferCount = 0;
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+    
+    /**
+     * 버퍼의 값을 centroid로 압축
+     */
+    private void flush() {
+        if (bufferCount == 0) return;
+        
+        Arrays.sort(buffer, 0, bufferCount);
+        ensureScratch(centroidCount + bufferCount);
+        double[] mergedMeans = scratchMeans;
+        double[] mergedWeights = scratchWeights;
+        
+        // 정렬된 centroid와 정렬된 버퍼를 병합
+        int i = 0, j = 0, k = 0;
+        while (i < centroidCount || j < bufferCount) {
+            if (j >= bufferCount || (i < centroidCount && means[i] <= buffer[j])) {
+                mergedMeans[k] = means[i];
+                mergedWeights[k++] = weights[i++];
+            } else {
+                mergedMeans[k] = buffer[j++];
+                mergedWeights[k++] = 1.0;
+            }
+        }
+        
+        bufferCount = 0;
+        compress(k);
+    }
+    
+    /**
+     * 작업 배열이 n개를 담지 못하면 늘림 (복사본이나 역직렬화된 스케치에서만 발생)
+     */
+    private void ensureScratch(int n) {
+        if (scratchMeans.length >= n) return;
+        int size = Math.max(n, scratchMeans.length * 2);
+        scratchMeans = new double[size];
+        scratchWeights = new double[size];
+    }
+    
+    /**
+     * 작업 배열의 정렬된 항목 n개를 크기 제한에 맞게 합쳐 centroid로 저장
+     * 분위수 q 근처 centroid의 최대 가중치는 4 * N * q * (1 - q) / compression
+     * 기록 위치는 항상 읽는 위치보다 앞이므로 작업 배열 안에서 압축한 뒤 means/weights와 교체한다.
+     */
+    private void compress(int n) {
+        double[] sortedMeans = scratchMeans;
+        double[] sortedWeights = scratchWeights;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += sortedWeights[i];
+        }
+        
+        int out = 0;
+        double weightSoFar = 0;
+        double currentMean = sortedMeans[0];
+        double currentWeight = sortedWeights[0];
+        
+        for (int i = 1; i < n; i++) {
+            double proposed = currentWeight + sortedWeights[i];
+            double q0 = weightSoFar / total;
+            double q2 = (weightSoFar + proposed) / total;
+            double limit = total * Math.min(maxSize(q0), maxSize(q2));
+            
+            if (proposed <= limit) {
+                // 같은 centroid로 병합 (가중 평균)
+                currentMean += (sortedMeans[i] - currentMean) * sortedWeights[i] / proposed;
+                currentWeight = proposed;
+            } else {
+                sortedMeans[out] = currentMean;
+                sortedWeights[out++] = currentWeight;
+                weightSoFar += currentWeight;
+                currentMean = sortedMeans[i];
+                currentWeight = sortedWeights[i];
+            }
+        }
+        sortedMeans[out] = currentMean;
+        sortedWeights[out++] = currentWeight;
+        centroidCount = out;
+        
+        scratchMeans = means;
+        scratchWeights = weights;
+        means = sortedMeans;
+        weights = sortedWeights;
+    }
+    
+    private double maxSize(double q) {
+        return 4 * q * (1 - q) / compression;
+    }
+    
+    /**
+     * 분위수 추정
+     * 
+     * @param q 0-1 (예: 0.5 = 중앙값)
+     * @return 추정값 (데이터가 없으면 0)
+     */
+    @Override
+    public double quantile(double q) {
+        if (count == 0) return 0.0;
+        flush();
+        
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        if (centroidCount == 1) return means[0];
+        
+        double index = q * count;
+        
+        // 첫 centroid 중심 이전: min과 보간
+        double firstHalf = weights[0] / 2;
+        if (index < firstHalf) {
+            return min + (means[0] - min) * (index / firstHalf);
+        }
+        
+        // centroid 중심 사이 보간
+        double weightSoFar = firstHalf;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + step > index) {
+                double fraction = (index - weightSoFar) / step;
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            weightSoFar += step;
+        }
+        
+        // 마지막 centroid 중심 이후: max와 보간
+        double lastHalf = weights[centroidCount - 1] / 2;
+        double fraction = Math.min(1.0, (index - weightSoFar) / lastHalf);
+        return means[centroidCount - 1] + (max - means[centroidCount - 1]) * fraction;
+    }
+    
+    /**
+     * 누적 분포 추정 (value 이하 비율)
+     */
+    @Override
+    public double cdf(double value) {
+        if (count == 0) return 0.0;
+        flush();
+        
+        if (value < min) return 0.0;
+        if (value >= max) return 1.0;
+        if (centroidCount == 1) {
+            return max == min ? 1.0 : (value - min) / (max - min);
+        }
+        
+        // 첫 centroid 중심 이전
+        if (value < means[0]) {
+            double span = means[0] - min;
+            return span <= 0 ? 0.0 : (weights[0] / 2) * (value - min) / span / count;
+        }
+        
+        double weightSoFar = weights[0] / 2;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (value < means[i + 1]) {
+                double span = means[i + 1] - means[i];
+                double fraction = span <= 0 ? 0.0 : (value - means[i]) / span;
+                return (weightSoFar + step * fraction) / count;
+            }
+            weightSoFar += step;
+        }
+        
+        // 마지막 centroid 중심 이후
+        double span = max - means[centroidCount - 1];
+        double lastHalf = weights[centroidCount - 1] / 2;
+        double fraction = span <= 0 ? 1.0 : (value - means[centroidCount - 1]) / span;
+        return (weightSoFar + lastHalf * fraction) / count;
+    }
+    
+    /**
+     * [min, max] 구간을 같은 폭으로 나눈 히스토그램
+     * 
+     * @param bucketCount 구간 개수
+     * @return 구간별 추정 개수
+     */
+    @Override
+    public double[] histogram(int bucketCount) {
+        double[] buckets = new double[Math.max(1, bucketCount)];
+        if (count == 0) return buckets;
+        
+        double width = (max - min) / buckets.length;
+        if (width <= 0) {
+            buckets[0] = count;
+            return buckets;
+        }
+        
+        double previous = 0.0;
+        for (int i = 0; i < buckets.length; i++) {
+            double upper = i == buckets.length - 1 ? 1.0 : cdf(min + width * (i + 1));
+            buckets[i] = (upper - previous) * count;
+            previous = upper;
+        }
+        return buckets;
+    }
+    
+    @Override
+    public long getCount() {
+        return count;
+    }
+    
+    @Override
+    public double getMin() {
+        return count == 0 ? 0.0 : min;
+    }
+    
+    @Override
+    public double getMax() {
+        return count == 0 ? 0.0 : max;
+    }
+    
+    /**
+     * 이진 직렬화 (버퍼를 먼저 압축하고 centroid만 저장)
+     */
+    void writeTo(DataOutput out) throws IOException {
+        flush();
+        out.writeDouble(compression);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(centroidCount);
+        for (int i = 0; i < centroidCount; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+    
+    /**
+     * 이진 역직렬화 (compression과 centroid 개수가 범위를 벗어나면 IOException)
+     */
+    static QuantileSketch readFrom(DataInput in) throws IOException {
+        double compression = in.readDouble();
+        if (!(compression > 0 && compression <= MAX_COMPRESSION)) {
+            throw new IOException("Invalid compression: " + compression);
+        }
+        QuantileSketch sketch = new QuantileSketch(compression);
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int centroids = in.readInt();
+        // centroid 가중치는 1 이상이므로 개수는 count를 넘을 수 없다
+        if (sketch.count < 0 || centroids < 0 || centroids > sketch.count
+                || centroids > sketch.means.length * 4) {
+            throw new IOException("Invalid centroid count: " + centroids);
+        }
+        if (centroids > sketch.means.length) {
+            sketch.means = new double[centroids];
+            sketch.weights = new double[centroids];
+        }
+        for (int i = 0; i < centroids; i++) {
+            sketch.means[i] = in.readDouble();
+            sketch.weights[i] = in.readDouble();
+        }
+        sketch.centroidCount = centroids;
+        return sketch;
+    }
+    
+    /**
+     * 현재 centroid 개수 (메모리 사용량 확인용)
+     */
+    public int getCentroidCount() {
+        flush();
+        return centroidCount;
+    }
+}
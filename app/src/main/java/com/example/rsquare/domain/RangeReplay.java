@@ -0,0 +1,124 @@
+package com.example.rsquare.domain;
+
+/**
+ * 캔들 고가 / 저가 재생 (백그라운드 모니터의 따라잡기)
+ * 
+ * 워커 실행 사이에 가격이 TP / SL / 청산가를 찍고 되돌아오면 현재가만 봐서는 놓친다.
+ * 마지막 확인 이후의 캔들을 시간순으로 훑어 처음 발동된 트리거와 그 시각 / 가격을 찾는다.
+ * - 위쪽 레벨(롱 TP, 숏 SL / 청산)은 고가로, 아래쪽 레벨(롱 SL / 청산, 숏 TP)은 저가로 판정
+ * - 같은 쪽에 SL과 청산가가 모두 있으면 현재가에 가까운 쪽이 먼저 닿는다
+ * - 시가가 이미 레벨을 넘어 있으면(갭) 레벨이 아니라 시가에 체결
+ * - 한 캔들에서 양쪽이 모두 닿으면 순서를 알 수 없으므로 양봉은 저가 -> 고가, 음봉은 고가 -> 저가로 본다
+ * - fromTime에 걸친 캔들은 고가 / 저가에 그 이전 가격(진입 / 체결 전)이 섞여 있으므로 보지 않는다
+ *   (그 부분은 현재가 확인이 맡는다)
+ * 체결 시각은 캔들 시작 시각이다 (캔들 간격 단위 정밀도).
+ */
+public final class RangeReplay {
+    
+    private RangeReplay() {
+    }
+    
+    /**
+     * 처음 발동된 트리거 찾기
+     * 
+     * @param candles 시작 시각 오름차순 캔들
+     * @param fromTime 재생 시작 시각 (이 시각 이후에 시작한 캔들만 재생)
+     * @param takeProfit TP (0 이하면 없음)
+     * @param stopLoss SL (0 이하면 없음)
+     * @param liquidationPrice 청산가 (0 이하면 없음)
+     * @return 발동된 트리거 (없으면 null)
+     */
+    public static Hit find(CandleSeries candles, long fromTime, boolean isLong,
+                           double takeProfit, double stopLoss, double liquidationPrice) {
+        double upper;
+        double lower;
+        int upperKind;
+        int lowerKind;
+        if (isLong) {
+            upper = takeProfit > 0 ? takeProfit : Double.POSITIVE_INFINITY;
+            upperKind = TriggerBook.KIND_TAKE_PROFIT;
+            // 아래쪽은 SL / 청산가 중 높은 쪽이 먼저 닿음
+            if (stopLoss > 0 && stopLoss >= liquidationPrice) {
+                lower = stopLoss;
+                lowerKind = TriggerBook.KIND_STOP_LOSS;
+            } else if (liquidationPrice > 0) {
+                lower = liquidationPrice;
+                lowerKind = TriggerBook.KIND_LIQUIDATION;
+            } else {
+                lower = Double.NEGATIVE_INFINITY;
+                lowerKind = TriggerBook.KIND_STOP_LOSS;
+            }
+        } else {
+            lower = takeProfit > 0 ? takeProfit : Double.NEGATIVE_INFINITY;
+            lowerKind = TriggerBook.KIND_TAKE_PROFIT;
+            // 위쪽은 SL / 청산가 중 낮은 쪽이 먼저 닿음
+            double sl = stopLoss > 0 ? stopLoss : Double.POSITIVE_INFINITY;
+            double liquidation = liquidationPrice > 0 ? liquidationPrice : Double.POSITIVE_INFINITY;
+            if (sl <= liquidation) {
+                upper = sl;
+                upperKind = TriggerBook.KIND_STOP_LOSS;
+            } else {
+                upper = liquidation;
+                upperKind = TriggerBook.KIND_LIQUIDATION;
+            }
+        }
+        
+        int size = candles.size();
+        for (int i = 0; i < size; i++) {
+            long openTime = candles.getOpenTime(i);
+            if (openTime < fromTime) continue;
+            
+            double open = candles.getOpen(i);
+            
+            // 갭
+            if (open >= upper) return new Hit(upperKind, open, openTime);
+            if (open <= lower) return new Hit(lowerKind, open, openTime);
+            
+            boolean upperHit = candles.getHigh(i) >= upper;
+            boolean lowerHit = candles.getLow(i) <= lower;
+            if (upperHit && lowerHit) {
+                boolean lowFirst = candles.getClose(i) >= open;
+                return lowFirst ? new Hit(lowerKind, lower, openTime) : new Hit(upperKind, upper, openTime);
+            }
+            if (upperHit) return new Hit(upperKind, upper, openTime);
+            if (lowerHit) return new Hit(lowerKind, lower, openTime);
+        }
+        return null;
+    }
+    
+    /**
+     * 발동된 트리거
+     */
+    public static final class Hit {
+        private final int kind;
+        private final double price;
+        private final long time;
+        
+        Hit(int kind, double price, long time) {
+            this.kind = kind;
+            this.price = price;
+            this.time = time;
+        }
+        
+        /**
+         * 종류 (TriggerBook.KIND_TAKE_PROFIT / KIND_STOP_LOSS / KIND_LIQUIDATION)
+         */
+        public int getKind() {
+            return kind;
+        }
+        
+        /**
+         * 체결 가격 (트리거 가격, 갭이면 시가)
+         */
+        public double getPrice() {
+            return price;
+        }
+        
+        /**
+         * 체결 시각 (밀리초)
+         */
+        public long getTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rsquare.domain;
+
+/**
+ * 최종 손익 분포
+ * 
+ * 샘플링 결과는 QuantileSketch(근사), 해석적 계산 결과는 DiscreteDistribution(정확)으로 제공된다.
+ */
+public interface ReturnDistribution {
+    
+    /**
+     * 분위수
+     * 
+     * @param q 0-1 (예: 0.5 = 중앙값)
+     */
+    double quantile(double q);
+    
+    /**
+     * 누적 분포 (value 이하 비율, 0-1)
+     */
+    double cdf(double value);
+    
+    /**
+     * [min, max] 구간을 같은 폭으로 나눈 히스토그램
+     * 
+     * @param bucketCount 구간 개수
+     * @return 구간별 (추정) 반복 횟수
+     */
+    double[] histogram(int bucketCount);
+    
+    long getCount();
+    
+    double getMin();
+    
+    double getMax();
+}
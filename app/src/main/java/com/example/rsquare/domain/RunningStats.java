@@ -0,0 +1,71 @@
+package com.example.rsquare.domain;
+
+/**
+ * 평균/분산 스트리밍 누적기 (Welford)
+ * 
+ * 값을 저장하지 않고 개수, 평균, 편차 제곱합만 유지한다.
+ * merge()로 블록별 누적기를 합칠 수 있다 (Chan et al.).
+ */
+public class RunningStats {
+    
+    private long count;
+    private double mean;
+    private double m2;
+    
+    /**
+     * 값 추가
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+    
+    /**
+     * 다른 누적기를 병합
+     */
+    public void merge(RunningStats other) {
+        if (other == null || other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return;
+        }
+        
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+    
+    /**
+     * 모든 데이터 제거
+     */
+    public void reset() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public double getMean() {
+        return mean;
+    }
+    
+    /**
+     * 모분산 (n으로 나눔)
+     */
+    public double getVariance() {
+        return count > 0 ? m2 / count : 0.0;
+    }
+    
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+}
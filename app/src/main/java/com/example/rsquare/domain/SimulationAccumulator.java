@@ -0,0 +1,135 @@
+package com.example.rsquare.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monte Carlo 결과 스트리밍 누적기
+ * 
+ * 경로를 저장하지 않고 최종 손익 분포와 거래 회차(step)별 누적 수익률 분포를
+ * 분위수 스케치와 평균/분산 누적기로만 유지한다.
+ * 메모리는 O(거래 횟수)이며 반복 횟수와 무관하다.
+ */
+class SimulationAccumulator {
+    
+    // step별 스케치는 개수가 많으므로 더 작은 compression 사용
+    private static final double STEP_COMPRESSION = 25.0;
+    
+    final QuantileSketch finalSketch = new QuantileSketch();
+    final RunningStats finalStats = new RunningStats();
+    long winCount;
+    long ruinCount;
+    long haltCount;
+    
+    private final QuantileSketch[] stepSketches;
+    private final RunningStats[] stepStats;
+    
+    /**
+     * @param numberOfTrades 경로당 거래 횟수 (step은 시작점 포함 numberOfTrades + 1개)
+     */
+    SimulationAccumulator(int numberOfTrades) {
+        int steps = numberOfTrades + 1;
+        stepSketches = new QuantileSketch[steps];
+        stepStats = new RunningStats[steps];
+        for (int i = 0; i < steps; i++) {
+            stepSketches[i] = new QuantileSketch(STEP_COMPRESSION);
+            stepStats[i] = new RunningStats();
+        }
+    }
+    
+    /**
+     * step 시점의 누적 수익률(%) 기록
+     */
+    void addStep(int step, double returnRate) {
+        stepSketches[step].add(returnRate);
+        stepStats[step].add(returnRate);
+    }
+    
+    /**
+     * 경로 종료 시 최종 손익 기록
+     */
+    void addFinal(double finalReturn) {
+        finalSketch.add(finalReturn);
+        finalStats.add(finalReturn);
+        if (finalReturn > 0) winCount++;
+    }
+    
+    /**
+     * 파산으로 끝난 경로 기록 (addFinal과 함께 호출)
+     */
+    void addRuin() {
+        ruinCount++;
+    }
+    
+    /**
+     * 서킷 브레이커로 멈춘 경로 기록 (addFinal과 함께 호출)
+     */
+    void addHalt() {
+        haltCount++;
+    }
+    
+    /**
+     * 다른 누적기를 병합 (병합 순서가 같으면 결과도 같다)
+     */
+    void merge(SimulationAccumulator other) {
+        finalSketch.merge(other.finalSketch);
+        finalStats.merge(other.finalStats);
+        winCount += other.winCount;
+        ruinCount += other.ruinCount;
+        haltCount += other.haltCount;
+        for (int i = 0; i < stepSketches.length; i++) {
+            stepSketches[i].merge(other.stepSketches[i]);
+            stepStats[i].merge(other.stepStats[i]);
+        }
+    }
+    
+    /**
+     * 재사용을 위해 비우기
+     */
+    void reset() {
+        finalSketch.reset();
+        finalStats.reset();
+        winCount = 0;
+        ruinCount = 0;
+        haltCount = 0;
+        for (int i = 0; i < stepSketches.length; i++) {
+            stepSketches[i].reset();
+            stepStats[i].reset();
+        }
+    }
+    
+    /**
+     * step별 평균 누적 수익률
+     */
+    List<Double> stepMeans() {
+        List<Double> means = new ArrayList<>(stepStats.length);
+        for (RunningStats stats : stepStats) {
+            means.add(stats.getMean());
+        }
+        return means;
+    }
+    
+    /**
+     * step별 누적 수익률 표준편차
+     */
+    double[] stepStdDevs() {
+        double[] values = new double[stepStats.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = stepStats[i].getStdDev();
+        }
+        return values;
+    }
+    
+    /**
+     * step별 누적 수익률 분위수
+     * 
+     * @param q 0-1
+     */
+    double[] stepQuantiles(double q) {
+        double[] values = new double[stepSketches.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = stepSketches[i].quantile(q);
+        }
+        return values;
+    }
+}
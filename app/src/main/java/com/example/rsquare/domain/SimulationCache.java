@@ -0,0 +1,397 @@
+package com.example.rsquare.domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Monte Carlo 결과 캐시 (메모리 LRU + 선택적 디스크 보관)
+ * 
+ * 입력값(R:R, 승률, 사이징 정책, 거래 횟수, 반복 횟수)과 시뮬레이터 설정(시드, 실행 경로,
+ * 해석적 계산 여부)이 같으면 저장된 결과를 바로 돌려준다. bootstrap은 표본 지문도 키에 포함한다.
+ * 완료된 결과만 저장하며, 디스크에는 SimulationResultCodec 형식으로 cacheDir/simulations에 기록한다.
+ * 반환된 결과는 캐시와 공유되므로 수정하면 안 된다.
+ * 
+ * 실행 경로는 난수 출처를 구분한다. 블록 경로(병렬 simulate, 모든 점진 실행)는 시드만으로
+ * 결과가 정해지므로 서로 공유하고, 직렬 simulate는 호출마다 난수 상태가 이어지므로 별도 항목에
+ * 두며 같은 키의 두 번째 호출은 새로 계산하지 않고 첫 결과를 재사용한다.
+ */
+public class SimulationCache {
+    
+    public static final int DEFAULT_MAX_ENTRIES = 32;
+    
+    private static final String DIRECTORY_NAME = "simulations";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final int MAX_DISK_ENTRIES = 128;
+    
+    private static volatile SimulationCache INSTANCE;
+    
+    private final int maxEntries;
+    private final File directory;
+    private final LinkedHashMap<Key, SimulationResult> entries;
+    
+    /**
+     * @param maxEntries 메모리에 보관할 최대 결과 수
+     * @param cacheDir 디스크 보관 위치 (null이면 메모리만 사용)
+     */
+    public SimulationCache(int maxEntries, File cacheDir) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.directory = cacheDir != null ? new File(cacheDir, DIRECTORY_NAME) : null;
+        this.entries = new LinkedHashMap<Key, SimulationResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SimulationResult> eldest) {
+                return size() > SimulationCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * 프로세스 공용 캐시 (화면을 다시 열어도 메모리 캐시 유지)
+     * 
+     * @param cacheDir 앱 캐시 디렉터리 (Context.getCacheDir())
+     */
+    public static SimulationCache getInstance(File cacheDir) {
+        if (INSTANCE == null) {
+            synchronized (SimulationCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SimulationCache(DEFAULT_MAX_ENTRIES, cacheDir);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    /**
+     * 캐시를 거친 MonteCarloSimulator.simulate (디스크 조회가 있으므로 백그라운드에서 호출)
+     */
+    public SimulationResult simulate(MonteCarloSimulator simulator, double riskRewardRatio,
+                                     double winRate, SizingPolicy policy,
+                                     int numberOfTrades, int iterations) {
+        Key key = Key.parametric(simulator, Key.pathOf(simulator), riskRewardRatio, winRate,
+            policy, numberOfTrades, iterations);
+        SimulationResult result = get(key);
+        if (result == null) {
+            result = simulator.simulate(riskRewardRatio, winRate, policy, numberOfTrades, iterations);
+            put(key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * 캐시를 거친 MonteCarloSimulator.simulateBootstrap
+     */
+    public SimulationResult simulateBootstrap(MonteCarloSimulator simulator, double[] rMultiples,
+                                              SizingPolicy policy, int numberOfTrades,
+                                              int iterations, int blockLength) {
+        Key key = Key.bootstrap(simulator, Key.pathOf(simulator), rMultiples, policy,
+            numberOfTrades, iterations, blockLength);
+        SimulationResult result = get(key);
+        if (result == null) {
+            result = simulator.simulateBootstrap(rMultiples, policy, numberOfTrades, iterations,
+                blockLength);
+            put(key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * 캐시를 거친 MonteCarloSimulator.simulateProgressive
+     * 캐시에 있으면 완료된 결과 하나만 전달하고, 없으면 점진 실행 후 최종 결과를 저장한다.
+     * 조회와 실행은 모두 executor에서 이루어진다.
+     */
+    public SimulationRun simulateProgressive(MonteCarloSimulator simulator,
+                                             double riskRewardRatio, double winRate,
+                                             SizingPolicy policy, int numberOfTrades,
+                                             int iterations, Executor executor,
+                                             MonteCarloSimulator.OnProgressListener listener) {
+        Key key = Key.parametric(simulator, Key.Path.BLOCKS, riskRewardRatio, winRate,
+            policy, numberOfTrades, iterations);
+        return runProgressive(key, executor, listener, storing ->
+            simulator.simulateProgressive(riskRewardRatio, winRate, policy, numberOfTrades,
+                iterations, executor, storing));
+    }
+    
+    /**
+     * 캐시를 거친 MonteCarloSimulator.simulateBootstrapProgressive
+     */
+    public SimulationRun simulateBootstrapProgressive(MonteCarloSimulator simulator,
+                                                      double[] rMultiples, SizingPolicy policy,
+                                                      int numberOfTrades, int iterations,
+                                                      int blockLength, Executor executor,
+                                                      MonteCarloSimulator.OnProgressListener listener) {
+        Key key = Key.bootstrap(simulator, Key.Path.BLOCKS, rMultiples, policy,
+            numberOfTrades, iterations, blockLength);
+        return runProgressive(key, executor, listener, storing ->
+            simulator.simulateBootstrapProgressive(rMultiples, policy, numberOfTrades,
+                iterations, blockLength, executor, storing));
+    }
+    
+    private interface ProgressiveStarter {
+        SimulationRun start(MonteCarloSimulator.OnProgressListener listener);
+    }
+    
+    private SimulationRun runProgressive(Key key, Executor executor,
+                                         MonteCarloSimulator.OnProgressListener listener,
+                                         ProgressiveStarter starter) {
+        SimulationRun run = new SimulationRun();
+        executor.execute(() -> {
+            if (run.isCancelled()) return;
+            
+            SimulationResult cached = get(key);
+            if (cached != null) {
+                listener.onProgress(cached);
+                return;
+            }
+            
+            run.attach(starter.start(snapshot -> {
+                if (snapshot.isComplete()) put(key, snapshot);
+                listener.onProgress(snapshot);
+            }));
+        });
+        return run;
+    }
+    
+    /**
+     * 메모리 → 디스크 순으로 조회
+     */
+    SimulationResult get(Key key) {
+        synchronized (this) {
+            SimulationResult result = entries.get(key);
+            if (result != null) return result;
+        }
+        
+        SimulationResult result = readFromDisk(key);
+        if (result != null) {
+            synchronized (this) {
+                entries.put(key, result);
+            }
+        }
+        return result;
+    }
+    
+    void put(Key key, SimulationResult result) {
+        synchronized (this) {
+            entries.put(key, result);
+        }
+        writeToDisk(key, result);
+    }
+    
+    /**
+     * 메모리와 디스크의 모든 결과 삭제
+     */
+    public void clear() {
+        synchronized (this) {
+            entries.clear();
+        }
+        File[] files = directory != null ? directory.listFiles() : null;
+        if (files == null) return;
+        for (File file : files) {
+            file.delete();
+        }
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private SimulationResult readFromDisk(Key key) {
+        if (directory == null) return null;
+        File file = new File(directory, key.fileName());
+        if (!file.isFile()) return null;
+        
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            // 파일 이름은 해시이므로 전체 키를 비교해 충돌을 걸러낸다
+            if (!key.describe().equals(in.readUTF())) return null;
+            SimulationResult result = SimulationResultCodec.read(in);
+            file.setLastModified(System.currentTimeMillis());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // 손상되었거나 이전 형식인 파일은 버리고 다시 계산
+            file.delete();
+            return null;
+        }
+    }
+    
+    private void writeToDisk(Key key, SimulationResult result) {
+        if (directory == null) return;
+        if (!directory.isDirectory() && !directory.mkdirs()) return;
+        
+        File file = new File(directory, key.fileName());
+        File temp = new File(directory, key.fileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeUTF(key.describe());
+            SimulationResultCodec.write(result, out);
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        // 완전히 기록된 파일만 보이도록 교체
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return;
+        }
+        trimDisk();
+    }
+    
+    /**
+     * 디스크 항목이 한도를 넘으면 가장 오래 사용하지 않은 파일부터 삭제
+     */
+    private void trimDisk() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= MAX_DISK_ENTRIES) return;
+        
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < files.length - MAX_DISK_ENTRIES; i++) {
+            files[i].delete();
+        }
+    }
+    
+    /**
+     * 캐시 키
+     */
+    static final class Key {
+        
+        /**
+         * 결과를 만든 실행 경로
+         */
+        enum Path {
+            /** 직렬 simulate (인스턴스 Random, 이전 호출에 따라 결과가 달라짐) */
+            SERIAL,
+            /** 블록별 SplittableRandom (병렬 simulate, 점진 실행 - 시드로 결과 고정) */
+            BLOCKS
+        }
+        
+        private final boolean bootstrap;
+        private final double riskRewardRatio;
+        private final double winRate;
+        private final SizingPolicy policy;
+        private final int numberOfTrades;
+        private final int iterations;
+        private final long seed;
+        private final Path path;
+        private final boolean analytic;
+        private final int blockLength;
+        private final int sampleCount;
+        private final long sampleFingerprint;
+        
+        private Key(boolean bootstrap, double riskRewardRatio, double winRate, SizingPolicy policy,
+                    int numberOfTrades, int iterations, MonteCarloSimulator simulator,
+                    Path path, int blockLength, int sampleCount, long sampleFingerprint) {
+            this.bootstrap = bootstrap;
+            this.riskRewardRatio = riskRewardRatio;
+            this.winRate = winRate;
+            this.policy = policy;
+            this.numberOfTrades = numberOfTrades;
+            this.iterations = iterations;
+            this.seed = simulator.getSeed();
+            this.path = path;
+            this.analytic = simulator.isAnalyticFastPath();
+            this.blockLength = blockLength;
+            this.sampleCount = sampleCount;
+            this.sampleFingerprint = sampleFingerprint;
+        }
+        
+        /**
+         * 동기 simulate / simulateBootstrap의 실행 경로
+         */
+        static Path pathOf(MonteCarloSimulator simulator) {
+            return simulator.isParallel() ? Path.BLOCKS : Path.SERIAL;
+        }
+        
+        static Key parametric(MonteCarloSimulator simulator, Path path, double riskRewardRatio,
+                              double winRate, SizingPolicy policy,
+                              int numberOfTrades, int iterations) {
+            return new Key(false, riskRewardRatio, winRate, policy, numberOfTrades, iterations,
+                simulator, path, 0, 0, 0L);
+        }
+        
+        static Key bootstrap(MonteCarloSimulator simulator, Path path, double[] rMultiples,
+                             SizingPolicy policy, int numberOfTrades, int iterations,
+                             int blockLength) {
+            int sampleCount = rMultiples != null ? rMultiples.length : 0;
+            return new Key(true, 0, 0, policy, numberOfTrades, iterations, simulator, path,
+                blockLength, sampleCount, fingerprint(rMultiples));
+        }
+        
+        /**
+         * 표본 배열의 64비트 FNV-1a 해시
+         */
+        private static long fingerprint(double[] values) {
+            long hash = 0xcbf29ce484222325L;
+            if (values == null) return hash;
+            for (double value : values) {
+                hash ^= Double.doubleToLongBits(value);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+        
+        /**
+         * 모든 필드를 담은 문자열 (디스크 파일 검증용)
+         */
+        String describe() {
+            return String.format(Locale.US, "%s|%s|%s|%s|%d|%d|%d|%s|%b|%d|%d|%016x",
+                bootstrap ? "B" : "P", Double.toString(riskRewardRatio), Double.toString(winRate),
+                policy, numberOfTrades, iterations, seed, path, analytic,
+                blockLength, sampleCount, sampleFingerprint);
+        }
+        
+        String fileName() {
+            long hash = 0xcbf29ce484222325L;
+            String description = describe();
+            for (int i = 0; i < description.length(); i++) {
+                hash ^= description.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return String.format(Locale.US, "%016x", hash) + FILE_SUFFIX;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return bootstrap == other.bootstrap
+                && Double.compare(riskRewardRatio, other.riskRewardRatio) == 0
+                && Double.compare(winRate, other.winRate) == 0
+                && policy.equals(other.policy)
+                && numberOfTrades == other.numberOfTrades
+                && iterations == other.iterations
+                && seed == other.seed
+                && path == other.path
+                && analytic == other.analytic
+                && blockLength == other.blockLength
+                && sampleCount == other.sampleCount
+                && sampleFingerprint == other.sampleFingerprint;
+        }
+        
+        @Override
+        public int hashCode() {
+            int result = Boolean.hashCode(bootstrap);
+            result = 31 * result + Double.hashCode(riskRewardRatio);
+            result = 31 * result + Double.hashCode(winRate);
+            result = 31 * result + policy.hashCode();
+            result = 31 * result + numberOfTrades;
+            result = 31 * result + iterations;
+            result = 31 * result + Long.hashCode(seed);
+            result = 31 * result + path.hashCode();
+            result = 31 * result + Boolean.hashCode(analytic);
+            result = 31 * result + blockLength;
+            result = 31 * result + sampleCount;
+            result = 31 * result + Long.hashCode(sampleFingerprint);
+            return result;
+        }
+    }
+}
@@ -12,15 +12,28 @@ public class SimulationResult {
     private double maxLoss;             // 최대 손실
     private double sharpeRatio;         // Sharpe Ratio
     private double winRate;             // 승률
-    private List<Double> distribution;  // 손익 분포
-    private List<Double> cumulativeReturns; // 누적 수익률
-    private int iterations;             // 시뮬레이션 반복 횟수
+    private double ruinRate;            // 파산 확률 (%)
+    private double haltRate;            // 서킷 브레이커로 거래를 멈춘 경로 비율 (%)
+    private ReturnDistribution distribution; // 손익 분포 (샘플링: 스케치, 해석적: 정확한 이산 분포)
+    private List<Double> cumulativeReturns; // 누적 수익률 (step별 평균)
+    private double[] cumulativeStdDev;  // step별 누적 수익률 표준편차
+    private int iterations;             // 시뮬레이션 반복 횟수 (점진 실행 시 완료된 횟수)
+    private int targetIterations;       // 요청된 전체 반복 횟수
+    private double standardError;       // 기대 수익의 표준오차 (수렴도)
+    private boolean exact;              // 해석적 계산 결과 여부 (샘플링 잡음 없음)
     
     // 확률 구간
     private double percentile25;        // 25% 분위수
     private double percentile50;        // 50% 분위수 (중앙값)
     private double percentile75;        // 75% 분위수
     
+    // step별 누적 수익률(%) 분위 밴드 (Probability Cone)
+    private double[] cumulativeP5;
+    private double[] cumulativeP25;
+    private double[] cumulativeP50;
+    private double[] cumulativeP75;
+    private double[] cumulativeP95;
+    
     public SimulationResult() {
     }
     
@@ -65,14 +78,49 @@ public class SimulationResult {
         this.winRate = winRate;
     }
     
-    public List<Double> getDistribution() {
+    public double getRuinRate() {
+        return ruinRate;
+    }
+    
+    public void setRuinRate(double ruinRate) {
+        this.ruinRate = ruinRate;
+    }
+    
+    public double getHaltRate() {
+        return haltRate;
+    }
+    
+    public void setHaltRate(double haltRate) {
+        this.haltRate = haltRate;
+    }
+    
+    public ReturnDistribution getDistribution() {
         return distribution;
     }
     
-    public void setDistribution(List<Double> distribution) {
+    public void setDistribution(ReturnDistribution distribution) {
         this.distribution = distribution;
     }
     
+    /**
+     * 최종 손익의 임의 분위수
+     * 
+     * @param q 0-1 (예: 0.95 = 95% 분위수)
+     */
+    public double getPercentile(double q) {
+        return distribution != null ? distribution.quantile(q) : 0.0;
+    }
+    
+    /**
+     * 최종 손익 히스토그램 ([최대 손실, 최대 수익] 구간을 같은 폭으로 분할)
+     * 
+     * @param bucketCount 구간 개수
+     * @return 구간별 추정 반복 횟수
+     */
+    public double[] getHistogram(int bucketCount) {
+        return distribution != null ? distribution.histogram(bucketCount) : new double[Math.max(1, bucketCount)];
+    }
+    
     public List<Double> getCumulativeReturns() {
         return cumulativeReturns;
     }
@@ -89,6 +137,45 @@ public class SimulationResult {
         this.iterations = iterations;
     }
     
+    public int getTargetIterations() {
+        return targetIterations;
+    }
+    
+    public void setTargetIterations(int targetIterations) {
+        this.targetIterations = targetIterations;
+    }
+    
+    /**
+     * 요청된 반복을 모두 마친 최종 결과인지 여부
+     */
+    public boolean isComplete() {
+        return iterations >= targetIterations;
+    }
+    
+    public double getStandardError() {
+        return standardError;
+    }
+    
+    public void setStandardError(double standardError) {
+        this.standardError = standardError;
+    }
+    
+    /**
+     * 기대 수익 대비 표준오차 비율 (작을수록 수렴)
+     */
+    public double getRelativeStandardError() {
+        if (expectedReturn == 0) return standardError == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+        return standardError / Math.abs(expectedReturn);
+    }
+    
+    public boolean isExact() {
+        return exact;
+    }
+    
+    public void setExact(boolean exact) {
+        this.exact = exact;
+    }
+    
     public double getPercentile25() {
         return percentile25;
     }
@@ -112,5 +199,53 @@ public class SimulationResult {
     public void setPercentile75(double percentile75) {
         this.percentile75 = percentile75;
     }
+    
+    public double[] getCumulativeStdDev() {
+        return cumulativeStdDev;
+    }
+    
+    public void setCumulativeStdDev(double[] cumulativeStdDev) {
+        this.cumulativeStdDev = cumulativeStdDev;
+    }
+    
+    public double[] getCumulativeP5() {
+        return cumulativeP5;
+    }
+    
+    public void setCumulativeP5(double[] cumulativeP5) {
+        this.cumulativeP5 = cumulativeP5;
+    }
+    
+    public double[] getCumulativeP25() {
+        return cumulativeP25;
+    }
+    
+    public void setCumulativeP25(double[] cumulativeP25) {
+        this.cumulativeP25 = cumulativeP25;
+    }
+    
+    public double[] getCumulativeP50() {
+        return cumulativeP50;
+    }
+    
+    public void setCumulativeP50(double[] cumulativeP50) {
+        this.cumulativeP50 = cumulativeP50;
+    }
+    
+    public double[] getCumulativeP75() {
+        return cumulativeP75;
+    }
+    
+    public void setCumulativeP75(double[] cumulativeP75) {
+        this.cumulativeP75 = cumulativeP75;
+    }
+    
+    public double[] getCumulativeP95() {
+        return cumulativeP95;
+    }
+    
+    public void setCumulativeP95(double[] cumulativeP95) {
+        this.cumulativeP95 = cumulativeP95;
+    }
 }
 
@@ -0,0 +1,158 @@
+package com.example.rsquare.domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SimulationResult 이진 인코딩
+ * 
+ * 고정 필드 + 길이 접두 double 배열 + 분포(스케치 또는 이산 분포) 순서로 기록한다.
+ * 형식이 바뀌면 VERSION을 올리고, 읽을 때 버전이 다르면 IOException으로 거부한다.
+ */
+final class SimulationResultCodec {
+    
+    private static final int MAGIC = 0x52534d43; // "RSMC"
+    private static final int VERSION = 1;
+    
+    private static final int DISTRIBUTION_NONE = 0;
+    private static final int DISTRIBUTION_SKETCH = 1;
+    private static final int DISTRIBUTION_DISCRETE = 2;
+    
+    // 읽을 때 허용하는 최대 배열 길이 (손상된 파일이 거대한 할당을 만들지 않도록)
+    static final int MAX_LENGTH = 1 << 20;
+    
+    private SimulationResultCodec() {
+    }
+    
+    static void write(SimulationResult result, DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        
+        out.writeDouble(result.getExpectedReturn());
+        out.writeDouble(result.getMaxProfit());
+        out.writeDouble(result.getMaxLoss());
+        out.writeDouble(result.getSharpeRatio());
+        out.writeDouble(result.getWinRate());
+        out.writeDouble(result.getRuinRate());
+        out.writeDouble(result.getHaltRate());
+        out.writeDouble(result.getStandardError());
+        out.writeInt(result.getIterations());
+        out.writeInt(result.getTargetIterations());
+        out.writeBoolean(result.isExact());
+        out.writeDouble(result.getPercentile25());
+        out.writeDouble(result.getPercentile50());
+        out.writeDouble(result.getPercentile75());
+        
+        writeList(result.getCumulativeReturns(), out);
+        writeArray(result.getCumulativeStdDev(), out);
+        writeArray(result.getCumulativeP5(), out);
+        writeArray(result.getCumulativeP25(), out);
+        writeArray(result.getCumulativeP50(), out);
+        writeArray(result.getCumulativeP75(), out);
+        writeArray(result.getCumulativeP95(), out);
+        
+        ReturnDistribution distribution = result.getDistribution();
+        if (distribution instanceof QuantileSketch) {
+            out.writeByte(DISTRIBUTION_SKETCH);
+            ((QuantileSketch) distribution).writeTo(out);
+        } else if (distribution instanceof DiscreteDistribution) {
+            out.writeByte(DISTRIBUTION_DISCRETE);
+            ((DiscreteDistribution) distribution).writeTo(out);
+        } else {
+            out.writeByte(DISTRIBUTION_NONE);
+        }
+    }
+    
+    static SimulationResult read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a simulation result");
+        int version = in.readByte();
+        if (version != VERSION) throw new IOException("Unsupported version: " + version);
+        
+        SimulationResult result = new SimulationResult();
+        result.setExpectedReturn(in.readDouble());
+        result.setMaxProfit(in.readDouble());
+        result.setMaxLoss(in.readDouble());
+        result.setSharpeRatio(in.readDouble());
+        result.setWinRate(in.readDouble());
+        result.setRuinRate(in.readDouble());
+        result.setHaltRate(in.readDouble());
+        result.setStandardError(in.readDouble());
+        result.setIterations(in.readInt());
+        result.setTargetIterations(in.readInt());
+        result.setExact(in.readBoolean());
+        result.setPercentile25(in.readDouble());
+        result.setPercentile50(in.readDouble());
+        result.setPercentile75(in.readDouble());
+        
+        result.setCumulativeReturns(readList(in));
+        result.setCumulativeStdDev(readArray(in));
+        result.setCumulativeP5(readArray(in));
+        result.setCumulativeP25(readArray(in));
+        result.setCumulativeP50(readArray(in));
+        result.setCumulativeP75(readArray(in));
+        result.setCumulativeP95(readArray(in));
+        
+        int distributionType = in.readByte();
+        if (distributionType == DISTRIBUTION_SKETCH) {
+            result.setDistribution(QuantileSketch.readFrom(in));
+        } else if (distributionType == DISTRIBUTION_DISCRETE) {
+            result.setDistribution(DiscreteDistribution.readFrom(in));
+        }
+        return result;
+    }
+    
+    // 길이 -1은 null
+    private static void writeArray(double[] values, DataOutput out) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+    
+    private static double[] readArray(DataInput in) throws IOException {
+        int length = readLength(in);
+        if (length < 0) return null;
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+    
+    private static void writeList(List<Double> values, DataOutput out) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (Double value : values) {
+            out.writeDouble(value != null ? value : 0.0);
+        }
+    }
+    
+    // 길이 -1(null) 또는 0..MAX_LENGTH만 허용
+    private static int readLength(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < -1 || length > MAX_LENGTH) {
+            throw new IOException("Invalid length: " + length);
+        }
+        return length;
+    }
+    
+    private static List<Double> readList(DataInput in) throws IOException {
+        int length = readLength(in);
+        if (length < 0) return null;
+        List<Double> values = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(in.readDouble());
+        }
+        return values;
+    }
+}
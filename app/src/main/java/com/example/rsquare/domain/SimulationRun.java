@@ -0,0 +1,34 @@
+package com.example.rsquare.domain;
+
+/**
+ * 점진 실행 중인 Monte Carlo 시뮬레이션 핸들
+ * 
+ * cancel()은 협조적 취소로, 실행 스레드가 다음 경로를 시작하기 전에 확인한다.
+ */
+public class SimulationRun {
+    
+    private volatile boolean cancelled;
+    // 이 핸들을 대신해 실제로 실행 중인 하위 실행 (캐시 조회 후 시작된 시뮬레이션 등)
+    private volatile SimulationRun delegate;
+    
+    /**
+     * 실행 취소 (이후 스냅샷은 전달되지 않음)
+     */
+    public void cancel() {
+        cancelled = true;
+        SimulationRun current = delegate;
+        if (current != null) current.cancel();
+    }
+    
+    /**
+     * 하위 실행 연결 (이미 취소된 상태면 즉시 함께 취소)
+     */
+    void attach(SimulationRun run) {
+        delegate = run;
+        if (cancelled) run.cancel();
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.rsquare.domain;
+
+import com.example.rsquare.data.local.entity.UserSettings;
+
+/**
+ * Monte Carlo 거래당 위험 금액(1R) 결정 방식
+ * 
+ * - FIXED_AMOUNT: 매 거래 같은 금액을 위험에 노출
+ * - PERCENT_OF_EQUITY: 현재 잔고의 일정 비율 (복리)
+ * - FRACTIONAL_KELLY: Kelly 비율에 배수를 곱한 잔고 비율 (복리)
+ * 
+ * 최대 낙폭 서킷 브레이커를 설정하면 고점 대비 낙폭이 한도에 도달한 경로는
+ * 그 시점에서 거래를 멈춘다.
+ * 불변 객체이며, 시뮬레이터는 실행 전에 한 번 기본형 값으로 풀어서 사용한다.
+ */
+public final class SizingPolicy {
+    
+    public enum Type {
+        FIXED_AMOUNT,
+        PERCENT_OF_EQUITY,
+        FRACTIONAL_KELLY
+    }
+    
+    private final Type type;
+    private final double value;         // 고정 금액, 잔고 비율(%), 또는 Kelly 배수
+    private final double maxDrawdown;   // 서킷 브레이커 낙폭 한도 (%), 0이면 사용 안 함
+    
+    private SizingPolicy(Type type, double value, double maxDrawdown) {
+        this.type = type;
+        this.value = value;
+        this.maxDrawdown = maxDrawdown;
+    }
+    
+    /**
+     * 고정 금액
+     * 
+     * @param amount 거래당 위험 금액
+     */
+    public static SizingPolicy fixedAmount(double amount) {
+        return new SizingPolicy(Type.FIXED_AMOUNT, amount, 0.0);
+    }
+    
+    /**
+     * 잔고 비율
+     * 
+     * @param percentage 거래당 위험 비율 (%, 예: 2.0 = 잔고의 2%)
+     */
+    public static SizingPolicy percentOfEquity(double percentage) {
+        return new SizingPolicy(Type.PERCENT_OF_EQUITY, percentage, 0.0);
+    }
+    
+    /**
+     * 분할 Kelly
+     * 
+     * @param multiplier Kelly 비율에 곱할 배수 (예: 0.5 = Half Kelly)
+     */
+    public static SizingPolicy fractionalKelly(double multiplier) {
+        return new SizingPolicy(Type.FRACTIONAL_KELLY, multiplier, 0.0);
+    }
+    
+    /**
+     * 사용자 위험 관리 설정으로 생성 (고정액 / 비율)
+     */
+    public static SizingPolicy fromSettings(UserSettings settings) {
+        if (settings.isUseFixedRiskAmount()) {
+            return fixedAmount(settings.getFixedRiskAmount());
+        }
+        return percentOfEquity(settings.getRiskPercentage());
+    }
+    
+    /**
+     * 최대 낙폭 서킷 브레이커를 추가한 정책
+     * 
+     * @param maxDrawdownPercentage 고점 대비 낙폭 한도 (%, 0 이하면 해제)
+     */
+    public SizingPolicy withMaxDrawdown(double maxDrawdownPercentage) {
+        return new SizingPolicy(type, value, Math.max(0.0, maxDrawdownPercentage));
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public double getValue() {
+        return value;
+    }
+    
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+    
+    public boolean hasCircuitBreaker() {
+        return maxDrawdown > 0;
+    }
+    
+    /**
+     * 잔고와 무관하게 같은 금액을 거는지 여부
+     */
+    public boolean isFixedAmount() {
+        return type == Type.FIXED_AMOUNT;
+    }
+    
+    /**
+     * 승/패 모델의 거래당 잔고 비율 (0-1)
+     * Kelly: f* = p - (1 - p) / R:R, 기대값이 0 이하이면 0
+     */
+    double equityFraction(double riskRewardRatio, double winRate) {
+        if (type == Type.PERCENT_OF_EQUITY) {
+            return clampFraction(value / 100.0);
+        }
+        if (riskRewardRatio <= 0) return 0.0;
+        double kelly = winRate - (1 - winRate) / riskRewardRatio;
+        return clampFraction(value * kelly);
+    }
+    
+    /**
+     * R 배수 표본의 거래당 잔고 비율 (0-1)
+     * Kelly는 2차 근사 f* = E[R] / E[R²]를 사용한다.
+     */
+    double equityFraction(double[] rMultiples) {
+        if (type == Type.PERCENT_OF_EQUITY) {
+            return clampFraction(value / 100.0);
+        }
+        double sum = 0;
+        double sumSquares = 0;
+        for (double r : rMultiples) {
+            sum += r;
+            sumSquares += r * r;
+        }
+        if (sumSquares <= 0) return 0.0;
+        return clampFraction(value * sum / sumSquares);
+    }
+    
+    private static double clampFraction(double fraction) {
+        if (Double.isNaN(fraction) || fraction <= 0) return 0.0;
+        return Math.min(fraction, 1.0);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SizingPolicy)) return false;
+        SizingPolicy other = (SizingPolicy) o;
+        return type == other.type
+            && Double.compare(value, other.value) == 0
+            && Double.compare(maxDrawdown, other.maxDrawdown) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + Double.hashCode(value);
+        result = 31 * result + Double.hashCode(maxDrawdown);
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        return type + "(" + value + (maxDrawdown > 0 ? ", maxDD=" + maxDrawdown + "%" : "") + ")";
+    }
+}
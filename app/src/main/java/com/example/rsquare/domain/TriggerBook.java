@@ -0,0 +1,332 @@
+package com.example.rsquare.domain;
+
+import java.util.Arrays;
+
+/**
+ * 심볼 하나의 가격 트리거 목록 (TP / SL / 청산 / 대기 주문 진입)
+ * 
+ * 방향별로 가격순 정렬 배열을 하나씩 둔다.
+ * - 상향 (가격 >= 레벨): 롱 TP, 숏 SL, 숏 청산
+ * - 하향 (가격 <= 레벨): 롱 SL, 롱 청산, 숏 TP
+ * 두 배열 모두 현재가에 가장 가까운 트리거가 맨 끝에 오도록 정렬하므로,
+ * 틱마다 양쪽 끝만 비교하고 넘어선 트리거만 끝에서 꺼낸다 (넘어선 것이 없으면 O(1)).
+ * 추가는 이진 탐색 후 배열 이동 (포지션이 바뀔 때만).
+ * 
+ * 대기 주문 진입은 Limit / Stop 구분이 없으므로 첫 틱 가격으로 방향을 정한다.
+ * 
+ * 스레드 안전하지 않다 (호출 쪽에서 동기화).
+ */
+public final class TriggerBook {
+    
+    // 종류 (값이 작을수록 같은 틱에서 우선)
+    public static final int KIND_TAKE_PROFIT = 0;
+    public static final int KIND_STOP_LOSS = 1;
+    public static final int KIND_LIQUIDATION = 2;
+    public static final int KIND_ENTRY = 3;
+    
+    // 대기 주문 체결 허용 오차 (TradingMonitorWorker와 동일, 0.1%)
+    public static final double ENTRY_TOLERANCE = 0.001;
+    
+    private static final int MIN_CAPACITY = 4;
+    
+    private final String symbol;
+    private final Side above = new Side(true);
+    private final Side below = new Side(false);
+    
+    // 방향이 정해지지 않은 진입 트리거
+    private long[] unarmedIds = new long[MIN_CAPACITY];
+    private double[] unarmedLevels = new double[MIN_CAPACITY];
+    private int unarmedCount;
+    
+    public TriggerBook(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    /**
+     * 청산 방향 트리거 추가 (TP / SL / 청산)
+     * 롱은 TP가 상향, SL / 청산이 하향이고 숏은 반대
+     * 
+     * @param level 트리거 가격 (0 이하면 무시)
+     */
+    public void addExit(long positionId, int kind, double level, boolean isLong) {
+        if (!(level > 0)) return;
+        boolean up = (kind == KIND_TAKE_PROFIT) == isLong;
+        (up ? above : below).insert(positionId, kind, level);
+    }
+    
+    /**
+     * 대기 주문 진입 트리거 추가 (다음 틱에서 방향 결정)
+     */
+    public void addEntry(long positionId, double entryPrice) {
+        if (!(entryPrice > 0)) return;
+        if (unarmedCount == unarmedIds.length) {
+            unarmedIds = Arrays.copyOf(unarmedIds, unarmedCount * 2);
+            unarmedLevels = Arrays.copyOf(unarmedLevels, unarmedCount * 2);
+        }
+        unarmedIds[unarmedCount] = positionId;
+        unarmedLevels[unarmedCount] = entryPrice;
+        unarmedCount++;
+    }
+    
+    /**
+     * 포지션의 트리거 모두 제거
+     * @return 제거된 트리거 수
+     */
+    public int remove(long positionId) {
+        int removed = above.removeAll(positionId) + below.removeAll(positionId);
+        int w = 0;
+        for (int r = 0; r < unarmedCount; r++) {
+            if (unarmedIds[r] == positionId) {
+                removed++;
+                continue;
+            }
+            unarmedIds[w] = unarmedIds[r];
+            unarmedLevels[w] = unarmedLevels[r];
+            w++;
+        }
+        unarmedCount = w;
+        return removed;
+    }
+    
+    public int size() {
+        return above.size + below.size + unarmedCount;
+    }
+    
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * 틱 처리
+     * 가격이 넘어선 트리거를 꺼내고, 발동된 포지션의 나머지 트리거도 함께 제거한다.
+     * 한 포지션에서 여러 트리거가 동시에 넘어가면 종류 값이 가장 작은 것 하나만 남긴다 (TP > SL > 청산).
+     * 
+     * @return 발동된 트리거 (없으면 null, 이 경우 할당 없음)
+     */
+    public Fired collect(double price) {
+        if (!(price > 0)) return null;
+        if (unarmedCount > 0) {
+            arm(price);
+        }
+        if (!above.crossed(price) && !below.crossed(price) && unarmedCount == 0) {
+            return null;
+        }
+        
+        Fired fired = new Fired(price);
+        above.popCrossed(price, fired);
+        below.popCrossed(price, fired);
+        popReadyEntries(fired);
+        fired.dedupe();
+        
+        // 발동된 포지션의 반대쪽 트리거 정리 (예: TP 발동 시 SL / 청산)
+        for (int i = 0; i < fired.size; i++) {
+            remove(fired.positionIds[i]);
+        }
+        return fired;
+    }
+    
+    /**
+     * 진입 트리거 방향 결정
+     * 이미 허용 오차 안이면 그대로 두어 이번 틱에 체결하고,
+     * 아니면 진입가가 현재가보다 위면 상향, 아래면 하향 트리거로 옮긴다.
+     */
+    private void arm(double price) {
+        int w = 0;
+        for (int r = 0; r < unarmedCount; r++) {
+            long id = unarmedIds[r];
+            double entry = unarmedLevels[r];
+            if (withinTolerance(price, entry)) {
+                unarmedIds[w] = id;
+                unarmedLevels[w] = entry;
+                w++;
+            } else if (entry > price) {
+                above.insert(id, KIND_ENTRY, entry * (1 - ENTRY_TOLERANCE));
+            } else {
+                below.insert(id, KIND_ENTRY, entry * (1 + ENTRY_TOLERANCE));
+            }
+        }
+        unarmedCount = w;
+    }
+    
+    private void popReadyEntries(Fired fired) {
+        for (int i = 0; i < unarmedCount; i++) {
+            fired.add(unarmedIds[i], KIND_ENTRY, unarmedLevels[i]);
+        }
+        unarmedCount = 0;
+    }
+    
+    private static boolean withinTolerance(double price, double entry) {
+        return Math.abs(price - entry) / entry <= ENTRY_TOLERANCE;
+    }
+    
+    /**
+     * 한 방향 트리거 배열
+     * 비교 키를 상향은 -레벨, 하향은 레벨로 두고 오름차순 정렬한다.
+     * 두 경우 모두 "키 >= 기준값"이면 발동이므로 발동 후보는 항상 배열 끝에 모인다.
+     */
+    private static final class Side {
+        final boolean up;
+        double[] keys = new double[MIN_CAPACITY];
+        long[] ids = new long[MIN_CAPACITY];
+        int[] kinds = new int[MIN_CAPACITY];
+        int size;
+        
+        Side(boolean up) {
+            this.up = up;
+        }
+        
+        double threshold(double price) {
+            return up ? -price : price;
+        }
+        
+        double level(int index) {
+            return up ? -keys[index] : keys[index];
+        }
+        
+        boolean crossed(double price) {
+            return size > 0 && keys[size - 1] >= threshold(price);
+        }
+        
+        void insert(long id, int kind, double level) {
+            double key = up ? -level : level;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+                kinds = Arrays.copyOf(kinds, size * 2);
+            }
+            // 같은 키 뒤에 넣는다 (upper bound)
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            int moved = size - lo;
+            if (moved > 0) {
+                System.arraycopy(keys, lo, keys, lo + 1, moved);
+                System.arraycopy(ids, lo, ids, lo + 1, moved);
+                System.arraycopy(kinds, lo, kinds, lo + 1, moved);
+            }
+            keys[lo] = key;
+            ids[lo] = id;
+            kinds[lo] = kind;
+            size++;
+        }
+        
+        void popCrossed(double price, Fired out) {
+            double threshold = threshold(price);
+            while (size > 0 && keys[size - 1] >= threshold) {
+                size--;
+                out.add(ids[size], kinds[size], level(size));
+            }
+        }
+        
+        int removeAll(long id) {
+            int w = 0;
+            for (int r = 0; r < size; r++) {
+                if (ids[r] == id) continue;
+                keys[w] = keys[r];
+                ids[w] = ids[r];
+                kinds[w] = kinds[r];
+                w++;
+            }
+            int removed = size - w;
+            size = w;
+            return removed;
+        }
+    }
+    
+    /**
+     * 한 틱에서 발동된 트리거 (포지션당 하나)
+     */
+    public static final class Fired {
+        private final double price;
+        private long[] positionIds = new long[MIN_CAPACITY];
+        private int[] kinds = new int[MIN_CAPACITY];
+        private double[] levels = new double[MIN_CAPACITY];
+        private int size;
+        
+        Fired(double price) {
+            this.price = price;
+        }
+        
+        void add(long positionId, int kind, double level) {
+            if (size == positionIds.length) {
+                positionIds = Arrays.copyOf(positionIds, size * 2);
+                kinds = Arrays.copyOf(kinds, size * 2);
+                levels = Arrays.copyOf(levels, size * 2);
+            }
+            positionIds[size] = positionId;
+            kinds[size] = kind;
+            levels[size] = level;
+            size++;
+        }
+        
+        /**
+         * 포지션별로 우선순위가 가장 높은 트리거만 남김 (k가 작으므로 단순 비교)
+         */
+        void dedupe() {
+            int w = 0;
+            outer:
+            for (int r = 0; r < size; r++) {
+                for (int j = 0; j < w; j++) {
+                    if (positionIds[j] == positionIds[r]) {
+                        if (kinds[r] < kinds[j]) {
+                            kinds[j] = kinds[r];
+                            levels[j] = levels[r];
+                        }
+                        continue outer;
+                    }
+                }
+                positionIds[w] = positionIds[r];
+                kinds[w] = kinds[r];
+                levels[w] = levels[r];
+                w++;
+            }
+            size = w;
+        }
+        
+        /**
+         * 발동시킨 틱 가격
+         */
+        public double getPrice() {
+            return price;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public long getPositionId(int index) {
+            checkIndex(index);
+            return positionIds[index];
+        }
+        
+        public int getKind(int index) {
+            checkIndex(index);
+            return kinds[index];
+        }
+        
+        /**
+         * 트리거 가격 (방향이 정해진 진입 트리거는 허용 오차를 반영한 가격)
+         */
+        public double getLevel(int index) {
+            checkIndex(index);
+            return levels[index];
+        }
+        
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+            }
+        }
+    }
+}
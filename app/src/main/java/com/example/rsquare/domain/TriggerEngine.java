@@ -0,0 +1,434 @@
+package com.example.rsquare.domain;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+import com.example.rsquare.data.local.entity.Position;
+import com.example.rsquare.data.local.entity.TradeHistory;
+import com.example.rsquare.data.local.entity.User;
+import com.example.rsquare.data.remote.MarketDataHub;
+import com.example.rsquare.data.remote.PriceTable;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.remote.WebSocketClient;
+import com.example.rsquare.data.repository.TradingRepository;
+import com.example.rsquare.data.repository.UserRepository;
+import com.example.rsquare.util.NotificationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 틱 기반 TP / SL / 청산 / 대기 주문 트리거 엔진
+ * 
+ * 활성 포지션이 바뀔 때마다 심볼별 TriggerBook을 다시 만들고, 해당 심볼의 ticker 스트림을 구독한다.
+ * 틱이 오면 그 심볼의 책에서 넘어선 트리거만 꺼내고, 체결(DB 쓰기, 알림)은 전용 스레드에서 처리한다.
+ * 체결 직전에 DB의 포지션으로 조건을 다시 확인하므로 책이 잠깐 낡아도 잘못 청산하지 않는다.
+ * 
+ * Isolated 청산가는 진입 조건만으로 정해지므로 책에 넣고, Cross 청산은 다른 심볼 가격에 따라 움직이므로
+ * CrossMarginAccount가 틱마다 계좌 손익을 O(1)로 갱신해 마진 비율이 0% 이하가 된 포지션을 꺼낸다.
+ * 
+ * 앱이 포그라운드에 있는 동안만 이 엔진이 가격 트리거를 맡고(RSquareApplication이 시작 / 중지),
+ * 백그라운드이거나 프로세스가 죽었을 때는 TradingMonitorWorker가 대신한다.
+ */
+public class TriggerEngine implements WebSocketClient.PriceUpdateListener {
+    
+    private static final String TAG = "TriggerEngine";
+    
+    private static volatile TriggerEngine INSTANCE;
+    
+    private final TradingRepository tradingRepository;
+    private final UserRepository userRepository;
+    private final NotificationHelper notificationHelper;
+    private final MarketDataHub marketDataHub = MarketDataHub.getInstance();
+    private final SymbolRegistry symbolRegistry = SymbolRegistry.getInstance();
+    private final PriceTable priceTable = PriceTable.getInstance();
+    
+    // 책 재구성과 체결을 순서대로 처리하는 전용 스레드
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+        runnable -> new Thread(runnable, "trigger-engine"));
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    
+    // SymbolRegistry ID -> 책 (교체만 하고, 설치된 책은 틱 스레드만 변경)
+    private volatile TriggerBook[] books = new TriggerBook[0];
+    // 교차 마진 계좌 (책과 함께 교체, 틱 스레드가 가격 갱신)
+    private volatile CrossMarginAccount crossAccount = new CrossMarginAccount(0.0);
+    // 구독 중인 ticker 스트림 (executor 스레드만 접근)
+    private Set<String> streams = new HashSet<>();
+    
+    // 활성 포지션 관찰 (메인 스레드만 접근)
+    private final Observer<List<Position>> positionsObserver = positions -> requestRebuild();
+    private LiveData<List<Position>> activePositions;
+    
+    private volatile boolean started = false;
+    private volatile boolean ready = false;
+    
+    // 책이 처음 준비된 시각 / 마지막으로 연결된 시각 (0이면 아직, 밀리초)
+    private volatile long readySince = 0;
+    private volatile long connectedSince = 0;
+    
+    private TriggerEngine(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.tradingRepository = new TradingRepository(appContext);
+        this.userRepository = new UserRepository(appContext);
+        this.notificationHelper = new NotificationHelper(appContext);
+    }
+    
+    public static TriggerEngine getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TriggerEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TriggerEngine(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+    
+    /**
+     * 시작 (메인 스레드, 앱이 포그라운드로 올 때)
+     * 활성 포지션 LiveData를 관찰하며 바뀔 때마다 책을 다시 만든다.
+     */
+    public void start() {
+        if (started) return;
+        started = true;
+        
+        connectedSince = marketDataHub.isConnected() ? System.currentTimeMillis() : 0;
+        marketDataHub.addPriceUpdateListener(this);
+        activePositions = tradingRepository.getActivePositions(UserRepository.TEST_USER_ID);
+        activePositions.observeForever(positionsObserver);
+    }
+    
+    /**
+     * 중지 (메인 스레드, 앱이 백그라운드로 갈 때)
+     * 구독한 스트림을 놓아 WebSocket이 닫힐 수 있게 하고, 이후 가격 트리거는 워커가 맡는다.
+     */
+    public void stop() {
+        if (!started) return;
+        started = false;
+        ready = false;
+        readySince = 0;
+        connectedSince = 0;
+        
+        if (activePositions != null) {
+            activePositions.removeObserver(positionsObserver);
+            activePositions = null;
+        }
+        marketDataHub.removePriceUpdateListener(this);
+        executor.execute(() -> {
+            books = new TriggerBook[0];
+            crossAccount = new CrossMarginAccount(0.0);
+            updateStreams(new HashSet<>());
+        });
+    }
+    
+    /**
+     * 가격 트리거를 실시간으로 감시 중인지 (WebSocket 연결 + 책 구성 완료)
+     * false면 TradingMonitorWorker가 가격 트리거까지 직접 확인한다.
+     */
+    public boolean isLive() {
+        return getLiveSince() > 0;
+    }
+    
+    /**
+     * 끊김 없이 틱을 감시하기 시작한 시각 (책 준비와 연결 중 늦은 쪽, 감시 중이 아니면 0)
+     * 이 시각 이전 구간은 엔진이 보지 못했으므로 워커가 klines로 재생해야 한다.
+     */
+    public long getLiveSince() {
+        long readyAt = readySince;
+        long connectedAt = connectedSince;
+        if (!started || !ready || readyAt == 0 || connectedAt == 0 || !marketDataHub.isConnected()) {
+            return 0;
+        }
+        return Math.max(readyAt, connectedAt);
+    }
+    
+    /**
+     * 책 재구성 예약 (이미 예약돼 있으면 합침)
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+    
+    // ===== 틱 처리 (WebSocket 수신 스레드) =====
+    
+    @Override
+    public void onPriceUpdate(int symbolId, double price, double changePercent) {
+        // 화면이 구독하지 않는 포지션 심볼도 최신가를 남김 (워커 / 청산가 계산용)
+        priceTable.put(symbolId, price, changePercent, System.currentTimeMillis());
+        
+        TriggerBook[] current = books;
+        if (symbolId < 0 || symbolId >= current.length) return;
+        TriggerBook book = current[symbolId];
+        if (book == null) return;
+        
+        TriggerBook.Fired fired;
+        synchronized (book) {
+            fired = book.collect(price);
+        }
+        if (fired != null) {
+            executor.execute(() -> fill(fired));
+        }
+        
+        CrossMarginAccount account = crossAccount;
+        long[] liquidations;
+        synchronized (account) {
+            if (!account.updatePrice(book.getSymbol(), price)) return;
+            liquidations = account.takeLiquidations();
+        }
+        if (liquidations.length > 0) {
+            executor.execute(() -> liquidateCross(liquidations));
+        }
+    }
+    
+    @Override
+    public void onConnectionStatusChanged(boolean connected) {
+        // 끊긴 동안은 틱을 보지 못하므로 다시 연결된 시각부터 감시 구간으로 친다
+        connectedSince = connected ? System.currentTimeMillis() : 0;
+        if (connected) {
+            // 끊긴 동안 움직인 가격은 첫 틱에서 바로 잡히지만, 교차 청산가는 새 가격으로 다시 계산
+            requestRebuild();
+        }
+    }
+    
+    // ===== 책 구성 (executor 스레드) =====
+    
+    private void rebuild() {
+        if (!started) return; // 중지 전에 예약된 재구성
+        long startTime = SystemClock.elapsedRealtime();
+        List<Position> positions = tradingRepository.getActivePositionsSync(UserRepository.TEST_USER_ID);
+        User user = userRepository.getUserSync(UserRepository.TEST_USER_ID);
+        double balance = user != null ? user.getBalance() : 0.0;
+        
+        TriggerBook[] next = new TriggerBook[0];
+        CrossMarginAccount account = new CrossMarginAccount(balance);
+        Set<String> nextStreams = new HashSet<>();
+        int triggerCount = 0;
+        
+        for (Position position : positions) {
+            if (position.isClosed()) continue;
+            int symbolId = symbolRegistry.ensureId(position.getSymbol());
+            if (symbolId == SymbolRegistry.NO_ID) continue;
+            
+            if (symbolId >= next.length) {
+                next = Arrays.copyOf(next, Math.max(symbolId + 1, next.length * 2));
+            }
+            TriggerBook book = next[symbolId];
+            if (book == null) {
+                book = new TriggerBook(position.getSymbol());
+                next[symbolId] = book;
+                nextStreams.add(WebSocketClient.tickerStream(position.getSymbol()));
+            }
+            
+            if ("PENDING".equals(position.getStatus())) {
+                book.addEntry(position.getId(), position.getEntryPrice());
+            } else {
+                addExitTriggers(book, position);
+            }
+            account.add(position);
+            account.updatePrice(position.getSymbol(), priceTable.getPrice(symbolId));
+        }
+        for (TriggerBook book : next) {
+            if (book != null) triggerCount += book.size();
+        }
+        
+        books = next;
+        crossAccount = account;
+        updateStreams(nextStreams);
+        if (!ready) {
+            readySince = System.currentTimeMillis();
+        }
+        ready = true;
+        
+        Log.d(TAG, "Rebuilt " + triggerCount + " triggers for " + nextStreams.size() + " symbols in "
+            + (SystemClock.elapsedRealtime() - startTime) + "ms");
+    }
+    
+    private void addExitTriggers(TriggerBook book, Position position) {
+        boolean isLong = position.isLong();
+        book.addExit(position.getId(), TriggerBook.KIND_TAKE_PROFIT, position.getTakeProfit(), isLong);
+        book.addExit(position.getId(), TriggerBook.KIND_STOP_LOSS, position.getStopLoss(), isLong);
+        if (hasLiquidation(position) && isIsolated(position)) {
+            book.addExit(position.getId(), TriggerBook.KIND_LIQUIDATION, isolatedLiquidationPrice(position), isLong);
+        }
+    }
+    
+    private void updateStreams(Set<String> nextStreams) {
+        List<String> added = new ArrayList<>();
+        for (String stream : nextStreams) {
+            if (!streams.contains(stream)) added.add(stream);
+        }
+        List<String> removed = new ArrayList<>();
+        for (String stream : streams) {
+            if (!nextStreams.contains(stream)) removed.add(stream);
+        }
+        if (!added.isEmpty()) marketDataHub.acquire(added);
+        if (!removed.isEmpty()) marketDataHub.release(removed);
+        streams = nextStreams;
+    }
+    
+    // ===== 체결 (executor 스레드) =====
+    
+    private void fill(TriggerBook.Fired fired) {
+        boolean stale = false;
+        for (int i = 0; i < fired.size(); i++) {
+            if (!fillOne(fired.getPositionId(i), fired.getKind(i), fired.getPrice(), fired.getLevel(i))) {
+                stale = true;
+            }
+        }
+        
+        if (stale) {
+            // 책을 만든 뒤 TP / SL이 수정됨 (꺼낸 트리거는 재구성으로 복구)
+            requestRebuild();
+        }
+    }
+    
+    /**
+     * 교차 청산 (계좌 마진 비율이 0% 이하가 된 포지션)
+     * 하나를 청산하면 잔고가 바뀌므로 포지션마다 DB 기준으로 다시 확인한다.
+     */
+    private void liquidateCross(long[] positionIds) {
+        boolean stale = false;
+        for (long positionId : positionIds) {
+            Position position = tradingRepository.getPositionByIdSync(positionId);
+            if (position == null || position.isClosed() || !hasLiquidation(position) || isIsolated(position)) continue;
+            
+            double price = lastPrice(symbolRegistry.ensureId(position.getSymbol()), position);
+            CrossMarginAccount account = loadCrossAccount(position.getUserId());
+            double level = account.contains(positionId) ? account.getLiquidationPrice(positionId) : price;
+            if (!fillOne(positionId, TriggerBook.KIND_LIQUIDATION, price, level)) {
+                stale = true;
+            }
+        }
+        
+        if (stale) {
+            requestRebuild();
+        }
+    }
+    
+    /**
+     * 트리거 하나 체결
+     * @return 조건이 여전히 맞았는지 (포지션이 이미 종료됐으면 true)
+     */
+    private boolean fillOne(long positionId, int kind, double price, double level) {
+        Position position = tradingRepository.getPositionByIdSync(positionId);
+        if (position == null || position.isClosed()) return true;
+        if (!confirm(position, kind, price)) return false;
+        
+        switch (kind) {
+            case TriggerBook.KIND_TAKE_PROFIT:
+                Log.d(TAG, "Take profit reached for position " + position.getId());
+                if (tradingRepository.closePositionSync(position.getId(), price, TradeHistory.TradeType.CLOSE_TP, "TP_HIT")) {
+                    notificationHelper.notifyTPReached(position);
+                }
+                break;
+            case TriggerBook.KIND_STOP_LOSS:
+                Log.d(TAG, "Stop loss reached for position " + position.getId());
+                if (tradingRepository.closePositionSync(position.getId(), price, TradeHistory.TradeType.CLOSE_SL, "SL_HIT")) {
+                    notificationHelper.notifySLReached(position);
+                }
+                break;
+            case TriggerBook.KIND_LIQUIDATION:
+                Log.w(TAG, "Liquidation triggered! Position " + position.getId() + ", Price: " + price);
+                if (tradingRepository.closePositionSync(position.getId(), price, TradeHistory.TradeType.CLOSE_SL, "MARGIN_CALL_LIQUIDATION")) {
+                    notificationHelper.notifyLiquidation(position, level);
+                }
+                break;
+            case TriggerBook.KIND_ENTRY:
+                Log.d(TAG, "Pending order triggered! Position " + position.getId() + ", Current: " + price);
+                // 워커 / 화면이 그사이 체결 / 취소했으면 0행 (낡은 행으로 덮어쓰지 않고 알림 생략)
+                Date openTime = new Date(); // 체결 시간
+                if (tradingRepository.activatePositionSync(position.getId(), openTime)) {
+                    position.setStatus("ACTIVE");
+                    position.setOpenTime(openTime);
+                    notificationHelper.notifyOrderFilled(position);
+                }
+                break;
+            default:
+                break;
+        }
+        return true;
+    }
+    
+    /**
+     * DB의 최신 포지션으로 조건 재확인
+     */
+    private boolean confirm(Position position, int kind, double price) {
+        switch (kind) {
+            case TriggerBook.KIND_TAKE_PROFIT:
+                return !"PENDING".equals(position.getStatus()) && position.getTakeProfit() > 0
+                    && position.isTakeProfitReached(price);
+            case TriggerBook.KIND_STOP_LOSS:
+                return !"PENDING".equals(position.getStatus()) && position.getStopLoss() > 0
+                    && position.isStopLossReached(price);
+            case TriggerBook.KIND_LIQUIDATION: {
+                if ("PENDING".equals(position.getStatus()) || !hasLiquidation(position)) return false;
+                if (isIsolated(position)) {
+                    double liquidationPrice = isolatedLiquidationPrice(position);
+                    return position.isLong() ? price <= liquidationPrice : price >= liquidationPrice;
+                }
+                CrossMarginAccount account = loadCrossAccount(position.getUserId());
+                return account.contains(position.getId())
+                    && MarginCalculator.shouldLiquidate(account.getMarginRatio(position.getId()));
+            }
+            case TriggerBook.KIND_ENTRY:
+                return "PENDING".equals(position.getStatus())
+                    && Math.abs(price - position.getEntryPrice()) / position.getEntryPrice()
+                        <= TriggerBook.ENTRY_TOLERANCE;
+            default:
+                return false;
+        }
+    }
+    
+    // ===== 청산 조건 (TradingMonitorWorker와 같은 계산) =====
+    
+    private static boolean hasLiquidation(Position position) {
+        return "FUTURES".equals(position.getTradeType()) && position.getLeverage() > 1;
+    }
+    
+    private static boolean isIsolated(Position position) {
+        return "ISOLATED".equals(position.getMarginMode());
+    }
+    
+    private static double isolatedLiquidationPrice(Position position) {
+        double isolatedMargin = MarginCalculator.calculateIsolatedMargin(
+            position.getEntryPrice(), position.getQuantity(), position.getLeverage());
+        return MarginCalculator.calculateIsolatedLiquidationPrice(
+            position.getEntryPrice(), position.getQuantity(), position.getLeverage(),
+            isolatedMargin, position.isLong());
+    }
+    
+    /**
+     * DB의 활성 포지션과 최신가로 교차 마진 계좌 구성 (체결 직전 확인용)
+     */
+    private CrossMarginAccount loadCrossAccount(long userId) {
+        User user = userRepository.getUserSync(userId);
+        CrossMarginAccount account = new CrossMarginAccount(user != null ? user.getBalance() : 0.0);
+        for (Position position : tradingRepository.getActivePositionsSync(userId)) {
+            if (account.add(position)) {
+                account.updatePrice(position.getSymbol(), priceTable.getPrice(symbolRegistry.ensureId(position.getSymbol())));
+            }
+        }
+        return account;
+    }
+    
+    private double lastPrice(int symbolId, Position position) {
+        double price = priceTable.getPrice(symbolId);
+        return price > 0 ? price : position.getEntryPrice();
+    }
+}
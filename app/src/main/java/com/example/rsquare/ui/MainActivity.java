@@ -17,6 +17,8 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.rsquare.R;
 import com.example.rsquare.data.local.entity.Position;
 import com.example.rsquare.data.local.entity.User;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.remote.TickBus;
 import com.example.rsquare.data.remote.model.CoinPrice;
 import com.example.rsquare.data.repository.MarketDataRepository;
 import com.example.rsquare.data.repository.TradingRepository;
@@ -595,22 +597,20 @@ public class MainActivity extends BaseActivity {
         marketDataRepository.setPriceUpdateListener(new MarketDataRepository.OnPriceUpdateListener() {
             @Override
             public void onPriceUpdate(String coinId, double price) {
-                // UI 스레드에서 실행
-                runOnUiThread(() -> {
-                    // CoinGecko ID를 Binance 심볼로 변환
-                    String symbol = getSymbolFromCoinId(coinId);
-                    if (symbol != null && positionAdapter != null) {
-                        // Adapter에 가격 업데이트 (리스너가 순자산 업데이트를 트리거함)
-                        positionAdapter.setCurrentPrice(symbol, price);
-                    }
-                });
+                // 틱 버스가 메인 스레드에서 250ms마다 병합된 가격을 전달
+                // CoinGecko ID를 Binance 심볼로 변환
+                String symbol = getSymbolFromCoinId(coinId);
+                if (symbol != null && positionAdapter != null) {
+                    // Adapter에 가격 업데이트 (리스너가 순자산 업데이트를 트리거함)
+                    positionAdapter.setCurrentPrice(symbol, price);
+                }
             }
             
             @Override
             public void onConnectionStatusChanged(boolean connected) {
                 android.util.Log.d("MainActivity", "WebSocket connection status: " + connected);
             }
-        });
+        }, TickBus.CADENCE_250_MS);
     }
     
     /**
@@ -905,36 +905,14 @@ public class MainActivity extends BaseActivity {
      * 심볼을 CoinGecko ID로 변환
      */
     private String getCoinIdFromSymbol(String symbol) {
-        // Binance 심볼 -> CoinGecko ID 매핑
-        Map<String, String> symbolToCoinId = new HashMap<>();
-        symbolToCoinId.put("BTCUSDT", "bitcoin");
-        symbolToCoinId.put("ETHUSDT", "ethereum");
-        symbolToCoinId.put("ADAUSDT", "cardano");
-        symbolToCoinId.put("SOLUSDT", "solana");
-        symbolToCoinId.put("XRPUSDT", "ripple");
-        symbolToCoinId.put("DOTUSDT", "polkadot");
-        symbolToCoinId.put("DOGEUSDT", "dogecoin");
-        symbolToCoinId.put("AVAXUSDT", "avalanche-2");
-        
-        return symbolToCoinId.get(symbol);
+        return SymbolRegistry.getInstance().toCoinId(symbol);
     }
     
     /**
      * CoinGecko ID를 Binance 심볼로 변환
      */
     private String getSymbolFromCoinId(String coinId) {
-        // CoinGecko ID -> Binance 심볼 매핑
-        Map<String, String> coinIdToSymbol = new HashMap<>();
-        coinIdToSymbol.put("bitcoin", "BTCUSDT");
-        coinIdToSymbol.put("ethereum", "ETHUSDT");
-        coinIdToSymbol.put("cardano", "ADAUSDT");
-        coinIdToSymbol.put("solana", "SOLUSDT");
-        coinIdToSymbol.put("ripple", "XRPUSDT");
-        coinIdToSymbol.put("polkadot", "DOTUSDT");
-        coinIdToSymbol.put("dogecoin", "DOGEUSDT");
-        coinIdToSymbol.put("avalanche-2", "AVAXUSDT");
-        
-        return coinIdToSymbol.get(coinId);
+        return SymbolRegistry.getInstance().toSymbol(coinId);
     }
 }
 
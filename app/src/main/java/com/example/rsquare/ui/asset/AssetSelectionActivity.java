@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.rsquare.R;
 import com.example.rsquare.data.local.entity.Position;
+import com.example.rsquare.data.remote.TickBus;
 import com.example.rsquare.ui.adapter.AssetCardAdapter;
 import com.example.rsquare.ui.trading.TradingActivity;
 
@@ -227,37 +228,8 @@ public class AssetSelectionActivity extends BaseActivity {
                             
                             // 실시간 업데이트 구독
                             if (!symbols.isEmpty()) {
-                                repository.subscribeToRealtimeUpdates(symbols, new com.example.rsquare.data.repository.MarketDataRepository.OnRealtimeUpdateListener() {
-                                    // Throttling을 위한 변수들
-                                    private final java.util.Map<String, Double> pendingPrices = new java.util.concurrent.ConcurrentHashMap<>();
-                                    private final java.util.Map<String, Double> pendingChanges = new java.util.concurrent.ConcurrentHashMap<>();
-                                    private final android.os.Handler updateHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                                    private static final long UPDATE_INTERVAL_MS = 500; // 0.5초마다 업데이트
-                                    private final java.util.concurrent.atomic.AtomicBoolean isUpdateScheduled = new java.util.concurrent.atomic.AtomicBoolean(false);
-                                    
-                                    private final Runnable updateRunnable = new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            if (isFinishing() || isDestroyed()) {
-                                                isUpdateScheduled.set(false);
-                                                return;
-                                            }
-
-                                            if (adapter != null) {
-                                                for (String symbol : pendingPrices.keySet()) {
-                                                    Double price = pendingPrices.get(symbol);
-                                                    Double change = pendingChanges.get(symbol);
-                                                    if (price != null && change != null) {
-                                                        adapter.updatePrice(symbol, price, change);
-                                                    }
-                                                }
-                                                pendingPrices.clear();
-                                                pendingChanges.clear();
-                                            }
-                                            isUpdateScheduled.set(false);
-                                        }
-                                    };
-
+                                // 틱 버스가 심볼별 최신 값을 모아 250ms마다 메인 스레드에서 전달
+                                repository.subscribeToRealtimeUpdates(symbols, TickBus.CADENCE_250_MS, new com.example.rsquare.data.repository.MarketDataRepository.OnRealtimeUpdateListener() {
                                     @Override
                                     public void onRealtimeUpdate(String coinId, double price, double changePercent) {
                                         if (isFinishing() || isDestroyed()) return;
@@ -265,11 +237,8 @@ public class AssetSelectionActivity extends BaseActivity {
                                         String symbol = coinId.toUpperCase();
                                         if (!symbol.endsWith("USDT")) symbol += "USDT";
                                         
-                                        pendingPrices.put(symbol, price);
-                                        pendingChanges.put(symbol, changePercent);
-                                        
-                                        if (isUpdateScheduled.compareAndSet(false, true)) {
-                                            updateHandler.postDelayed(updateRunnable, UPDATE_INTERVAL_MS);
+                                        if (adapter != null) {
+                                            adapter.updatePrice(symbol, price, changePercent);
                                         }
                                     }
                                 });
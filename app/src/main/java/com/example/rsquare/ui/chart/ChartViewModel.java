@@ -1,14 +1,18 @@
 package com.example.rsquare.ui.chart;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.MutableLiveData;
 
-import com.example.rsquare.data.remote.model.CoinMarketChart;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.remote.TickBus;
 import com.example.rsquare.data.remote.model.CoinPrice;
 import com.example.rsquare.data.repository.MarketDataRepository;
+import com.example.rsquare.domain.CandleSeries;
 import com.example.rsquare.domain.RiskCalculator;
 
 import java.util.List;
@@ -22,7 +26,6 @@ public class ChartViewModel extends AndroidViewModel {
     private final MarketDataRepository marketDataRepository;
     
     private final MutableLiveData<List<CoinPrice>> coinPrices = new MutableLiveData<>();
-    private final MutableLiveData<CoinMarketChart> chartData = new MutableLiveData<>();
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
     
@@ -54,8 +57,9 @@ public class ChartViewModel extends AndroidViewModel {
     }
     private final MutableLiveData<KlineData> klineUpdate = new MutableLiveData<>();
     
-    // Binance OHLC 데이터 (직접 사용)
-    private final MutableLiveData<List<List<Object>>> binanceKlines = new MutableLiveData<>();
+    // 캔들 시계열 (실시간 kline은 마지막 캔들에 바로 반영, 메인 스레드에서만 변경)
+    private final MutableLiveData<CandleSeries> candleSeries = new MutableLiveData<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     
     // 시간 프레임 (기본값: 1h)
     private final MutableLiveData<String> timeframe = new MutableLiveData<>("1h");
@@ -72,10 +76,10 @@ public class ChartViewModel extends AndroidViewModel {
     public ChartViewModel(@NonNull Application application) {
         super(application);
         
-        marketDataRepository = new MarketDataRepository();
+        marketDataRepository = new MarketDataRepository(application);
         
         // 웹소켓 리스너 설정 (실시간 가격 업데이트)
-        // 웹소켓 리스너 설정 (실시간 가격 업데이트)
+        // 틱 버스가 디스플레이 프레임마다 메인 스레드에서 심볼별 최신 값 하나만 전달
         marketDataRepository.setRealtimeUpdateListener(new MarketDataRepository.OnRealtimeUpdateListener() {
             @Override
             public void onRealtimeUpdate(String coinId, double price, double changePercent) {
@@ -84,11 +88,11 @@ public class ChartViewModel extends AndroidViewModel {
                 String selectedId = selectedCoinId.getValue();
                 if (selectedId != null && (selectedId.equals(coinId) || selectedId.equalsIgnoreCase(coinId))) {
                     // android.util.Log.d("ChartViewModel", "Updating current price for selected coin: " + price);
-                    currentPrice.postValue(price);
-                    priceChangePercent.postValue(changePercent);
+                    currentPrice.setValue(price);
+                    priceChangePercent.setValue(changePercent);
                 }
             }
-        });
+        }, TickBus.CADENCE_FRAME);
         
         // 웹소켓 Kline 리스너 설정 (실시간 캔들스틱 업데이트)
         marketDataRepository.setKlineUpdateListener(new MarketDataRepository.OnKlineUpdateListener() {
@@ -97,8 +101,8 @@ public class ChartViewModel extends AndroidViewModel {
                 // 선택된 코인의 캔들이 업데이트되면 차트에 반영
                 String selectedId = selectedCoinId.getValue();
                 if (selectedId != null && selectedId.equals(coinId)) {
-                    android.util.Log.d("ChartViewModel", "Kline update: " + coinId + " " + close);
-                    klineUpdate.postValue(new KlineData(coinId, openTime, open, high, low, close, volume));
+                    KlineData klineData = new KlineData(coinId, openTime, open, high, low, close, volume);
+                    mainHandler.post(() -> applyKlineUpdate(klineData));
                 }
             }
         });
@@ -211,14 +215,9 @@ public class ChartViewModel extends AndroidViewModel {
         marketDataRepository.getBinanceKlines(coinId, interval, days,
             new MarketDataRepository.OnBinanceKlinesLoadedListener() {
                 @Override
-                public void onBinanceKlinesLoaded(List<List<Object>> klines) {
+                public void onBinanceKlinesLoaded(CandleSeries series) {
                     loading.postValue(false);
-                    // Binance klines를 직접 저장
-                    binanceKlines.postValue(klines);
-                    
-                    // 기존 호환성을 위해 CoinMarketChart 형식으로도 변환하여 저장
-                    CoinMarketChart convertedChartData = convertBinanceKlinesToChartData(klines);
-                    ChartViewModel.this.chartData.postValue(convertedChartData);
+                    candleSeries.postValue(series);
                 }
                 
                 @Override
@@ -231,81 +230,17 @@ public class ChartViewModel extends AndroidViewModel {
     }
     
     /**
-     * Binance klines를 CoinMarketChart로 변환 (기존 호환성 유지)
+     * 실시간 kline 반영 (메인 스레드)
+     * 현재 시계열과 같은 심볼 / 간격이면 마지막 캔들을 갱신하거나 새 캔들을 추가한다.
      */
-    private CoinMarketChart convertBinanceKlinesToChartData(List<List<Object>> klines) {
-        CoinMarketChart chartData = new CoinMarketChart();
-        java.util.List<java.util.List<Double>> prices = new java.util.ArrayList<>();
-        
-        for (List<Object> kline : klines) {
-            if (kline.size() >= 6) {
-                // Binance API는 숫자를 문자열로 반환할 수 있으므로 안전하게 변환
-                long openTime = parseLong(kline.get(0));
-                double open = parseDouble(kline.get(1));
-                double high = parseDouble(kline.get(2));
-                double low = parseDouble(kline.get(3));
-                double close = parseDouble(kline.get(4));
-                
-                // 실제 OHLC 데이터를 활용하기 위해 각 가격을 포함한 데이터 포인트 생성
-                long candleDuration = 60 * 60 * 1000; // 기본 1시간
-                long quarterDuration = candleDuration / 4;
-                
-                java.util.List<Double> openPoint = new java.util.ArrayList<>();
-                openPoint.add((double) openTime);
-                openPoint.add(open);
-                prices.add(openPoint);
-                
-                java.util.List<Double> highPoint = new java.util.ArrayList<>();
-                highPoint.add((double) (openTime + quarterDuration));
-                highPoint.add(high);
-                prices.add(highPoint);
-                
-                java.util.List<Double> lowPoint = new java.util.ArrayList<>();
-                lowPoint.add((double) (openTime + quarterDuration * 2));
-                lowPoint.add(low);
-                prices.add(lowPoint);
-                
-                java.util.List<Double> closePoint = new java.util.ArrayList<>();
-                closePoint.add((double) (openTime + candleDuration - 1000));
-                closePoint.add(close);
-                prices.add(closePoint);
-            }
+    private void applyKlineUpdate(KlineData klineData) {
+        CandleSeries series = candleSeries.getValue();
+        if (series != null && series.getInterval().equals(timeframe.getValue())
+                && series.getSymbol().equals(SymbolRegistry.getInstance().toSymbol(klineData.coinId))) {
+            series.updateLive(klineData.openTime, klineData.open, klineData.high,
+                klineData.low, klineData.close, klineData.volume);
         }
-        
-        chartData.setPrices(prices);
-        return chartData;
-    }
-    
-    /**
-     * 안전한 숫자 파싱 헬퍼 메서드
-     */
-    private double parseDouble(Object value) {
-        if (value instanceof Number) {
-            return ((Number) value).doubleValue();
-        } else if (value instanceof String) {
-            try {
-                return Double.parseDouble((String) value);
-            } catch (NumberFormatException e) {
-                return 0.0;
-            }
-        }
-        return 0.0;
-    }
-    
-    /**
-     * 안전한 long 파싱 헬퍼 메서드
-     */
-    private long parseLong(Object value) {
-        if (value instanceof Number) {
-            return ((Number) value).longValue();
-        } else if (value instanceof String) {
-            try {
-                return Long.parseLong((String) value);
-            } catch (NumberFormatException e) {
-                return 0L;
-            }
-        }
-        return 0L;
+        klineUpdate.setValue(klineData);
     }
     
     /**
@@ -414,10 +349,6 @@ public class ChartViewModel extends AndroidViewModel {
         return coinPrices;
     }
     
-    public MutableLiveData<CoinMarketChart> getChartData() {
-        return chartData;
-    }
-    
     public MutableLiveData<String> getErrorMessage() {
         return errorMessage;
     }
@@ -462,8 +393,8 @@ public class ChartViewModel extends AndroidViewModel {
         return klineUpdate;
     }
     
-    public MutableLiveData<List<List<Object>>> getBinanceKlines() {
-        return binanceKlines;
+    public MutableLiveData<CandleSeries> getCandleSeries() {
+        return candleSeries;
     }
     
     public MutableLiveData<String> getTimeframe() {
@@ -476,6 +407,7 @@ public class ChartViewModel extends AndroidViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
+        mainHandler.removeCallbacksAndMessages(null);
         if (marketDataRepository != null) {
             marketDataRepository.stopWebSocket();
         }
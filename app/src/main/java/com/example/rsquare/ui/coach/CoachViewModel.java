@@ -15,11 +15,18 @@ import com.example.rsquare.data.repository.TradingRepository;
 import com.example.rsquare.domain.BehaviorPattern;
 import com.example.rsquare.domain.CoachingEngine;
 import com.example.rsquare.domain.CoachingMessage;
+import com.example.rsquare.domain.MonteCarloSimulator;
 import com.example.rsquare.domain.RiskCalculator;
 import com.example.rsquare.domain.RiskMetrics;
+import com.example.rsquare.domain.SimulationCache;
+import com.example.rsquare.domain.SimulationResult;
+import com.example.rsquare.domain.SimulationRun;
+import com.example.rsquare.domain.SizingPolicy;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Coach ViewModel
@@ -36,6 +43,15 @@ public class CoachViewModel extends AndroidViewModel {
     private final MutableLiveData<CoachingEngine.WeeklyReport> weeklyReport = new MutableLiveData<>();
     private final MutableLiveData<Challenge> recommendedChallenge = new MutableLiveData<>();
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<SimulationResult> simulationResult = new MutableLiveData<>();
+    
+    // Monte Carlo 시뮬레이션 (점진 실행, 이전 실행은 새 입력이 오면 취소)
+    // 시드를 고정해 같은 입력은 캐시된 결과를 재사용한다
+    private static final long SIMULATION_SEED = 20240101L;
+    private final ExecutorService simulationExecutor = Executors.newSingleThreadExecutor();
+    private final MonteCarloSimulator simulator = new MonteCarloSimulator(SIMULATION_SEED, true);
+    private final SimulationCache simulationCache;
+    private SimulationRun currentSimulation;
     
     public CoachViewModel(@NonNull Application application) {
         super(application);
@@ -43,6 +59,7 @@ public class CoachViewModel extends AndroidViewModel {
         tradingRepository = new TradingRepository(application);
         journalRepository = new JournalRepository(application);
         challengeRepository = new ChallengeRepository(application);
+        simulationCache = SimulationCache.getInstance(application.getCacheDir());
         
         // 초기 분석 실행
         analyzeTradingSession();
@@ -138,6 +155,75 @@ public class CoachViewModel extends AndroidViewModel {
         }
     }
     
+    /**
+     * Monte Carlo 시뮬레이션 실행
+     * 진행 중인 이전 실행은 즉시 취소하고, chunk마다 개선된 스냅샷을 simulationResult로 전달
+     * 같은 입력을 이전에 계산했다면 캐시된 결과를 바로 전달
+     * 
+     * @param riskRewardRatio R:R 비율
+     * @param winRate 승률 (0-1)
+     * @param tradeAmount 거래당 투자 금액
+     * @param numberOfTrades 거래 횟수
+     * @param iterations 반복 횟수
+     */
+    public synchronized void runSimulation(double riskRewardRatio, double winRate, double tradeAmount,
+                                           int numberOfTrades, int iterations) {
+        cancelSimulation();
+        
+        SimulationRun run = simulationCache.simulateProgressive(
+            simulator, riskRewardRatio, winRate, SizingPolicy.fixedAmount(tradeAmount),
+            numberOfTrades, iterations, simulationExecutor,
+            snapshot -> simulationResult.postValue(snapshot)
+        );
+        currentSimulation = run;
+    }
+    
+    /**
+     * 실제 거래 이력 기반 Monte Carlo 시뮬레이션 실행
+     * 종료된 포지션의 R 배수를 한 번 읽어 블록 bootstrap으로 재표집한다.
+     * 
+     * @param policy 거래당 위험 금액 정책 (예: SizingPolicy.fromSettings(settings))
+     * @param numberOfTrades 거래 횟수
+     * @param iterations 반복 횟수
+     */
+    public synchronized void runHistoricalSimulation(SizingPolicy policy, int numberOfTrades,
+                                                     int iterations) {
+        cancelSimulation();
+        
+        // 표본 로드 중 취소되면 시뮬레이션을 시작하지 않도록 자리표시 핸들 사용
+        SimulationRun pending = new SimulationRun();
+        currentSimulation = pending;
+        
+        tradingRepository.getRMultiples(1, rMultiples -> {
+            synchronized (this) {
+                if (pending.isCancelled()) return;
+                currentSimulation = simulationCache.simulateBootstrapProgressive(
+                    simulator, rMultiples, policy, numberOfTrades, iterations,
+                    MonteCarloSimulator.defaultBlockLength(rMultiples.length),
+                    simulationExecutor,
+                    snapshot -> simulationResult.postValue(snapshot)
+                );
+            }
+        });
+    }
+    
+    /**
+     * 진행 중인 시뮬레이션 취소
+     */
+    public synchronized void cancelSimulation() {
+        if (currentSimulation != null) {
+            currentSimulation.cancel();
+            currentSimulation = null;
+        }
+    }
+    
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancelSimulation();
+        simulationExecutor.shutdownNow();
+    }
+    
     // Getters
     public MutableLiveData<List<CoachingMessage>> getCoachingMessages() {
         return coachingMessages;
@@ -159,6 +245,10 @@ public class CoachViewModel extends AndroidViewModel {
         return loading;
     }
     
+    public MutableLiveData<SimulationResult> getSimulationResult() {
+        return simulationResult;
+    }
+    
     /**
      * 코칭 메시지 로드
      */
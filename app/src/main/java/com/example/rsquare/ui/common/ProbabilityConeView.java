@@ -9,6 +9,8 @@ import android.view.View;
 
 import androidx.annotation.Nullable;
 
+import com.example.rsquare.domain.SimulationResult;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,16 +21,19 @@ import java.util.List;
 public class ProbabilityConeView extends View {
     
     private Paint linePaint;
-    private Paint fill25Paint;
-    private Paint fill50Paint;
-    private Paint fill75Paint;
+    private Paint medianPaint;
+    private Paint fillOuterPaint;
+    private Paint fillInnerPaint;
     private Paint gridPaint;
     private Paint textPaint;
     
+    // step별 누적 수익률(%)
     private List<Double> cumulativeReturns = new ArrayList<>();
-    private double percentile25 = 0;
-    private double percentile50 = 0;
-    private double percentile75 = 0;
+    private double[] bandP5 = new double[0];
+    private double[] bandP25 = new double[0];
+    private double[] bandP50 = new double[0];
+    private double[] bandP75 = new double[0];
+    private double[] bandP95 = new double[0];
     
     private float padding = 60f;
     
@@ -54,20 +59,21 @@ public class ProbabilityConeView extends View {
         linePaint.setStrokeWidth(3f);
         linePaint.setColor(0xFF2196F3);
         
-        // 25% 영역 페인트
-        fill25Paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        fill25Paint.setStyle(Paint.Style.FILL);
-        fill25Paint.setColor(0x1026a69a);
+        // 중앙값 선 페인트
+        medianPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        medianPaint.setStyle(Paint.Style.STROKE);
+        medianPaint.setStrokeWidth(2f);
+        medianPaint.setColor(0xFF26a69a);
         
-        // 50% 영역 페인트
-        fill50Paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        fill50Paint.setStyle(Paint.Style.FILL);
-        fill50Paint.setColor(0x2026a69a);
+        // 5-95% 영역 페인트
+        fillOuterPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fillOuterPaint.setStyle(Paint.Style.FILL);
+        fillOuterPaint.setColor(0x2026a69a);
         
-        // 75% 영역 페인트
-        fill75Paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        fill75Paint.setStyle(Paint.Style.FILL);
-        fill75Paint.setColor(0x3026a69a);
+        // 25-75% 영역 페인트
+        fillInnerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fillInnerPaint.setStyle(Paint.Style.FILL);
+        fillInnerPaint.setColor(0x4026a69a);
         
         // 그리드 페인트
         gridPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -83,12 +89,21 @@ public class ProbabilityConeView extends View {
     
     /**
      * 데이터 설정
+     * 시뮬레이션의 step별 평균 곡선과 분위 밴드(P5/P25/P50/P75/P95)를 그대로 사용
      */
-    public void setData(List<Double> cumulativeReturns, double p25, double p50, double p75) {
-        this.cumulativeReturns = new ArrayList<>(cumulativeReturns);
-        this.percentile25 = p25;
-        this.percentile50 = p50;
-        this.percentile75 = p75;
+    public void setData(SimulationResult result) {
+        if (result == null || result.getCumulativeReturns() == null
+                || result.getCumulativeP5() == null) {
+            this.cumulativeReturns = new ArrayList<>();
+            this.bandP5 = this.bandP25 = this.bandP50 = this.bandP75 = this.bandP95 = new double[0];
+        } else {
+            this.cumulativeReturns = new ArrayList<>(result.getCumulativeReturns());
+            this.bandP5 = result.getCumulativeP5();
+            this.bandP25 = result.getCumulativeP25();
+            this.bandP50 = result.getCumulativeP50();
+            this.bandP75 = result.getCumulativeP75();
+            this.bandP95 = result.getCumulativeP95();
+        }
         invalidate();
     }
     
@@ -115,9 +130,11 @@ public class ProbabilityConeView extends View {
             maxValue = Math.max(maxValue, value);
         }
         
-        // 백분위수도 포함
-        minValue = Math.min(minValue, Math.min(percentile25, percentile75));
-        maxValue = Math.max(maxValue, Math.max(percentile25, percentile75));
+        // 분위 밴드도 포함
+        for (int i = 0; i < bandP5.length; i++) {
+            minValue = Math.min(minValue, bandP5[i]);
+            maxValue = Math.max(maxValue, bandP95[i]);
+        }
         
         double range = maxValue - minValue;
         if (range == 0) range = 1;
@@ -125,11 +142,14 @@ public class ProbabilityConeView extends View {
         // 그리드 그리기
         drawGrid(canvas, width, height, minValue, maxValue);
         
-        // Probability Cone 그리기 (백분위수 기반)
+        // Probability Cone 그리기 (step별 분위 밴드)
         drawProbabilityCone(canvas, width, height, minValue, range);
         
         // 중앙선 (평균 누적 수익률) 그리기
         drawCenterLine(canvas, width, height, minValue, range);
+        
+        // 중앙값 선 그리기
+        drawBandLine(canvas, bandP50, medianPaint, width, height, minValue, range);
     }
     
     /**
@@ -161,29 +181,61 @@ public class ProbabilityConeView extends View {
      */
     private void drawProbabilityCone(Canvas canvas, float width, float height, 
                                      double minValue, double range) {
-        int dataSize = cumulativeReturns.size();
-        if (dataSize < 2) return;
+        if (bandP5.length < 2) return;
         
-        // 75% 영역
-        Path path75 = new Path();
-        path75.moveTo(padding, padding + height / 2f);
+        // 5-95% 영역
+        canvas.drawPath(buildBandPath(bandP95, bandP5, width, height, minValue, range), fillOuterPaint);
+        
+        // 25-75% 영역
+        canvas.drawPath(buildBandPath(bandP75, bandP25, width, height, minValue, range), fillInnerPaint);
+    }
+    
+    /**
+     * 위쪽 경계를 따라 갔다가 아래쪽 경계를 따라 돌아오는 닫힌 영역
+     */
+    private Path buildBandPath(double[] upper, double[] lower, float width, float height,
+                               double minValue, double range) {
+        int dataSize = upper.length;
+        Path path = new Path();
         
         for (int i = 0; i < dataSize; i++) {
             float x = padding + (width / (dataSize - 1)) * i;
-            double spread = (percentile75 - percentile25) * (i / (double) dataSize);
-            float yTop = padding + (float) ((1 - (percentile50 + spread - minValue) / range) * height);
-            path75.lineTo(x, yTop);
+            float y = padding + (float) ((1 - (upper[i] - minValue) / range) * height);
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
         }
         
         for (int i = dataSize - 1; i >= 0; i--) {
             float x = padding + (width / (dataSize - 1)) * i;
-            double spread = (percentile75 - percentile25) * (i / (double) dataSize);
-            float yBottom = padding + (float) ((1 - (percentile50 - spread - minValue) / range) * height);
-            path75.lineTo(x, yBottom);
+            float y = padding + (float) ((1 - (lower[i] - minValue) / range) * height);
+            path.lineTo(x, y);
         }
         
-        path75.close();
-        canvas.drawPath(path75, fill75Paint);
+        path.close();
+        return path;
+    }
+    
+    /**
+     * 분위 밴드 선 그리기
+     */
+    private void drawBandLine(Canvas canvas, double[] values, Paint paint, float width, float height,
+                              double minValue, double range) {
+        if (values.length < 2) return;
+        
+        Path bandPath = new Path();
+        for (int i = 0; i < values.length; i++) {
+            float x = padding + (width / (values.length - 1)) * i;
+            float y = padding + (float) ((1 - (values[i] - minValue) / range) * height);
+            if (i == 0) {
+                bandPath.moveTo(x, y);
+            } else {
+                bandPath.lineTo(x, y);
+            }
+        }
+        canvas.drawPath(bandPath, paint);
     }
     
     /**
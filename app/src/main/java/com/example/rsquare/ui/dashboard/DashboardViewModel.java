@@ -9,6 +9,8 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.example.rsquare.data.local.entity.Position;
 import com.example.rsquare.data.local.entity.User;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.data.remote.TickBus;
 import com.example.rsquare.data.repository.MarketDataRepository;
 import com.example.rsquare.data.repository.TradingRepository;
 import com.example.rsquare.data.repository.UserRepository;
@@ -56,7 +58,8 @@ public class DashboardViewModel extends AndroidViewModel implements MarketDataRe
         userRepository = new UserRepository(application);
         tradingRepository = new TradingRepository(application);
         marketDataRepository = new MarketDataRepository();
-        marketDataRepository.setPriceUpdateListener(this);
+        // 손익 재계산은 250ms에 한 번이면 충분
+        marketDataRepository.setPriceUpdateListener(this, TickBus.CADENCE_250_MS);
         
         // LiveData 초기화
         currentUser = userRepository.getDefaultUser();
@@ -203,21 +206,12 @@ public class DashboardViewModel extends AndroidViewModel implements MarketDataRe
     
     @Override
     public void onPriceUpdate(String coinId, double price) {
-        // 가격 맵 업데이트
-        // 코인 ID를 심볼로 변환해야 함 (하지만 여기서는 역방향 매핑이 없으므로
-        // MarketDataRepository의 SYMBOL_MAP을 참조하거나, 
-        // 간단히 모든 활성 포지션을 순회하며 매칭되는지 확인)
-        
-        // 여기서는 간단히 코인 ID를 키로 사용하지 않고, 
-        // 포지션의 심볼과 매칭되는지 확인하여 가격 맵 업데이트
-        
-        // 참고: MarketDataRepository.SYMBOL_MAP은 private이지만, 
-        // getCoinIdFromSymbol 메서드를 통해 확인 가능
+        // 가격 맵 업데이트 (코인 ID -> Binance 심볼은 SymbolRegistry에서 O(1) 역조회)
+        String symbol = SymbolRegistry.getInstance().toSymbol(coinId);
         
         boolean updated = false;
         for (Position position : currentActivePositions) {
-            String id = marketDataRepository.getCoinIdFromSymbol(position.getSymbol());
-            if (id != null && id.equals(coinId)) {
+            if (symbol != null && symbol.equals(position.getSymbol())) {
                 currentPrices.put(position.getSymbol(), price);
                 updated = true;
             }
@@ -18,15 +18,16 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.rsquare.R;
 import com.example.rsquare.data.local.entity.Position;
+import com.example.rsquare.data.remote.SymbolRegistry;
 import com.example.rsquare.data.repository.MarketDataRepository;
 import com.example.rsquare.data.repository.TradingRepository;
+import com.example.rsquare.domain.CandleSeries;
 import com.example.rsquare.ui.BaseActivity;
 import com.example.rsquare.ui.chart.ChartViewModel;
 import com.example.rsquare.ui.chart.ChartWebViewInterface;
 import com.example.rsquare.util.NumberFormatter;
 
 import java.text.DecimalFormat;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -59,7 +60,7 @@ public class PositionDetailActivity extends BaseActivity {
     private long positionId;
     private boolean isUpdatingFromChart = false;
     private boolean isChartReady = false;
-    private List<List<Object>> pendingKlines = null;
+    private CandleSeries pendingKlines = null;
     private double currentPrice = 0.0;
     
     private final DecimalFormat priceFormatter = new DecimalFormat("#,##0.00");
@@ -439,7 +440,7 @@ public class PositionDetailActivity extends BaseActivity {
         });
         
         // 차트 데이터 관찰
-        chartViewModel.getBinanceKlines().observe(this, klines -> {
+        chartViewModel.getCandleSeries().observe(this, klines -> {
             if (klines != null && !klines.isEmpty()) {
                 if (isChartReady) {
                     loadBinanceOHLCData(klines);
@@ -585,33 +586,11 @@ public class PositionDetailActivity extends BaseActivity {
         }
     }
     
-    private void loadBinanceOHLCData(List<List<Object>> klines) {
+    private void loadBinanceOHLCData(CandleSeries klines) {
         if (klines == null || klines.isEmpty() || tradingChart == null) return;
         
         try {
-            org.json.JSONArray klinesArray = new org.json.JSONArray();
-            
-            for (List<Object> kline : klines) {
-                if (kline != null && kline.size() >= 6) {
-                    org.json.JSONArray klineArray = new org.json.JSONArray();
-                    for (Object value : kline) {
-                        if (value instanceof Number) {
-                            klineArray.put(((Number) value).doubleValue());
-                        } else if (value instanceof String) {
-                            try {
-                                klineArray.put(Double.parseDouble((String) value));
-                            } catch (NumberFormatException e) {
-                                klineArray.put(value.toString());
-                            }
-                        } else {
-                            klineArray.put(value.toString());
-                        }
-                    }
-                    klinesArray.put(klineArray);
-                }
-            }
-            
-            String klinesString = klinesArray.toString();
+            String klinesString = klines.toJson();
             String jsCode = String.format(
                 "(function() { " +
                 "  if (typeof setOHLCData === 'function') { " +
@@ -639,18 +618,7 @@ public class PositionDetailActivity extends BaseActivity {
     }
     
     private String getCoinIdFromSymbol(String symbol) {
-        // Binance 심볼 -> CoinGecko ID 매핑
-        java.util.Map<String, String> symbolToCoinId = new java.util.HashMap<>();
-        symbolToCoinId.put("BTCUSDT", "bitcoin");
-        symbolToCoinId.put("ETHUSDT", "ethereum");
-        symbolToCoinId.put("ADAUSDT", "cardano");
-        symbolToCoinId.put("SOLUSDT", "solana");
-        symbolToCoinId.put("XRPUSDT", "ripple");
-        symbolToCoinId.put("DOTUSDT", "polkadot");
-        symbolToCoinId.put("DOGEUSDT", "dogecoin");
-        symbolToCoinId.put("AVAXUSDT", "avalanche-2");
-        
-        return symbolToCoinId.get(symbol);
+        return SymbolRegistry.getInstance().toCoinId(symbol);
     }
     
     private void savePosition() {
@@ -22,6 +22,8 @@ import androidx.core.content.ContextCompat;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.rsquare.R;
+import com.example.rsquare.data.remote.SymbolRegistry;
+import com.example.rsquare.domain.CandleSeries;
 import com.example.rsquare.domain.MarginCalculator;
 import com.example.rsquare.domain.PositionSizeCalculator;
 import com.example.rsquare.domain.RiskCalculator;
@@ -98,7 +100,7 @@ public class TradingActivity extends BaseActivity {
     private boolean userHasSetSL = false; // 사용자가 직접 SL 설정했는지
     private boolean isUpdatingFromChart = false; // 차트에서 업데이트 중인지 (순환 참조 방지)
     private boolean needsAutoPriceSetup = false; // 종목 변경 후 자동 가격 설정이 필요한지
-    private java.util.List<java.util.List<Object>> pendingKlines = null;
+    private CandleSeries pendingKlines = null;
     
     // Throttling variables
     private long lastPriceUpdateTimestamp = 0;
@@ -908,7 +910,7 @@ public class TradingActivity extends BaseActivity {
         chartViewModel.getErrorMessage().observe(this, error -> {
             if (error != null && !error.isEmpty()) {
                 // 데이터가 이미 로드된 상태라면 에러 메시지 무시 (일시적 네트워크 오류 등)
-                if (chartViewModel.getBinanceKlines().getValue() != null && !chartViewModel.getBinanceKlines().getValue().isEmpty()) {
+                if (chartViewModel.getCandleSeries().getValue() != null && !chartViewModel.getCandleSeries().getValue().isEmpty()) {
                     android.util.Log.w("TradingActivity", "Suppressing error toast because data is loaded: " + error);
                 } else {
                     android.widget.Toast.makeText(this, "차트 데이터 로드 실패: " + error, android.widget.Toast.LENGTH_LONG).show();
@@ -917,7 +919,7 @@ public class TradingActivity extends BaseActivity {
         });
 
         // 차트 준비 상태 관찰
-        chartViewModel.getBinanceKlines().observe(this, klines -> {
+        chartViewModel.getCandleSeries().observe(this, klines -> {
             if (klines != null && !klines.isEmpty()) {
                 loadBinanceOHLCData(klines);
                 
@@ -928,39 +930,18 @@ public class TradingActivity extends BaseActivity {
                     tradingChart.post(() -> {
                         tradingChart.evaluateJavascript("if (typeof setBasePrice === 'function') { setBasePrice(" + finalPrice + "); }", null);
                     });
-                } else if (klines.size() > 0) {
+                } else {
                     // 데이터가 있는데 24h 시가가 아직 없으면 첫 캔들 기준 (임시)
-                    java.util.List<Object> firstKline = klines.get(0); 
-                    if (firstKline.size() >= 2) {
-                        Object openObj = firstKline.get(1);
-                        Double openPrice = 0.0;
-                        if (openObj instanceof Number) {
-                            openPrice = ((Number) openObj).doubleValue();
-                        } else {
-                            try {
-                                openPrice = Double.parseDouble(openObj.toString());
-                            } catch (Exception e) {}
-                        }
-                        
-                        if (openPrice > 0 && isChartReady) {
-                            final double finalPrice = openPrice;
-                            tradingChart.post(() -> {
-                                tradingChart.evaluateJavascript("if (typeof setBasePrice === 'function') { setBasePrice(" + finalPrice + "); }", null);
-                            });
-                        }
+                    double openPrice = klines.getOpen(0);
+                    if (openPrice > 0 && isChartReady) {
+                        tradingChart.post(() -> {
+                            tradingChart.evaluateJavascript("if (typeof setBasePrice === 'function') { setBasePrice(" + openPrice + "); }", null);
+                        });
                     }
                 }
             }
         });
         
-        // 차트 데이터 관찰
-        chartViewModel.getChartData().observe(this, chartData -> {
-            if (chartData != null && isChartReady) {
-                // 차트 데이터 로드
-                // ... (기존 코드)
-            }
-        });
-        
         // 실시간 Kline 업데이트 관찰 (WebSocket에서 받은 새로운 캔들)
         chartViewModel.getKlineUpdate().observe(this, klineData -> {
             if (klineData != null && isChartReady) {
@@ -1084,7 +1065,7 @@ public class TradingActivity extends BaseActivity {
     /**
      * Binance OHLC 데이터 로드
      */
-    private void loadBinanceOHLCData(java.util.List<java.util.List<Object>> klines) {
+    private void loadBinanceOHLCData(CandleSeries klines) {
         // 차트가 준비되지 않았으면 대기
         if (!isChartReady) {
             android.util.Log.d("TradingActivity", "Chart not ready yet, storing klines for later");
@@ -1093,30 +1074,8 @@ public class TradingActivity extends BaseActivity {
         }
         
         try {
-            // Binance klines 형식: [[openTime, open, high, low, close, volume, ...], ...]
-            org.json.JSONArray klinesArray = new org.json.JSONArray();
-            
-            for (java.util.List<Object> kline : klines) {
-                if (kline != null && kline.size() >= 6) {
-                    org.json.JSONArray klineArray = new org.json.JSONArray();
-                    for (Object value : kline) {
-                        if (value instanceof Number) {
-                            klineArray.put(((Number) value).doubleValue());
-                        } else if (value instanceof String) {
-                            try {
-                                klineArray.put(Double.parseDouble((String) value));
-                            } catch (NumberFormatException e) {
-                                klineArray.put(value.toString());
-                            }
-                        } else {
-                            klineArray.put(value.toString());
-                        }
-                    }
-                    klinesArray.put(klineArray);
-                }
-            }
-            
-            String klinesString = klinesArray.toString();
+            // [[openTime, open, high, low, close, volume], ...]
+            String klinesString = klines.toJson();
             android.util.Log.d("TradingActivity", "Calling setOHLCData with data length: " + klinesString.length());
             
             // JavaScript에 OHLC 데이터 직접 전달 (재시도 로직 포함)
@@ -1985,28 +1944,7 @@ public class TradingActivity extends BaseActivity {
      * 심볼에서 CoinGecko ID 가져오기
      */
     private String getCoinIdFromSymbol(String symbol) {
-        // USDT 제거하고 소문자로 변환
-        String base = symbol.replace("USDT", "").toLowerCase();
-        
-        // 특수 케이스 처리
-        switch (base) {
-            case "btc": return "bitcoin";
-            case "eth": return "ethereum";
-            case "bnb": return "binancecoin";
-            case "sol": return "solana";
-            case "xrp": return "ripple";
-            case "ada": return "cardano";
-            case "doge": return "dogecoin";
-            case "matic": return "matic-network";
-            case "dot": return "polkadot";
-            case "avax": return "avalanche-2";
-            case "ltc": return "litecoin";
-            case "link": return "chainlink";
-            case "uni": return "uniswap";
-            case "atom": return "cosmos";
-            case "etc": return "ethereum-classic";
-            default: return base;
-        }
+        return SymbolRegistry.getInstance().toCoinId(symbol);
     }
     
     @Override
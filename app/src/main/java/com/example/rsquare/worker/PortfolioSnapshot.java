@@ -0,0 +1,151 @@
+package com.example.rsquare.worker;
+
+import com.example.rsquare.data.local.AppDatabase;
+import com.example.rsquare.data.local.entity.Position;
+import com.example.rsquare.data.local.entity.User;
+import com.example.rsquare.data.local.entity.UserSettings;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 워커 1회 실행분의 포트폴리오 스냅샷
+ * 
+ * 사용자, 설정, 활성 포지션, 오늘의 실현 손실을 읽기 트랜잭션 하나로 읽고,
+ * 트랜잭션 밖에서 일괄 조회한 현재가를 withPrices()로 포지션 순서의 배열로 붙인다.
+ * 만든 뒤에는 바뀌지 않으며 평가는 이 스냅샷만 보고 하므로
+ * 포지션 수와 관계없이 DB 조회도, 가격 조회도 한 번이다.
+ */
+final class PortfolioSnapshot {
+    
+    private final long userId;
+    private final User user;
+    private final UserSettings settings;
+    private final List<Position> positions;
+    private final double[] prices;
+    private final double realizedLossToday;
+    private final long takenAt;
+    
+    private PortfolioSnapshot(long userId, User user, UserSettings settings, List<Position> positions,
+                              double[] prices, double realizedLossToday, long takenAt) {
+        this.userId = userId;
+        this.user = user;
+        this.settings = settings;
+        this.positions = Collections.unmodifiableList(positions);
+        this.prices = prices;
+        this.realizedLossToday = realizedLossToday;
+        this.takenAt = takenAt;
+    }
+    
+    /**
+     * 스냅샷 읽기 (백그라운드 스레드, 가격은 아직 없음)
+     */
+    static PortfolioSnapshot load(AppDatabase db, long userId) {
+        Date now = new Date();
+        Date startOfDay = startOfDay(now);
+        
+        return db.runInTransaction(() -> {
+            List<Position> positions = db.positionDao().getActivePositionsSync(userId);
+            return new PortfolioSnapshot(
+                userId,
+                db.userDao().getUserByIdSync(userId),
+                db.userSettingsDao().getSettingsByUserIdSync(userId),
+                positions,
+                new double[positions.size()],
+                db.tradeHistoryDao().getRealizedLossSync(userId, startOfDay, now),
+                now.getTime()
+            );
+        });
+    }
+    
+    /**
+     * 현재가를 붙인 스냅샷 (없는 심볼은 0)
+     * @param pricesBySymbol 심볼 -> 가격
+     */
+    PortfolioSnapshot withPrices(Map<String, Double> pricesBySymbol) {
+        double[] filled = new double[positions.size()];
+        for (int i = 0; i < filled.length; i++) {
+            Double price = pricesBySymbol.get(positions.get(i).getSymbol());
+            filled[i] = price != null ? price : 0.0;
+        }
+        return new PortfolioSnapshot(userId, user, settings, positions, filled, realizedLossToday, takenAt);
+    }
+    
+    /**
+     * 활성 포지션의 심볼 (중복 없음)
+     */
+    Set<String> getSymbols() {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (Position position : positions) {
+            if (position.getSymbol() != null) symbols.add(position.getSymbol());
+        }
+        return symbols;
+    }
+    
+    private static Date startOfDay(Date now) {
+        Calendar today = Calendar.getInstance();
+        today.setTime(now);
+        today.set(Calendar.HOUR_OF_DAY, 0);
+        today.set(Calendar.MINUTE, 0);
+        today.set(Calendar.SECOND, 0);
+        today.set(Calendar.MILLISECOND, 0);
+        return today.getTime();
+    }
+    
+    long getUserId() {
+        return userId;
+    }
+    
+    /**
+     * 사용자 (없으면 null)
+     */
+    User getUser() {
+        return user;
+    }
+    
+    /**
+     * 사용자 설정 (없으면 null)
+     */
+    UserSettings getSettings() {
+        return settings;
+    }
+    
+    List<Position> getPositions() {
+        return positions;
+    }
+    
+    int size() {
+        return positions.size();
+    }
+    
+    boolean isEmpty() {
+        return positions.isEmpty();
+    }
+    
+    Position getPosition(int index) {
+        return positions.get(index);
+    }
+    
+    /**
+     * 포지션의 현재가 (가격을 구하지 못했으면 0)
+     */
+    double getPrice(int index) {
+        return prices[index];
+    }
+    
+    /**
+     * 오늘 0시부터 스냅샷 시점까지의 실현 손실 (양수)
+     */
+    double getRealizedLossToday() {
+        return realizedLossToday;
+    }
+    
+    long getTakenAt() {
+        return takenAt;
+    }
+}
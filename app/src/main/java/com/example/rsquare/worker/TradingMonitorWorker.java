@@ -1,6 +1,7 @@
 package com.example.rsquare.worker;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -12,36 +13,60 @@ import com.example.rsquare.data.local.entity.Position;
 import com.example.rsquare.data.local.entity.TradeHistory;
 import com.example.rsquare.data.local.entity.User;
 import com.example.rsquare.data.local.entity.UserSettings;
-import com.example.rsquare.data.remote.model.CoinPrice;
-import com.example.rsquare.data.repository.MarketDataRepository;
+import com.example.rsquare.data.repository.CandleRepository;
+import com.example.rsquare.data.repository.PriceSnapshotRepository;
 import com.example.rsquare.data.repository.TradingRepository;
 import com.example.rsquare.data.repository.UserRepository;
+import com.example.rsquare.domain.CandleSeries;
+import com.example.rsquare.domain.CrossMarginAccount;
 import com.example.rsquare.domain.MarginCalculator;
+import com.example.rsquare.domain.RangeReplay;
+import com.example.rsquare.domain.TriggerBook;
+import com.example.rsquare.domain.TriggerEngine;
 import com.example.rsquare.util.NotificationHelper;
 
-import java.util.Calendar;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Trading Monitor Worker
  * 주기적으로 활성 포지션을 체크하고 TP/SL 도달 시 자동 청산
+ * 
+ * 앱이 포그라운드에 있어 TriggerEngine이 틱을 받는 중이면 현재가 기준 TP / SL / 청산 / 대기 주문 체결은
+ * 엔진에 맡기고, 여기서는 마진 경고, 타임아웃, 일일 손실 한도만 확인한다.
+ * 
+ * 마지막 확인 이후 엔진이 보지 못한 구간(엔진이 없으면 지금까지, 있으면 감시를 시작한 시각까지)은
+ * klines(심볼마다 구간 요청 한 번)를 RangeReplay로 재생해, 실행 사이에 TP / SL / 청산가를 찍고
+ * 되돌아온 경우도 처음 닿은 시각과 가격으로 체결한다. 재생하지 못한 구간이 있으면 확인 시각을 넘기지 않는다.
  */
 public class TradingMonitorWorker extends Worker {
     
     private static final String TAG = "TradingMonitorWorker";
     
+    private static final String PREFS_NAME = "r2_prefs";
+    private static final String KEY_LAST_CHECK_TIME = "monitor_last_check_time";
+    
+    // 따라잡기 최대 구간 (앱을 오래 쓰지 않았을 때 요청이 너무 길어지지 않도록)
+    private static final long MAX_REPLAY_RANGE = 7 * 24 * 60 * 60 * 1000L; // 7일
+    
     private final TradingRepository tradingRepository;
-    private final MarketDataRepository marketDataRepository;
-    private final UserRepository userRepository;
+    private final PriceSnapshotRepository priceSnapshotRepository;
+    private final CandleRepository candleRepository;
     private final NotificationHelper notificationHelper;
     
+    // 이번 실행에서 가격 트리거를 TriggerEngine이 처리 중인지
+    private boolean priceTriggersLive;
+    
     public TradingMonitorWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
         
         this.tradingRepository = new TradingRepository(context);
-        this.marketDataRepository = new MarketDataRepository();
-        this.userRepository = new UserRepository(context);
+        this.priceSnapshotRepository = new PriceSnapshotRepository(context);
+        this.candleRepository = new CandleRepository(context);
         this.notificationHelper = new NotificationHelper(context);
     }
     
@@ -51,17 +76,40 @@ public class TradingMonitorWorker extends Worker {
         Log.d(TAG, "Trading monitor worker started");
         
         try {
-            // 활성 포지션 조회
-            List<Position> activePositions = tradingRepository.getActivePositionsSync(1);
+            // 사용자 / 설정 / 활성 포지션 / 오늘 실현 손실을 한 번에 조회
+            AppDatabase db = AppDatabase.getInstance(getApplicationContext());
+            PortfolioSnapshot snapshot = PortfolioSnapshot.load(db, UserRepository.TEST_USER_ID);
             
-            if (activePositions.isEmpty()) {
+            if (snapshot.isEmpty()) {
                 Log.d(TAG, "No active positions to monitor");
+                saveLastCheckTime(snapshot.getTakenAt());
                 return Result.success();
             }
             
-            // 각 포지션의 현재 가격 확인
-            for (Position position : activePositions) {
-                checkPosition(position);
+            // 모든 심볼의 현재가를 요청 한 번으로 (실패 시 마지막으로 받은 가격)
+            snapshot = snapshot.withPrices(
+                priceSnapshotRepository.getLatestPricesSync(snapshot.getSymbols()));
+            
+            long liveSince = TriggerEngine.getInstance(getApplicationContext()).getLiveSince();
+            priceTriggersLive = liveSince > 0;
+            if (priceTriggersLive) {
+                Log.d(TAG, "Trigger engine is live since " + liveSince + ", skipping price triggers");
+            }
+            
+            // 지난 실행 이후 엔진이 보지 못한 구간 재생 (엔진이 감시 중이면 감시를 시작한 시각까지)
+            long replayEnd = priceTriggersLive
+                ? Math.min(liveSince, snapshot.getTakenAt())
+                : snapshot.getTakenAt();
+            Map<Long, RangeReplay.Hit> replayHits = new HashMap<>();
+            boolean caughtUp = catchUp(snapshot, replayEnd, replayHits);
+            
+            // 스냅샷만 보고 평가한 뒤 결과를 한꺼번에 반영
+            List<Action> actions = evaluate(snapshot, replayHits);
+            apply(actions);
+            
+            // 재생에 실패한 심볼이 있으면 다음 실행에서 같은 구간부터 다시
+            if (caughtUp) {
+                saveLastCheckTime(snapshot.getTakenAt());
             }
             
             return Result.success();
@@ -72,158 +120,120 @@ public class TradingMonitorWorker extends Worker {
         }
     }
     
+    // ===== 평가 (DB 접근 없음) =====
+    
     /**
-     * 개별 포지션 체크
+     * 스냅샷 평가
+     * 포지션마다 O(1)이며, 교차 마진은 CrossMarginAccount로 심볼별 현재가를 반영해 계산한다.
+     * 
+     * @param replayHits 구간 재생에서 찾은 포지션별 첫 트리거 (현재가 평가보다 우선)
      */
-    private void checkPosition(Position position) {
-        String coinId = getCoinIdFromSymbol(position.getSymbol());
+    private List<Action> evaluate(PortfolioSnapshot snapshot, Map<Long, RangeReplay.Hit> replayHits) {
+        List<Action> actions = new ArrayList<>();
+        User user = snapshot.getUser();
+        UserSettings settings = snapshot.getSettings();
         
-        if (coinId == null) {
-            Log.w(TAG, "Could not convert symbol to coinId: " + position.getSymbol());
-            return;
-        }
+        double totalBalance = user != null ? user.getBalance() : 0.0;
+        double dailyLoss = snapshot.getRealizedLossToday();
+        double dailyLossLimit = settings != null ? totalBalance * (settings.getDailyLossLimit() / 100.0) : 0.0;
+        long maxDurationMs = settings != null ? parseDuration(settings.getMaxPositionDuration()) : 0;
         
-        // 캐시된 가격 먼저 확인
-        CoinPrice cachedPrice = marketDataRepository.getCachedPrice(coinId);
-        if (cachedPrice != null && cachedPrice.getCurrentPrice() > 0) {
-            double currentPrice = cachedPrice.getCurrentPrice();
+        CrossMarginAccount cross = crossAccount(snapshot, totalBalance);
+        boolean[] closed = new boolean[snapshot.size()];
+        
+        for (int i = 0; i < snapshot.size(); i++) {
+            Position position = snapshot.getPosition(i);
+            double currentPrice = snapshot.getPrice(i);
+            
+            if (!(currentPrice > 0) && !replayHits.containsKey(position.getId())) {
+                // 캐시에 없으면 로그만 남기고 스킵 (다음 실행 시 다시 시도)
+                Log.d(TAG, "Price not in cache for position " + position.getId() + " (symbol: " + position.getSymbol() + ")");
+                continue;
+            }
             
             Log.d(TAG, "Checking position " + position.getId() + 
                 ", Symbol: " + position.getSymbol() + 
-                ", CoinId: " + coinId + 
                 ", CurrentPrice: " + currentPrice +
                 ", TP: " + position.getTakeProfit() +
                 ", SL: " + position.getStopLoss());
             
             // PENDING 상태인 경우 진입 조건 체크
             if ("PENDING".equals(position.getStatus())) {
-                checkPendingOrder(position, currentPrice);
-            } else {
-                // ACTIVE 상태인 경우 청산/TP/SL 체크
-                evaluatePosition(position, currentPrice);
+                if (!priceTriggersLive && isEntryReached(position, currentPrice)) {
+                    Log.d(TAG, "Pending order triggered! Position " + position.getId() + 
+                        ", Entry: " + position.getEntryPrice() + ", Current: " + currentPrice);
+                    actions.add(Action.activate(position));
+                }
+                continue;
             }
-        } else {
-            // 캐시에 없으면 로그만 남기고 스킵 (다음 실행 시 다시 시도)
-            Log.d(TAG, "Price not in cache for " + coinId + " (symbol: " + position.getSymbol() + ")");
-        }
-    }
-    
-    /**
-     * 대기 주문 체크 (Limit/Stop)
-     */
-    private void checkPendingOrder(Position position, double currentPrice) {
-        boolean triggered = false;
-        double entryPrice = position.getEntryPrice();
-        
-        if (position.isLong()) {
-            // 롱 포지션
-            // 1. Limit Buy: 현재가가 진입가보다 낮았다가 진입가 이하로 내려오면 체결? 
-            //    보통 Limit Buy는 현재가보다 낮은 가격에 걸어두고, 가격이 내려와서 닿으면 체결.
-            //    Stop Buy는 현재가보다 높은 가격에 걸어두고, 가격이 올라와서 닿으면 체결.
-            
-            // 여기서는 단순하게 "가격이 진입가에 도달하거나 더 유리해지면" 체결로 간주
-            // 하지만 PENDING으로 설정될 때의 가격을 모르므로, 
-            // "현재 가격이 진입가보다 낮거나 같으면" (Limit Buy 가정) 체결?
-            // 아니면 "현재 가격이 진입가보다 높거나 같으면" (Stop Buy 가정) 체결?
-            
-            // TradeExecutor에서 PENDING으로 설정된 로직:
-            // Math.abs(entryPrice - currentPrice) / currentPrice > 0.001
-            
-            // 사용자의 의도를 정확히 알 수 없으므로, "진입가에 도달"하면 체결로 단순화
-            // 즉, 진입가와의 차이가 매우 작거나, 
-            // Limit Buy (Low): Current <= Entry
-            // Stop Buy (High): Current >= Entry
-            
-            // 하지만 우리는 주문 당시의 가격을 모름.
-            // 따라서 단순히 "진입가 근처에 도달"했는지만 체크하거나,
-            // 아니면 더 정교하게 "교차"를 체크해야 함 (이전 가격 필요).
             
-            // 여기서는 Worker가 주기적으로 돌므로 "교차"를 놓칠 수 있음.
-            // 따라서 "현재 가격이 진입가 조건을 만족"하는지로 판단.
-            
-            // 문제: Limit Buy인지 Stop Buy인지 구분할 필드가 없음.
-            // 해결: Position에 orderType 필드가 없으므로, 
-            // 일단은 "현재 가격이 진입가와 매우 가까우면" (0.1% 이내) 체결로 처리?
-            // 아니면, 사용자가 입력한 EP가 현재가보다 낮으면 Limit, 높으면 Stop으로 가정했어야 함.
-            
-            // TradeExecutor에서 status를 PENDING으로 설정할 때 orderType도 저장했으면 좋았겠지만,
-            // 지금은 "진입가에 도달했다"는 것을 "현재가와 진입가의 차이가 0.1% 이내"인 경우로 한정하거나,
-            // 아니면 단순히 "지나쳤으면" 체결로 봐야 함.
-            
-            // 개선된 로직:
-            // PENDING 상태일 때, 
-            // 1. 만약 현재가가 진입가보다 낮다면 (Limit Buy 대기 중이었거나, 이미 지나침) -> 체결 (더 싸게 사는 건 좋음)
-            // 2. 만약 현재가가 진입가보다 높다면 (Stop Buy 대기 중이었거나, 아직 안 옴) -> 
-            //    이건 모호함. Limit Buy라면 아직 안 온 거고, Stop Buy라면 이미 지난 거임.
-            
-            // 안전한 접근: "현재 가격이 진입가와 0.1% 이내로 근접하면 체결"
-            double diffPercent = Math.abs(currentPrice - entryPrice) / entryPrice;
-            if (diffPercent <= 0.001) {
-                triggered = true;
+            if (user == null) {
+                Log.e(TAG, "User not found for position " + position.getId());
+                continue;
             }
             
-        } else {
-            // 숏 포지션
-            // Limit Sell (High): Current >= Entry -> 체결 (더 비싸게 파는 건 좋음)
-            // Stop Sell (Low): Current <= Entry
-            
-            // 마찬가지로 "현재 가격이 진입가와 0.1% 이내로 근접하면 체결"
-            double diffPercent = Math.abs(currentPrice - entryPrice) / entryPrice;
-            if (diffPercent <= 0.001) {
-                triggered = true;
+            // ACTIVE 상태인 경우 청산/TP/SL 체크 (실행 사이에 이미 닿았으면 그 체결)
+            RangeReplay.Hit hit = replayHits.get(position.getId());
+            Action close = hit != null
+                ? replayClose(position, hit)
+                : evaluatePosition(position, currentPrice, totalBalance, cross, maxDurationMs,
+                    snapshot.getTakenAt(), actions);
+            if (close != null) {
+                actions.add(close);
+                closed[i] = true;
+                cross.remove(position.getId());
+                double pnl = position.calculateUnrealizedPnL(close.price);
+                if (pnl < 0) dailyLoss += -pnl;
+                continue;
             }
-        }
-        
-        if (triggered) {
-            Log.d(TAG, "Pending order triggered! Position " + position.getId() + 
-                ", Entry: " + entryPrice + ", Current: " + currentPrice);
             
-            activatePosition(position);
+            // 일일 손실 한도 체크 (전체 포지션에 대해)
+            if (settings != null && dailyLoss >= dailyLossLimit) {
+                Log.w(TAG, "Daily loss limit reached: " + dailyLoss + " / " + dailyLossLimit);
+                // 모든 활성 포지션 종료 (가격을 모르는 포지션은 다음 실행에서)
+                for (int j = 0; j < snapshot.size(); j++) {
+                    if (closed[j]) continue;
+                    if (!(snapshot.getPrice(j) > 0)) {
+                        Log.w(TAG, "Price not in cache, cannot close position " + snapshot.getPosition(j).getId());
+                        continue;
+                    }
+                    actions.add(Action.close(snapshot.getPosition(j), snapshot.getPrice(j),
+                        TradeHistory.TradeType.CLOSE_SL, "DAILY_LOSS_LIMIT"));
+                    closed[j] = true;
+                }
+                break;
+            }
         }
+        return actions;
     }
     
     /**
-     * 포지션 활성화
+     * 대기 주문 진입 조건
+     * Position에 Limit / Stop 구분이 없어서 주문 당시 가격 대비 방향을 알 수 없으므로,
+     * 현재 가격이 진입가와 0.1% 이내로 근접하면 체결로 처리한다 (롱 / 숏 동일).
      */
-    private void activatePosition(Position position) {
-        position.setStatus("ACTIVE");
-        position.setOpenTime(new Date()); // 체결 시간으로 업데이트
-        
-        tradingRepository.updatePositionSync(position);
-        
-        notificationHelper.notifyOrderFilled(position);
+    private static boolean isEntryReached(Position position, double currentPrice) {
+        double entryPrice = position.getEntryPrice();
+        double diffPercent = Math.abs(currentPrice - entryPrice) / entryPrice;
+        return diffPercent <= 0.001;
     }
     
     /**
-     * 포지션 평가 및 자동 청산 (프롬프트 요구사항 반영)
+     * 활성 포지션 평가 (프롬프트 요구사항 반영)
+     * 마진 경고는 warnings에 추가하고, 청산이 필요하면 청산 액션을 반환한다.
      */
-    private void evaluatePosition(Position position, double currentPrice) {
-        // 사용자 및 설정 조회
-        User user = userRepository.getUserSync(position.getUserId());
-        if (user == null) {
-            Log.e(TAG, "User not found for position " + position.getId());
-            return;
-        }
-        
-        AppDatabase db = AppDatabase.getInstance(getApplicationContext());
-        UserSettings settings = db.userSettingsDao().getSettingsByUserIdSync(position.getUserId());
-        
-        double totalBalance = user.getBalance();
-        
+    private Action evaluatePosition(Position position, double currentPrice, double totalBalance,
+                                    CrossMarginAccount cross, long maxDurationMs, long now, List<Action> warnings) {
         // 1. TP 도달 체크
-        if (position.isTakeProfitReached(currentPrice)) {
+        if (!priceTriggersLive && position.isTakeProfitReached(currentPrice)) {
             Log.d(TAG, "Take profit reached for position " + position.getId());
-            tradingRepository.closePositionSync(position.getId(), currentPrice, TradeHistory.TradeType.CLOSE_TP, "TP_HIT");
-            notificationHelper.notifyTPReached(position);
-            return;
+            return Action.close(position, currentPrice, TradeHistory.TradeType.CLOSE_TP, "TP_HIT");
         }
         
         // 2. SL 도달 체크
-        if (position.isStopLossReached(currentPrice)) {
+        if (!priceTriggersLive && position.isStopLossReached(currentPrice)) {
             Log.d(TAG, "Stop loss reached for position " + position.getId());
-            tradingRepository.closePositionSync(position.getId(), currentPrice, TradeHistory.TradeType.CLOSE_SL, "SL_HIT");
-            notificationHelper.notifySLReached(position);
-            return;
+            return Action.close(position, currentPrice, TradeHistory.TradeType.CLOSE_SL, "SL_HIT");
         }
         
         // 3. 마진콜 및 청산 체크 (선물 거래만)
@@ -239,82 +249,43 @@ public class TradingMonitorWorker extends Worker {
             if ("ISOLATED".equals(marginMode)) {
                 // Isolated 모드: 포지션별 마진만 고려
                 double isolatedMargin = MarginCalculator.calculateIsolatedMargin(
-                position.getEntryPrice(),
-                position.getQuantity(),
-                position.getLeverage()
-            );
-            
-            // 미실현 손익 계산
-            double unrealizedPnL = position.calculateUnrealizedPnL(currentPrice);
-            
-                // 가용 마진 = 포지션별 마진 + 미실현 손익
-                double availableMargin = isolatedMargin + unrealizedPnL;
-            
-            // 마진 비율 계산
-                marginRatio = MarginCalculator.calculateMarginRatio(availableMargin, isolatedMargin);
-            
-                // 청산 가격 계산 (Isolated 모드)
-                liquidationPrice = MarginCalculator.calculateIsolatedLiquidationPrice(
-                position.getEntryPrice(),
-                position.getQuantity(),
-                position.getLeverage(),
-                    isolatedMargin,
-                position.isLong()
-            );
-            } else {
-                // Cross 모드: 모든 포지션의 마진과 손익 고려
-                List<Position> allPositions = tradingRepository.getActivePositionsSync(position.getUserId());
-                
-                // 현재 포지션의 사용 마진
-                double positionMargin = MarginCalculator.calculateUsedMargin(
                     position.getEntryPrice(),
                     position.getQuantity(),
                     position.getLeverage()
                 );
                 
-                // 다른 포지션들의 사용 마진 합산
-                double otherPositionsMargin = 0.0;
-                double otherPositionsPnL = 0.0;
-                for (Position pos : allPositions) {
-                    if (pos.getId() != position.getId() && !pos.isClosed() && "FUTURES".equals(pos.getTradeType())) {
-                        otherPositionsMargin += MarginCalculator.calculateUsedMargin(
-                            pos.getEntryPrice(), pos.getQuantity(), pos.getLeverage()
-                        );
-                        otherPositionsPnL += pos.calculateUnrealizedPnL(currentPrice);
-                    }
-                }
-                
-                // 현재 포지션의 미실현 손익
-                double currentPnL = position.calculateUnrealizedPnL(currentPrice);
-                
-                // 가용 마진 = 총 잔고 + 다른 포지션들의 미실현 손익 - 다른 포지션들의 마진
-                double availableMargin = totalBalance + otherPositionsPnL - otherPositionsMargin;
+                // 가용 마진 = 포지션별 마진 + 미실현 손익
+                double availableMargin = isolatedMargin + position.calculateUnrealizedPnL(currentPrice);
                 
-                // 마진 비율 계산 (현재 포지션 기준)
-                marginRatio = MarginCalculator.calculateMarginRatio(
-                    availableMargin + currentPnL, positionMargin
-                );
+                // 마진 비율 계산
+                marginRatio = MarginCalculator.calculateMarginRatio(availableMargin, isolatedMargin);
                 
-                // 청산 가격 계산 (Cross 모드)
-                liquidationPrice = MarginCalculator.calculateCrossLiquidationPrice(
-                    position, allPositions, totalBalance, currentPrice
+                // 청산 가격 계산 (Isolated 모드)
+                liquidationPrice = MarginCalculator.calculateIsolatedLiquidationPrice(
+                    position.getEntryPrice(),
+                    position.getQuantity(),
+                    position.getLeverage(),
+                    isolatedMargin,
+                    position.isLong()
                 );
+            } else {
+                // Cross 모드: 모든 포지션의 마진과 손익 고려 (다른 포지션은 각자 심볼의 현재가로 평가)
+                marginRatio = cross.getMarginRatio(position.getId());
+                liquidationPrice = cross.getLiquidationPrice(position.getId());
             }
             
             // 자동 청산 체크 (마진 비율 0% 이하)
-            if (MarginCalculator.shouldLiquidate(marginRatio)) {
+            if (!priceTriggersLive && MarginCalculator.shouldLiquidate(marginRatio)) {
                 Log.w(TAG, "Liquidation triggered! Position " + position.getId() + 
                     ", Margin ratio: " + marginRatio + "%, Mode: " + marginMode);
-                tradingRepository.closePositionSync(position.getId(), currentPrice, TradeHistory.TradeType.CLOSE_SL, "MARGIN_CALL_LIQUIDATION");
-                notificationHelper.notifyLiquidation(position, liquidationPrice);
-                return;
+                return Action.liquidate(position, currentPrice, liquidationPrice);
             }
             
             // 마진콜 경고 체크 (마진 비율 50% 이하)
             if (MarginCalculator.isMarginCall(marginRatio)) {
                 Log.w(TAG, "Margin call warning! Position " + position.getId() + 
                     ", Margin ratio: " + marginRatio + "%, Mode: " + marginMode);
-                notificationHelper.notifyMarginWarning(position, marginRatio);
+                warnings.add(Action.marginWarning(position, marginRatio));
             }
             
             // 마진 상태에 따른 경고 (20% 이하)
@@ -322,62 +293,218 @@ public class TradingMonitorWorker extends Worker {
             if (status == MarginCalculator.MarginStatus.CRITICAL) {
                 Log.w(TAG, "Critical margin status! Position " + position.getId() + 
                     ", Margin ratio: " + marginRatio + "%, Mode: " + marginMode);
-                notificationHelper.notifyMarginCritical(position, marginRatio, liquidationPrice);
+                warnings.add(Action.marginCritical(position, marginRatio, liquidationPrice));
             }
         }
         
         // 4. 타임아웃 체크
-        if (settings != null && !"UNLIMITED".equals(settings.getMaxPositionDuration())) {
-            long durationMs = System.currentTimeMillis() - position.getOpenTime().getTime();
-            long maxDurationMs = parseDuration(settings.getMaxPositionDuration());
-            
-            if (maxDurationMs > 0 && durationMs >= maxDurationMs) {
-                Log.d(TAG, "Position timeout for position " + position.getId());
-                tradingRepository.closePositionSync(position.getId(), currentPrice, TradeHistory.TradeType.CLOSE_SL, "TIMEOUT");
-                notificationHelper.notifyTimeout(position);
-                return;
-            }
+        if (maxDurationMs > 0 && now - position.getOpenTime().getTime() >= maxDurationMs) {
+            Log.d(TAG, "Position timeout for position " + position.getId());
+            return Action.close(position, currentPrice, TradeHistory.TradeType.CLOSE_SL, "TIMEOUT");
         }
         
-        // 5. 일일 손실 한도 체크 (전체 포지션에 대해)
-        if (settings != null) {
-            double dailyLoss = calculateDailyLoss(position.getUserId());
-            double dailyLossLimit = totalBalance * (settings.getDailyLossLimit() / 100.0);
-            
-            if (dailyLoss >= dailyLossLimit) {
-                Log.w(TAG, "Daily loss limit reached: " + dailyLoss + " / " + dailyLossLimit);
-                // 모든 활성 포지션 종료
-                closeAllPositions(position.getUserId(), currentPrice, "DAILY_LOSS_LIMIT");
-                return;
-            }
+        return null;
+    }
+    
+    /**
+     * 구간 재생에서 찾은 트리거를 청산 액션으로 (체결 시각은 트리거 시각)
+     */
+    private static Action replayClose(Position position, RangeReplay.Hit hit) {
+        Action action;
+        switch (hit.getKind()) {
+            case TriggerBook.KIND_TAKE_PROFIT:
+                action = Action.close(position, hit.getPrice(), TradeHistory.TradeType.CLOSE_TP, "TP_HIT");
+                break;
+            case TriggerBook.KIND_STOP_LOSS:
+                action = Action.close(position, hit.getPrice(), TradeHistory.TradeType.CLOSE_SL, "SL_HIT");
+                break;
+            default:
+                action = Action.liquidate(position, hit.getPrice(), hit.getPrice());
+                break;
         }
+        action.closeTime = new Date(hit.getTime());
+        return action;
     }
     
     /**
-     * 일일 손실 계산
+     * 스냅샷의 선물 포지션으로 교차 마진 계좌 구성 (가격을 모르는 심볼은 진입가로 평가)
      */
-    private double calculateDailyLoss(long userId) {
-        Calendar today = Calendar.getInstance();
-        today.set(Calendar.HOUR_OF_DAY, 0);
-        today.set(Calendar.MINUTE, 0);
-        today.set(Calendar.SECOND, 0);
-        today.set(Calendar.MILLISECOND, 0);
+    private static CrossMarginAccount crossAccount(PortfolioSnapshot snapshot, double totalBalance) {
+        CrossMarginAccount account = new CrossMarginAccount(totalBalance);
+        for (int i = 0; i < snapshot.size(); i++) {
+            account.add(snapshot.getPosition(i));
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            account.updatePrice(snapshot.getPosition(i).getSymbol(), snapshot.getPrice(i));
+        }
+        return account;
+    }
+    
+    // ===== 구간 재생 =====
+    
+    /**
+     * 따라잡기: 심볼마다 klines 구간 요청 한 번으로 마지막 확인 이후의 고가 / 저가를 재생
+     * 
+     * @param end 재생 끝 시각 (스냅샷 시각 또는 TriggerEngine이 감시를 시작한 시각)
+     * @param hits 포지션별 첫 트리거를 채울 맵
+     * @return 모든 심볼을 재생했는지 (실패한 심볼이 있으면 false)
+     */
+    private boolean catchUp(PortfolioSnapshot snapshot, long end, Map<Long, RangeReplay.Hit> hits) {
+        long lastCheck = loadLastCheckTime();
         
-        Date startOfDay = today.getTime();
+        // 심볼별 재생 시작 시각 (그 심볼 포지션 중 가장 이른 것)
+        Map<String, Long> startBySymbol = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Position position = snapshot.getPosition(i);
+            if ("PENDING".equals(position.getStatus()) || position.getSymbol() == null) continue;
+            long start = replayStart(position, lastCheck, end);
+            if (start >= end) continue; // 재생할 구간 없음
+            Long current = startBySymbol.get(position.getSymbol());
+            if (current == null || start < current) {
+                startBySymbol.put(position.getSymbol(), start);
+            }
+        }
+        if (startBySymbol.isEmpty()) return true;
         
-        AppDatabase db = AppDatabase.getInstance(getApplicationContext());
-        List<TradeHistory> todayTrades = db.tradeHistoryDao().getTradesByDateRangeSync(
-            userId, startOfDay, new Date()
-        );
+        boolean complete = true;
+        Map<String, CandleSeries> candlesBySymbol = new HashMap<>();
+        for (Map.Entry<String, Long> entry : startBySymbol.entrySet()) {
+            try {
+                candlesBySymbol.put(entry.getKey(),
+                    candleRepository.getRangeSync(entry.getKey(), entry.getValue(), end));
+            } catch (IOException e) {
+                Log.w(TAG, "Catch-up klines failed for " + entry.getKey(), e);
+                complete = false;
+            }
+        }
         
-        double totalLoss = 0.0;
-        for (TradeHistory trade : todayTrades) {
-            if (trade.getPnl() < 0) {
-                totalLoss += Math.abs(trade.getPnl());
+        // 교차 청산가는 현재가 기준으로 고정 (다른 포지션의 구간 중 가격 변화는 반영하지 않음)
+        User user = snapshot.getUser();
+        CrossMarginAccount cross = crossAccount(snapshot, user != null ? user.getBalance() : 0.0);
+        for (int i = 0; i < snapshot.size(); i++) {
+            Position position = snapshot.getPosition(i);
+            if ("PENDING".equals(position.getStatus())) continue;
+            CandleSeries candles = candlesBySymbol.get(position.getSymbol());
+            long start = replayStart(position, lastCheck, end);
+            if (candles == null || start >= end) continue;
+            
+            RangeReplay.Hit hit = RangeReplay.find(candles, start,
+                position.isLong(), position.getTakeProfit(), position.getStopLoss(),
+                liquidationPriceOf(position, cross));
+            if (hit != null) {
+                Log.d(TAG, "Catch-up trigger for position " + position.getId() +
+                    ", Kind: " + hit.getKind() + ", Price: " + hit.getPrice() + ", Time: " + hit.getTime());
+                hits.put(position.getId(), hit);
             }
         }
+        return complete;
+    }
+    
+    /**
+     * 포지션의 재생 시작 시각 = max(마지막 확인, 진입 시각, 최대 구간 시작)
+     */
+    private static long replayStart(Position position, long lastCheck, long end) {
+        long openTime = position.getOpenTime() != null ? position.getOpenTime().getTime() : 0;
+        return Math.max(Math.max(lastCheck, openTime), end - MAX_REPLAY_RANGE);
+    }
+    
+    /**
+     * 포지션 청산가 (레버리지 선물만, 없으면 0)
+     */
+    private static double liquidationPriceOf(Position position, CrossMarginAccount cross) {
+        if (!"FUTURES".equals(position.getTradeType()) || position.getLeverage() <= 1) return 0.0;
+        if ("ISOLATED".equals(position.getMarginMode())) {
+            double isolatedMargin = MarginCalculator.calculateIsolatedMargin(
+                position.getEntryPrice(), position.getQuantity(), position.getLeverage());
+            return MarginCalculator.calculateIsolatedLiquidationPrice(
+                position.getEntryPrice(),
+                position.getQuantity(),
+                position.getLeverage(),
+                isolatedMargin,
+                position.isLong()
+            );
+        }
+        return cross.contains(position.getId()) ? cross.getLiquidationPrice(position.getId()) : 0.0;
+    }
+    
+    private long loadLastCheckTime() {
+        return prefs().getLong(KEY_LAST_CHECK_TIME, 0);
+    }
+    
+    private void saveLastCheckTime(long time) {
+        prefs().edit().putLong(KEY_LAST_CHECK_TIME, time).apply();
+    }
+    
+    private SharedPreferences prefs() {
+        return getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+    
+    // ===== 반영 =====
+    
+    /**
+     * 평가 결과 반영 (DB 쓰기 + 알림)
+     */
+    private void apply(List<Action> actions) {
+        for (Action action : actions) {
+            Position position = action.position;
+            switch (action.type) {
+                case ACTIVATE:
+                    activatePosition(position);
+                    break;
+                case CLOSE:
+                    // TriggerEngine이 그사이 먼저 닫았으면 false (알림 생략)
+                    boolean closed = tradingRepository.closePositionSync(position.getId(), action.price,
+                        action.closeType, action.reason, action.closeTime != null ? action.closeTime : new Date());
+                    if (closed) {
+                        notifyClosed(action);
+                    }
+                    break;
+                case MARGIN_WARNING:
+                    notificationHelper.notifyMarginWarning(position, action.marginRatio);
+                    break;
+                case MARGIN_CRITICAL:
+                    notificationHelper.notifyMarginCritical(position, action.marginRatio, action.liquidationPrice);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+    
+    private void notifyClosed(Action action) {
+        switch (action.reason) {
+            case "TP_HIT":
+                notificationHelper.notifyTPReached(action.position);
+                break;
+            case "SL_HIT":
+                notificationHelper.notifySLReached(action.position);
+                break;
+            case "MARGIN_CALL_LIQUIDATION":
+                notificationHelper.notifyLiquidation(action.position, action.liquidationPrice);
+                break;
+            case "TIMEOUT":
+                notificationHelper.notifyTimeout(action.position);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * 포지션 활성화
+     * 스냅샷 이후 네트워크 요청 동안 사용자가 주문을 취소 / 수정했을 수 있으므로
+     * 스냅샷의 행을 다시 쓰지 않고, 아직 대기 중일 때만 체결하고 알린다.
+     */
+    private void activatePosition(Position position) {
+        Date openTime = new Date(); // 체결 시간
+        if (!tradingRepository.activatePositionSync(position.getId(), openTime)) {
+            Log.d(TAG, "Pending order " + position.getId() + " already filled or cancelled");
+            return;
+        }
         
-        return totalLoss;
+        position.setStatus("ACTIVE");
+        position.setOpenTime(openTime);
+        notificationHelper.notifyOrderFilled(position);
     }
     
     /**
@@ -407,70 +534,54 @@ public class TradingMonitorWorker extends Worker {
     }
     
     /**
-     * 모든 활성 포지션 종료
+     * 평가 결과 하나 (반영 단계에서 DB 쓰기 / 알림으로 바뀜)
      */
-    private void closeAllPositions(long userId, double currentPrice, String reason) {
-        List<Position> activePositions = tradingRepository.getActivePositionsSync(userId);
-        for (Position pos : activePositions) {
-            tradingRepository.closePositionSync(pos.getId(), currentPrice, TradeHistory.TradeType.CLOSE_SL, reason);
+    private static final class Action {
+        enum Type { ACTIVATE, CLOSE, MARGIN_WARNING, MARGIN_CRITICAL }
+        
+        final Type type;
+        final Position position;
+        double price;
+        TradeHistory.TradeType closeType;
+        String reason;
+        double marginRatio;
+        double liquidationPrice;
+        Date closeTime; // null이면 반영 시각
+        
+        private Action(Type type, Position position) {
+            this.type = type;
+            this.position = position;
         }
-    }
-    
-    /**
-     * 포지션 청산 (프롬프트 요구사항 반영)
-     */
-
-    
-    /**
-     * 심볼을 CoinGecko ID로 변환 (MainActivity와 동일한 매핑)
-     */
-    private String getCoinIdFromSymbol(String symbol) {
-        // Binance 심볼 -> CoinGecko ID 매핑
-        java.util.Map<String, String> symbolToCoinId = new java.util.HashMap<>();
-        symbolToCoinId.put("BTCUSDT", "bitcoin");
-        symbolToCoinId.put("ETHUSDT", "ethereum");
-        symbolToCoinId.put("ADAUSDT", "cardano");
-        symbolToCoinId.put("SOLUSDT", "solana");
-        symbolToCoinId.put("XRPUSDT", "ripple");
-        symbolToCoinId.put("DOTUSDT", "polkadot");
-        symbolToCoinId.put("DOGEUSDT", "dogecoin");
-        symbolToCoinId.put("AVAXUSDT", "avalanche-2");
         
-        String coinId = symbolToCoinId.get(symbol);
-        if (coinId != null) {
-            return coinId;
+        static Action activate(Position position) {
+            return new Action(Type.ACTIVATE, position);
         }
         
-        // 매핑에 없으면 기존 로직 사용
-        switch (symbol.toUpperCase()) {
-            case "BTC":
-            case "BITCOIN":
-                return "bitcoin";
-            case "ETH":
-            case "ETHEREUM":
-                return "ethereum";
-            case "ADA":
-            case "CARDANO":
-                return "cardano";
-            case "SOL":
-            case "SOLANA":
-                return "solana";
-            case "XRP":
-            case "RIPPLE":
-                return "ripple";
-            case "DOT":
-            case "POLKADOT":
-                return "polkadot";
-            case "DOGE":
-            case "DOGECOIN":
-                return "dogecoin";
-            case "AVAX":
-            case "AVALANCHE":
-                return "avalanche-2";
-            default:
-                Log.w(TAG, "Unknown symbol: " + symbol + ", using lowercase as coinId");
-                return symbol.toLowerCase();
+        static Action close(Position position, double price, TradeHistory.TradeType closeType, String reason) {
+            Action action = new Action(Type.CLOSE, position);
+            action.price = price;
+            action.closeType = closeType;
+            action.reason = reason;
+            return action;
+        }
+        
+        static Action liquidate(Position position, double price, double liquidationPrice) {
+            Action action = close(position, price, TradeHistory.TradeType.CLOSE_SL, "MARGIN_CALL_LIQUIDATION");
+            action.liquidationPrice = liquidationPrice;
+            return action;
+        }
+        
+        static Action marginWarning(Position position, double marginRatio) {
+            Action action = new Action(Type.MARGIN_WARNING, position);
+            action.marginRatio = marginRatio;
+            return action;
+        }
+        
+        static Action marginCritical(Position position, double marginRatio, double liquidationPrice) {
+            Action action = new Action(Type.MARGIN_CRITICAL, position);
+            action.marginRatio = marginRatio;
+            action.liquidationPrice = liquidationPrice;
+            return action;
         }
     }
 }
-
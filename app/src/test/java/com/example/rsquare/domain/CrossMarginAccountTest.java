@@ -0,0 +1,170 @@
+package com.example.rsquare.domain;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * CrossMarginAccount 단위 테스트
+ * 
+ * 한 심볼만 보유할 때 포지션마다 다른 포지션을 모두 더하던 기존 O(n^2) 계산과 결과를 비교한다.
+ */
+public class CrossMarginAccountTest {
+    
+    private static final String SYMBOL = "BTCUSDT";
+    
+    @Test
+    public void singleSymbol_matchesPairwiseLoop() {
+        Random random = new Random(42);
+        int n = 20;
+        boolean[] isLong = new boolean[n];
+        double[] quantity = new double[n];
+        double[] entry = new double[n];
+        int[] leverage = new int[n];
+        
+        double balance = 5000;
+        CrossMarginAccount account = new CrossMarginAccount(balance);
+        for (int i = 0; i < n; i++) {
+            isLong[i] = random.nextBoolean();
+            quantity[i] = 0.01 + random.nextDouble();
+            entry[i] = 90 + random.nextDouble() * 20;
+            leverage[i] = 2 + random.nextInt(20);
+            assertTrue(account.add(i, SYMBOL, isLong[i], quantity[i], entry[i], leverage[i]));
+        }
+        
+        for (double price : new double[] {80, 95.5, 100, 104.25, 120}) {
+            account.updatePrice(SYMBOL, price);
+            for (int i = 0; i < n; i++) {
+                double[] expected = pairwise(i, price, balance, isLong, quantity, entry, leverage, n);
+                assertEquals("ratio " + i + " @" + price, expected[0], account.getMarginRatio(i), 1e-6);
+                assertEquals("liq " + i + " @" + price, expected[1], account.getLiquidationPrice(i), 1e-6);
+            }
+        }
+    }
+    
+    @Test
+    public void singleSymbol_matchesPairwiseLoopAfterRemove() {
+        boolean[] isLong = {true, false, true, true};
+        double[] quantity = {1.0, 0.5, 2.0, 0.25};
+        double[] entry = {100, 105, 98, 110};
+        int[] leverage = {10, 5, 20, 3};
+        double balance = 1000;
+        
+        CrossMarginAccount account = new CrossMarginAccount(balance);
+        for (int i = 0; i < isLong.length; i++) {
+            account.add(i, SYMBOL, isLong[i], quantity[i], entry[i], leverage[i]);
+        }
+        account.updatePrice(SYMBOL, 97);
+        assertTrue(account.remove(1));
+        assertFalse(account.remove(1));
+        assertFalse(account.contains(1));
+        
+        // 남은 포지션 (0, 2, 3)만으로 다시 비교
+        boolean[] restLong = {true, true, true};
+        double[] restQuantity = {1.0, 2.0, 0.25};
+        double[] restEntry = {100, 98, 110};
+        int[] restLeverage = {10, 20, 3};
+        long[] ids = {0, 2, 3};
+        for (int i = 0; i < ids.length; i++) {
+            double[] expected = pairwise(i, 97, balance, restLong, restQuantity, restEntry, restLeverage, 3);
+            assertEquals(expected[0], account.getMarginRatio(ids[i]), 1e-6);
+            assertEquals(expected[1], account.getLiquidationPrice(ids[i]), 1e-6);
+        }
+    }
+    
+    @Test
+    public void add_ignoresDuplicateAndNullSymbol() {
+        CrossMarginAccount account = new CrossMarginAccount(1000);
+        assertTrue(account.add(1, SYMBOL, true, 1, 100, 10));
+        assertFalse(account.add(1, SYMBOL, false, 2, 100, 10));
+        assertFalse(account.add(2, null, true, 1, 100, 10));
+        assertEquals(1, account.size());
+    }
+    
+    @Test
+    public void updatePrice_unknownSymbol_returnsFalse() {
+        CrossMarginAccount account = new CrossMarginAccount(1000);
+        account.add(1, SYMBOL, true, 1, 100, 10);
+        assertFalse(account.updatePrice("ETHUSDT", 2000));
+        assertTrue(account.updatePrice(SYMBOL, 101));
+        assertEquals(1.0, account.getUnrealizedPnL(), 1e-9);
+    }
+    
+    @Test
+    public void takeLiquidations_cursorAcrossAddAndRemove() {
+        // 롱, 진입 100, 레버리지 10 -> 마진 = 10 * 수량
+        // 여유 자산 = 100 + 손익 - 사용 마진, 마진 <= -여유 자산이면 청산
+        CrossMarginAccount account = new CrossMarginAccount(100);
+        account.add(1, SYMBOL, true, 1, 100, 10); // 마진 10
+        account.add(2, SYMBOL, true, 2, 100, 10); // 마진 20
+        account.add(3, SYMBOL, true, 3, 100, 10); // 마진 30
+        
+        account.updatePrice(SYMBOL, 95); // 여유 = 100 - 30 - 60 = 10
+        assertArrayEquals(new long[0], account.takeLiquidations());
+        
+        account.updatePrice(SYMBOL, 91); // 여유 = -14
+        assertArrayEquals(new long[] {1}, account.takeLiquidations());
+        // 같은 포지션을 다시 넘기지 않음
+        assertArrayEquals(new long[0], account.takeLiquidations());
+        
+        account.updatePrice(SYMBOL, 89.5); // 여유 = -23
+        assertArrayEquals(new long[] {2}, account.takeLiquidations());
+        
+        // 커서 앞에 들어가는 작은 마진 포지션: 새 포지션만 넘기고 1, 2는 건너뜀
+        account.add(4, SYMBOL, true, 0.5, 100, 10); // 마진 5, 여유 = 100 - 68.25 - 65 = -33.25
+        assertArrayEquals(new long[] {4, 3}, account.takeLiquidations());
+        assertArrayEquals(new long[0], account.takeLiquidations());
+        
+        // 넘긴 포지션 제거 후 다시 추가하면 다시 대상
+        assertTrue(account.remove(1));
+        assertArrayEquals(new long[0], account.takeLiquidations());
+        account.add(1, SYMBOL, true, 1, 100, 10);
+        assertArrayEquals(new long[] {1}, account.takeLiquidations());
+    }
+    
+    @Test
+    public void takeLiquidations_removeBeforeCursorKeepsPending() {
+        CrossMarginAccount account = new CrossMarginAccount(100);
+        account.add(1, SYMBOL, true, 1, 100, 10); // 마진 10
+        account.add(2, SYMBOL, true, 2, 100, 10); // 마진 20
+        account.add(3, SYMBOL, true, 3, 100, 10); // 마진 30
+        
+        account.updatePrice(SYMBOL, 91); // 여유 = -14
+        assertArrayEquals(new long[] {1}, account.takeLiquidations());
+        
+        // 넘긴 포지션이 청산되어 빠지면 여유 자산: 100 + 5 * -9 - 50 = 5
+        account.remove(1);
+        assertArrayEquals(new long[0], account.takeLiquidations());
+        
+        account.updatePrice(SYMBOL, 85); // 여유 = 100 - 75 - 50 = -25
+        assertArrayEquals(new long[] {2}, account.takeLiquidations());
+    }
+    
+    /**
+     * 기존 워커의 교차 계산 (다른 포지션 손익 / 마진을 매번 모두 더함)
+     * @return {마진 비율, 청산가}
+     */
+    private static double[] pairwise(int index, double price, double balance, boolean[] isLong,
+                                     double[] quantity, double[] entry, int[] leverage, int n) {
+        double otherPnL = 0;
+        double otherMargin = 0;
+        for (int j = 0; j < n; j++) {
+            if (j == index) continue;
+            otherPnL += pnl(isLong[j], quantity[j], entry[j], price);
+            otherMargin += MarginCalculator.calculateUsedMargin(entry[j], quantity[j], leverage[j]);
+        }
+        double positionMargin = MarginCalculator.calculateUsedMargin(entry[index], quantity[index], leverage[index]);
+        double availableMargin = balance + otherPnL - otherMargin;
+        double marginRatio = MarginCalculator.calculateMarginRatio(
+            availableMargin + pnl(isLong[index], quantity[index], entry[index], price), positionMargin);
+        double pnlPerUnit = availableMargin / quantity[index];
+        double liquidationPrice = isLong[index] ? entry[index] - pnlPerUnit : entry[index] + pnlPerUnit;
+        return new double[] {marginRatio, liquidationPrice};
+    }
+    
+    private static double pnl(boolean isLong, double quantity, double entry, double price) {
+        return isLong ? (price - entry) * quantity : (entry - price) * quantity;
+    }
+}
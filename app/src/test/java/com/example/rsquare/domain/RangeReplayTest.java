@@ -0,0 +1,207 @@
+package com.example.rsquare.domain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * RangeReplay 단위 테스트
+ */
+public class RangeReplayTest {
+    
+    private static final double DELTA = 1e-9;
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000L;
+    
+    private static CandleSeries series(double[]... candles) {
+        CandleSeries series = new CandleSeries("BTCUSDT", "1m", candles.length);
+        for (int i = 0; i < candles.length; i++) {
+            double[] c = candles[i];
+            series.append(T0 + i * MINUTE, c[0], c[1], c[2], c[3], 1.0);
+        }
+        return series;
+    }
+    
+    private static double[] candle(double open, double high, double low, double close) {
+        return new double[] {open, high, low, close};
+    }
+    
+    private static void assertHit(RangeReplay.Hit hit, int kind, double price, long time) {
+        assertNotNull(hit);
+        assertEquals(kind, hit.getKind());
+        assertEquals(price, hit.getPrice(), DELTA);
+        assertEquals(time, hit.getTime());
+    }
+    
+    @Test
+    public void find_noLevelTouched_returnsNull() {
+        CandleSeries candles = series(
+            candle(100, 105, 95, 102),
+            candle(102, 108, 92, 97));
+        
+        assertNull(RangeReplay.find(candles, T0, true, 110, 90, 80));
+        assertNull(RangeReplay.find(candles, T0, false, 90, 110, 120));
+    }
+    
+    @Test
+    public void find_wickTouchesLevel_fillsAtTriggerPrice() {
+        CandleSeries candles = series(
+            candle(100, 104, 98, 101),
+            candle(101, 111, 100, 103));
+        
+        assertHit(RangeReplay.find(candles, T0, true, 110, 90, 0),
+            TriggerBook.KIND_TAKE_PROFIT, 110, T0 + MINUTE);
+    }
+    
+    @Test
+    public void find_gapOpenBeyondLevel_fillsAtOpen() {
+        // 롱: 시가가 TP 위에서 시작 -> TP를 시가에 체결
+        CandleSeries up = series(
+            candle(100, 104, 98, 103),
+            candle(112, 114, 111, 113));
+        assertHit(RangeReplay.find(up, T0, true, 110, 90, 0),
+            TriggerBook.KIND_TAKE_PROFIT, 112, T0 + MINUTE);
+        
+        // 롱: 시가가 SL 아래에서 시작 -> SL을 시가에 체결
+        CandleSeries down = series(
+            candle(100, 101, 95, 96),
+            candle(85, 88, 84, 87));
+        assertHit(RangeReplay.find(down, T0, true, 110, 90, 0),
+            TriggerBook.KIND_STOP_LOSS, 85, T0 + MINUTE);
+        
+        // 숏: 시가가 SL 위에서 시작 -> SL을 시가에 체결
+        assertHit(RangeReplay.find(up, T0, false, 90, 110, 0),
+            TriggerBook.KIND_STOP_LOSS, 112, T0 + MINUTE);
+    }
+    
+    @Test
+    public void find_candleStraddlingFromTime_ignored() {
+        // fromTime에 걸친 캔들의 고가 / 저가는 진입 전 가격일 수 있으므로 판정하지 않음
+        CandleSeries candles = series(candle(112, 113, 85, 109));
+        long fromTime = T0 + 30_000L;
+        
+        assertNull(RangeReplay.find(candles, fromTime, true, 110, 90, 0));
+        assertNull(RangeReplay.find(candles, fromTime, false, 90, 110, 0));
+    }
+    
+    @Test
+    public void find_candleOpeningAtFromTime_replayed() {
+        CandleSeries candles = series(
+            candle(100, 101, 98, 99),
+            candle(99, 100, 80, 95));
+        
+        assertHit(RangeReplay.find(candles, T0 + MINUTE, true, 110, 90, 0),
+            TriggerBook.KIND_STOP_LOSS, 90, T0 + MINUTE);
+    }
+    
+    @Test
+    public void find_bothSidesBullishCandle_lowFirst() {
+        CandleSeries candles = series(candle(100, 111, 89, 105));
+        
+        // 양봉은 저가 -> 고가: 롱은 SL, 숏은 TP가 먼저
+        assertHit(RangeReplay.find(candles, T0, true, 110, 90, 0),
+            TriggerBook.KIND_STOP_LOSS, 90, T0);
+        assertHit(RangeReplay.find(candles, T0, false, 90, 110, 0),
+            TriggerBook.KIND_TAKE_PROFIT, 90, T0);
+    }
+    
+    @Test
+    public void find_bothSidesBearishCandle_highFirst() {
+        CandleSeries candles = series(candle(100, 111, 89, 95));
+        
+        // 음봉은 고가 -> 저가: 롱은 TP, 숏은 SL이 먼저
+        assertHit(RangeReplay.find(candles, T0, true, 110, 90, 0),
+            TriggerBook.KIND_TAKE_PROFIT, 110, T0);
+        assertHit(RangeReplay.find(candles, T0, false, 90, 110, 0),
+            TriggerBook.KIND_STOP_LOSS, 110, T0);
+    }
+    
+    @Test
+    public void find_long_stopLossAboveLiquidation_stopLossFirst() {
+        CandleSeries candles = series(candle(100, 101, 80, 82));
+        
+        assertHit(RangeReplay.find(candles, T0, true, 0, 90, 85),
+            TriggerBook.KIND_STOP_LOSS, 90, T0);
+    }
+    
+    @Test
+    public void find_long_liquidationAboveStopLoss_liquidationFirst() {
+        CandleSeries candles = series(candle(100, 101, 79, 82));
+        
+        assertHit(RangeReplay.find(candles, T0, true, 0, 80, 85),
+            TriggerBook.KIND_LIQUIDATION, 85, T0);
+        // SL 없이 청산가만 있는 경우
+        assertHit(RangeReplay.find(candles, T0, true, 0, 0, 85),
+            TriggerBook.KIND_LIQUIDATION, 85, T0);
+    }
+    
+    @Test
+    public void find_long_stopLossEqualsLiquidation_stopLossWins() {
+        CandleSeries candles = series(candle(100, 101, 80, 82));
+        
+        assertHit(RangeReplay.find(candles, T0, true, 0, 85, 85),
+            TriggerBook.KIND_STOP_LOSS, 85, T0);
+    }
+    
+    @Test
+    public void find_short_stopLossBelowLiquidation_stopLossFirst() {
+        CandleSeries candles = series(candle(100, 120, 99, 118));
+        
+        assertHit(RangeReplay.find(candles, T0, false, 0, 110, 115),
+            TriggerBook.KIND_STOP_LOSS, 110, T0);
+    }
+    
+    @Test
+    public void find_short_liquidationBelowStopLoss_liquidationFirst() {
+        CandleSeries candles = series(candle(100, 121, 99, 118));
+        
+        assertHit(RangeReplay.find(candles, T0, false, 0, 120, 115),
+            TriggerBook.KIND_LIQUIDATION, 115, T0);
+        // SL 없이 청산가만 있는 경우
+        assertHit(RangeReplay.find(candles, T0, false, 0, 0, 115),
+            TriggerBook.KIND_LIQUIDATION, 115, T0);
+    }
+    
+    @Test
+    public void find_short_stopLossEqualsLiquidation_stopLossWins() {
+        CandleSeries candles = series(candle(100, 120, 99, 118));
+        
+        assertHit(RangeReplay.find(candles, T0, false, 0, 115, 115),
+            TriggerBook.KIND_STOP_LOSS, 115, T0);
+    }
+    
+    @Test
+    public void find_candleClosedBeforeFromTime_skipped() {
+        // 첫 캔들은 fromTime 이전에 끝났으므로 SL 터치를 무시
+        CandleSeries candles = series(
+            candle(100, 101, 80, 99),
+            candle(99, 102, 95, 100),
+            candle(100, 103, 97, 101));
+        
+        assertNull(RangeReplay.find(candles, T0 + MINUTE, true, 110, 90, 0));
+    }
+    
+    @Test
+    public void find_candleSpanningFromTime_replayFromNextCandle() {
+        // fromTime이 속한 캔들의 저가는 무시하고 다음 캔들부터 재생
+        CandleSeries candles = series(
+            candle(100, 101, 98, 99),
+            candle(99, 100, 80, 95),
+            candle(95, 96, 89, 95));
+        long fromTime = T0 + MINUTE + 20_000L;
+        
+        assertHit(RangeReplay.find(candles, fromTime, true, 110, 90, 0),
+            TriggerBook.KIND_STOP_LOSS, 90, T0 + 2 * MINUTE);
+    }
+    
+    @Test
+    public void find_severalCandles_firstHitWins() {
+        CandleSeries candles = series(
+            candle(100, 102, 98, 101),
+            candle(101, 111, 100, 109),
+            candle(109, 110, 85, 86));
+        
+        assertHit(RangeReplay.find(candles, T0, true, 110, 90, 0),
+            TriggerBook.KIND_TAKE_PROFIT, 110, T0 + MINUTE);
+    }
+}
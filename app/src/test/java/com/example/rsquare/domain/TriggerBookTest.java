@@ -0,0 +1,196 @@
+package com.example.rsquare.domain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TriggerBook 단위 테스트
+ */
+public class TriggerBookTest {
+    
+    private static final double DELTA = 1e-9;
+    
+    @Test
+    public void collect_noCross_returnsNull() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 110, true);
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, 90, true);
+        
+        assertNull(book.collect(100));
+        assertNull(book.collect(109.99));
+        assertNull(book.collect(90.01));
+        assertEquals(2, book.size());
+    }
+    
+    @Test
+    public void collect_severalCrossed_nearestFirst() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        // 롱 TP는 상향, 숏 SL도 상향 (삽입 순서와 무관하게 현재가에 가까운 것부터)
+        book.addExit(3, TriggerBook.KIND_TAKE_PROFIT, 103, true);
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 101, true);
+        book.addExit(2, TriggerBook.KIND_STOP_LOSS, 102, false);
+        book.addExit(4, TriggerBook.KIND_TAKE_PROFIT, 105, true);
+        
+        TriggerBook.Fired fired = book.collect(103.5);
+        
+        assertNotNull(fired);
+        assertEquals(103.5, fired.getPrice(), DELTA);
+        assertEquals(3, fired.size());
+        assertEquals(1, fired.getPositionId(0));
+        assertEquals(101, fired.getLevel(0), DELTA);
+        assertEquals(2, fired.getPositionId(1));
+        assertEquals(TriggerBook.KIND_STOP_LOSS, fired.getKind(1));
+        assertEquals(102, fired.getLevel(1), DELTA);
+        assertEquals(3, fired.getPositionId(2));
+        assertEquals(103, fired.getLevel(2), DELTA);
+        
+        // 넘지 않은 트리거는 남음
+        assertEquals(1, book.size());
+        assertNull(book.collect(104.9));
+        assertEquals(4, book.collect(105).getPositionId(0));
+    }
+    
+    @Test
+    public void collect_downwardCross_firesLongStopsAndShortTakeProfits() {
+        TriggerBook book = new TriggerBook("ETHUSDT");
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, 95, true);
+        book.addExit(2, TriggerBook.KIND_TAKE_PROFIT, 97, false);
+        book.addExit(3, TriggerBook.KIND_LIQUIDATION, 80, true);
+        
+        TriggerBook.Fired fired = book.collect(94);
+        
+        assertEquals(2, fired.size());
+        assertEquals(2, fired.getPositionId(0));
+        assertEquals(TriggerBook.KIND_TAKE_PROFIT, fired.getKind(0));
+        assertEquals(1, fired.getPositionId(1));
+        assertEquals(TriggerBook.KIND_STOP_LOSS, fired.getKind(1));
+        assertEquals(1, book.size());
+    }
+    
+    @Test
+    public void collect_removesOtherTriggersOfFiredPosition() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 110, true);
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, 90, true);
+        book.addExit(1, TriggerBook.KIND_LIQUIDATION, 80, true);
+        book.addExit(2, TriggerBook.KIND_STOP_LOSS, 85, true);
+        
+        TriggerBook.Fired fired = book.collect(111);
+        
+        assertEquals(1, fired.size());
+        assertEquals(1, fired.getPositionId(0));
+        assertEquals(TriggerBook.KIND_TAKE_PROFIT, fired.getKind(0));
+        // 포지션 1의 SL / 청산은 제거되고 포지션 2만 남음
+        assertEquals(1, book.size());
+        
+        TriggerBook.Fired next = book.collect(79);
+        assertEquals(1, next.size());
+        assertEquals(2, next.getPositionId(0));
+        assertTrue(book.isEmpty());
+    }
+    
+    @Test
+    public void addExit_ignoresNonPositiveLevel() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 0, true);
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, -1, true);
+        
+        assertTrue(book.isEmpty());
+        assertNull(book.collect(0.5));
+    }
+    
+    @Test
+    public void remove_dropsAllTriggersOfPosition() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 110, true);
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, 90, true);
+        book.addEntry(1, 100);
+        book.addExit(2, TriggerBook.KIND_TAKE_PROFIT, 120, true);
+        
+        assertEquals(3, book.remove(1));
+        assertEquals(1, book.size());
+        assertNull(book.collect(111));
+    }
+    
+    @Test
+    public void entry_withinToleranceOnFirstTick_firesImmediately() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addEntry(1, 100);
+        
+        TriggerBook.Fired fired = book.collect(100.05);
+        
+        assertEquals(1, fired.size());
+        assertEquals(TriggerBook.KIND_ENTRY, fired.getKind(0));
+        assertEquals(100, fired.getLevel(0), DELTA);
+        assertTrue(book.isEmpty());
+    }
+    
+    @Test
+    public void entry_abovePrice_armsUpwardOnFirstTick() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addEntry(1, 100);
+        
+        // 첫 틱에서 진입가가 위에 있으므로 상향 트리거로 (허용 오차만큼 낮춘 레벨)
+        assertNull(book.collect(90));
+        assertEquals(1, book.size());
+        assertNull(book.collect(99.8));
+        
+        TriggerBook.Fired fired = book.collect(99.95);
+        assertEquals(1, fired.size());
+        assertEquals(TriggerBook.KIND_ENTRY, fired.getKind(0));
+        assertEquals(100 * (1 - TriggerBook.ENTRY_TOLERANCE), fired.getLevel(0), DELTA);
+        assertTrue(book.isEmpty());
+    }
+    
+    @Test
+    public void entry_belowPrice_armsDownwardOnFirstTick() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addEntry(1, 100);
+        
+        assertNull(book.collect(110));
+        // 방향이 정해진 뒤에는 더 올라가도 발동하지 않음
+        assertNull(book.collect(150));
+        
+        TriggerBook.Fired fired = book.collect(100.05);
+        assertEquals(1, fired.size());
+        assertEquals(100 * (1 + TriggerBook.ENTRY_TOLERANCE), fired.getLevel(0), DELTA);
+    }
+    
+    @Test
+    public void dedupe_stopLossBeatsLiquidation() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, 95, true);
+        book.addExit(1, TriggerBook.KIND_LIQUIDATION, 94, true);
+        
+        TriggerBook.Fired fired = book.collect(90);
+        
+        assertEquals(1, fired.size());
+        assertEquals(TriggerBook.KIND_STOP_LOSS, fired.getKind(0));
+        assertEquals(95, fired.getLevel(0), DELTA);
+        assertTrue(book.isEmpty());
+    }
+    
+    @Test
+    public void dedupe_takeProfitBeatsStopLossAndLiquidation() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        // 잘못 설정된 롱 (TP가 SL보다 아래): 한 틱이 세 트리거를 모두 넘김
+        book.addExit(1, TriggerBook.KIND_LIQUIDATION, 96, true);
+        book.addExit(1, TriggerBook.KIND_STOP_LOSS, 95, true);
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 90, true);
+        
+        TriggerBook.Fired fired = book.collect(92);
+        
+        assertEquals(1, fired.size());
+        assertEquals(TriggerBook.KIND_TAKE_PROFIT, fired.getKind(0));
+        assertEquals(90, fired.getLevel(0), DELTA);
+        assertTrue(book.isEmpty());
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void fired_indexOutOfRange_throws() {
+        TriggerBook book = new TriggerBook("BTCUSDT");
+        book.addExit(1, TriggerBook.KIND_TAKE_PROFIT, 110, true);
+        book.collect(111).getPositionId(1);
+    }
+}
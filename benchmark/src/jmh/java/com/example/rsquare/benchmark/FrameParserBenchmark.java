@@ -0,0 +1,89 @@
+package com.example.rsquare.benchmark;
+
+import com.example.rsquare.data.remote.BinanceFrame;
+import com.example.rsquare.data.remote.BinanceFrameParser;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Binance WebSocket 프레임 파싱 벤치마크
+ * 기존 JSONObject 트리 경로와 단일 패스 파서를 ticker / kline 프레임에서 비교한다.
+ */
+@State(Scope.Thread)
+public class FrameParserBenchmark {
+    
+    private static final String TICKER_FRAME = "{\"stream\":\"btcusdt@ticker\",\"data\":{"
+        + "\"e\":\"24hrTicker\",\"E\":1672515782136,\"s\":\"BTCUSDT\",\"p\":\"-94.99999800\","
+        + "\"P\":\"-0.950\",\"w\":\"16550.29628482\",\"x\":\"16638.10000000\",\"c\":\"16543.21000000\","
+        + "\"Q\":\"0.01000000\",\"b\":\"16543.20000000\",\"B\":\"1.25000000\",\"a\":\"16543.21000000\","
+        + "\"A\":\"0.50000000\",\"o\":\"16638.21000000\",\"h\":\"16720.00000000\",\"l\":\"16400.10000000\","
+        + "\"v\":\"8913.30000000\",\"q\":\"147519012.15300000\",\"O\":1672429382136,"
+        + "\"C\":1672515782136,\"F\":2380000,\"L\":2398150,\"n\":18151}}";
+    
+    private static final String KLINE_FRAME = "{\"stream\":\"ethusdt@kline_1m\",\"data\":{"
+        + "\"e\":\"kline\",\"E\":1672515782136,\"s\":\"ETHUSDT\",\"k\":{\"t\":1672515720000,"
+        + "\"T\":1672515779999,\"s\":\"ETHUSDT\",\"i\":\"1m\",\"f\":100,\"L\":200,"
+        + "\"o\":\"1196.21000000\",\"c\":\"1196.85000000\",\"h\":\"1197.40000000\","
+        + "\"l\":\"1195.90000000\",\"v\":\"812.43210000\",\"n\":100,\"x\":true,"
+        + "\"q\":\"972345.12000000\",\"V\":\"400.10000000\",\"Q\":\"478812.33000000\",\"B\":\"0\"}}}";
+    
+    private final BinanceFrameParser parser = new BinanceFrameParser();
+    private final BinanceFrame frame = new BinanceFrame();
+    
+    @Benchmark
+    public void tickerParser(Blackhole blackhole) {
+        parser.parse(TICKER_FRAME, frame);
+        blackhole.consume(frame.getSymbol());
+        blackhole.consume(frame.getPrice());
+        blackhole.consume(frame.getChangePercent());
+    }
+    
+    @Benchmark
+    public void tickerJsonObject(Blackhole blackhole) throws Exception {
+        // 기존 WebSocketClient.handleMessage 경로
+        JSONObject json = new JSONObject(TICKER_FRAME);
+        JSONObject data = json.getJSONObject("data");
+        if (json.getString("stream").contains("@ticker")) {
+            blackhole.consume(data.getString("s"));
+            blackhole.consume(data.getDouble("c"));
+            blackhole.consume(data.optDouble("P", 0.0));
+        }
+    }
+    
+    @Benchmark
+    public void klineParser(Blackhole blackhole) {
+        parser.parse(KLINE_FRAME, frame);
+        if (frame.isKlineClosed()) {
+            blackhole.consume(frame.getSymbol());
+            blackhole.consume(frame.getOpenTime());
+            blackhole.consume(frame.getOpen());
+            blackhole.consume(frame.getHigh());
+            blackhole.consume(frame.getLow());
+            blackhole.consume(frame.getClose());
+            blackhole.consume(frame.getVolume());
+        }
+    }
+    
+    @Benchmark
+    public void klineJsonObject(Blackhole blackhole) throws Exception {
+        // 기존 WebSocketClient.handleMessage 경로
+        JSONObject json = new JSONObject(KLINE_FRAME);
+        JSONObject data = json.getJSONObject("data");
+        if (json.getString("stream").contains("@kline") && data.has("k")) {
+            JSONObject kline = data.getJSONObject("k");
+            if (kline.getBoolean("x")) {
+                blackhole.consume(kline.getString("s"));
+                blackhole.consume(kline.getLong("t"));
+                blackhole.consume(kline.getDouble("o"));
+                blackhole.consume(kline.getDouble("h"));
+                blackhole.consume(kline.getDouble("l"));
+                blackhole.consume(kline.getDouble("c"));
+                blackhole.consume(kline.getDouble("v"));
+            }
+        }
+    }
+}
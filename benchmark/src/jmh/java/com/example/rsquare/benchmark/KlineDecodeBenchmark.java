@@ -0,0 +1,117 @@
+package com.example.rsquare.benchmark;
+
+import com.example.rsquare.data.remote.KlineBatchAdapter;
+import com.example.rsquare.data.remote.model.KlineBatch;
+import com.example.rsquare.domain.CandleSeries;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Binance klines REST 응답 디코딩 벤치마크
+ * 기존 List<List<Object>> 경로(Gson 기본 디코딩 + 행별 변환)와 KlineBatchAdapter 스트리밍 경로를
+ * 실제 응답과 같은 형식(12필드, 가격 / 거래량은 소수 8자리 문자열)의 본문에서 비교한다.
+ */
+@State(Scope.Benchmark)
+public class KlineDecodeBenchmark {
+    
+    private static final Type KLINE_ROWS = new TypeToken<List<List<Object>>>() {}.getType();
+    private static final long HOUR = 60 * 60 * 1000L;
+    
+    @Param({"100", "1000"})
+    public int candles;
+    
+    private final Gson gson = new GsonBuilder()
+        .setLenient()
+        .create();
+    private final Gson streamingGson = new GsonBuilder()
+        .setLenient()
+        .registerTypeAdapter(KlineBatch.class, new KlineBatchAdapter())
+        .create();
+    
+    private String body;
+    
+    @Setup
+    public void setUp() {
+        body = klinesResponse(candles, 42L);
+    }
+    
+    @Benchmark
+    public CandleSeries objectList() {
+        // 기존 getKlines(Call<List<List<Object>>>) + toCandleSeries 경로
+        List<List<Object>> rows = gson.fromJson(body, KLINE_ROWS);
+        CandleSeries series = new CandleSeries("BTCUSDT", "1h", rows.size());
+        for (List<Object> row : rows) {
+            if (row == null || row.size() < 6) continue;
+            series.append(
+                ((Number) row.get(0)).longValue(),
+                Double.parseDouble(row.get(1).toString()),
+                Double.parseDouble(row.get(2).toString()),
+                Double.parseDouble(row.get(3).toString()),
+                Double.parseDouble(row.get(4).toString()),
+                Double.parseDouble(row.get(5).toString()));
+        }
+        return series;
+    }
+    
+    @Benchmark
+    public KlineBatch streamingDecode() {
+        return streamingGson.fromJson(body, KlineBatch.class);
+    }
+    
+    @Benchmark
+    public CandleSeries streamingSeries() {
+        return streamingGson.fromJson(body, KlineBatch.class).toSeries("BTCUSDT", "1h");
+    }
+    
+    /**
+     * GET /api/v3/klines?symbol=BTCUSDT&interval=1h 응답 본문 재현 (랜덤 워크 가격)
+     */
+    static String klinesResponse(int count, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(count * 200);
+        long openTime = 1672531200000L; // 2023-01-01 00:00 UTC
+        double price = 16541.77;
+        sb.append('[');
+        for (int i = 0; i < count; i++) {
+            double open = price;
+            double close = open * (1 + random.nextGaussian() * 0.004);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.002);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.002);
+            double volume = 500 + random.nextDouble() * 5000;
+            double takerVolume = volume * random.nextDouble();
+            double vwap = (high + low + close) / 3;
+            if (i > 0) sb.append(',');
+            sb.append('[').append(openTime)
+                .append(",\"").append(decimal(open))
+                .append("\",\"").append(decimal(high))
+                .append("\",\"").append(decimal(low))
+                .append("\",\"").append(decimal(close))
+                .append("\",\"").append(decimal(volume))
+                .append("\",").append(openTime + HOUR - 1)
+                .append(",\"").append(decimal(volume * vwap))
+                .append("\",").append(20000 + random.nextInt(180000))
+                .append(",\"").append(decimal(takerVolume))
+                .append("\",\"").append(decimal(takerVolume * vwap))
+                .append("\",\"0\"]");
+            openTime += HOUR;
+            price = close;
+        }
+        return sb.append(']').toString();
+    }
+    
+    private static String decimal(double value) {
+        return String.format(Locale.US, "%.8f", value);
+    }
+}
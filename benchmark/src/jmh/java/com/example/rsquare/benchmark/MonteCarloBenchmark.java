@@ -0,0 +1,87 @@
+package com.example.rsquare.benchmark;
+
+import com.example.rsquare.domain.MonteCarloSimulator;
+import com.example.rsquare.domain.SimulationResult;
+import com.example.rsquare.domain.SizingPolicy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monte Carlo 엔진 벤치마크
+ * 샘플링(직렬 / 병렬), 해석적 계산, 잔고 비율 사이징, 거래 이력 bootstrap을 비교한다.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MonteCarloBenchmark {
+    
+    private static final double RISK_REWARD = 2.0;
+    private static final double WIN_RATE = 0.45;
+    private static final double TRADE_AMOUNT = 1000.0;
+    private static final int NUMBER_OF_TRADES = 100;
+    
+    @Param({"1000", "10000", "100000"})
+    public int iterations;
+    
+    private MonteCarloSimulator serial;
+    private MonteCarloSimulator parallel;
+    private MonteCarloSimulator analytic;
+    
+    /**
+     * bootstrap 표본 (거래 이력 크기별)
+     */
+    @State(Scope.Benchmark)
+    public static class History {
+        @Param({"10", "1000", "100000"})
+        public int historySize;
+        
+        double[] rMultiples;
+        
+        @Setup
+        public void setUp() {
+            rMultiples = Portfolios.rMultiples(Portfolios.closedPositions(historySize));
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        serial = new MonteCarloSimulator(42L, false);
+        serial.setAnalyticFastPath(false);
+        parallel = new MonteCarloSimulator(42L, true);
+        parallel.setAnalyticFastPath(false);
+        analytic = new MonteCarloSimulator(42L, true);
+    }
+    
+    @Benchmark
+    public SimulationResult sampledSerial() {
+        return serial.simulate(RISK_REWARD, WIN_RATE, TRADE_AMOUNT, NUMBER_OF_TRADES, iterations);
+    }
+    
+    @Benchmark
+    public SimulationResult sampledParallel() {
+        return parallel.simulate(RISK_REWARD, WIN_RATE, TRADE_AMOUNT, NUMBER_OF_TRADES, iterations);
+    }
+    
+    @Benchmark
+    public SimulationResult exact() {
+        return analytic.simulate(RISK_REWARD, WIN_RATE, TRADE_AMOUNT, NUMBER_OF_TRADES, iterations);
+    }
+    
+    @Benchmark
+    public SimulationResult percentOfEquity() {
+        return parallel.simulate(RISK_REWARD, WIN_RATE, SizingPolicy.percentOfEquity(2.0),
+            NUMBER_OF_TRADES, iterations);
+    }
+    
+    @Benchmark
+    public SimulationResult bootstrap(History history) {
+        return parallel.simulateBootstrap(history.rMultiples, SizingPolicy.fixedAmount(TRADE_AMOUNT),
+            NUMBER_OF_TRADES, iterations, MonteCarloSimulator.defaultBlockLength(history.historySize));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.rsquare.benchmark;
+
+import com.example.rsquare.data.local.entity.Journal;
+import com.example.rsquare.data.local.entity.Position;
+import com.example.rsquare.domain.BehaviorAnalyzer;
+import com.example.rsquare.domain.BehaviorPattern;
+import com.example.rsquare.domain.MarginCalculator;
+import com.example.rsquare.domain.RiskCalculator;
+import com.example.rsquare.domain.RiskMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * 포트폴리오 크기별 분석 경로 벤치마크
+ * 리스크 점수, Cross 청산가, 행동 패턴 분석을 10 ~ 100k 포지션에서 측정한다.
+ */
+@State(Scope.Benchmark)
+public class PortfolioBenchmark {
+    
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int positionCount;
+    
+    private List<Position> closedPositions;
+    private List<Journal> journals;
+    private List<Position> openPositions;
+    private Position target;
+    
+    @Setup
+    public void setUp() {
+        closedPositions = Portfolios.closedPositions(positionCount);
+        journals = Portfolios.journals(closedPositions);
+        openPositions = Portfolios.openFuturesPositions(positionCount);
+        target = openPositions.get(0);
+    }
+    
+    @Benchmark
+    public RiskMetrics riskScore() {
+        return RiskCalculator.calculateRiskScore(closedPositions);
+    }
+    
+    @Benchmark
+    public double crossLiquidationPrice() {
+        return MarginCalculator.calculateCrossLiquidationPrice(
+            target, openPositions, 100000.0, target.getEntryPrice());
+    }
+    
+    @Benchmark
+    public List<BehaviorPattern> behaviorPatterns() {
+        return BehaviorAnalyzer.analyzeAllPatterns(closedPositions, journals);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.rsquare.benchmark;
+
+import com.example.rsquare.data.local.entity.Journal;
+import com.example.rsquare.data.local.entity.Position;
+import com.example.rsquare.util.TestDataGenerator;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 벤치마크용 합성 포트폴리오
+ * TestDataGenerator로 만든 포지션에 id, 시간 순서, 위험 금액, 선물 설정을 채운다.
+ */
+final class Portfolios {
+    
+    private static final long USER_ID = 1;
+    private static final long TRADE_INTERVAL_MS = 10 * 60 * 1000; // 10분 간격
+    
+    private Portfolios() {
+    }
+    
+    /**
+     * 종료된 포지션 (오래된 순)
+     */
+    static List<Position> closedPositions(int count) {
+        List<Position> positions = TestDataGenerator.createTestPositions(USER_ID, count, true);
+        long start = System.currentTimeMillis() - count * TRADE_INTERVAL_MS;
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            position.setId(i + 1);
+            position.setOpenTime(new Date(start + i * TRADE_INTERVAL_MS));
+            position.setCloseTime(new Date(start + i * TRADE_INTERVAL_MS + TRADE_INTERVAL_MS / 2));
+            position.setRiskAmount(500.0);
+        }
+        return positions;
+    }
+    
+    /**
+     * 활성 선물 포지션 (Cross 마진)
+     */
+    static List<Position> openFuturesPositions(int count) {
+        List<Position> positions = TestDataGenerator.createTestPositions(USER_ID, count, false);
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            position.setId(i + 1);
+            position.setTradeType("FUTURES");
+            position.setMarginMode("CROSS");
+            position.setLeverage(1 + i % 20);
+        }
+        return positions;
+    }
+    
+    /**
+     * 포지션별 저널
+     */
+    static List<Journal> journals(List<Position> positions) {
+        List<Journal> journals = new ArrayList<>(positions.size());
+        for (Position position : positions) {
+            Journal journal = TestDataGenerator.createRandomJournal(position.getId());
+            journal.setTimestamp(position.getOpenTime());
+            journals.add(journal);
+        }
+        return journals;
+    }
+    
+    /**
+     * 종료된 포지션의 R 배수 (pnl / riskAmount)
+     */
+    static double[] rMultiples(List<Position> positions) {
+        double[] values = new double[positions.size()];
+        for (int i = 0; i < values.length; i++) {
+            Position position = positions.get(i);
+            values[i] = position.getPnl() / position.getRiskAmount();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.rsquare.benchmark;
+
+import com.example.rsquare.data.local.entity.UserSettings;
+import com.example.rsquare.domain.TradeValidator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 주문 전 검증 벤치마크 (주문 입력마다 호출되는 경로)
+ */
+@State(Scope.Benchmark)
+public class TradeValidatorBenchmark {
+    
+    private UserSettings settings;
+    
+    @Setup
+    public void setUp() {
+        settings = new UserSettings();
+        settings.setTradeMode("FUTURES");
+    }
+    
+    @Benchmark
+    public TradeValidator.ValidationResult validLong() {
+        return TradeValidator.validateTrade(50000.0, 52000.0, 49000.0,
+            500.0, 10, true, settings, 1, 100000.0, 0.0);
+    }
+    
+    @Benchmark
+    public TradeValidator.ValidationResult invalidShort() {
+        // 모든 규칙 위반 (오류 메시지 생성 경로)
+        return TradeValidator.validateTrade(50000.0, 50010.0, 49990.0,
+            90000.0, 20, false, settings, 10, 1000.0, 500.0);
+    }
+}